@@ -0,0 +1,54 @@
+#!/bin/bash
+
+# Startup Benchmark Script
+# Measures time-to-first-redirect of the app container: from `docker compose start app`
+# until GET /{alias} answers 302.
+# Usage: ./scripts/startup-benchmark.sh [runs]
+
+set -e
+
+RUNS=${1:-5}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+ALIAS="startup-bench"
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+wait_for_redirect() {
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/$ALIAS")" = "302" ]; do
+        sleep 0.05
+    done
+}
+
+echo "🚀 AIT URL Shortener - Startup Benchmark"
+echo "========================================="
+
+docker compose up -d --build
+
+# Create the benchmark link once (400 means it already exists)
+until [[ "$(curl -s -o /dev/null -w '%{http_code}' -X POST "$BASE_URL/api/shorten" \
+        -H "Content-Type: application/json" \
+        -d "{\"longUrl\":\"https://example.com\",\"customAlias\":\"$ALIAS\"}")" =~ ^(200|400)$ ]]; do
+    sleep 0.5
+done
+wait_for_redirect
+
+TIMES=()
+for i in $(seq 1 "$RUNS"); do
+    docker compose stop app > /dev/null
+    START=$(now_ms)
+    docker compose start app > /dev/null
+    wait_for_redirect
+    END=$(now_ms)
+    ELAPSED=$((END - START))
+    TIMES+=("$ELAPSED")
+    echo "Run $i: ${ELAPSED} ms"
+done
+
+SORTED=($(printf '%s\n' "${TIMES[@]}" | sort -n))
+echo ""
+echo "Time to first redirect over $RUNS runs:"
+echo "  min:    ${SORTED[0]} ms"
+echo "  median: ${SORTED[$((RUNS / 2))]} ms"
+echo "  max:    ${SORTED[$((RUNS - 1))]} ms"
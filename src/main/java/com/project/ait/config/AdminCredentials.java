@@ -0,0 +1,36 @@
+package com.project.ait.config;
+
+import com.project.ait.service.ApiKeyStore;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * The operator credential ({@code app.admin.key}), sent in the X-Admin-Key header. It is required
+ * for /api/admin/** and may manage any link. Without a configured key no request is an admin
+ * request. Keys are compared by their SHA-256 in constant time.
+ */
+@Component
+public class AdminCredentials {
+    public static final String HEADER = "X-Admin-Key";
+
+    private final byte[] keyHash;
+
+    public AdminCredentials(@Value("${app.admin.key:}") String key) {
+        this.keyHash = key == null || key.isBlank() ? null : digest(key);
+    }
+
+    /** Whether {@code request} carries the admin key. */
+    public boolean isAdmin(HttpServletRequest request) {
+        String presented = request.getHeader(HEADER);
+        if (keyHash == null || presented == null || presented.isBlank()) return false;
+        return MessageDigest.isEqual(keyHash, digest(presented));
+    }
+
+    private static byte[] digest(String key) {
+        return ApiKeyStore.hash(key).getBytes(StandardCharsets.US_ASCII);
+    }
+}
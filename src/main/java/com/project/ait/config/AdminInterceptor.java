@@ -0,0 +1,29 @@
+package com.project.ait.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lets /api/admin/** requests through only with the admin key (see {@link AdminCredentials}).
+ * Without a configured key every admin request is rejected.
+ */
+@Component
+public class AdminInterceptor implements HandlerInterceptor {
+    private final AdminCredentials adminCredentials;
+
+    public AdminInterceptor(AdminCredentials adminCredentials) {
+        this.adminCredentials = adminCredentials;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (adminCredentials.isAdmin(request)) return true;
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"Missing or invalid admin key\"}");
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.ait.config;
+
+import com.project.ait.entity.ApiKey;
+import com.project.ait.service.ApiKeyQuotas;
+import com.project.ait.service.ApiKeyStore;
+import com.project.ait.service.ApiKeyUsageMeter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Authenticates /api/** requests by their X-API-Key header and applies the key's quotas, all from
+ * memory (see {@link ApiKeyStore} and {@link ApiKeyQuotas}). Does nothing unless
+ * {@code app.api-keys.enabled} is set. Authenticated requests skip the per-IP rate limit.
+ */
+@Component
+public class ApiKeyInterceptor implements HandlerInterceptor {
+    public static final String HEADER = "X-API-Key";
+    public static final String API_KEY_ATTRIBUTE = ApiKeyInterceptor.class.getName() + ".key";
+    private static final String LINK_TAKEN_ATTRIBUTE = ApiKeyInterceptor.class.getName() + ".link";
+
+    private final ApiKeyStore apiKeyStore;
+    private final ApiKeyQuotas apiKeyQuotas;
+    private final ApiKeyUsageMeter apiKeyUsageMeter;
+
+    public ApiKeyInterceptor(ApiKeyStore apiKeyStore, ApiKeyQuotas apiKeyQuotas, ApiKeyUsageMeter apiKeyUsageMeter) {
+        this.apiKeyStore = apiKeyStore;
+        this.apiKeyQuotas = apiKeyQuotas;
+        this.apiKeyUsageMeter = apiKeyUsageMeter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!apiKeyStore.isEnabled()) return true;
+        String rawKey = request.getHeader(HEADER);
+        if (rawKey == null && apiKeyStore.allowsAnonymous()) return true;
+
+        ApiKey key = apiKeyStore.find(rawKey);
+        if (key == null) {
+            return reject(response, HttpStatus.UNAUTHORIZED, 0, "Missing or invalid API key");
+        }
+        if (!apiKeyQuotas.tryRequest(key)) {
+            return reject(response, HttpStatus.TOO_MANY_REQUESTS, 1, "Request rate limit exceeded for this API key");
+        }
+        if (isLinkCreation(request)) {
+            if (!apiKeyQuotas.tryLink(key)) {
+                long retryAfter = Math.max(1, apiKeyQuotas.untilReset().toSeconds());
+                return reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Daily link quota exceeded for this API key");
+            }
+            request.setAttribute(LINK_TAKEN_ATTRIBUTE, Boolean.TRUE);
+            long remaining = apiKeyQuotas.linksRemaining(key);
+            if (remaining >= 0) {
+                response.setHeader("X-Quota-Links-Limit", String.valueOf(key.getLinksPerDay()));
+                response.setHeader("X-Quota-Links-Remaining", String.valueOf(remaining));
+            }
+        }
+        apiKeyUsageMeter.recordRequest(key);
+        request.setAttribute(API_KEY_ATTRIBUTE, key);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(LINK_TAKEN_ATTRIBUTE) == null) return;
+        ApiKey key = (ApiKey) request.getAttribute(API_KEY_ATTRIBUTE);
+        // Only links that were actually created count against the quota
+        if (ex == null && response.getStatus() < 300) {
+            apiKeyUsageMeter.recordLink(key);
+        } else {
+            apiKeyQuotas.refundLink(key);
+        }
+    }
+
+    private static boolean isLinkCreation(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && "/api/shorten".equals(request.getRequestURI());
+    }
+
+    private static boolean reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(status.value());
+        if (retryAfterSeconds > 0) response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+        return false;
+    }
+}
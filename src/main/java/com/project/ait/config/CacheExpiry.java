@@ -0,0 +1,23 @@
+package com.project.ait.config;
+
+import java.time.Duration;
+
+/**
+ * When a cached value stops being worth serving, e.g. the expiry of the link it holds. Caches cap
+ * their TTL at this instant and do not store values that are already past it.
+ */
+@FunctionalInterface
+public interface CacheExpiry {
+    CacheExpiry NONE = value -> Long.MAX_VALUE;
+
+    /** Epoch millis at which {@code value} expires, or {@link Long#MAX_VALUE} if it does not. */
+    long expiresAtMillis(Object value);
+
+    /** {@code defaultTtl}, shortened to the time left until the value expires (at least 1 ms). */
+    default Duration ttl(Object value, Duration defaultTtl, long nowMillis) {
+        long expiresAt = value == null ? Long.MAX_VALUE : expiresAtMillis(value);
+        if (expiresAt == Long.MAX_VALUE || expiresAt - nowMillis >= defaultTtl.toMillis()) return defaultTtl;
+        // A zero TTL would make Redis keep the entry forever
+        return Duration.ofMillis(Math.max(1, expiresAt - nowMillis));
+    }
+}
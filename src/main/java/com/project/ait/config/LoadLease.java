@@ -0,0 +1,22 @@
+package com.project.ait.config;
+
+/**
+ * Cluster-wide permission to load a cache key from the database, so only one node reloads a hot
+ * key at a time.
+ */
+public interface LoadLease {
+    LoadLease NONE = new LoadLease() {
+        @Override
+        public boolean tryAcquire(Object key) {
+            return true;
+        }
+
+        @Override
+        public void release(Object key) { }
+    };
+
+    /** True if this node may load {@code key} now; false if another node holds the lease. */
+    boolean tryAcquire(Object key);
+
+    void release(Object key);
+}
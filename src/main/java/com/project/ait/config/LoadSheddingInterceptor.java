@@ -0,0 +1,85 @@
+package com.project.ait.config;
+
+import com.project.ait.util.ConcurrencyLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Sheds load before it reaches the controllers ({@code app.load-shedding.*}). Every request takes
+ * a permit from an adaptive {@link ConcurrencyLimiter}; when none is left for its priority class it
+ * is answered with {@code 503} and {@code Retry-After} at once instead of waiting for a thread or a
+ * database connection.
+ *
+ * Redirects may use the whole limit, other API calls {@code api-share} of it and analytics and
+ * admin calls {@code analytics-share}, so those are shed first. The limit adapts to the latency of
+ * redirects and API calls only; analytics scans are slow by nature and would drag it down.
+ * Streaming responses keep their permit until the stream completes.
+ */
+@Component
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+    enum Priority { REDIRECT, API, ANALYTICS }
+
+    private static final String STARTED_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".started";
+
+    private final boolean enabled;
+    private final ConcurrencyLimiter limiter;
+    private final int retryAfterSeconds;
+
+    public LoadSheddingInterceptor(@Value("${app.load-shedding.enabled:true}") boolean enabled,
+                                   @Value("${app.load-shedding.initial-limit:100}") int initialLimit,
+                                   @Value("${app.load-shedding.min-limit:10}") int minLimit,
+                                   @Value("${app.load-shedding.max-limit:1000}") int maxLimit,
+                                   @Value("${app.load-shedding.latency-tolerance:1.5}") double tolerance,
+                                   @Value("${app.load-shedding.baseline-window:600}") int baselineWindow,
+                                   @Value("${app.load-shedding.api-share:0.75}") double apiShare,
+                                   @Value("${app.load-shedding.analytics-share:0.5}") double analyticsShare,
+                                   @Value("${app.load-shedding.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.enabled = enabled;
+        this.limiter = new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, baselineWindow, 1.0, apiShare, analyticsShare);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    static Priority priorityOf(String uri) {
+        if (uri.startsWith("/api/analytics/") || uri.startsWith("/api/admin/")) return Priority.ANALYTICS;
+        if (uri.startsWith("/api/")) return Priority.API;
+        return Priority.REDIRECT;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // An async dispatch of a streaming response still holds the permit of its first dispatch
+        if (!enabled || request.getAttribute(STARTED_ATTRIBUTE) != null) return true;
+        Priority priority = priorityOf(request.getRequestURI());
+        if (!limiter.tryAcquire(priority.ordinal())) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Server overloaded. Try again in " + retryAfterSeconds + " seconds.\"}");
+            return false;
+        }
+        request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    // Not called after the first dispatch of an async request; the async dispatch releases its permit
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object started = request.getAttribute(STARTED_ATTRIBUTE);
+        if (started == null) return;
+        request.removeAttribute(STARTED_ATTRIBUTE);
+        if (ex == null && priorityOf(request.getRequestURI()) != Priority.ANALYTICS) {
+            limiter.release(System.nanoTime() - (Long) started);
+        } else {
+            limiter.release();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.ait.config;
 
+import com.project.ait.util.CircuitBreaker;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,15 +17,21 @@ import java.util.concurrent.TimeUnit;
 public class RateLimitInterceptor implements HandlerInterceptor {
 
     private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
     private final int windowSeconds;
     private final int maxRequests;
+    private final boolean trustForwardedHeaders;
 
     public RateLimitInterceptor(StringRedisTemplate redisTemplate,
+                               CircuitBreaker redisCircuitBreaker,
                                @Value("${app.rate-limit.window-seconds}") int windowSeconds,
-                               @Value("${app.rate-limit.max-requests}") int maxRequests) {
+                               @Value("${app.rate-limit.max-requests}") int maxRequests,
+                               @Value("${app.rate-limit.trust-forwarded-headers:false}") boolean trustForwardedHeaders) {
         this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
         this.windowSeconds = windowSeconds;
         this.maxRequests = maxRequests;
+        this.trustForwardedHeaders = trustForwardedHeaders;
     }
 
     @Override
@@ -34,12 +41,22 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         if (!requestURI.startsWith("/api/")) {
             return true; // Skip rate limiting for non-API requests
         }
+        // Callers with an API key are held to that key's quotas instead
+        if (request.getAttribute(ApiKeyInterceptor.API_KEY_ATTRIBUTE) != null) {
+            return true;
+        }
 
         String clientIp = getClientIp(request);
         String key = "rate_limit:" + clientIp;
 
+        // While Redis is known to be unhealthy, fail open without waiting for its timeout
+        if (!redisCircuitBreaker.allowRequest()) {
+            return true;
+        }
+
         try {
             String currentCountStr = redisTemplate.opsForValue().get(key);
+            redisCircuitBreaker.onSuccess();
             int currentCount = currentCountStr != null ? Integer.parseInt(currentCountStr) : 0;
 
             if (currentCount >= maxRequests) {
@@ -66,11 +83,17 @@ public class RateLimitInterceptor implements HandlerInterceptor {
 
         } catch (Exception e) {
             // If Redis is down, allow the request (fail-open approach)
+            redisCircuitBreaker.onFailure();
             return true;
         }
     }
 
     private String getClientIp(HttpServletRequest request) {
+        // Only meaningful behind a proxy that overwrites these headers; otherwise clients pick their own key
+        if (!trustForwardedHeaders) {
+            return request.getRemoteAddr();
+        }
+
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
             return xForwardedFor.split(",")[0].trim();
@@ -0,0 +1,70 @@
+package com.project.ait.config;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link RemoteBulk} for a {@link RedisCache}: one {@code MGET} for reads and one pipeline of
+ * {@code SET ... PX} for writes. Keys and values are encoded with the cache's own configuration
+ * (key prefix, serializers, per-entry TTL), so entries are interchangeable with the ones
+ * {@link RedisCache} reads and writes itself.
+ */
+public class RedisCacheBulk implements RemoteBulk {
+    private final RedisCache cache;
+    private final RedisCacheConfiguration config;
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheBulk(RedisCache cache, StringRedisTemplate redisTemplate) {
+        this.cache = cache;
+        this.config = cache.getCacheConfiguration();
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        List<Object> ordered = new ArrayList<>(keys);
+        byte[][] rawKeys = ordered.stream().map(this::rawKey).toArray(byte[][]::new);
+        List<byte[]> rawValues = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        Map<Object, Object> found = new LinkedHashMap<>();
+        if (rawValues == null) return found;
+        for (int i = 0; i < ordered.size(); i++) {
+            byte[] raw = rawValues.get(i);
+            if (raw == null) continue;
+            Object value = config.getValueSerializationPair().read(ByteBuffer.wrap(raw));
+            if (value != null) found.put(ordered.get(i), value);
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((key, value) -> {
+                Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+                connection.stringCommands().set(rawKey(key), ByteUtils.getBytes(config.getValueSerializationPair().write(value)),
+                        expiration, RedisStringCommands.SetOption.upsert());
+            });
+            return null;
+        });
+    }
+
+    private byte[] rawKey(Object key) {
+        String name = config.getConversionService().convert(key, String.class);
+        String prefixed = config.usePrefix() ? config.getKeyPrefixFor(cache.getName()) + name : name;
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(prefixed));
+    }
+}
@@ -1,8 +1,92 @@
 package com.project.ait.config;
 
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.util.CircuitBreaker;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableCaching
-public class RedisConfig { }
\ No newline at end of file
+public class RedisConfig {
+
+    /** Alias cache entries expire with the link they hold. */
+    static final CacheExpiry MAPPING_EXPIRY = value -> value instanceof UrlMapping m && m.getExpiresAt() != null
+            ? m.getExpiresAt().toEpochMilli()
+            : Long.MAX_VALUE;
+
+    /** Shared by every latency-sensitive Redis caller (alias cache, rate limiter). */
+    @Bean
+    public CircuitBreaker redisCircuitBreaker(@Value("${app.redis.breaker.failure-threshold:5}") int failureThreshold,
+                                              @Value("${app.redis.breaker.open-ms:10000}") long openMillis,
+                                              @Value("${app.redis.breaker.slow-call-ms:200}") long slowCallMillis) {
+        return new CircuitBreaker(failureThreshold, openMillis, slowCallMillis);
+    }
+
+    /**
+     * Gives each Redis alias entry a TTL of min(default TTL, time until the link expires). The
+     * other Redis cache settings keep their Spring Boot defaults.
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer aliasCacheTtl(Environment environment) {
+        Duration defaultTtl = DurationStyle.detectAndParse(environment.getProperty("spring.cache.redis.time-to-live", "600000"));
+        return builder -> builder.withCacheConfiguration("alias", RedisCacheConfiguration.defaultCacheConfig(RedisConfig.class.getClassLoader())
+                .entryTtl((key, value) -> MAPPING_EXPIRY.ttl(value, defaultTtl, System.currentTimeMillis()))
+                .disableCachingNullValues());
+    }
+
+    /**
+     * Serves the "alias" cache through a {@link TieredCache} whenever Redis caching is enabled.
+     * Other cache types (e.g. "none" in tests) are left untouched. With {@code app.cache.lease.enabled}
+     * a Redis lease additionally coalesces reloads of the same alias across nodes.
+     */
+    @Bean
+    public static BeanPostProcessor tieredCacheManagerPostProcessor(ObjectProvider<CircuitBreaker> redisCircuitBreaker,
+                                                                    ObjectProvider<StringRedisTemplate> redisTemplate,
+                                                                    Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (!(bean instanceof RedisCacheManager redisCacheManager)) return bean;
+                TieredCache.Settings settings = new TieredCache.Settings(
+                        environment.getProperty("app.cache.local.max-entries", Integer.class, 100_000),
+                        environment.getProperty("app.cache.local.fresh-ms", Long.class, 30_000L),
+                        environment.getProperty("app.cache.local.stale-ms", Long.class, 600_000L),
+                        environment.getProperty("app.cache.local.early-refresh-beta", Double.class, 1.0),
+                        environment.getProperty("app.cache.lease.wait-ms", Long.class, 200L));
+                boolean leaseEnabled = environment.getProperty("app.cache.lease.enabled", Boolean.class, false);
+                Duration leaseTtl = Duration.ofMillis(environment.getProperty("app.cache.lease.ttl-ms", Long.class, 2_000L));
+                Executor revalidator = Executors.newVirtualThreadPerTaskExecutor();
+                return new TieredCacheManager(redisCacheManager, Set.of("alias"), remote -> {
+                    CircuitBreaker breaker = redisCircuitBreaker.getObject();
+                    LoadLease lease = leaseEnabled
+                            ? new RedisLoadLease(redisTemplate.getObject(), breaker, remote.getName(), leaseTtl)
+                            : LoadLease.NONE;
+                    // Batch lookups use MGET and pipelined SETs against the same Redis entries
+                    RemoteBulk bulk = remote instanceof RedisCache redisCache
+                            ? new RedisCacheBulk(redisCache, redisTemplate.getObject())
+                            : RemoteBulk.perKey(remote);
+                    TieredCache cache = new TieredCache(remote, breaker, revalidator, lease, settings, System::currentTimeMillis, MAPPING_EXPIRY, bulk);
+                    cache.startExpiry();
+                    return cache;
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.ait.config;
+
+import com.project.ait.util.CircuitBreaker;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link LoadLease} backed by a short-lived Redis key ({@code SET NX PX}). If Redis is unavailable
+ * the lease is granted, so loading degrades to per-node coalescing instead of blocking.
+ */
+public class RedisLoadLease implements LoadLease {
+    private static final String KEY_PREFIX = "lease:";
+    // Delete only our own lease; an expired one may already belong to another node
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker breaker;
+    private final String cacheName;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+
+    public RedisLoadLease(StringRedisTemplate redisTemplate, CircuitBreaker breaker, String cacheName, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.breaker = breaker;
+        this.cacheName = cacheName;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public boolean tryAcquire(Object key) {
+        return breaker.call(() -> Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey(key), owner, ttl)),
+                () -> true);
+    }
+
+    @Override
+    public void release(Object key) {
+        breaker.run(() -> redisTemplate.execute(RELEASE, List.of(leaseKey(key)), owner));
+    }
+
+    private String leaseKey(Object key) {
+        return KEY_PREFIX + cacheName + ":" + key;
+    }
+}
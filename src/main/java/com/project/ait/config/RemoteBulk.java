@@ -0,0 +1,38 @@
+package com.project.ait.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Multi-key reads and writes against the remote level of a {@link TieredCache}, so a batch of keys
+ * costs one round trip instead of one per key.
+ */
+public interface RemoteBulk {
+    /** One remote call per key, for remote caches without multi-key commands. */
+    static RemoteBulk perKey(Cache remote) {
+        return new RemoteBulk() {
+            @Override
+            public Map<Object, Object> getAll(Collection<?> keys) {
+                Map<Object, Object> found = new LinkedHashMap<>();
+                for (Object key : keys) {
+                    Cache.ValueWrapper wrapper = remote.get(key);
+                    if (wrapper != null && wrapper.get() != null) found.put(key, wrapper.get());
+                }
+                return found;
+            }
+
+            @Override
+            public void putAll(Map<?, ?> entries) {
+                entries.forEach(remote::put);
+            }
+        };
+    }
+
+    /** Values cached for {@code keys}; keys that are not cached are left out. */
+    Map<Object, Object> getAll(Collection<?> keys);
+
+    void putAll(Map<?, ?> entries);
+}
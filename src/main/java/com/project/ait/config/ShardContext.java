@@ -0,0 +1,32 @@
+package com.project.ait.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread's database work is routed to by {@link ShardRoutingDataSource}.
+ *
+ * The shard is resolved when a connection is acquired, i.e. when a transaction begins or a
+ * non-transactional repository call runs. It must therefore be set before entering a
+ * {@code @Transactional} method; changing it inside an open transaction has no effect.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() { }
+
+    /** Current shard, or null for the default (home) shard. */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T call(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.ait.config;
+
+import com.project.ait.service.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.Set;
+
+/**
+ * Hibernate's {@code ddl-auto} only sees the home shard. When it is enabled, this creates the
+ * mapped tables on any additional shard that does not have them yet; existing shards are left to
+ * the usual migration process.
+ */
+@Component
+public class ShardSchemaInitializer {
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+    private static final Set<String> CREATING_MODES = Set.of("update", "create", "create-drop");
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(ShardRouter shardRouter,
+                                  JdbcTemplate jdbcTemplate,
+                                  EntityManagerFactory entityManagerFactory,
+                                  @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @PostConstruct
+    void createMissingSchemas() {
+        if (!shardRouter.isSharded() || !CREATING_MODES.contains(ddlAuto)) return;
+        for (int shard = ShardRouter.HOME_SHARD + 1; shard < shardRouter.shardCount(); shard++) {
+            int s = shard;
+            shardRouter.inShard(s, () -> {
+                if (!hasTable("url_mapping")) {
+                    log.info("Creating schema on shard {}", s);
+                    entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true);
+                }
+                return null;
+            });
+        }
+    }
+
+    private boolean hasTable(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet rs = connection.getMetaData().getTables(connection.getCatalog(), null, table, new String[] {"TABLE"})) {
+                return rs.next();
+            }
+        }));
+    }
+}
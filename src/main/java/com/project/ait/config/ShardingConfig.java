@@ -0,0 +1,44 @@
+package com.project.ait.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class ShardingConfig {
+
+    /**
+     * One Hikari pool per shard behind a routing datasource. Shard 0 is {@code spring.datasource};
+     * {@code app.shards.urls} adds further MySQL instances, which share its credentials and
+     * {@code spring.datasource.hikari} settings. Without extra URLs this is a plain single pool.
+     */
+    @Bean
+    public ShardRoutingDataSource dataSource(DataSourceProperties properties,
+                                             Environment environment,
+                                             @Value("${app.shards.urls:}") String[] shardUrls) {
+        Binder binder = Binder.get(environment);
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(pool(properties, binder, null, 0));
+        for (String url : shardUrls) {
+            if (!url.isBlank()) shards.add(pool(properties, binder, url.trim(), shards.size()));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String url, int shard) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (url != null) pool.setJdbcUrl(url);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("shard-" + shard);
+        return pool;
+    }
+}
@@ -0,0 +1,308 @@
+package com.project.ait.config;
+
+import com.project.ait.util.BoundedCache;
+import com.project.ait.util.CircuitBreaker;
+import com.project.ait.util.SingleFlight;
+import com.project.ait.util.TimingWheel;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Two-level cache: a bounded in-process L1 in front of a shared remote cache (Redis) that is only
+ * reached through a circuit breaker.
+ *
+ * L1 entries are fresh for {@code freshMillis} and may then be served stale for up to
+ * {@code staleMillis} while a background reload refreshes them (stale-while-revalidate). If the
+ * loader (the database) fails, a stale entry is served instead of the error. While the breaker
+ * is open, Redis is skipped entirely and lookups go to L1 and the loader.
+ *
+ * Loads are coalesced: per JVM only one load per key is in flight, and with a {@link LoadLease}
+ * only one node loads a key while the others wait briefly for it to appear in Redis. Fresh
+ * entries are refreshed early with a probability that grows as they approach staleness
+ * (XFetch), so hot keys are reloaded by a single caller before they ever expire under load.
+ *
+ * Entries never outlive the value they hold: with a {@link CacheExpiry}, values past their expiry
+ * are not cached, and L1 entries that expire before they would go stale are dropped by a timing
+ * wheel at their expiry instead of lingering until they are next read or pushed out.
+ *
+ * Loading only happens through {@link #get(Object, Callable)}, i.e. {@code @Cacheable(sync = true)}.
+ * Batch callers use {@link #getAll} and {@link #putAll}, which reach Redis through a
+ * {@link RemoteBulk} in one round trip per batch and load nothing themselves.
+ */
+public class TieredCache implements Cache {
+    public record Settings(int maxEntries, long freshMillis, long staleMillis,
+                           double earlyRefreshBeta, long leaseWaitMillis) { }
+
+    private record Entry(Object value, long loadedAt, long loadMillis, long expiresAt) { }
+
+    private static final long LEASE_POLL_MILLIS = 20;
+    private static final long WHEEL_TICK_MILLIS = 10;
+    private static final int WHEEL_SIZE = 4096;
+
+    private final Cache remote;
+    private final CircuitBreaker breaker;
+    private final Executor revalidator;
+    private final LoadLease lease;
+    private final Settings settings;
+    private final LongSupplier clock;
+    private final CacheExpiry expiry;
+    private final RemoteBulk bulk;
+    private final BoundedCache<Object, Entry> local;
+    private final TimingWheel<Object> expirations;
+    private final SingleFlight<Object> singleFlight = new SingleFlight<>();
+
+    public TieredCache(Cache remote, CircuitBreaker breaker, Executor revalidator, LoadLease lease,
+                       Settings settings, LongSupplier clock) {
+        this(remote, breaker, revalidator, lease, settings, clock, CacheExpiry.NONE);
+    }
+
+    public TieredCache(Cache remote, CircuitBreaker breaker, Executor revalidator, LoadLease lease,
+                       Settings settings, LongSupplier clock, CacheExpiry expiry) {
+        this(remote, breaker, revalidator, lease, settings, clock, expiry, RemoteBulk.perKey(remote));
+    }
+
+    public TieredCache(Cache remote, CircuitBreaker breaker, Executor revalidator, LoadLease lease,
+                       Settings settings, LongSupplier clock, CacheExpiry expiry, RemoteBulk bulk) {
+        this.remote = remote;
+        this.breaker = breaker;
+        this.revalidator = revalidator;
+        this.lease = lease;
+        this.settings = settings;
+        this.clock = clock;
+        this.expiry = expiry;
+        this.bulk = bulk;
+        this.local = new BoundedCache<>(settings.maxEntries());
+        this.expirations = new TimingWheel<>(WHEEL_TICK_MILLIS, WHEEL_SIZE, clock.getAsLong(), this::expireLocal);
+    }
+
+    /** Starts the thread that drops L1 entries at their expiry. */
+    public Thread startExpiry() {
+        return expirations.start("cache-expiry-" + getName(), clock);
+    }
+
+    /** Drops the L1 entries whose expiry has passed; what the expiry thread does every tick. */
+    void expireDue() {
+        expirations.advance(clock.getAsLong());
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Entry entry = local.get(key);
+        if (entry != null && isFresh(entry)) return new SimpleValueWrapper(entry.value());
+        ValueWrapper wrapper = remoteGet(key);
+        if (wrapper != null && wrapper.get() != null) {
+            putLocal(key, wrapper.get(), 0);
+            return wrapper;
+        }
+        return entry != null && isUsable(entry) ? new SimpleValueWrapper(entry.value()) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        return wrapper == null ? null : (T) wrapper.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = local.get(key);
+        if (entry != null && isFresh(entry)) {
+            if (shouldRefreshEarly(key, entry)) revalidate(key, valueLoader);
+            return (T) entry.value();
+        }
+        if (entry != null && isUsable(entry)) {
+            revalidate(key, valueLoader);
+            return (T) entry.value();
+        }
+        ValueWrapper wrapper = remoteGet(key);
+        if (wrapper != null && wrapper.get() != null) {
+            putLocal(key, wrapper.get(), 0);
+            return (T) wrapper.get();
+        }
+        try {
+            return singleFlight.execute(key, () -> load(key, valueLoader));
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private void revalidate(Object key, Callable<?> valueLoader) {
+        // A stale entry keeps being served if the reload fails
+        singleFlight.executeAsync(key, revalidator, () -> load(key, valueLoader));
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) throws Exception {
+        if (!lease.tryAcquire(key)) {
+            // Another node is loading this key: wait for it to publish the value to Redis
+            T published = awaitRemote(key);
+            if (published != null) return published;
+        }
+        try {
+            long start = clock.getAsLong();
+            T value = valueLoader.call();
+            // Misses are not cached: the remote cache does not accept nulls
+            if (value != null && !isExpired(value)) {
+                putLocal(key, value, clock.getAsLong() - start);
+                breaker.run(() -> remote.put(key, value));
+            }
+            return value;
+        } finally {
+            lease.release(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T awaitRemote(Object key) throws InterruptedException {
+        long deadline = clock.getAsLong() + settings.leaseWaitMillis();
+        while (clock.getAsLong() < deadline) {
+            Thread.sleep(LEASE_POLL_MILLIS);
+            ValueWrapper wrapper = remoteGet(key);
+            if (wrapper != null && wrapper.get() != null) {
+                putLocal(key, wrapper.get(), 0);
+                return (T) wrapper.get();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cached values for {@code keys}: fresh L1 entries, then the rest in one remote multi-get, then
+     * usable stale L1 entries for keys Redis does not have. Keys cached nowhere are left out; nothing
+     * is loaded.
+     */
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new LinkedHashMap<>();
+        List<Object> remoteKeys = new ArrayList<>();
+        for (Object key : keys) {
+            Entry entry = local.get(key);
+            if (entry != null && isFresh(entry)) found.put(key, entry.value());
+            else remoteKeys.add(key);
+        }
+        if (remoteKeys.isEmpty()) return found;
+        Map<Object, Object> fetched = breaker.call(() -> bulk.getAll(remoteKeys), Map::of);
+        for (Object key : remoteKeys) {
+            Object value = fetched.get(key);
+            if (value != null) {
+                putLocal(key, value, 0);
+                found.put(key, value);
+                continue;
+            }
+            Entry entry = local.get(key);
+            if (entry != null && isUsable(entry)) found.put(key, entry.value());
+        }
+        return found;
+    }
+
+    /** Caches loaded values in L1 and, in one remote round trip, in Redis. Expired values are skipped. */
+    public void putAll(Map<?, ?> entries) {
+        Map<Object, Object> live = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            if (value != null && !isExpired(value)) live.put(key, value);
+        });
+        if (live.isEmpty()) return;
+        live.forEach((key, value) -> putLocal(key, value, 0));
+        breaker.run(() -> bulk.putAll(live));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) return;
+        if (isExpired(value)) {
+            evict(key);
+            return;
+        }
+        putLocal(key, value, 0);
+        breaker.run(() -> remote.put(key, value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.remove(key);
+        breaker.run(() -> remote.evict(key));
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        breaker.run(remote::clear);
+    }
+
+    /** Drops the in-process copy only, e.g. when another node announced a change. */
+    public void evictLocal(Object key) {
+        local.remove(key);
+    }
+
+    /** Drops every in-process copy, e.g. when announced changes may have been missed. */
+    public void clearLocal() {
+        local.clear();
+    }
+
+    private void expireLocal(Object key) {
+        Entry entry = local.get(key);
+        // Timers are not cancelled: the key may have been reloaded with a later expiry since
+        if (entry != null && entry.expiresAt() <= clock.getAsLong()) local.remove(key, entry);
+    }
+
+    private ValueWrapper remoteGet(Object key) {
+        return breaker.call(() -> remote.get(key), () -> null);
+    }
+
+    private void putLocal(Object key, Object value, long loadMillis) {
+        long now = clock.getAsLong();
+        long expiresAt = expiry.expiresAtMillis(value);
+        if (expiresAt <= now) {
+            local.remove(key);
+            return;
+        }
+        local.put(key, new Entry(value, now, Math.max(1, loadMillis), expiresAt));
+        // Entries that go stale first are left to the LRU
+        if (expiresAt - now < settings.staleMillis()) expirations.schedule(key, expiresAt);
+    }
+
+    private boolean isExpired(Object value) {
+        return expiry.expiresAtMillis(value) <= clock.getAsLong();
+    }
+
+    private boolean isFresh(Entry entry) {
+        long now = clock.getAsLong();
+        return now - entry.loadedAt() < settings.freshMillis() && now < entry.expiresAt();
+    }
+
+    private boolean isUsable(Entry entry) {
+        long now = clock.getAsLong();
+        return now - entry.loadedAt() < settings.staleMillis() && now < entry.expiresAt();
+    }
+
+    /**
+     * XFetch: refresh when {@code now - loadMillis * beta * ln(rand) >= freshUntil}. Slow-to-load
+     * keys and keys close to staleness are refreshed earlier; beta = 0 disables early refresh.
+     */
+    private boolean shouldRefreshEarly(Object key, Entry entry) {
+        if (settings.earlyRefreshBeta() <= 0 || singleFlight.isInFlight(key)) return false;
+        long remaining = entry.loadedAt() + settings.freshMillis() - clock.getAsLong();
+        double rand = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return -entry.loadMillis() * settings.earlyRefreshBeta() * Math.log(rand) >= remaining;
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.ait.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Decorates a remote {@link CacheManager} so that the configured caches are served through a
+ * {@link TieredCache}. Other caches are returned as is.
+ */
+public class TieredCacheManager implements CacheManager {
+    private final CacheManager remote;
+    private final Set<String> tieredNames;
+    private final Function<Cache, TieredCache> factory;
+    private final ConcurrentMap<String, TieredCache> tiered = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CacheManager remote, Set<String> tieredNames, Function<Cache, TieredCache> factory) {
+        this.remote = remote;
+        this.tieredNames = tieredNames;
+        this.factory = factory;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!tieredNames.contains(name)) return remote.getCache(name);
+        return tiered.computeIfAbsent(name, n -> {
+            Cache cache = remote.getCache(n);
+            return cache == null ? null : factory.apply(cache);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+}
@@ -7,14 +7,32 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final LoadSheddingInterceptor loadSheddingInterceptor;
+    private final AdminInterceptor adminInterceptor;
+    private final ApiKeyInterceptor apiKeyInterceptor;
     private final RateLimitInterceptor rateLimitInterceptor;
 
-    public WebConfig(RateLimitInterceptor rateLimitInterceptor) {
+    public WebConfig(LoadSheddingInterceptor loadSheddingInterceptor, AdminInterceptor adminInterceptor,
+                     ApiKeyInterceptor apiKeyInterceptor, RateLimitInterceptor rateLimitInterceptor) {
+        this.loadSheddingInterceptor = loadSheddingInterceptor;
+        this.adminInterceptor = adminInterceptor;
+        this.apiKeyInterceptor = apiKeyInterceptor;
         this.rateLimitInterceptor = rateLimitInterceptor;
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // Runs before anything that touches Redis or MySQL, so shed requests cost next to nothing
+        registry.addInterceptor(loadSheddingInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/error");
+        // Admin endpoints are authenticated by the admin key instead of an API key
+        registry.addInterceptor(adminInterceptor)
+                .addPathPatterns("/api/admin/**");
+        // Runs before the rate limiter: requests it authenticates are exempt from the per-IP limit
+        registry.addInterceptor(apiKeyInterceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/admin/**");
         registry.addInterceptor(rateLimitInterceptor)
                 .addPathPatterns("/api/**"); // Apply only to API endpoints
     }
@@ -0,0 +1,83 @@
+package com.project.ait.controller;
+
+import com.project.ait.service.MappingSnapshotService;
+import com.project.ait.util.MappingSnapshot;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Admin", description = "Operational endpoints, disabled unless app.snapshots.enabled is set; every call needs the X-Admin-Key header")
+public class AdminController {
+    private final MappingSnapshotService mappingSnapshotService;
+    private final boolean snapshotsEnabled;
+
+    public AdminController(MappingSnapshotService mappingSnapshotService,
+                           @Value("${app.snapshots.enabled:false}") boolean snapshotsEnabled) {
+        this.mappingSnapshotService = mappingSnapshotService;
+        this.snapshotsEnabled = snapshotsEnabled;
+    }
+
+    @Operation(summary = "Export a mapping snapshot", description = "Stream all mappings, or a delta after the given per-shard ids, as a compressed, checksummed snapshot file")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Snapshot streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid delta bounds"),
+            @ApiResponse(responseCode = "404", description = "Snapshots are disabled")
+    })
+    @GetMapping("/snapshots")
+    public ResponseEntity<?> exportSnapshot(@Parameter(description = "Comma-separated ids, one per shard, as returned by the previous import") @RequestParam(required = false) String afterIds,
+                                            @Parameter(description = "Only mappings created at or after this instant") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since) {
+        if (!snapshotsEnabled) return ResponseEntity.notFound().build();
+        long[] ids;
+        try {
+            ids = mappingSnapshotService.parseAfterIds(afterIds);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        boolean delta = since != null || (afterIds != null && !afterIds.isBlank());
+        String fileName = "mappings-" + (delta ? "delta-" : "") + Instant.now().getEpochSecond() + MappingSnapshot.FILE_EXTENSION;
+        StreamingResponseBody body = out -> mappingSnapshotService.export(out, ids, since);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Import a mapping snapshot", description = "Load a snapshot or delta into MySQL or into this node's local alias store")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Snapshot loaded; afterIds is the bound for the next delta"),
+            @ApiResponse(responseCode = "400", description = "Unknown target or corrupted snapshot"),
+            @ApiResponse(responseCode = "404", description = "Snapshots are disabled"),
+            @ApiResponse(responseCode = "409", description = "Local alias store is not ready")
+    })
+    @PostMapping(value = "/snapshots", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> importSnapshot(@Parameter(description = "database or local") @RequestParam(defaultValue = "database") String target,
+                                            HttpServletRequest request) {
+        if (!snapshotsEnabled) return ResponseEntity.notFound().build();
+        try {
+            MappingSnapshotService.Target parsed = MappingSnapshotService.Target.parse(target);
+            return ResponseEntity.ok(mappingSnapshotService.importSnapshot(request.getInputStream(), parsed).toMap());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid snapshot: " + (e.getMessage() == null ? "truncated" : e.getMessage())));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
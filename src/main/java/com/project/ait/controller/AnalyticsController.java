@@ -0,0 +1,195 @@
+package com.project.ait.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.ait.dto.ClickEventView;
+import com.project.ait.service.ClickExportService;
+import com.project.ait.service.ClickRollupService;
+import com.project.ait.service.HotLinkTracker;
+import com.project.ait.service.UniqueVisitorService;
+import com.project.ait.service.UrlService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics", description = "Click analytics for shortened URLs")
+public class AnalyticsController {
+    private final UrlService urlService;
+    private final UniqueVisitorService uniqueVisitorService;
+    private final HotLinkTracker hotLinkTracker;
+    private final ClickExportService clickExportService;
+    private final ClickRollupService clickRollupService;
+    private final ObjectMapper objectMapper;
+
+    public AnalyticsController(UrlService urlService,
+                               UniqueVisitorService uniqueVisitorService,
+                               HotLinkTracker hotLinkTracker,
+                               ClickExportService clickExportService,
+                               ClickRollupService clickRollupService,
+                               ObjectMapper objectMapper) {
+        this.urlService = urlService;
+        this.uniqueVisitorService = uniqueVisitorService;
+        this.hotLinkTracker = hotLinkTracker;
+        this.clickExportService = clickExportService;
+        this.clickRollupService = clickRollupService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "Get hot links", description = "Cluster-wide most clicked aliases over a recent window (e.g. 30s, 5m, 1h)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hot links retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid window or limit")
+    })
+    @GetMapping("/top")
+    public ResponseEntity<?> top(@Parameter(description = "Time window, e.g. 5m") @RequestParam(defaultValue = "5m") String window,
+                                 @Parameter(description = "Maximum number of aliases") @RequestParam(defaultValue = "10") int limit) {
+        try {
+            if (limit < 1 || limit > 100) throw new IllegalArgumentException("Limit must be between 1 and 100");
+            Duration duration = DurationStyle.detectAndParse(window);
+            var top = hotLinkTracker.top(duration, limit);
+            List<Map<String, Object>> links = new ArrayList<>();
+            top.forEach((alias, clicks) -> links.add(Map.of("alias", alias, "clicks", clicks)));
+            return ResponseEntity.ok(Map.of("window", window, "links", links));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Get unique visitors", description = "Approximate unique visitors (by IP) for a shortened URL, all time or within [from, to)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Unique visitors retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid time range"),
+            @ApiResponse(responseCode = "404", description = "Alias not found")
+    })
+    @GetMapping("/{alias}/uniques")
+    public ResponseEntity<?> uniques(@Parameter(description = "The short URL alias") @PathVariable String alias,
+                                     @Parameter(description = "Range start (ISO instant, inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                     @Parameter(description = "Range end (ISO instant, exclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        if (urlService.findByAlias(alias).isEmpty()) return ResponseEntity.notFound().build();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("alias", alias);
+        try {
+            if (from == null && to == null) {
+                body.put("uniqueVisitors", uniqueVisitorService.countAllTime(alias));
+            } else {
+                Instant end = to == null ? Instant.now() : to;
+                body.put("uniqueVisitors", uniqueVisitorService.count(alias, from, end));
+                body.put("from", from);
+                body.put("to", end);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        body.put("standardError", UniqueVisitorService.STANDARD_ERROR);
+        return ResponseEntity.ok(body);
+    }
+
+    @Operation(summary = "Get device breakdown", description = "Clicks per browser, OS, device class and country for a shortened URL, served from daily rollups")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Breakdown retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "404", description = "Alias not found")
+    })
+    @GetMapping("/{alias}/devices")
+    public ResponseEntity<?> devices(@Parameter(description = "The short URL alias") @PathVariable String alias,
+                                     @Parameter(description = "First UTC day (inclusive), defaults to 30 days ago") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @Parameter(description = "Last UTC day (inclusive), defaults to today") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (urlService.findByAlias(alias).isEmpty()) return ResponseEntity.notFound().build();
+        LocalDate end = to == null ? LocalDate.now(ZoneOffset.UTC) : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid range: 'from' must not be after 'to'"));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("alias", alias);
+        body.put("from", start);
+        body.put("to", end);
+        body.putAll(clickRollupService.breakdown(alias, start, end));
+        return ResponseEntity.ok(body);
+    }
+
+    @Operation(summary = "List clicks", description = "Keyset-paginated click log for a shortened URL, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of clicks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+            @ApiResponse(responseCode = "404", description = "Alias not found")
+    })
+    @GetMapping("/{alias}/events")
+    public ResponseEntity<?> events(@Parameter(description = "The short URL alias") @PathVariable String alias,
+                                    @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+                                    @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int limit) {
+        if (urlService.findByAlias(alias).isEmpty()) return ResponseEntity.notFound().build();
+        try {
+            return ResponseEntity.ok(clickExportService.listClicks(alias, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Export clicks", description = "Stream the full click log for a shortened URL as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Click log streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format"),
+            @ApiResponse(responseCode = "404", description = "Alias not found")
+    })
+    @GetMapping("/{alias}/export")
+    public ResponseEntity<?> export(@Parameter(description = "The short URL alias") @PathVariable String alias,
+                                    @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format) {
+        if (urlService.findByAlias(alias).isEmpty()) return ResponseEntity.notFound().build();
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported format: " + format));
+        }
+        StreamingResponseBody body = out -> {
+            if (csv) out.write("id,clickedAt,ip,userAgent,referrer,browser,os,device,country,weight\n".getBytes(StandardCharsets.UTF_8));
+            clickExportService.exportClicks(alias, row -> {
+                if (csv) writeCsv(out, row);
+                else writeNdjson(out, row);
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + alias + "-clicks." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    private void writeNdjson(OutputStream out, ClickEventView row) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(row));
+        out.write('\n');
+    }
+
+    private static void writeCsv(OutputStream out, ClickEventView row) throws IOException {
+        String line = row.getId() + "," + row.getClickedAt() + "," + csvField(row.getIp()) + "," + csvField(row.getUserAgent())
+                + "," + csvField(row.getReferrer()) + "," + csvField(row.getBrowser()) + "," + csvField(row.getOs()) + "," + csvField(row.getDevice())
+                + "," + csvField(row.getCountry()) + "," + row.getWeight() + "\n";
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.ait.controller;
+
+import com.project.ait.config.ApiKeyInterceptor;
+import com.project.ait.entity.ApiKey;
+import com.project.ait.entity.ApiKeyUsage;
+import com.project.ait.service.ApiKeyQuotas;
+import com.project.ait.service.ApiKeyUsageMeter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@Tag(name = "API Keys", description = "Quotas and metered usage of the calling API key")
+public class ApiKeyController {
+    private static final int MAX_DAYS = 90;
+
+    private final ApiKeyQuotas apiKeyQuotas;
+    private final ApiKeyUsageMeter apiKeyUsageMeter;
+
+    public ApiKeyController(ApiKeyQuotas apiKeyQuotas, ApiKeyUsageMeter apiKeyUsageMeter) {
+        this.apiKeyQuotas = apiKeyQuotas;
+        this.apiKeyUsageMeter = apiKeyUsageMeter;
+    }
+
+    @Operation(summary = "Get API key usage", description = "Limits, today's remaining links and daily metered usage of the key in X-API-Key")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usage retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid number of days"),
+            @ApiResponse(responseCode = "404", description = "API keys are disabled or no key was sent")
+    })
+    @GetMapping("/api/usage")
+    public ResponseEntity<?> usage(@Parameter(description = "Number of days, 1 to 90") @RequestParam(defaultValue = "7") int days,
+                                   HttpServletRequest request) {
+        ApiKey key = (ApiKey) request.getAttribute(ApiKeyInterceptor.API_KEY_ATTRIBUTE);
+        if (key == null) return ResponseEntity.notFound().build();
+        if (days < 1 || days > MAX_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "days must be between 1 and " + MAX_DAYS));
+        }
+        List<Map<String, Object>> daily = apiKeyUsageMeter.recent(key, days).stream()
+                .map(ApiKeyController::toMap)
+                .toList();
+        return ResponseEntity.ok(Map.of(
+                "name", key.getName(),
+                "linksPerDay", key.getLinksPerDay(),
+                "requestsPerSecond", key.getRequestsPerSecond(),
+                "linksRemainingToday", apiKeyQuotas.linksRemaining(key),
+                "daily", daily
+        ));
+    }
+
+    private static Map<String, Object> toMap(ApiKeyUsage usage) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("date", usage.getUsageDate().toString());
+        row.put("requests", usage.getRequests());
+        row.put("links", usage.getLinks());
+        return row;
+    }
+}
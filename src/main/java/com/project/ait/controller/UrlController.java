@@ -1,8 +1,15 @@
 package com.project.ait.controller;
 
+import com.project.ait.config.AdminCredentials;
+import com.project.ait.config.ApiKeyInterceptor;
+import com.project.ait.dto.BatchInfoRequest;
 import com.project.ait.dto.ShortenRequest;
 import com.project.ait.dto.ShortenResponse;
+import com.project.ait.dto.UpdateLinkRequest;
+import com.project.ait.entity.ApiKey;
 import com.project.ait.entity.UrlMapping;
+import com.project.ait.service.LinkVersions;
+import com.project.ait.service.LocalAliasStore;
 import com.project.ait.service.UrlService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,19 +18,34 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @Tag(name = "URL Shortener", description = "Operations for URL shortening and redirection")
 public class UrlController {
     private final UrlService urlService;
+    private final LocalAliasStore localAliasStore;
+    private final LinkVersions linkVersions;
+    private final AdminCredentials adminCredentials;
 
-    public UrlController(UrlService urlService) { this.urlService = urlService; }
+    public UrlController(UrlService urlService, LocalAliasStore localAliasStore, LinkVersions linkVersions,
+                         AdminCredentials adminCredentials) {
+        this.urlService = urlService;
+        this.localAliasStore = localAliasStore;
+        this.linkVersions = linkVersions;
+        this.adminCredentials = adminCredentials;
+    }
 
     @Operation(summary = "Shorten a URL", description = "Create a short URL from a long URL with optional custom alias")
     @ApiResponses(value = {
@@ -31,10 +53,16 @@ public class UrlController {
             @ApiResponse(responseCode = "400", description = "Invalid request or custom alias already exists")
     })
     @PostMapping("/api/shorten")
-    public ResponseEntity<ShortenResponse> shorten(@RequestBody ShortenRequest req, HttpServletRequest servletReq) {
+    public ResponseEntity<?> shorten(@RequestBody ShortenRequest req, HttpServletRequest servletReq) {
         String ip = servletReq.getRemoteAddr();
         Instant expires = req.getExpiresAt() == null ? null : req.getExpiresAt();
-        UrlMapping mapping = urlService.createShortUrl(req.getLongUrl(), req.getCustomAlias(), ip, expires);
+        ApiKey key = (ApiKey) servletReq.getAttribute(ApiKeyInterceptor.API_KEY_ATTRIBUTE);
+        UrlMapping mapping;
+        try {
+            mapping = urlService.createShortUrl(req.getLongUrl(), req.getCustomAlias(), ip, expires, key == null ? null : key.getId());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         String base = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
         return ResponseEntity.ok(new ShortenResponse(base + "/" + mapping.getAlias(), mapping.getAlias(), mapping.getLongUrl()));
     }
@@ -47,7 +75,9 @@ public class UrlController {
     })
     @GetMapping("/{alias}")
     public ResponseEntity<?> redirect(@Parameter(description = "The short URL alias") @PathVariable String alias, HttpServletRequest request) {
-        var opt = urlService.findByAlias(alias);
+        // The node-local store answers without Redis or MySQL; aliases it does not know yet take the cached path
+        var opt = localAliasStore.find(alias);
+        if (opt.isEmpty()) opt = urlService.findByAlias(alias);
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
         UrlMapping m = opt.get();
         if (!m.isActive() || (m.getExpiresAt() != null && Instant.now().isAfter(m.getExpiresAt()))) {
@@ -65,36 +95,164 @@ public class UrlController {
     @Operation(summary = "Get URL information", description = "Get detailed information about a shortened URL")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "URL information retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Alias not found")
     })
     @GetMapping("/api/info/{alias}")
-    public ResponseEntity<?> info(@Parameter(description = "The short URL alias") @PathVariable String alias) {
+    public ResponseEntity<?> info(@Parameter(description = "The short URL alias") @PathVariable String alias, WebRequest request) {
         var opt = urlService.findByAlias(alias);
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
         UrlMapping m = opt.get();
-        long clicks = urlService.getClickCount(alias);
-        return ResponseEntity.ok(Map.of(
-                "alias", m.getAlias(),
-                "longUrl", m.getLongUrl(),
-                "createdAt", m.getCreatedAt(),
-                "expiresAt", m.getExpiresAt(),
-                "clicks", clicks,
-                "custom", m.isCustomAlias()
-        ));
+        return conditional(request, "info", m, () -> infoView(m, urlService.getClickCount(alias)));
+    }
+
+    @Operation(summary = "Get information for many URLs", description = "Look up many shortened URLs and their click counts in one request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Known aliases with their information; unknown ones listed as missing"),
+            @ApiResponse(responseCode = "400", description = "No aliases, or more than the batch limit")
+    })
+    @PostMapping("/api/info/batch")
+    public ResponseEntity<?> infoBatch(@RequestBody BatchInfoRequest req) {
+        if (req.getAliases() == null || req.getAliases().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "aliases must not be empty"));
+        }
+        Map<String, UrlMapping> mappings;
+        try {
+            mappings = urlService.findAllByAlias(req.getAliases());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        Map<String, Long> clicks = urlService.getClickCounts(mappings.keySet());
+        List<Map<String, Object>> links = new ArrayList<>();
+        mappings.forEach((alias, m) -> links.add(infoView(m, clicks.getOrDefault(alias, 0L))));
+        List<String> missing = req.getAliases().stream().distinct().filter(alias -> !mappings.containsKey(alias)).toList();
+        return ResponseEntity.ok(Map.of("links", links, "missing", missing));
+    }
+
+    /** Answers 304 for a matching If-None-Match before computing the body, and caches the body under the link's version. */
+    private ResponseEntity<?> conditional(WebRequest request, String view, UrlMapping m, Supplier<Map<String, Object>> body) {
+        String etag = linkVersions.etag(m);
+        // No version while Redis is unavailable: computed every time, without an ETag
+        if (etag == null) return ResponseEntity.ok(body.get());
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).body(linkVersions.response(view, m.getAlias(), etag, body));
+    }
+
+    /**
+     * Links may be managed with the admin key, or with the API key that created them. Returns the
+     * response to send instead, or null if the caller may go ahead.
+     */
+    private ResponseEntity<?> denyUnlessManager(String alias, HttpServletRequest request) {
+        if (adminCredentials.isAdmin(request)) return null;
+        ApiKey key = (ApiKey) request.getAttribute(ApiKeyInterceptor.API_KEY_ATTRIBUTE);
+        if (key == null) return ResponseEntity.status(401).body(Map.of("error", "Admin key or the creating API key required"));
+        Optional<UrlMapping> mapping = urlService.findByAlias(alias);
+        if (mapping.isEmpty()) return ResponseEntity.notFound().build();
+        if (!key.getId().equals(mapping.get().getCreatedByKeyId())) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only the API key that created this link may change it"));
+        }
+        return null;
+    }
+
+    @Operation(summary = "Update a short URL", description = "Change the target, expiry or active flag; every node stops serving the old mapping. Needs the admin key or the API key that created the link")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "URL updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "No admin key or API key"),
+            @ApiResponse(responseCode = "403", description = "API key did not create this link"),
+            @ApiResponse(responseCode = "404", description = "Alias not found"),
+            @ApiResponse(responseCode = "409", description = "Link is still being created; retry shortly")
+    })
+    @PatchMapping("/api/links/{alias}")
+    public ResponseEntity<?> update(@Parameter(description = "The short URL alias") @PathVariable String alias,
+                                    @RequestBody UpdateLinkRequest req, HttpServletRequest request) {
+        ResponseEntity<?> denied = denyUnlessManager(alias, request);
+        if (denied != null) return denied;
+        Optional<UrlMapping> updated;
+        try {
+            updated = urlService.updateLink(alias, req.getLongUrl(), req.getExpiresAt(), req.getActive());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
+        return updated.<ResponseEntity<?>>map(m -> ResponseEntity.ok(linkView(m))).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Deactivate a short URL", description = "Stop redirects for a short URL on every node; it then answers 410. Needs the admin key or the API key that created the link")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "URL deactivated"),
+            @ApiResponse(responseCode = "401", description = "No admin key or API key"),
+            @ApiResponse(responseCode = "403", description = "API key did not create this link"),
+            @ApiResponse(responseCode = "404", description = "Alias not found"),
+            @ApiResponse(responseCode = "409", description = "Link is still being created; retry shortly")
+    })
+    @PostMapping("/api/links/{alias}/deactivate")
+    public ResponseEntity<?> deactivate(@Parameter(description = "The short URL alias") @PathVariable String alias,
+                                        HttpServletRequest request) {
+        ResponseEntity<?> denied = denyUnlessManager(alias, request);
+        if (denied != null) return denied;
+        try {
+            return urlService.deactivate(alias).<ResponseEntity<?>>map(m -> ResponseEntity.ok(linkView(m))).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Delete a short URL", description = "Delete a short URL on every node; its click history is kept. Needs the admin key or the API key that created the link")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "URL deleted"),
+            @ApiResponse(responseCode = "401", description = "No admin key or API key"),
+            @ApiResponse(responseCode = "403", description = "API key did not create this link"),
+            @ApiResponse(responseCode = "404", description = "Alias not found"),
+            @ApiResponse(responseCode = "409", description = "Link is still being created; retry shortly")
+    })
+    @DeleteMapping("/api/links/{alias}")
+    public ResponseEntity<?> delete(@Parameter(description = "The short URL alias") @PathVariable String alias,
+                                    HttpServletRequest request) {
+        ResponseEntity<?> denied = denyUnlessManager(alias, request);
+        if (denied != null) return denied;
+        try {
+            return urlService.deleteLink(alias) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Not Map.of: expiresAt may be null
+    private static Map<String, Object> infoView(UrlMapping m, long clicks) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("alias", m.getAlias());
+        view.put("longUrl", m.getLongUrl());
+        view.put("createdAt", m.getCreatedAt());
+        view.put("expiresAt", m.getExpiresAt());
+        view.put("clicks", clicks);
+        view.put("custom", m.isCustomAlias());
+        return view;
+    }
+
+    // Not Map.of: expiresAt may be null
+    private static Map<String, Object> linkView(UrlMapping m) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("alias", m.getAlias());
+        view.put("longUrl", m.getLongUrl());
+        view.put("expiresAt", m.getExpiresAt());
+        view.put("active", m.isActive());
+        return view;
     }
 
     // analytics endpoints (simple)
     @Operation(summary = "Get click analytics", description = "Get click count analytics for a shortened URL")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Click analytics retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Alias not found")
     })
     @GetMapping("/api/analytics/{alias}/clicks")
-    public ResponseEntity<?> clicks(@Parameter(description = "The short URL alias") @PathVariable String alias) {
+    public ResponseEntity<?> clicks(@Parameter(description = "The short URL alias") @PathVariable String alias, WebRequest request) {
         // For demo: return click count and list limited.
         var opt = urlService.findByAlias(alias);
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
-        long total = urlService.getClickCount(alias);
-        return ResponseEntity.ok(Map.of("alias", alias, "totalClicks", total));
+        return conditional(request, "clicks", opt.get(), () -> Map.of("alias", alias, "totalClicks", urlService.getClickCount(alias)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.project.ait.dto;
+
+import com.project.ait.entity.UrlMapping;
+
+import java.time.Instant;
+
+/** A created, updated or deleted mapping, as published on the alias change feed. */
+public record AliasChange(String alias, String longUrl, Instant expiresAt, boolean active, boolean deleted) {
+
+    public static AliasChange of(UrlMapping mapping) {
+        return new AliasChange(mapping.getAlias(), mapping.getLongUrl(), mapping.getExpiresAt(), mapping.isActive(), false);
+    }
+
+    public static AliasChange deleted(String alias) {
+        return new AliasChange(alias, null, null, false, true);
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.ait.dto;
+
+import java.time.Instant;
+
+/** The redirect-relevant columns of a mapping, read in bulk without loading entities. */
+public record AliasTarget(Long id, String alias, String longUrl, Instant expiresAt, boolean active) {
+}
@@ -0,0 +1,14 @@
+package com.project.ait.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request payload for looking up many short URLs at once")
+public class BatchInfoRequest {
+
+    @Schema(description = "Aliases to look up (at most app.info.max-batch-size)", example = "[\"google-search\", \"my-custom-link\"]")
+    private List<String> aliases;
+}
@@ -0,0 +1,54 @@
+package com.project.ait.dto;
+
+import com.project.ait.entity.ClickEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "A single recorded click")
+public class ClickEventView {
+
+    @Schema(description = "Click id", example = "1024")
+    private Long id;
+
+    @Schema(description = "When the click happened", example = "2024-01-15T10:30:00Z")
+    private Instant clickedAt;
+
+    @Schema(description = "Client IP address", example = "203.0.113.7")
+    private String ip;
+
+    @Schema(description = "Raw User-Agent header", example = "Mozilla/5.0")
+    private String userAgent;
+
+    @Schema(description = "Referer header", example = "https://google.com")
+    private String referrer;
+
+    @Schema(description = "Parsed browser family", example = "CHROME")
+    private String browser;
+
+    @Schema(description = "Parsed operating system", example = "ANDROID")
+    private String os;
+
+    @Schema(description = "Parsed device class", example = "MOBILE")
+    private String device;
+
+    @Schema(description = "ISO 3166 country code resolved from the IP", example = "ID")
+    private String country;
+
+    @Schema(description = "Clicks this row stands for; above 1 when the link was sampled", example = "1")
+    private int weight;
+
+    public static ClickEventView of(ClickEvent e) {
+        return new ClickEventView(e.getId(), e.getClickedAt(), e.getIp(), e.getUserAgent(), e.getReferrer(),
+                name(e.getBrowser()), name(e.getOs()), name(e.getDevice()), e.getCountry(),
+                e.getWeight() == null ? 1 : e.getWeight());
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.ait.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "One page of clicks, newest first")
+public class ClickPage {
+
+    @Schema(description = "The short URL alias", example = "abc123")
+    private String alias;
+
+    @Schema(description = "Clicks on this page")
+    private List<ClickEventView> items;
+
+    @Schema(description = "Opaque cursor for the next page, null when there are no more clicks")
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.project.ait.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Schema(description = "Request payload for changing a short URL; omitted fields are left unchanged")
+public class UpdateLinkRequest {
+
+    @Schema(description = "New target URL", example = "https://www.example.com/new/target")
+    private String longUrl;
+
+    @Schema(description = "New expiration date/time (ISO format)", example = "2025-12-31T23:59:59Z")
+    private Instant expiresAt;
+
+    @Schema(description = "Whether the short URL redirects", example = "false")
+    private Boolean active;
+}
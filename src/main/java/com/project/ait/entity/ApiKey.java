@@ -0,0 +1,39 @@
+package com.project.ait.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * API key of a tenant with its quotas. Only the SHA-256 of the key is stored. Lives on the home
+ * shard only; nodes keep all active keys in memory.
+ */
+@Entity
+@Table(name = "api_key", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_api_key_hash", columnNames = {"key_hash"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApiKey {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Lowercase hex SHA-256 of the key, as MySQL's SHA2(key, 256) returns it
+    @Column(name = "key_hash", nullable = false, length = 64)
+    private String keyHash;
+
+    // 0 = unlimited
+    private int linksPerDay;
+    private int requestsPerSecond;
+
+    private boolean active;
+
+    private Instant createdAt;
+}
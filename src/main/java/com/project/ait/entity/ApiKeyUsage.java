@@ -0,0 +1,35 @@
+package com.project.ait.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Daily request and link counters per API key, written in batches by the usage meter.
+ */
+@Entity
+@Table(name = "api_key_usage", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_usage_key_date", columnNames = {"api_key_id", "usage_date"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApiKeyUsage {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "api_key_id", nullable = false)
+    private Long apiKeyId;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(nullable = false)
+    private long requests;
+
+    @Column(nullable = false)
+    private long links;
+}
@@ -0,0 +1,16 @@
+package com.project.ait.entity;
+
+/**
+ * Browser family parsed from the User-Agent header. Persisted by ordinal: only append new constants.
+ */
+public enum Browser {
+    UNKNOWN,
+    OTHER,
+    CHROME,
+    SAFARI,
+    FIREFOX,
+    EDGE,
+    OPERA,
+    SAMSUNG_INTERNET,
+    INTERNET_EXPLORER
+}
@@ -5,8 +5,15 @@ import lombok.*;
 import jakarta.persistence.*;
 import java.time.Instant;
 
+/**
+ * One stored click, in compact form: the link is referenced by its numeric id, the IP is stored
+ * as 4 or 16 raw bytes and User-Agent / Referer strings are interned in click_dictionary.
+ *
+ * The readable values (alias, ip, userAgent, referrer) are transient. They are set when a click
+ * is recorded and are filled back in by ClickDictionary when rows are read for listing or export.
+ */
 @Entity
-@Table(name="click_event", indexes = {@Index(columnList = "alias")})
+@Table(name="click_log", indexes = {@Index(name = "idx_click_link_time_id", columnList = "linkId, clickedAt, id")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,8 +23,46 @@ public class ClickEvent {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private String alias;
+    @Column(nullable = false)
+    private Long linkId;
     private Instant clickedAt;
+
+    @Column(length = 16)
+    private byte[] ipAddress;
+    private Integer userAgentId;
+    private Integer referrerId;
+
+    // Parsed asynchronously by the click pipeline from userAgent
+    @Enumerated(EnumType.ORDINAL)
+    private Browser browser;
+    @Enumerated(EnumType.ORDINAL)
+    private OperatingSystem os;
+    @Enumerated(EnumType.ORDINAL)
+    private DeviceClass device;
+    // ISO 3166 code resolved from the IP by GeoLocator, null if unknown
+    @Column(length = 2)
+    private String country;
+    // Clicks this row stands for when ClickSampler stored only 1 in N of the link's clicks; null means 1
+    private Integer weight;
+
+    @Transient
+    private String alias;
+    @Transient
     private String ip;
+    @Transient
     private String userAgent;
-}
\ No newline at end of file
+    @Transient
+    private String referrer;
+    // Shard the link id was resolved on; the row must be written there
+    @Transient
+    private Integer shard;
+    // Flagged by BotFilter: counted in the rollups but not stored as a row
+    @Transient
+    private boolean bot;
+    // Flagged by ClickDeduplicator: a repeat within the dedup window, counted in the rollups but not stored as a row
+    @Transient
+    private boolean duplicate;
+    // Skipped by ClickSampler: counted in the rollups and unique visitors, another row carries its weight
+    @Transient
+    private boolean sampledOut;
+}
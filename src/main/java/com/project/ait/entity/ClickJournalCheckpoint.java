@@ -0,0 +1,32 @@
+package com.project.ait.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * How far a node's click journal has been loaded into this shard: every journaled click at or
+ * before (segment, position) that belongs here is in click_log. Written in the same transaction
+ * as the clicks it covers.
+ */
+@Entity
+@Table(name = "click_journal_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClickJournalCheckpoint {
+    @Id
+    @Column(length = 36)
+    private String journalId;
+
+    @Column(nullable = false)
+    private long segment;
+
+    @Column(nullable = false)
+    private long position;
+
+    private Instant updatedAt;
+}
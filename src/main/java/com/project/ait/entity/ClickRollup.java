@@ -0,0 +1,43 @@
+package com.project.ait.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Daily click counters per alias and dimension value, maintained by the click pipeline so that
+ * breakdowns never scan click_event.
+ */
+@Entity
+@Table(name = "click_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_alias_date_dim_code", columnNames = {"alias", "bucket_date", "dimension", "code"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClickRollup {
+    public enum Dimension { BROWSER, OS, DEVICE, COUNTRY }
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String alias;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private Dimension dimension;
+
+    // Enum ordinal, or a CountryCodes code for COUNTRY
+    @Column(nullable = false)
+    private short code;
+
+    @Column(nullable = false)
+    private long clicks;
+}
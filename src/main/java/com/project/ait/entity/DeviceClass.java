@@ -0,0 +1,13 @@
+package com.project.ait.entity;
+
+/**
+ * Device class parsed from the User-Agent header. Persisted by ordinal: only append new constants.
+ */
+public enum DeviceClass {
+    UNKNOWN,
+    OTHER,
+    DESKTOP,
+    MOBILE,
+    TABLET,
+    BOT
+}
@@ -0,0 +1,37 @@
+package com.project.ait.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+
+/**
+ * Interned string shared by many clicks (User-Agent or Referer). Lookups go through the 64-bit
+ * hash because long VARCHARs cannot carry a unique index in MySQL.
+ */
+@Entity
+@Table(name = "click_dictionary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_dictionary_kind_hash", columnNames = {"kind", "value_hash"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DictionaryEntry {
+    public enum Kind { USER_AGENT, REFERRER }
+
+    public static final int MAX_VALUE_LENGTH = 2048;
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private Kind kind;
+
+    @Column(name = "value_hash", nullable = false)
+    private long valueHash;
+
+    @Column(name = "entry_value", nullable = false, length = MAX_VALUE_LENGTH)
+    private String value;
+}
@@ -0,0 +1,15 @@
+package com.project.ait.entity;
+
+/**
+ * Operating system parsed from the User-Agent header. Persisted by ordinal: only append new constants.
+ */
+public enum OperatingSystem {
+    UNKNOWN,
+    OTHER,
+    WINDOWS,
+    MACOS,
+    IOS,
+    ANDROID,
+    LINUX,
+    CHROME_OS
+}
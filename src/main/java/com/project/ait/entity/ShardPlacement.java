@@ -0,0 +1,32 @@
+package com.project.ait.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Alias pinned to a shard other than the one the hash ring would pick, written at cutover and for
+ * aliases created during a rebalance. Lives on the home shard only, and is deleted once the
+ * rebalance has widened the ring to every shard.
+ */
+@Entity
+@Table(name = "shard_placement", indexes = {@Index(columnList = "movedAt")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardPlacement {
+    @Id
+    private String alias;
+
+    @Column(nullable = false)
+    private int shard;
+
+    // Where the alias was copied from, and the last source click id already copied
+    private int sourceShard;
+    private Long copiedUpTo;
+
+    private Instant movedAt;
+}
@@ -0,0 +1,30 @@
+package com.project.ait.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Number of shards in the hash ring, raised by the rebalancer once every alias sits on its
+ * post-rebalance shard. Nodes take the larger of this and {@code app.shards.active}. A single row
+ * on the home shard only.
+ */
+@Entity
+@Table(name = "shard_ring")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardRing {
+    public static final int ID = 1;
+
+    @Id
+    private int id;
+
+    @Column(nullable = false)
+    private int activeShards;
+
+    private Instant updatedAt;
+}
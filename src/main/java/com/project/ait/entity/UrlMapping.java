@@ -26,6 +26,8 @@ public class UrlMapping implements Serializable {
     private String longUrl;
 
     private String createdByIp;
+    // Id of the API key that created the link, if any; that key may change or delete it
+    private Long createdByKeyId;
     private Instant createdAt;
     private Instant expiresAt;
     @Builder.Default
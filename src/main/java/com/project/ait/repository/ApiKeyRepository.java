@@ -0,0 +1,10 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
+    List<ApiKey> findByActiveTrue();
+}
@@ -0,0 +1,23 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.ApiKeyUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ApiKeyUsageRepository extends JpaRepository<ApiKeyUsage, Long> {
+
+    @Modifying
+    @Query("update ApiKeyUsage u set u.requests = u.requests + :requests, u.links = u.links + :links"
+            + " where u.apiKeyId = :apiKeyId and u.usageDate = :usageDate")
+    int increment(@Param("apiKeyId") Long apiKeyId,
+                  @Param("usageDate") LocalDate usageDate,
+                  @Param("requests") long requests,
+                  @Param("links") long links);
+
+    List<ApiKeyUsage> findByApiKeyIdAndUsageDateGreaterThanEqualOrderByUsageDateDesc(Long apiKeyId, LocalDate from);
+}
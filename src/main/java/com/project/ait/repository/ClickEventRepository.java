@@ -1,11 +1,52 @@
 package com.project.ait.repository;
 
 import com.project.ait.entity.ClickEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ClickEventRepository extends JpaRepository<ClickEvent, Long> {
-    List<ClickEvent> findByAliasOrderByClickedAtDesc(String alias);
-    long countByAlias(String alias);
-}
\ No newline at end of file
+    long countByLinkId(Long linkId);
+
+    // Stored rows only; click totals come from the rollups (ClickRollupService.totalClicks)
+    @Query("select count(c) from ClickEvent c where c.linkId = (select m.id from UrlMapping m where m.alias = :alias)")
+    long countByAlias(@Param("alias") String alias);
+
+    // Keyset pagination over the (linkId, clickedAt, id) index, newest first
+    @Query("select c from ClickEvent c where c.linkId = :linkId order by c.clickedAt desc, c.id desc")
+    List<ClickEvent> findFirstPage(@Param("linkId") Long linkId, Pageable pageable);
+
+    @Query("select c from ClickEvent c where c.linkId = :linkId"
+            + " and (c.clickedAt < :clickedAt or (c.clickedAt = :clickedAt and c.id < :id))"
+            + " order by c.clickedAt desc, c.id desc")
+    List<ClickEvent> findPageBefore(@Param("linkId") Long linkId,
+                                    @Param("clickedAt") Instant clickedAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    // Must be consumed inside a transaction; MySQL honours the fetch size with useCursorFetch=true
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from ClickEvent c where c.linkId = :linkId order by c.clickedAt desc, c.id desc")
+    Stream<ClickEvent> streamByLinkId(@Param("linkId") Long linkId);
+
+    // Shard rebalancing: copy a link's clicks in id order, then drop them from the source shard
+    List<ClickEvent> findByLinkIdAndIdGreaterThanOrderByIdAsc(Long linkId, Long id, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ClickEvent c where c.linkId = :linkId")
+    int deleteByLinkId(@Param("linkId") Long linkId);
+}
@@ -0,0 +1,7 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.ClickJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ClickJournalCheckpointRepository extends JpaRepository<ClickJournalCheckpoint, String> {
+}
@@ -0,0 +1,50 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.ClickEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Batched click_log inserts over plain JDBC, for bulk loads. With
+ * {@code rewriteBatchedStatements=true} on the JDBC URL, Connector/J sends each batch as a few
+ * multi-row INSERTs instead of one statement per row.
+ */
+@Repository
+public class ClickLogBulkWriter {
+    private static final String INSERT = "insert into click_log"
+            + " (link_id, clicked_at, ip_address, user_agent_id, referrer_id, browser, os, device, country, weight)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickLogBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Inserts enriched clicks on the current shard. */
+    public void insert(List<ClickEvent> rows) {
+        jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (ps, e) -> {
+            ps.setLong(1, e.getLinkId());
+            ps.setTimestamp(2, e.getClickedAt() == null ? null : Timestamp.from(e.getClickedAt()));
+            ps.setBytes(3, e.getIpAddress());
+            ps.setObject(4, e.getUserAgentId(), Types.INTEGER);
+            ps.setObject(5, e.getReferrerId(), Types.INTEGER);
+            setOrdinal(ps, 6, e.getBrowser());
+            setOrdinal(ps, 7, e.getOs());
+            setOrdinal(ps, 8, e.getDevice());
+            ps.setString(9, e.getCountry());
+            ps.setObject(10, e.getWeight(), Types.INTEGER);
+        });
+    }
+
+    private static void setOrdinal(PreparedStatement ps, int index, Enum<?> value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.TINYINT);
+        else ps.setInt(index, value.ordinal());
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.ClickRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ClickRollupRepository extends JpaRepository<ClickRollup, Long> {
+
+    @Modifying
+    @Query("update ClickRollup r set r.clicks = r.clicks + :delta"
+            + " where r.alias = :alias and r.bucketDate = :bucketDate and r.dimension = :dimension and r.code = :code")
+    int increment(@Param("alias") String alias,
+                  @Param("bucketDate") LocalDate bucketDate,
+                  @Param("dimension") ClickRollup.Dimension dimension,
+                  @Param("code") short code,
+                  @Param("delta") long delta);
+
+    // Rows of [dimension, code, sum(clicks)]
+    @Query("select r.dimension, r.code, sum(r.clicks) from ClickRollup r"
+            + " where r.alias = :alias and r.bucketDate between :from and :to group by r.dimension, r.code")
+    List<Object[]> breakdown(@Param("alias") String alias, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Click totals over all days: every click adds one to exactly one value of a dimension
+    @Query("select coalesce(sum(r.clicks), 0) from ClickRollup r"
+            + " where r.alias = :alias and r.dimension = :dimension and r.code <> :excluded")
+    long total(@Param("alias") String alias, @Param("dimension") ClickRollup.Dimension dimension, @Param("excluded") short excluded);
+
+    // Rows of [alias, sum(clicks)] for the aliases that have clicks, counted like total()
+    @Query("select r.alias, sum(r.clicks) from ClickRollup r"
+            + " where r.alias in :aliases and r.dimension = :dimension and r.code <> :excluded group by r.alias")
+    List<Object[]> totals(@Param("aliases") Collection<String> aliases, @Param("dimension") ClickRollup.Dimension dimension, @Param("excluded") short excluded);
+
+    // Shard rebalancing: merged into the target shard, then dropped from the source
+    List<ClickRollup> findByAlias(String alias);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ClickRollup r where r.alias = :alias")
+    int deleteByAlias(@Param("alias") String alias);
+}
@@ -0,0 +1,10 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.DictionaryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface DictionaryEntryRepository extends JpaRepository<DictionaryEntry, Integer> {
+    Optional<DictionaryEntry> findByKindAndValueHash(DictionaryEntry.Kind kind, long valueHash);
+}
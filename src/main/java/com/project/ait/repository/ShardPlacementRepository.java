@@ -0,0 +1,12 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.ShardPlacement;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ShardPlacementRepository extends JpaRepository<ShardPlacement, String> {
+
+    List<ShardPlacement> findByMovedAtGreaterThanEqual(Instant since);
+}
@@ -0,0 +1,7 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.ShardRing;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ShardRingRepository extends JpaRepository<ShardRing, Integer> {
+}
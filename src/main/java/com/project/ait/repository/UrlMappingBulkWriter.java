@@ -0,0 +1,46 @@
+package com.project.ait.repository;
+
+import com.project.ait.entity.UrlMapping;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Batched url_mapping inserts over plain JDBC. Identity ids keep Hibernate from batching inserts,
+ * so bulk loads bypass JPA. Rows whose alias already exists are skipped, which makes every caller
+ * safe to retry.
+ */
+@Repository
+public class UrlMappingBulkWriter {
+    private static final String INSERT = "insert ignore into url_mapping"
+            + " (alias, long_url, created_by_ip, created_by_key_id, created_at, expires_at, active, custom_alias)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UrlMappingBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts {@code rows} on the current shard and returns one update count per row: 0 if the alias
+     * already existed, 1 or {@link java.sql.Statement#SUCCESS_NO_INFO} (rewritten batches) otherwise.
+     */
+    public int[] insertIgnoringExisting(List<UrlMapping> rows) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (ps, m) -> {
+            ps.setString(1, m.getAlias());
+            ps.setString(2, m.getLongUrl());
+            ps.setString(3, m.getCreatedByIp());
+            ps.setObject(4, m.getCreatedByKeyId(), Types.BIGINT);
+            ps.setTimestamp(5, m.getCreatedAt() == null ? null : Timestamp.from(m.getCreatedAt()));
+            ps.setTimestamp(6, m.getExpiresAt() == null ? null : Timestamp.from(m.getExpiresAt()));
+            ps.setBoolean(7, m.isActive());
+            ps.setBoolean(8, m.isCustomAlias());
+        });
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+    }
+}
@@ -1,11 +1,59 @@
 package com.project.ait.repository;
 
+import com.project.ait.dto.AliasTarget;
 import com.project.ait.entity.UrlMapping;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UrlMappingRepository extends JpaRepository<UrlMapping, Long> {
+    // Redirect path: fail fast so the alias cache can fall back to a stale entry
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "1000"))
     Optional<UrlMapping> findByAlias(String alias);
     boolean existsByAlias(String alias);
-}
\ No newline at end of file
+
+    // Batch info lookups: one IN query per shard
+    List<UrlMapping> findByAliasIn(Collection<String> aliases);
+
+    // Snapshot import: which of a batch's aliases already exist on this shard
+    @Query("select m.alias from UrlMapping m where m.alias in :aliases")
+    List<String> findExistingAliases(@Param("aliases") Collection<String> aliases);
+
+    @Query("select m.id from UrlMapping m where m.alias = :alias")
+    Optional<Long> findIdByAlias(@Param("alias") String alias);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UrlMapping m where m.alias = :alias")
+    int deleteByAlias(@Param("alias") String alias);
+
+    // Keyset scan over one shard's mappings, used by the shard rebalancer
+    List<UrlMapping> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Bulk load of redirect targets in id order, without entity overhead
+    @Query("select new com.project.ait.dto.AliasTarget(m.id, m.alias, m.longUrl, m.expiresAt, m.active)"
+            + " from UrlMapping m where m.id > :afterId order by m.id")
+    List<AliasTarget> findTargetsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Snapshot export; must be consumed inside a transaction, like the click log export
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    // Live mappings only: inactive and expired links answer 410 and are not worth copying
+    @Query("select m from UrlMapping m where m.id > :afterId and (:since is null or m.createdAt >= :since)"
+            + " and m.active = true and (m.expiresAt is null or m.expiresAt > :now) order by m.id")
+    Stream<UrlMapping> streamLiveAfter(@Param("afterId") Long afterId, @Param("since") Instant since, @Param("now") Instant now);
+}
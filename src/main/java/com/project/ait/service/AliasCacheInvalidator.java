@@ -0,0 +1,71 @@
+package com.project.ait.service;
+
+import com.project.ait.config.TieredCache;
+import com.project.ait.dto.AliasChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Invalidates a changed mapping in the alias cache on every node.
+ *
+ * The node making the change evicts the shared Redis entry and its own in-process copy, then
+ * publishes the change on the {@link AliasChangeFeed}. Every node follows the feed every
+ * {@code app.alias-feed.invalidation-poll-ms} and drops its in-process copies of the aliases that
+ * changed, and forgets newly created aliases it had cached as {@link MissingAliases missing}.
+ * Changes missed while Redis is unavailable are bounded by the L1 freshness window.
+ */
+@Service
+public class AliasCacheInvalidator {
+    private final AliasChangeFeed aliasChangeFeed;
+    private final CacheManager cacheManager;
+    private final ClickCodec clickCodec;
+    private final MissingAliases missingAliases;
+    private final int batchSize;
+    private AliasChangeFeed.Position position;
+
+    public AliasCacheInvalidator(AliasChangeFeed aliasChangeFeed,
+                                 CacheManager cacheManager,
+                                 ClickCodec clickCodec,
+                                 MissingAliases missingAliases,
+                                 @Value("${app.alias-feed.invalidation-batch-size:1000}") int batchSize) {
+        this.aliasChangeFeed = aliasChangeFeed;
+        this.cacheManager = cacheManager;
+        this.clickCodec = clickCodec;
+        this.missingAliases = missingAliases;
+        this.batchSize = batchSize;
+    }
+
+    /** Called by the node that changed or deleted the mapping, after the database write. */
+    public void changed(AliasChange change) {
+        Cache cache = cacheManager.getCache("alias");
+        // Redis first: other nodes reload from it as soon as they see the change
+        if (cache != null) cache.evict(change.alias());
+        if (change.deleted()) clickCodec.forget(change.alias());
+        aliasChangeFeed.publish(change);
+    }
+
+    @Scheduled(fixedDelayString = "${app.alias-feed.invalidation-poll-ms:100}")
+    public synchronized void poll() {
+        if (position == null) {
+            // Entries cached before this node started were loaded after any older change
+            position = aliasChangeFeed.head();
+            return;
+        }
+        List<AliasChangeFeed.Item> items = aliasChangeFeed.readAfter(position, batchSize);
+        if (items == null || items.isEmpty()) return;
+        Cache cache = cacheManager.getCache("alias");
+        for (AliasChangeFeed.Item item : items) {
+            AliasChange change = item.change();
+            if (cache instanceof TieredCache tiered) tiered.evictLocal(change.alias());
+            if (change.deleted()) clickCodec.forget(change.alias());
+            // Also carries links created on other nodes, which may be cached here as missing
+            else missingAliases.forget(change.alias());
+        }
+        position = items.get(items.size() - 1).position();
+    }
+}
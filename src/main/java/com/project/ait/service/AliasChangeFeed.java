@@ -0,0 +1,171 @@
+package com.project.ait.service;
+
+import com.project.ait.dto.AliasChange;
+import com.project.ait.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cluster-wide feed of mapping changes, kept in a Redis stream for {@code app.alias-feed.retention-hours}.
+ *
+ * Writers publish every change; readers keep their own position and poll for changes after it.
+ * A reader whose position is older than the retention may have missed trimmed changes and must
+ * reload from MySQL instead. Redis calls go through the shared breaker: publishing is best effort
+ * and reads return nothing while Redis is unavailable.
+ */
+@Service
+public class AliasChangeFeed {
+    public static final String STREAM_KEY = "alias-changes";
+
+    private static final RedisScript<Long> TRIM = new DefaultRedisScript<>(
+            "return redis.call('XTRIM', KEYS[1], 'MINID', ARGV[1])", Long.class);
+
+    /** A position in the feed: a Redis stream id. Reads return changes strictly after it. */
+    public record Position(long millis, long sequence) implements Comparable<Position> {
+        public static final Position START = new Position(0, 0);
+
+        static Position of(RecordId id) {
+            return new Position(id.getTimestamp(), id.getSequence());
+        }
+
+        RecordId toRecordId() {
+            return RecordId.of(millis, sequence);
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int byMillis = Long.compare(millis, other.millis);
+            return byMillis != 0 ? byMillis : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    public record Item(Position position, AliasChange change) { }
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final Duration retention;
+
+    public AliasChangeFeed(StringRedisTemplate redisTemplate,
+                           CircuitBreaker redisCircuitBreaker,
+                           @Value("${app.alias-feed.retention-hours:24}") int retentionHours) {
+        this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    public void publish(AliasChange change) {
+        redisCircuitBreaker.run(() -> redisTemplate.opsForStream().add(record(change)));
+    }
+
+    /** Publishes many changes in one pipeline, e.g. the rows of a bulk import. */
+    public void publishAll(Collection<AliasChange> changes) {
+        if (changes.isEmpty()) return;
+        redisCircuitBreaker.run(() -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                // The pipelined connection is bound to this thread, so the template's own calls join it
+                for (AliasChange change : changes) redisTemplate.opsForStream().add(record(change));
+                return null;
+            }
+        }));
+    }
+
+    private static MapRecord<String, String, String> record(AliasChange change) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("alias", change.alias());
+        if (change.deleted()) {
+            fields.put("deleted", "1");
+        } else {
+            fields.put("longUrl", change.longUrl());
+            fields.put("active", change.active() ? "1" : "0");
+            if (change.expiresAt() != null) fields.put("expiresAt", Long.toString(change.expiresAt().toEpochMilli()));
+        }
+        return StreamRecords.string(fields).withStreamKey(STREAM_KEY);
+    }
+
+    /** Up to {@code count} changes after {@code after}, oldest first; null if Redis is unavailable. */
+    public List<Item> readAfter(Position after, int count) {
+        return redisCircuitBreaker.call(() -> {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                    StreamReadOptions.empty().count(count),
+                    StreamOffset.create(STREAM_KEY, ReadOffset.from(after.toRecordId())));
+            return records == null ? List.<Item>of() : records.stream().map(AliasChangeFeed::toItem).toList();
+        }, () -> null);
+    }
+
+    /** Position of the newest change, or the current server time if the feed is empty; null if Redis is unavailable. */
+    public Position head() {
+        return redisCircuitBreaker.call(() -> {
+            List<MapRecord<String, Object, Object>> newest = redisTemplate.opsForStream()
+                    .reverseRange(STREAM_KEY, Range.unbounded(), Limit.limit().count(1));
+            if (newest != null && !newest.isEmpty()) return Position.of(newest.get(0).getId());
+            Long now = serverTime();
+            return now == null ? null : idleAt(now);
+        }, () -> null);
+    }
+
+    /** Redis server time in milliseconds, the clock stream ids are derived from; null if Redis is unavailable. */
+    public Long now() {
+        return redisCircuitBreaker.call(this::serverTime, () -> null);
+    }
+
+    /**
+     * Position a caught-up reader can move to when a read at server time {@code now} returned
+     * nothing: any change published afterwards has an id of at least {@code now}.
+     */
+    public Position idleAt(long now) {
+        return new Position(now - 1, Long.MAX_VALUE);
+    }
+
+    /** True if changes after {@code position} may already have been trimmed. */
+    public boolean isBehindRetention(Position position, long now) {
+        return position.millis() < now - retention.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${app.alias-feed.trim-interval-ms:600000}")
+    public void trim() {
+        long minId = Instant.now().minus(retention).toEpochMilli();
+        redisCircuitBreaker.run(() -> redisTemplate.execute(TRIM, List.of(STREAM_KEY), Long.toString(minId)));
+    }
+
+    private Long serverTime() {
+        return redisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().time());
+    }
+
+    private static Item toItem(MapRecord<String, Object, Object> record) {
+        Map<Object, Object> fields = record.getValue();
+        String alias = (String) fields.get("alias");
+        AliasChange change;
+        if ("1".equals(fields.get("deleted"))) {
+            change = AliasChange.deleted(alias);
+        } else {
+            Object expiresAt = fields.get("expiresAt");
+            change = new AliasChange(alias, (String) fields.get("longUrl"),
+                    expiresAt == null ? null : Instant.ofEpochMilli(Long.parseLong((String) expiresAt)),
+                    "1".equals(fields.get("active")), false);
+        }
+        return new Item(Position.of(record.getId()), change);
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.ait.service;
+
+import com.project.ait.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cluster-wide alias claims in Redis ({@code SET NX} with a TTL). A short claim only turns away
+ * concurrent duplicates of a hot alias before they reach MySQL, where the unique index has the
+ * final say; write-behind creation holds a longer claim until its row has been inserted.
+ *
+ * A write-behind claim starts out marked as queued and is flipped once its row is inserted, so
+ * every node can tell a link that is still waiting for its row from one that does not exist.
+ */
+@Service
+public class AliasReservations {
+    private static final String KEY_PREFIX = "alias-claim:";
+    private static final String CLAIMED = "1";
+    private static final String QUEUED = "queued";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final Duration defaultTtl;
+
+    public AliasReservations(StringRedisTemplate redisTemplate,
+                             CircuitBreaker redisCircuitBreaker,
+                             @Value("${app.alias.reservation-ttl-ms:5000}") long reservationTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.defaultTtl = Duration.ofMillis(reservationTtlMillis);
+    }
+
+    /** True if claimed, false if someone else holds the claim, null if Redis is unavailable. */
+    public Boolean reserve(String alias) {
+        return reserve(alias, defaultTtl);
+    }
+
+    public Boolean reserve(String alias, Duration ttl) {
+        return redisCircuitBreaker.call(() -> redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + alias, CLAIMED, ttl), () -> null);
+    }
+
+    /** Like {@link #reserve(String, Duration)}, with the claim marked as queued until {@link #persisted}. */
+    public Boolean reserveQueued(String alias, Duration ttl) {
+        return redisCircuitBreaker.call(() -> redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + alias, QUEUED, ttl), () -> null);
+    }
+
+    /** Marks the claims of inserted write-behind links as no longer queued; their TTL is kept. */
+    public void persisted(Collection<String> aliases) {
+        if (aliases.isEmpty()) return;
+        byte[] value = CLAIMED.getBytes(StandardCharsets.UTF_8);
+        redisCircuitBreaker.run(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String alias : aliases) {
+                connection.stringCommands().set((KEY_PREFIX + alias).getBytes(StandardCharsets.UTF_8), value,
+                        Expiration.keepTtl(), RedisStringCommands.SetOption.ifPresent());
+            }
+            return null;
+        }));
+    }
+
+    /** Those of {@code aliases} whose write-behind row is still queued on some node; empty if Redis is unavailable. */
+    public Set<String> queued(Collection<String> aliases) {
+        if (aliases.isEmpty()) return Set.of();
+        List<String> ordered = List.copyOf(aliases);
+        List<String> values = redisCircuitBreaker.call(
+                () -> redisTemplate.opsForValue().multiGet(ordered.stream().map(alias -> KEY_PREFIX + alias).toList()), () -> null);
+        if (values == null) return Set.of();
+        Set<String> queued = new HashSet<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            if (QUEUED.equals(values.get(i))) queued.add(ordered.get(i));
+        }
+        return queued;
+    }
+
+    /** Drops a claim whose create did not go through, so a retry is not turned away. */
+    public void release(String alias) {
+        redisCircuitBreaker.run(() -> redisTemplate.delete(KEY_PREFIX + alias));
+    }
+}
@@ -0,0 +1,174 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ApiKey;
+import com.project.ait.util.CircuitBreaker;
+import com.project.ait.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key quotas enforced from memory, with the cluster-wide picture reconciled in batches.
+ *
+ * Requests per second: each node runs a token bucket per key at its share of the key's rate, the
+ * share being the rate divided by the number of live nodes (nodes announce themselves in a Redis
+ * sorted set on every reconcile).
+ *
+ * Links per day: each node counts links created since its last reconcile; one pipelined
+ * {@code INCRBY} per key adds them to the day's Redis counter and returns the cluster total. A
+ * link is admitted while the last known total plus the local count is below the limit, so the
+ * cluster can overshoot by at most what the other nodes admit within one reconcile interval.
+ *
+ * While Redis is unavailable, quotas keep being enforced from the last known totals.
+ */
+@Service
+public class ApiKeyQuotas {
+    static final String LINKS_KEY_PREFIX = "api-quota:links:";
+    static final String NODES_KEY = "api-quota:nodes";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final long nodeTimeoutMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<Long, KeyState> states = new ConcurrentHashMap<>();
+    private volatile int liveNodes = 1;
+
+    private static final class KeyState {
+        final TokenBucket requests;
+        final AtomicLong pendingLinks = new AtomicLong();
+        volatile LocalDate day;
+        volatile long clusterLinks;
+
+        KeyState(TokenBucket requests, LocalDate day) {
+            this.requests = requests;
+            this.day = day;
+        }
+    }
+
+    public ApiKeyQuotas(StringRedisTemplate redisTemplate,
+                        CircuitBreaker redisCircuitBreaker,
+                        @Value("${app.api-keys.node-timeout-ms:10000}") long nodeTimeoutMillis) {
+        this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.nodeTimeoutMillis = nodeTimeoutMillis;
+    }
+
+    /** Takes one request from the key's per-second budget; false if it is exhausted. */
+    public boolean tryRequest(ApiKey key) {
+        if (key.getRequestsPerSecond() <= 0) return true;
+        long now = System.nanoTime();
+        KeyState state = state(key);
+        double share = Math.max(1d, (double) key.getRequestsPerSecond() / liveNodes);
+        state.requests.setRate(share, share, now);
+        return state.requests.tryAcquire(now);
+    }
+
+    /** Takes one link from the key's daily quota; false if it is used up. */
+    public boolean tryLink(ApiKey key) {
+        KeyState state = state(key);
+        if (key.getLinksPerDay() <= 0) {
+            state.pendingLinks.incrementAndGet();
+            return true;
+        }
+        if (state.clusterLinks + state.pendingLinks.incrementAndGet() > key.getLinksPerDay()) {
+            state.pendingLinks.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /** Gives back a link taken by {@link #tryLink} whose creation failed. */
+    public void refundLink(ApiKey key) {
+        state(key).pendingLinks.decrementAndGet();
+    }
+
+    /** Links left today as far as this node knows, or -1 for an unlimited key. */
+    public long linksRemaining(ApiKey key) {
+        if (key.getLinksPerDay() <= 0) return -1;
+        KeyState state = state(key);
+        return Math.max(0, key.getLinksPerDay() - state.clusterLinks - state.pendingLinks.get());
+    }
+
+    /** Time until the daily link quotas reset (UTC midnight). */
+    public Duration untilReset() {
+        return Duration.between(Instant.now(), today().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    /** Adds the local link counts to the cluster counters and refreshes the live node count. */
+    @Scheduled(fixedDelayString = "${app.api-keys.reconcile-ms:1000}")
+    public void reconcile() {
+        LocalDate today = today();
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        for (Map.Entry<Long, KeyState> entry : states.entrySet()) {
+            KeyState state = entry.getValue();
+            rollOver(state, today);
+            ids.add(entry.getKey());
+            deltas.add(state.pendingLinks.get());
+        }
+        String day = today.toString();
+        long nowMillis = System.currentTimeMillis();
+        long ttlSeconds = Duration.ofDays(2).toSeconds();
+        List<Object> results = redisCircuitBreaker.call(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (int i = 0; i < ids.size(); i++) {
+                String key = LINKS_KEY_PREFIX + ids.get(i) + ":" + day;
+                conn.incrBy(key, deltas.get(i));
+                conn.expire(key, ttlSeconds);
+            }
+            conn.zAdd(NODES_KEY, nowMillis, nodeId);
+            conn.zRemRangeByScore(NODES_KEY, 0, nowMillis - nodeTimeoutMillis);
+            conn.zCard(NODES_KEY);
+            return null;
+        }), () -> null);
+        if (results == null) return;
+
+        for (int i = 0; i < ids.size(); i++) {
+            KeyState state = states.get(ids.get(i));
+            if (state == null || !today.equals(state.day)) continue;
+            // The total already includes the delta just sent; links admitted meanwhile stay pending
+            state.pendingLinks.addAndGet(-deltas.get(i));
+            state.clusterLinks = ((Number) results.get(2 * i)).longValue();
+        }
+        Object nodes = results.get(results.size() - 1);
+        if (nodes instanceof Number n) liveNodes = Math.max(1, n.intValue());
+    }
+
+    private KeyState state(ApiKey key) {
+        LocalDate today = today();
+        KeyState state = states.computeIfAbsent(key.getId(), id -> {
+            double rate = Math.max(1d, key.getRequestsPerSecond());
+            return new KeyState(new TokenBucket(rate, rate, System.nanoTime()), today);
+        });
+        rollOver(state, today);
+        return state;
+    }
+
+    private static void rollOver(KeyState state, LocalDate today) {
+        if (today.equals(state.day)) return;
+        synchronized (state) {
+            if (today.equals(state.day)) return;
+            state.pendingLinks.set(0);
+            state.clusterLinks = 0;
+            state.day = today;
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
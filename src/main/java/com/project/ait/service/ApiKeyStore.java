@@ -0,0 +1,84 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ApiKey;
+import com.project.ait.repository.ApiKeyRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of all active API keys, keyed by the SHA-256 of the key. Requests are
+ * authenticated against this map only; it is reloaded from the home shard every
+ * {@code app.api-keys.refresh-ms}, so new, changed or revoked keys take effect within that interval.
+ */
+@Service
+public class ApiKeyStore {
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyStore.class);
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final boolean allowAnonymous;
+
+    private volatile Map<String, ApiKey> keysByHash = Map.of();
+
+    public ApiKeyStore(ApiKeyRepository apiKeyRepository,
+                       ShardRouter shardRouter,
+                       @Value("${app.api-keys.enabled:false}") boolean enabled,
+                       @Value("${app.api-keys.allow-anonymous:false}") boolean allowAnonymous) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.allowAnonymous = allowAnonymous;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Whether requests without a key fall through to the per-IP rate limit instead of being rejected. */
+    public boolean allowsAnonymous() {
+        return allowAnonymous;
+    }
+
+    /** The active key for {@code rawKey}, or null if it is unknown or revoked. */
+    public ApiKey find(String rawKey) {
+        if (rawKey == null || rawKey.isBlank()) return null;
+        return keysByHash.get(hash(rawKey));
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.api-keys.refresh-ms:30000}")
+    public void refresh() {
+        if (!enabled) return;
+        try {
+            List<ApiKey> rows = shardRouter.inShard(ShardRouter.HOME_SHARD, apiKeyRepository::findByActiveTrue);
+            Map<String, ApiKey> loaded = new HashMap<>();
+            for (ApiKey row : rows) loaded.put(row.getKeyHash(), row);
+            keysByHash = Map.copyOf(loaded);
+        } catch (Exception e) {
+            // Keep authenticating with the last known keys until the home shard is reachable again
+            log.warn("Failed to refresh API keys", e);
+        }
+    }
+
+    public static String hash(String rawKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ApiKey;
+import com.project.ait.entity.ApiKeyUsage;
+import com.project.ait.repository.ApiKeyUsageRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests and created links per API key in memory and adds them to the daily
+ * api_key_usage rows on the home shard in one transaction per flush. A failed flush puts its
+ * counts back, so they go out with the next one.
+ */
+@Service
+public class ApiKeyUsageMeter {
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyUsageMeter.class);
+
+    record UsageKey(long apiKeyId, LocalDate day) { }
+
+    private record Delta(UsageKey key, long requests, long links) { }
+
+    private static final class Counts {
+        final LongAdder requests = new LongAdder();
+        final LongAdder links = new LongAdder();
+    }
+
+    private final ApiKeyUsageRepository apiKeyUsageRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final Map<UsageKey, Counts> counts = new ConcurrentHashMap<>();
+
+    public ApiKeyUsageMeter(ApiKeyUsageRepository apiKeyUsageRepository,
+                            ShardRouter shardRouter,
+                            PlatformTransactionManager transactionManager) {
+        this.apiKeyUsageRepository = apiKeyUsageRepository;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void recordRequest(ApiKey key) {
+        countsFor(key).requests.increment();
+    }
+
+    public void recordLink(ApiKey key) {
+        countsFor(key).links.increment();
+    }
+
+    /** Daily usage of {@code key} over the last {@code days} days, newest first; excludes unflushed counts. */
+    public List<ApiKeyUsage> recent(ApiKey key, int days) {
+        LocalDate from = LocalDate.now(ZoneOffset.UTC).minusDays(days - 1L);
+        return shardRouter.inShard(ShardRouter.HOME_SHARD,
+                () -> apiKeyUsageRepository.findByApiKeyIdAndUsageDateGreaterThanEqualOrderByUsageDateDesc(key.getId(), from));
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.api-keys.usage-flush-ms:60000}")
+    public void flush() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<UsageKey, Counts> entry : counts.entrySet()) {
+            // Increments racing with the reset land in this flush or the next one, never in neither
+            long requests = entry.getValue().requests.sumThenReset();
+            long links = entry.getValue().links.sumThenReset();
+            if (requests != 0 || links != 0) deltas.add(new Delta(entry.getKey(), requests, links));
+            else if (entry.getKey().day().isBefore(today)) counts.remove(entry.getKey());
+        }
+        if (deltas.isEmpty()) return;
+        try {
+            shardRouter.inShard(ShardRouter.HOME_SHARD, () -> transaction.execute(status -> {
+                deltas.forEach(this::apply);
+                return null;
+            }));
+        } catch (Exception e) {
+            // A concurrent first insert from another node also ends up here; the retry takes the UPDATE path
+            log.warn("Failed to flush usage of {} API keys, retrying with the next flush", deltas.size(), e);
+            for (Delta delta : deltas) {
+                Counts c = counts.computeIfAbsent(delta.key(), k -> new Counts());
+                c.requests.add(delta.requests());
+                c.links.add(delta.links());
+            }
+        }
+    }
+
+    private void apply(Delta delta) {
+        UsageKey k = delta.key();
+        if (apiKeyUsageRepository.increment(k.apiKeyId(), k.day(), delta.requests(), delta.links()) == 0) {
+            apiKeyUsageRepository.save(ApiKeyUsage.builder()
+                    .apiKeyId(k.apiKeyId())
+                    .usageDate(k.day())
+                    .requests(delta.requests())
+                    .links(delta.links())
+                    .build());
+        }
+    }
+
+    private Counts countsFor(ApiKey key) {
+        return counts.computeIfAbsent(new UsageKey(key.getId(), LocalDate.now(ZoneOffset.UTC)), k -> new Counts());
+    }
+}
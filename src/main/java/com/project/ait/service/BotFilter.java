@@ -0,0 +1,61 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.DeviceClass;
+import com.project.ait.util.AhoCorasick;
+import com.project.ait.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Flags clicks from bots, crawlers and link-preview fetchers ({@code app.clicks.bots.*}). The
+ * User-Agent is matched against every signature in one pass of a precompiled {@link AhoCorasick}
+ * automaton, and results are cached per User-Agent string like the classifier's.
+ *
+ * A bare "bot" is not a signature, since it also matches device names such as CUBOT; bots are
+ * caught by "bot" followed by their version or a separator, or by the "+http" contact URL most of
+ * them carry.
+ *
+ * Flagged clicks get device class BOT and are not stored as click_log rows: they are only counted
+ * in the daily BOT device rollup, and they are left out of the unique-visitor sketches.
+ */
+@Component
+@Order(20)
+public class BotFilter implements ClickEnricher {
+    private static final String NO_MATCH = "";
+
+    private final boolean enabled;
+    private final AhoCorasick signatures;
+    private final BoundedCache<String, String> cache;
+
+    public BotFilter(@Value("${app.clicks.bots.enabled:false}") boolean enabled,
+                     @Value("${app.clicks.bots.signatures:bot/,bot-,bot),+http,crawl,spider,slurp,facebookexternalhit,facebookcatalog,meta-externalagent,"
+                             + "embedly,whatsapp,skypeuripreview,bingpreview,mediapartners-google,google-inspectiontool,vkshare,"
+                             + "ia_archiver,headlesschrome,phantomjs,curl/,wget/,python-requests,python-urllib,go-http-client,"
+                             + "apache-httpclient,libwww-perl,scrapy}") String signatures,
+                     @Value("${app.clicks.user-agent-cache-size:10000}") int cacheSize) {
+        this.enabled = enabled;
+        this.signatures = AhoCorasick.compile(Arrays.asList(signatures.split(",")));
+        this.cache = new BoundedCache<>(cacheSize);
+    }
+
+    /** The signature a User-Agent matches (lower case), or null if it does not look like a bot. */
+    public String signature(String userAgent) {
+        if (!enabled || userAgent == null) return null;
+        String match = cache.get(userAgent, ua -> {
+            String found = signatures.find(ua);
+            return found == null ? NO_MATCH : found;
+        });
+        return match.isEmpty() ? null : match;
+    }
+
+    @Override
+    public void enrich(ClickEvent event) {
+        if (signature(event.getUserAgent()) == null) return;
+        event.setBot(true);
+        event.setDevice(DeviceClass.BOT);
+    }
+}
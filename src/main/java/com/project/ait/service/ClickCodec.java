@@ -0,0 +1,89 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.DictionaryEntry;
+import com.project.ait.repository.UrlMappingRepository;
+import com.project.ait.util.BoundedCache;
+import com.project.ait.util.IpAddresses;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Storage enrichment stage, after the classifying ones: converts the readable click fields into the compact stored columns
+ * (link id, binary IP, dictionary ids), and back again when rows are read.
+ */
+@Component
+@Order(100)
+public class ClickCodec implements ClickEnricher {
+    private final UrlMappingRepository urlMappingRepository;
+    private final ClickDictionary clickDictionary;
+    private final ShardRouter shardRouter;
+    private final BoundedCache<String, LinkRef> linkIds;
+
+    // Link ids are per shard, so a cached id is only valid while the alias stays on that shard
+    private record LinkRef(int shard, long id) { }
+
+    public ClickCodec(UrlMappingRepository urlMappingRepository,
+                      ClickDictionary clickDictionary,
+                      ShardRouter shardRouter,
+                      @Value("${app.clicks.link-id-cache-size:100000}") int linkIdCacheSize) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.clickDictionary = clickDictionary;
+        this.shardRouter = shardRouter;
+        this.linkIds = new BoundedCache<>(linkIdCacheSize);
+    }
+
+    /** Numeric id of the mapping behind {@code alias} on its current shard; empty if the alias does not exist. */
+    public Optional<Long> linkId(String alias) {
+        return Optional.ofNullable(resolve(alias)).map(LinkRef::id);
+    }
+
+    /** Drops the cached id of a deleted link, so a link created later under the same alias is not confused with it. */
+    public void forget(String alias) {
+        linkIds.remove(alias);
+    }
+
+    private LinkRef resolve(String alias) {
+        if (alias == null) return null;
+        LinkRef ref = linkIds.get(alias);
+        if (ref != null && ref.shard() == shardRouter.shardFor(alias)) return ref;
+        for (int shard : shardRouter.candidateShards(alias)) {
+            Long id = shardRouter.inShard(shard, () -> urlMappingRepository.findIdByAlias(alias).orElse(null));
+            if (id != null) {
+                ref = new LinkRef(shard, id);
+                linkIds.put(alias, ref);
+                return ref;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void enrich(ClickEvent event) {
+        if (event.getLinkId() == null) {
+            // The id and the shard the row is written to must come from the same lookup
+            LinkRef ref = resolve(event.getAlias());
+            if (ref != null) {
+                event.setShard(ref.shard());
+                event.setLinkId(ref.id());
+            }
+        }
+        event.setIpAddress(IpAddresses.toBytes(event.getIp()));
+        // Bot hits, duplicates and sampled-out clicks are never stored as rows, so their strings are not worth interning
+        if (event.isBot() || event.isDuplicate() || event.isSampledOut()) return;
+        event.setUserAgentId(clickDictionary.intern(DictionaryEntry.Kind.USER_AGENT, event.getUserAgent()));
+        event.setReferrerId(clickDictionary.intern(DictionaryEntry.Kind.REFERRER, event.getReferrer()));
+    }
+
+    /** Restores the readable fields of a click loaded from the database. */
+    public ClickEvent decode(ClickEvent event, String alias) {
+        event.setAlias(alias);
+        event.setIp(IpAddresses.toText(event.getIpAddress()));
+        event.setUserAgent(clickDictionary.lookup(DictionaryEntry.Kind.USER_AGENT, event.getUserAgentId()));
+        event.setReferrer(clickDictionary.lookup(DictionaryEntry.Kind.REFERRER, event.getReferrerId()));
+        return event;
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.util.OffHeapLongCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flags repeated clicks from the same visitor on the same link ({@code app.clicks.dedup.*}), such as
+ * refresh storms and double-clicks. A click is a duplicate when the same (alias, IP, User-Agent)
+ * had a stored click less than {@code window-ms} earlier; the window restarts with every stored
+ * click, not with every duplicate.
+ *
+ * Duplicates are counted in the rollups like any other click but are not stored as click_log rows.
+ * The last stored click time is kept per 64-bit hash of the key in an {@link OffHeapLongCache}, so
+ * the state is node-local and bounded; a hash collision, an evicted key or a repeat processed on
+ * another node only means a row is stored after all.
+ */
+@Component
+@Order(30)
+public class ClickDeduplicator implements ClickEnricher {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final OffHeapLongCache lastStored;
+
+    public ClickDeduplicator(@Value("${app.clicks.dedup.enabled:false}") boolean enabled,
+                             @Value("${app.clicks.dedup.window-ms:5000}") long windowMillis,
+                             @Value("${app.clicks.dedup.capacity:1000000}") int capacity) {
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.lastStored = enabled ? new OffHeapLongCache(capacity) : null;
+    }
+
+    @Override
+    public void enrich(ClickEvent event) {
+        // Bot hits are not stored anyway
+        if (!enabled || event.isBot() || event.getClickedAt() == null) return;
+        long key = key(event.getAlias(), event.getIp(), event.getUserAgent());
+        long clickedAt = event.getClickedAt().toEpochMilli();
+        long previous = lastStored.get(key);
+        // A retried batch sees its own stored clicks again: the same timestamp is the same click, not a repeat.
+        // Clicks may arrive out of order (journal, stream redelivery), so the window applies both ways.
+        if (previous != 0 && clickedAt != previous && Math.abs(clickedAt - previous) < windowMillis) {
+            event.setDuplicate(true);
+            return;
+        }
+        lastStored.put(key, Math.max(Math.max(clickedAt, previous), 1));
+    }
+
+    /** 64-bit FNV-1a over the three strings, without allocating; never 0. */
+    static long key(String alias, String ip, String userAgent) {
+        long hash = mix(mix(mix(FNV_OFFSET, alias), ip), userAgent);
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // Separator, so ("ab", "c") and ("a", "bc") hash differently
+        return (hash ^ 0xffff) * FNV_PRIME;
+    }
+}
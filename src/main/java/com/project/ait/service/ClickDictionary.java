@@ -0,0 +1,97 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.DictionaryEntry;
+import com.project.ait.repository.DictionaryEntryRepository;
+import com.project.ait.util.BoundedCache;
+import com.project.ait.util.Hashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Interns User-Agent and Referer strings into click_dictionary so clicks only store a small id.
+ * Both directions are fronted by bounded in-process caches; after warm-up nearly every click is
+ * encoded without touching the database.
+ *
+ * The dictionary is global: it always lives on the home shard, so ids mean the same on every
+ * shard and clicks can move between shards without being re-encoded.
+ */
+@Service
+public class ClickDictionary {
+    private final DictionaryEntryRepository dictionaryEntryRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate separateTransaction;
+    private final Map<DictionaryEntry.Kind, BoundedCache<String, Integer>> ids = new EnumMap<>(DictionaryEntry.Kind.class);
+    private final Map<DictionaryEntry.Kind, BoundedCache<Integer, String>> values = new EnumMap<>(DictionaryEntry.Kind.class);
+
+    public ClickDictionary(DictionaryEntryRepository dictionaryEntryRepository,
+                           ShardRouter shardRouter,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.clicks.dictionary-cache-size:20000}") int cacheSize) {
+        this.dictionaryEntryRepository = dictionaryEntryRepository;
+        this.shardRouter = shardRouter;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (DictionaryEntry.Kind kind : DictionaryEntry.Kind.values()) {
+            ids.put(kind, new BoundedCache<>(cacheSize));
+            values.put(kind, new BoundedCache<>(cacheSize));
+        }
+    }
+
+    /** Id of {@code value}, creating the entry on first use. Returns null for null or empty values. */
+    public Integer intern(DictionaryEntry.Kind kind, String value) {
+        if (value == null || value.isEmpty()) return null;
+        String normalized = value.length() > DictionaryEntry.MAX_VALUE_LENGTH
+                ? value.substring(0, DictionaryEntry.MAX_VALUE_LENGTH) : value;
+        return ids.get(kind).get(normalized, v -> onHomeShard(() -> load(kind, v)));
+    }
+
+    public String lookup(DictionaryEntry.Kind kind, Integer id) {
+        if (id == null) return null;
+        BoundedCache<Integer, String> cache = values.get(kind);
+        String value = cache.get(id);
+        if (value == null) {
+            value = onHomeShard(() -> dictionaryEntryRepository.findById(id).map(DictionaryEntry::getValue).orElse(null));
+            if (value != null) cache.put(id, value);
+        }
+        return value;
+    }
+
+    private Integer load(DictionaryEntry.Kind kind, String value) {
+        // A 64-bit hash collision between two distinct strings is not expected at our cardinality;
+        // if one happens the later string is reported with the earlier one's value.
+        long hash = Hashing.fnv1a64(value);
+        var existing = dictionaryEntryRepository.findByKindAndValueHash(kind, hash);
+        if (existing.isPresent()) return existing.get().getId();
+        try {
+            DictionaryEntry saved = dictionaryEntryRepository.saveAndFlush(DictionaryEntry.builder()
+                    .kind(kind)
+                    .valueHash(hash)
+                    .value(value)
+                    .build());
+            values.get(kind).put(saved.getId(), value);
+            return saved.getId();
+        } catch (DataIntegrityViolationException e) {
+            // Interned concurrently by another worker or node
+            return dictionaryEntryRepository.findByKindAndValueHash(kind, hash)
+                    .map(DictionaryEntry::getId)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private <T> T onHomeShard(Supplier<T> action) {
+        // A transaction already open on another shard would keep using that shard's connection
+        if (shardRouter.isSharded() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            return shardRouter.inShard(ShardRouter.HOME_SHARD, () -> separateTransaction.execute(status -> action.get()));
+        }
+        return shardRouter.inShard(ShardRouter.HOME_SHARD, action);
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+
+/**
+ * A stage of the click pipeline that derives extra columns from the raw click before it is
+ * persisted. Enrichers run on the pipeline worker, never on the request thread.
+ */
+public interface ClickEnricher {
+    void enrich(ClickEvent event);
+}
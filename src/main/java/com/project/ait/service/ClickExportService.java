@@ -0,0 +1,110 @@
+package com.project.ait.service;
+
+import com.project.ait.dto.ClickEventView;
+import com.project.ait.dto.ClickPage;
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.repository.ClickEventRepository;
+import com.project.ait.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Bounded-memory access to the click log: keyset-paginated listing and row-by-row export.
+ */
+@Service
+public class ClickExportService {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final ClickEventRepository clickEventRepository;
+    private final ClickCodec clickCodec;
+    private final EntityManager entityManager;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ClickExportService(ClickEventRepository clickEventRepository,
+                              ClickCodec clickCodec,
+                              EntityManager entityManager,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager) {
+        this.clickEventRepository = clickEventRepository;
+        this.clickCodec = clickCodec;
+        this.entityManager = entityManager;
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(ClickEventView row) throws IOException;
+    }
+
+    public ClickPage listClicks(String alias, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return shardRouter.inShard(alias, () -> readPage(alias, cursor, limit));
+    }
+
+    private ClickPage readPage(String alias, String cursor, int limit) {
+        // Unknown aliases have no clicks; the click table is not queried for them
+        Optional<Long> link = clickCodec.linkId(alias);
+        if (link.isEmpty()) return new ClickPage(alias, List.of(), null);
+        long linkId = link.get();
+        // Fetch one extra row to know whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<ClickEvent> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = clickEventRepository.findFirstPage(linkId, pageable);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = clickEventRepository.findPageBefore(linkId, after.clickedAt(), after.id(), pageable);
+        }
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            ClickEvent last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getClickedAt(), last.getId()).encode();
+        }
+        return new ClickPage(alias, rows.stream().map(e -> ClickEventView.of(clickCodec.decode(e, alias))).toList(), nextCursor);
+    }
+
+    /**
+     * Streams every click of {@code alias} to {@code writer}, newest first. Rows are fetched from a
+     * server-side cursor and detached as soon as they are written, so heap use does not grow with
+     * the number of clicks. The transaction is opened inside the alias's shard.
+     */
+    public long exportClicks(String alias, RowWriter writer) {
+        Long count = shardRouter.inShard(alias, () -> readOnlyTransaction.execute(status -> streamClicks(alias, writer)));
+        return count == null ? 0 : count;
+    }
+
+    private long streamClicks(String alias, RowWriter writer) {
+        Optional<Long> link = clickCodec.linkId(alias);
+        if (link.isEmpty()) return 0;
+        long linkId = link.get();
+        long count = 0;
+        try (Stream<ClickEvent> rows = clickEventRepository.streamByLinkId(linkId)) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                ClickEvent e = it.next();
+                writer.write(ClickEventView.of(clickCodec.decode(e, alias)));
+                entityManager.detach(e);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
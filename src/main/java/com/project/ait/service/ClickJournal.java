@@ -0,0 +1,193 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.DictionaryEntry;
+import com.project.ait.util.IpAddresses;
+import com.project.ait.util.SegmentedJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in local click journal ({@code app.clicks.journal.enabled}): recorded clicks are appended to
+ * a memory-mapped {@link SegmentedJournal} instead of the in-memory pipeline queue, so they
+ * survive database outages and process restarts without slowing redirects down.
+ *
+ * A background thread forces the active segment to disk every {@code force-ms} (one msync for all
+ * clicks of the interval) and seals it once it is {@code seal-ms} old, which hands it to the
+ * {@link ClickJournalLoader}. Each journal directory has a stable id, under which the loader keeps
+ * its checkpoints in MySQL. When the journal cannot take a click (I/O error, or more than
+ * {@code max-sealed-segments} waiting to be loaded) the caller falls back to the in-memory queue.
+ */
+@Service
+public class ClickJournal {
+    private static final Logger log = LoggerFactory.getLogger(ClickJournal.class);
+
+    private static final String ID_FILE = "journal.id";
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentBytes;
+    private final long forceMillis;
+    private final long sealMillis;
+    private final int maxSealedSegments;
+    private SegmentedJournal journal;
+    private String journalId;
+    private Thread syncer;
+    private volatile boolean running;
+    private volatile int sealedCount;
+
+    public ClickJournal(@Value("${app.clicks.journal.enabled:false}") boolean enabled,
+                        @Value("${app.clicks.journal.path:data/click-journal}") String path,
+                        @Value("${app.clicks.journal.segment-mb:16}") int segmentMb,
+                        @Value("${app.clicks.journal.force-ms:20}") long forceMillis,
+                        @Value("${app.clicks.journal.seal-ms:1000}") long sealMillis,
+                        @Value("${app.clicks.journal.max-sealed-segments:2000}") int maxSealedSegments) {
+        this.enabled = enabled;
+        this.dir = Path.of(path);
+        this.segmentBytes = segmentMb << 20;
+        this.forceMillis = forceMillis;
+        this.sealMillis = sealMillis;
+        this.maxSealedSegments = maxSealedSegments;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Opened before the web server accepts requests, so the first clicks already go to the journal
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+        journal = SegmentedJournal.open(dir, segmentBytes);
+        journalId = readOrCreateId();
+        sealedCount = journal.sealedSegments().size();
+        if (sealedCount > 0) log.info("Click journal {} has {} segments waiting to be loaded", journalId, sealedCount);
+        running = true;
+        syncer = Thread.ofPlatform().name("click-journal-sync").daemon().start(this::runSyncer);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (!enabled) return;
+        running = false;
+        syncer.interrupt();
+        syncer.join(TimeUnit.SECONDS.toMillis(5));
+        // The active segment is sealed on the next start and loaded then
+        journal.close();
+    }
+
+    /** Appends a raw click; false if it must go through the in-memory queue instead. */
+    public boolean append(ClickEvent click) {
+        if (!enabled || sealedCount >= maxSealedSegments) return false;
+        try {
+            journal.append(encode(click));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to journal click on {}, queueing it in memory", click.getAlias(), e);
+            return false;
+        }
+    }
+
+    public String getJournalId() {
+        return journalId;
+    }
+
+    /** Sealed segments waiting to be loaded, oldest first. */
+    public List<Long> sealedSegments() {
+        return journal.sealedSegments();
+    }
+
+    public List<SegmentedJournal.Record> read(long segment) throws IOException {
+        return journal.read(segment);
+    }
+
+    /** Drops a segment whose clicks are all loaded. */
+    public void delete(long segment) throws IOException {
+        journal.delete(segment);
+        sealedCount = journal.sealedSegments().size();
+    }
+
+    private void runSyncer() {
+        while (running) {
+            try {
+                Thread.sleep(forceMillis);
+                journal.force();
+                if (journal.activeAgeMillis() >= sealMillis && journal.seal()) {
+                    sealedCount = journal.sealedSegments().size();
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts the sleep; the journal is forced on close
+            } catch (Exception e) {
+                log.warn("Failed to sync click journal", e);
+            }
+        }
+    }
+
+    private String readOrCreateId() throws IOException {
+        Path file = dir.resolve(ID_FILE);
+        if (Files.exists(file)) return Files.readString(file, StandardCharsets.UTF_8).trim();
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    static byte[] encode(ClickEvent click) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(click.getAlias());
+            out.writeLong(click.getClickedAt() == null ? Long.MIN_VALUE : click.getClickedAt().toEpochMilli());
+            byte[] ip = IpAddresses.toBytes(click.getIp());
+            out.writeByte(ip == null ? 0 : ip.length);
+            if (ip != null) out.write(ip);
+            writeOptional(out, click.getUserAgent());
+            writeOptional(out, click.getReferrer());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static ClickEvent decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String alias = in.readUTF();
+            long clickedAt = in.readLong();
+            byte[] ip = new byte[in.readUnsignedByte()];
+            in.readFully(ip);
+            return ClickEvent.builder()
+                    .alias(alias)
+                    .clickedAt(clickedAt == Long.MIN_VALUE ? null : Instant.ofEpochMilli(clickedAt))
+                    .ip(ip.length == 0 ? null : IpAddresses.toText(ip))
+                    .userAgent(readOptional(in))
+                    .referrer(readOptional(in))
+                    .build();
+        }
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        // Longer values are cut to this length when interned anyway
+        if (value != null) out.writeUTF(value.length() > DictionaryEntry.MAX_VALUE_LENGTH ? value.substring(0, DictionaryEntry.MAX_VALUE_LENGTH) : value);
+    }
+
+    private static String readOptional(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
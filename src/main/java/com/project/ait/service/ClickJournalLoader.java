@@ -0,0 +1,185 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.ClickJournalCheckpoint;
+import com.project.ait.repository.ClickJournalCheckpointRepository;
+import com.project.ait.repository.ClickLogBulkWriter;
+import com.project.ait.util.SegmentedJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads sealed {@link ClickJournal} segments into click_log, oldest first, in chunks of
+ * {@code load-batch-size} clicks: each chunk is enriched like pipeline clicks and written to every
+ * shard with one batched multi-row insert, the rollup update and the shard's checkpoint in a single
+ * transaction. A failed chunk rolls back as a whole and is retried; on replay after a crash, clicks
+ * at or before a shard's checkpoint are skipped, so every journaled click is loaded exactly once.
+ * A segment is deleted once all of its chunks are loaded.
+ */
+@Service
+public class ClickJournalLoader {
+    private static final Logger log = LoggerFactory.getLogger(ClickJournalLoader.class);
+
+    /** A journaled click and where its record ends, for checkpointing. */
+    private record Loaded(ClickEvent click, long segment, long end) { }
+
+    private final ClickJournal clickJournal;
+    private final ClickPipeline clickPipeline;
+    private final ClickLogBulkWriter clickLogBulkWriter;
+    private final ClickRollupService clickRollupService;
+    private final UniqueVisitorService uniqueVisitorService;
+    private final LinkVersions linkVersions;
+    private final ClickJournalCheckpointRepository checkpointRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final long pollMillis;
+    private final long retryMillis;
+    // Per shard; read lazily, since the shard may be unreachable at start-up
+    private final Map<Integer, ClickJournalCheckpoint> checkpoints = new HashMap<>();
+    private Thread loader;
+    private volatile boolean running;
+
+    public ClickJournalLoader(ClickJournal clickJournal,
+                              ClickPipeline clickPipeline,
+                              ClickLogBulkWriter clickLogBulkWriter,
+                              ClickRollupService clickRollupService,
+                              UniqueVisitorService uniqueVisitorService,
+                              LinkVersions linkVersions,
+                              ClickJournalCheckpointRepository checkpointRepository,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.clicks.journal.load-batch-size:5000}") int batchSize,
+                              @Value("${app.clicks.journal.load-poll-ms:500}") long pollMillis,
+                              @Value("${app.clicks.journal.retry-ms:1000}") long retryMillis) {
+        this.clickJournal = clickJournal;
+        this.clickPipeline = clickPipeline;
+        this.clickLogBulkWriter = clickLogBulkWriter;
+        this.clickRollupService = clickRollupService;
+        this.uniqueVisitorService = uniqueVisitorService;
+        this.linkVersions = linkVersions;
+        this.checkpointRepository = checkpointRepository;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+        this.retryMillis = retryMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!clickJournal.isEnabled()) return;
+        running = true;
+        loader = Thread.ofPlatform().name("click-journal-loader").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (loader == null) return;
+        running = false;
+        loader.interrupt();
+        // Whatever is not loaded yet stays in the journal for the next start
+        loader.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<Long> segments = clickJournal.sealedSegments();
+                if (segments.isEmpty()) {
+                    Thread.sleep(pollMillis);
+                    continue;
+                }
+                for (long segment : segments) {
+                    if (!running) return;
+                    load(segment);
+                    clickJournal.delete(segment);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts the sleep
+            } catch (Exception e) {
+                log.warn("Failed to load click journal, retrying", e);
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException ignored) {
+                    // Shutting down
+                }
+            }
+        }
+    }
+
+    void load(long segment) throws IOException {
+        List<SegmentedJournal.Record> records = clickJournal.read(segment);
+        for (int from = 0; from < records.size(); from += batchSize) {
+            List<Loaded> chunk = new ArrayList<>();
+            for (SegmentedJournal.Record record : records.subList(from, Math.min(from + batchSize, records.size()))) {
+                chunk.add(new Loaded(ClickJournal.decode(record.payload()), segment, record.end()));
+            }
+            loadChunk(chunk);
+        }
+    }
+
+    private void loadChunk(List<Loaded> chunk) {
+        List<ClickEvent> clicks = chunk.stream().map(Loaded::click).toList();
+        clickPipeline.enrich(clicks);
+        // Clicks on links still queued for insertion leave the journal and are retried by the pipeline
+        clickPipeline.park(clicks);
+        // Clicks whose alias was deleted before they were loaded have no row to point at
+        List<Loaded> rows = chunk.stream().filter(l -> l.click().getLinkId() != null).toList();
+        Loaded last = chunk.get(chunk.size() - 1);
+        List<ClickEvent> loaded = new ArrayList<>();
+        List<ClickEvent> counted = new ArrayList<>();
+        shardRouter.partition(rows, l -> l.click().getShard() == null ? ShardRouter.HOME_SHARD : l.click().getShard())
+                .forEach((shard, shardRows) -> {
+                    ClickJournalCheckpoint checkpoint = checkpoint(shard);
+                    List<ClickEvent> pending = shardRows.stream()
+                            .filter(l -> after(l, checkpoint))
+                            .map(Loaded::click)
+                            .toList();
+                    if (pending.isEmpty()) return;
+                    ClickJournalCheckpoint next = ClickJournalCheckpoint.builder()
+                            .journalId(checkpoint.getJournalId())
+                            .segment(last.segment())
+                            .position(last.end())
+                            .updatedAt(Instant.now())
+                            .build();
+                    List<ClickEvent> stored = ClickPipeline.stored(pending);
+                    shardRouter.inShard(shard, () -> transaction.execute(status -> {
+                        if (!stored.isEmpty()) clickLogBulkWriter.insert(stored);
+                        clickRollupService.apply(pending);
+                        return checkpointRepository.save(next);
+                    }));
+                    // Only advanced once committed; a rolled-back chunk is loaded again in full
+                    checkpoints.put(shard, next);
+                    loaded.addAll(ClickPipeline.visitors(pending));
+                    counted.addAll(ClickPipeline.counted(pending));
+                });
+        linkVersions.clicksChanged(ClickPipeline.aliases(counted));
+        // HyperLogLog adds are idempotent, so a chunk retried after a partial failure is harmless here
+        uniqueVisitorService.recordAll(loaded);
+    }
+
+    private ClickJournalCheckpoint checkpoint(int shard) {
+        return checkpoints.computeIfAbsent(shard, s -> shardRouter.inShard(s, () -> checkpointRepository.findById(clickJournal.getJournalId()))
+                .orElseGet(() -> ClickJournalCheckpoint.builder().journalId(clickJournal.getJournalId()).build()));
+    }
+
+    private static boolean after(Loaded loaded, ClickJournalCheckpoint checkpoint) {
+        return loaded.segment() > checkpoint.getSegment()
+                || loaded.segment() == checkpoint.getSegment() && loaded.end() > checkpoint.getPosition();
+    }
+}
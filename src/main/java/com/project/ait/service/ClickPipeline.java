@@ -0,0 +1,238 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.repository.ClickEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Moves click recording off the request thread.
+ *
+ * Redirects only enqueue the raw click. Worker threads drain the queue in batches, run every
+ * {@link ClickEnricher} on each click, insert each click on its alias's shard, update the
+ * rollups and feed the unique-visitor sketches. When the queue is full new clicks are dropped
+ * and counted rather than slowing redirects down. With the {@link ClickJournal} enabled, clicks are
+ * journaled instead and loaded in bulk by the {@link ClickJournalLoader}; the queue then only takes
+ * clicks the journal could not. With the {@link ClickStream} enabled, workers publish drained batches
+ * to a Redis stream instead of persisting them, and {@link ClickStreamConsumer}s persist them.
+ *
+ * With write-behind link creation, a redirect on one node may serve a link another node has not
+ * inserted yet. Clicks without a row whose alias is still claimed as queued are parked and retried
+ * every {@code app.write-behind.retry-ms} until the row exists; other clicks without a row are dropped.
+ */
+@Service
+public class ClickPipeline {
+    private static final Logger log = LoggerFactory.getLogger(ClickPipeline.class);
+
+    private static final int MAX_PARKED_CLICKS = 1000;
+
+    private final List<ClickEnricher> enrichers;
+    private final ClickEventRepository clickEventRepository;
+    private final ClickRollupService clickRollupService;
+    private final UniqueVisitorService uniqueVisitorService;
+    private final ShardRouter shardRouter;
+    private final ClickJournal clickJournal;
+    private final ClickStream clickStream;
+    private final LinkVersions linkVersions;
+    private final AliasReservations aliasReservations;
+    private final ClickCodec clickCodec;
+    private final boolean writeBehind;
+    private final BlockingQueue<ClickEvent> queue;
+    // Clicks on links queued for write-behind insertion on some node, by alias
+    private final Map<String, List<ClickEvent>> parked = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final int workers;
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public ClickPipeline(List<ClickEnricher> enrichers,
+                         ClickEventRepository clickEventRepository,
+                         ClickRollupService clickRollupService,
+                         UniqueVisitorService uniqueVisitorService,
+                         ShardRouter shardRouter,
+                         ClickJournal clickJournal,
+                         ClickStream clickStream,
+                         LinkVersions linkVersions,
+                         AliasReservations aliasReservations,
+                         ClickCodec clickCodec,
+                         @Value("${app.clicks.queue-capacity:100000}") int queueCapacity,
+                         @Value("${app.clicks.batch-size:500}") int batchSize,
+                         @Value("${app.clicks.workers:1}") int workers,
+                         @Value("${app.write-behind.enabled:false}") boolean writeBehind) {
+        this.enrichers = enrichers;
+        this.clickEventRepository = clickEventRepository;
+        this.clickRollupService = clickRollupService;
+        this.uniqueVisitorService = uniqueVisitorService;
+        this.shardRouter = shardRouter;
+        this.clickJournal = clickJournal;
+        this.clickStream = clickStream;
+        this.linkVersions = linkVersions;
+        this.aliasReservations = aliasReservations;
+        this.clickCodec = clickCodec;
+        this.writeBehind = writeBehind;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.workers = workers;
+    }
+
+    public boolean submit(ClickEvent event) {
+        if (clickJournal.append(event)) return true;
+        if (queue.offer(event)) return true;
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getBacklog() {
+        return queue.size();
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            threads.add(Thread.ofPlatform().name("click-pipeline-" + i).daemon().start(this::runWorker));
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread t : threads) t.interrupt();
+        for (Thread t : threads) t.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void runWorker() {
+        List<ClickEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ClickEvent first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                // stop() interrupts a blocked poll; the loop drains what is left before exiting
+            } catch (Exception e) {
+                log.warn("Failed to persist {} clicks", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void dispatch(List<ClickEvent> batch) {
+        // With the stream transport, consumer-group workers persist the batch; MySQL is written directly only while Redis is unavailable
+        if (clickStream.publish(batch)) return;
+        process(batch);
+    }
+
+    void process(List<ClickEvent> batch) {
+        enrich(batch);
+        park(batch);
+        persistEnriched(batch);
+    }
+
+    private void persistEnriched(List<ClickEvent> batch) {
+        // Clicks whose alias was deleted before they were processed have no row to point at
+        List<ClickEvent> rows = batch.stream().filter(e -> e.getLinkId() != null).toList();
+        Map<Integer, List<ClickEvent>> byShard = shardRouter.partition(rows,
+                e -> e.getShard() == null ? ShardRouter.HOME_SHARD : e.getShard());
+        byShard.forEach((shard, shardRows) -> shardRouter.inShard(shard, () -> persist(shardRows)));
+        linkVersions.clicksChanged(aliases(counted(rows)));
+        uniqueVisitorService.recordAll(visitors(rows));
+    }
+
+    /** Holds the enriched clicks that have no row yet because their link is still queued for write-behind insertion. */
+    void park(List<ClickEvent> enriched) {
+        if (!writeBehind) return;
+        Set<String> unresolved = aliases(enriched.stream().filter(e -> e.getLinkId() == null).toList());
+        if (unresolved.isEmpty()) return;
+        Set<String> queued = aliasReservations.queued(unresolved);
+        for (ClickEvent event : enriched) {
+            if (event.getLinkId() != null || !queued.contains(event.getAlias())) continue;
+            parked.compute(event.getAlias(), (alias, clicks) -> {
+                List<ClickEvent> held = clicks == null ? new ArrayList<>() : clicks;
+                if (held.size() < MAX_PARKED_CLICKS) held.add(event);
+                return held;
+            });
+        }
+    }
+
+    /** Persists parked clicks whose link is no longer queued; those whose link was never inserted are dropped. */
+    @Scheduled(fixedDelayString = "${app.write-behind.retry-ms:1000}")
+    void retryParked() {
+        if (parked.isEmpty()) return;
+        Set<String> aliases = Set.copyOf(parked.keySet());
+        Set<String> queued = aliasReservations.queued(aliases);
+        List<ClickEvent> ready = new ArrayList<>();
+        for (String alias : aliases) {
+            if (queued.contains(alias)) continue;
+            List<ClickEvent> clicks = parked.remove(alias);
+            if (clicks != null) ready.addAll(clicks);
+        }
+        if (ready.isEmpty()) return;
+        // Only the link id is missing: running the classifying stages again would count each click as its own repeat
+        ready.forEach(clickCodec::enrich);
+        persistEnriched(ready);
+    }
+
+    /** Clicks to store as rows: bot hits, duplicates and sampled-out clicks are only counted in the rollups. */
+    static List<ClickEvent> stored(List<ClickEvent> rows) {
+        return rows.stream().filter(e -> !e.isBot() && !e.isDuplicate() && !e.isSampledOut()).toList();
+    }
+
+    /** Clicks that add to a link's click total: everything but bot hits, stored or not. */
+    static List<ClickEvent> counted(List<ClickEvent> rows) {
+        return rows.stream().filter(e -> !e.isBot()).toList();
+    }
+
+    static Set<String> aliases(List<ClickEvent> rows) {
+        return rows.stream().map(ClickEvent::getAlias).collect(Collectors.toSet());
+    }
+
+    /** Clicks to add to the unique-visitor sketches: sampled-out clicks count, since a sketch cannot be reweighted. */
+    static List<ClickEvent> visitors(List<ClickEvent> rows) {
+        return rows.stream().filter(e -> !e.isBot() && !e.isDuplicate()).toList();
+    }
+
+    private Void persist(List<ClickEvent> rows) {
+        clickEventRepository.saveAll(stored(rows));
+        try {
+            clickRollupService.apply(rows);
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the same rollup row first; the retry updates it instead
+            clickRollupService.apply(rows);
+        }
+        return null;
+    }
+
+    void enrich(List<ClickEvent> batch) {
+        for (ClickEvent event : batch) {
+            for (ClickEnricher enricher : enrichers) {
+                enricher.enrich(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.Browser;
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.ClickRollup;
+import com.project.ait.entity.DeviceClass;
+import com.project.ait.entity.OperatingSystem;
+import com.project.ait.repository.ClickRollupRepository;
+import com.project.ait.util.CountryCodes;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains and reads the daily per-alias browser / OS / device / country counters in click_rollup.
+ */
+@Service
+public class ClickRollupService {
+    private final ClickRollupRepository clickRollupRepository;
+    private final ShardRouter shardRouter;
+
+    public ClickRollupService(ClickRollupRepository clickRollupRepository, ShardRouter shardRouter) {
+        this.clickRollupRepository = clickRollupRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    record RollupKey(String alias, LocalDate bucketDate, ClickRollup.Dimension dimension, short code) { }
+
+    /**
+     * Adds a batch of enriched clicks to the counters: one UPDATE per distinct (alias, day,
+     * dimension, value) in the batch, and an INSERT the first time a value is seen. A concurrent
+     * first insert from another node surfaces as a DataIntegrityViolationException; the caller
+     * retries the whole batch, which then takes the UPDATE path. The caller routes the batch to
+     * the shard of its aliases before the transaction starts.
+     */
+    @Transactional
+    public void apply(List<ClickEvent> events) {
+        for (Map.Entry<RollupKey, Long> entry : aggregate(events).entrySet()) {
+            addClicks(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /** Adds rollup rows copied from another shard to this shard's counters. */
+    @Transactional
+    public void merge(List<ClickRollup> rows) {
+        for (ClickRollup row : rows) {
+            addClicks(new RollupKey(row.getAlias(), row.getBucketDate(), row.getDimension(), row.getCode()), row.getClicks());
+        }
+    }
+
+    private void addClicks(RollupKey k, long delta) {
+        if (clickRollupRepository.increment(k.alias(), k.bucketDate(), k.dimension(), k.code(), delta) == 0) {
+            clickRollupRepository.save(ClickRollup.builder()
+                    .alias(k.alias())
+                    .bucketDate(k.bucketDate())
+                    .dimension(k.dimension())
+                    .code(k.code())
+                    .clicks(delta)
+                    .build());
+        }
+    }
+
+    static Map<RollupKey, Long> aggregate(List<ClickEvent> events) {
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        for (ClickEvent e : events) {
+            LocalDate day = LocalDate.ofInstant(e.getClickedAt(), ZoneOffset.UTC);
+            // Bot hits are counted once, as device BOT, and kept out of the browser / OS / country breakdowns
+            if (e.isBot()) {
+                add(deltas, new RollupKey(e.getAlias(), day, ClickRollup.Dimension.DEVICE, code(DeviceClass.BOT)));
+                continue;
+            }
+            add(deltas, new RollupKey(e.getAlias(), day, ClickRollup.Dimension.BROWSER, code(e.getBrowser())));
+            add(deltas, new RollupKey(e.getAlias(), day, ClickRollup.Dimension.OS, code(e.getOs())));
+            add(deltas, new RollupKey(e.getAlias(), day, ClickRollup.Dimension.DEVICE, code(e.getDevice())));
+            add(deltas, new RollupKey(e.getAlias(), day, ClickRollup.Dimension.COUNTRY, CountryCodes.encode(e.getCountry())));
+        }
+        return deltas;
+    }
+
+    /**
+     * All-time click total of {@code alias}, bot hits excluded. Read from the DEVICE counters, which
+     * every click adds one to, so duplicates and sampled-out clicks without a click_log row count
+     * exactly like stored ones.
+     */
+    public long totalClicks(String alias) {
+        return shardRouter.inShard(alias, () -> clickRollupRepository.total(alias, ClickRollup.Dimension.DEVICE, code(DeviceClass.BOT)));
+    }
+
+    /** {@link #totalClicks(String)} of many aliases, with one grouped query per shard; aliases without clicks count 0. */
+    public Map<String, Long> totalClicks(Collection<String> aliases) {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        aliases.forEach(alias -> totals.put(alias, 0L));
+        shardRouter.partition(totals.keySet(), shardRouter::shardFor).forEach((shard, shardAliases) -> {
+            List<Object[]> rows = shardRouter.inShard(shard, () ->
+                    clickRollupRepository.totals(shardAliases, ClickRollup.Dimension.DEVICE, code(DeviceClass.BOT)));
+            for (Object[] row : rows) totals.put((String) row[0], ((Number) row[1]).longValue());
+        });
+        return totals;
+    }
+
+    /** Click totals per dimension value for [from, to] (UTC days), e.g. {"browser": {"CHROME": 12}, "country": {"ID": 7}}. */
+    public Map<String, Map<String, Long>> breakdown(String alias, LocalDate from, LocalDate to) {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        result.put("browser", new LinkedHashMap<>());
+        result.put("os", new LinkedHashMap<>());
+        result.put("device", new LinkedHashMap<>());
+        result.put("country", new LinkedHashMap<>());
+        List<Object[]> rows = shardRouter.inShard(alias, () -> clickRollupRepository.breakdown(alias, from, to));
+        for (Object[] row : rows) {
+            ClickRollup.Dimension dimension = (ClickRollup.Dimension) row[0];
+            int code = ((Number) row[1]).intValue();
+            long clicks = ((Number) row[2]).longValue();
+            switch (dimension) {
+                case BROWSER -> result.get("browser").merge(name(Browser.values(), code), clicks, Long::sum);
+                case OS -> result.get("os").merge(name(OperatingSystem.values(), code), clicks, Long::sum);
+                case DEVICE -> result.get("device").merge(name(DeviceClass.values(), code), clicks, Long::sum);
+                case COUNTRY -> result.get("country").merge(code == CountryCodes.UNKNOWN ? "UNKNOWN" : CountryCodes.decode(code), clicks, Long::sum);
+            }
+        }
+        return result;
+    }
+
+    private static void add(Map<RollupKey, Long> deltas, RollupKey key) {
+        deltas.merge(key, 1L, Long::sum);
+    }
+
+    private static short code(Enum<?> value) {
+        return (short) (value == null ? 0 : value.ordinal());
+    }
+
+    private static String name(Enum<?>[] values, int code) {
+        return code >= 0 && code < values.length ? values[code].name() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounds the click_log rows written for very hot links ({@code app.clicks.sampling.*}). Clicks are
+ * counted per alias and second of their click time. While a link stays under
+ * {@code rows-per-second}, every click is stored; above it, only every N-th click is stored, with
+ * {@code weight} N, so listings and exports over the rows can be reweighted to the clicks they
+ * stand for. The weights are an estimate per row; exact click totals come from the rollups.
+ *
+ * N starts each second at the previous second's rate divided by the budget (rounded up to a power
+ * of two) and doubles whenever the rows stored at the current N use up the budget, so a sudden
+ * spike is cut down within the same second. The rollups count every click, so click totals and
+ * the breakdowns stay exact; sampled-out clicks still feed the unique-visitor sketches.
+ */
+@Component
+@Order(40)
+public class ClickSampler implements ClickEnricher {
+    private static final long IDLE_SECONDS = 60;
+
+    private final boolean enabled;
+    private final int rowsPerSecond;
+    private final Map<String, Rate> rates = new ConcurrentHashMap<>();
+
+    public ClickSampler(@Value("${app.clicks.sampling.enabled:false}") boolean enabled,
+                        @Value("${app.clicks.sampling.rows-per-second:200}") int rowsPerSecond) {
+        if (rowsPerSecond < 1) throw new IllegalArgumentException("rows-per-second must be at least 1");
+        this.enabled = enabled;
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    @Override
+    public void enrich(ClickEvent event) {
+        // Bots and duplicates are not stored anyway, and do not count towards the rate
+        if (!enabled || event.isBot() || event.isDuplicate() || event.getAlias() == null || event.getClickedAt() == null) return;
+        int weight = rates.computeIfAbsent(event.getAlias(), alias -> new Rate()).weight(event.getClickedAt().getEpochSecond());
+        if (weight == 0) event.setSampledOut(true);
+        else if (weight > 1) event.setWeight(weight);
+    }
+
+    /** Drops the counters of links that have not been clicked for a minute. */
+    @Scheduled(fixedDelayString = "${app.clicks.sampling.sweep-ms:60000}")
+    void sweep() {
+        long cutoff = Instant.now().getEpochSecond() - IDLE_SECONDS;
+        rates.values().removeIf(rate -> rate.isIdleSince(cutoff));
+    }
+
+    int trackedAliases() {
+        return rates.size();
+    }
+
+    private final class Rate {
+        private long second = Long.MIN_VALUE;
+        private long clicks;
+        private long stored;
+        private int factor = 1;
+
+        /** Weight of the row to store for this click, or 0 if it is sampled out. */
+        synchronized int weight(long clickSecond) {
+            // Late clicks from an earlier second are sampled at the current factor
+            if (clickSecond > second) {
+                long previous = clickSecond == second + 1 ? clicks : 0;
+                factor = factorFor(previous);
+                second = clickSecond;
+                clicks = 0;
+                stored = 0;
+            }
+            clicks++;
+            if (clicks % factor != 0) return 0;
+            int weight = factor;
+            if (++stored >= rowsPerSecond && factor < 1 << 30) {
+                factor <<= 1;
+                stored = 0;
+            }
+            return weight;
+        }
+
+        synchronized boolean isIdleSince(long cutoff) {
+            return second < cutoff;
+        }
+
+        private int factorFor(long previousClicks) {
+            long needed = (previousClicks + rowsPerSecond - 1) / rowsPerSecond;
+            if (needed <= 1) return 1;
+            return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+        }
+    }
+}
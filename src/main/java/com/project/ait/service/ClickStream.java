@@ -0,0 +1,158 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis stream transport for raw clicks ({@code app.clicks.stream.enabled}).
+ *
+ * Pipeline workers publish each drained batch with pipelined XADDs, one field per entry holding
+ * the click in the {@link ClickJournal} binary format. Consumer-group workers ({@link ClickStreamConsumer})
+ * read entries, persist them and acknowledge them; entries a crashed consumer left pending are
+ * claimed again once idle. Calls go through the shared Redis breaker and report failure instead
+ * of throwing, so publishers can fall back to writing MySQL directly.
+ */
+@Service
+public class ClickStream {
+    private static final byte[] FIELD = "c".getBytes(StandardCharsets.UTF_8);
+
+    /** An entry read from the stream; the payload is null if the entry has no click field. */
+    public record Entry(RecordId id, byte[] payload) { }
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final boolean enabled;
+    private final byte[] key;
+    private final String group;
+    private final XAddOptions addOptions;
+
+    public ClickStream(StringRedisTemplate redisTemplate,
+                       CircuitBreaker redisCircuitBreaker,
+                       @Value("${app.clicks.stream.enabled:false}") boolean enabled,
+                       @Value("${app.clicks.stream.key:clicks}") String key,
+                       @Value("${app.clicks.stream.group:click-writers}") String group,
+                       @Value("${app.clicks.stream.max-length:5000000}") long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.enabled = enabled;
+        this.key = key.getBytes(StandardCharsets.UTF_8);
+        this.group = group;
+        // Approximate trimming (MAXLEN ~) only drops whole radix tree nodes, which keeps XADD cheap
+        this.addOptions = XAddOptions.maxlen(maxLength).approximateTrimming(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Adds a batch of raw clicks in one round trip; false if disabled or Redis is unavailable. */
+    public boolean publish(List<ClickEvent> clicks) {
+        if (!enabled) return false;
+        return redisCircuitBreaker.call(() -> {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (ClickEvent click : clicks) {
+                    connection.streamCommands().xAdd(
+                            StreamRecords.rawBytes(Map.of(FIELD, ClickJournal.encode(click))).withStreamKey(key), addOptions);
+                }
+                return null;
+            });
+            return true;
+        }, () -> false);
+    }
+
+    /** Creates the stream and the consumer group if missing; false if Redis is unavailable. */
+    public boolean createGroup() {
+        return redisCircuitBreaker.call(() -> {
+            try {
+                redisTemplate.execute((RedisCallback<String>) connection ->
+                        connection.streamCommands().xGroupCreate(key, group, ReadOffset.from("0-0"), true));
+            } catch (RuntimeException e) {
+                // The group already exists
+                if (!String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).contains("BUSYGROUP")) throw e;
+            }
+            return true;
+        }, () -> false);
+    }
+
+    /** Up to {@code count} entries never delivered to any consumer; null if Redis is unavailable. */
+    public List<Entry> readNew(String consumer, int count) {
+        // Non-blocking: a blocking read would hold the shared connection and trip the slow-call breaker
+        return redisCircuitBreaker.call(() -> entries(redisTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                connection.streamCommands().xReadGroup(Consumer.from(group, consumer), StreamReadOptions.empty().count(count),
+                        StreamOffset.create(key, ReadOffset.lastConsumed())))), () -> null);
+    }
+
+    /**
+     * Takes over up to {@code count} entries that were delivered but not acknowledged for at least
+     * {@code minIdle}, such as those of a crashed consumer. Entries already delivered
+     * {@code maxDeliveries} times are acknowledged and returned in {@code dropped} instead, so one
+     * bad entry cannot block the group forever. Null if Redis is unavailable.
+     */
+    public List<Entry> reclaim(String consumer, Duration minIdle, int count, int maxDeliveries, List<RecordId> dropped) {
+        return redisCircuitBreaker.call(() -> {
+            PendingMessages pending = redisTemplate.execute((RedisCallback<PendingMessages>) connection ->
+                    connection.streamCommands().xPending(key, group, Range.unbounded(), (long) count));
+            List<RecordId> stale = new ArrayList<>();
+            if (pending != null) {
+                for (PendingMessage message : pending) {
+                    if (message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) < 0) continue;
+                    if (message.getTotalDeliveryCount() >= maxDeliveries) dropped.add(message.getId());
+                    else stale.add(message.getId());
+                }
+            }
+            if (!dropped.isEmpty()) ack(dropped);
+            if (stale.isEmpty()) return List.<Entry>of();
+            // XCLAIM re-checks the idle time, so two consumers never take over the same entry
+            return entries(redisTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                    connection.streamCommands().xClaim(key, group, consumer,
+                            XClaimOptions.minIdle(minIdle).ids(stale.toArray(RecordId[]::new)))));
+        }, () -> null);
+    }
+
+    /** Acknowledges persisted entries; false if Redis is unavailable, in which case they are delivered again. */
+    public boolean ack(List<RecordId> ids) {
+        if (ids.isEmpty()) return true;
+        return redisCircuitBreaker.call(() -> {
+            redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.streamCommands().xAck(key, group, ids.toArray(RecordId[]::new)));
+            return true;
+        }, () -> false);
+    }
+
+    private static List<Entry> entries(List<ByteRecord> records) {
+        if (records == null) return List.of();
+        List<Entry> entries = new ArrayList<>(records.size());
+        for (ByteRecord record : records) {
+            byte[] payload = null;
+            for (Map.Entry<byte[], byte[]> field : record.getValue().entrySet()) {
+                if (Arrays.equals(field.getKey(), FIELD)) payload = field.getValue();
+            }
+            entries.add(new Entry(record.getId(), payload));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,143 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer-group workers for the {@link ClickStream}: each reads up to {@code read-count} new
+ * entries, runs them through {@link ClickPipeline#process} (enrich, insert per shard, roll up,
+ * unique visitors) and acknowledges them. Every {@code claim-interval-ms} a worker also takes over
+ * entries left unacknowledged for {@code claim-idle-ms}, so clicks read by a node that crashed are
+ * persisted by another. Delivery is at least once, and nothing records which entries were already
+ * applied: a crash between insert and ack, or a batch that fails after some of its shards were
+ * written, redelivers the whole batch. Its clicks are then stored twice and counted twice in the
+ * rollups and link totals; only the unique-visitor sketches, which ignore repeats, stay exact.
+ *
+ * Runs on every node with {@code app.clicks.stream.consumers > 0}. To scale ingestion separately
+ * from serving, set it to 0 on web nodes and run dedicated nodes without a web server.
+ */
+@Service
+public class ClickStreamConsumer {
+    private static final Logger log = LoggerFactory.getLogger(ClickStreamConsumer.class);
+
+    private final ClickStream clickStream;
+    private final ClickPipeline clickPipeline;
+    private final int consumers;
+    private final String consumerName;
+    private final int readCount;
+    private final long pollMillis;
+    private final long retryMillis;
+    private final Duration claimIdle;
+    private final long claimIntervalMillis;
+    private final int maxDeliveries;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public ClickStreamConsumer(ClickStream clickStream,
+                               ClickPipeline clickPipeline,
+                               @Value("${app.clicks.stream.consumers:1}") int consumers,
+                               @Value("${app.clicks.stream.consumer-name:${HOSTNAME:}}") String consumerName,
+                               @Value("${app.clicks.stream.read-count:1000}") int readCount,
+                               @Value("${app.clicks.stream.poll-ms:50}") long pollMillis,
+                               @Value("${app.clicks.stream.retry-ms:1000}") long retryMillis,
+                               @Value("${app.clicks.stream.claim-idle-ms:60000}") long claimIdleMillis,
+                               @Value("${app.clicks.stream.claim-interval-ms:10000}") long claimIntervalMillis,
+                               @Value("${app.clicks.stream.max-deliveries:5}") int maxDeliveries) {
+        this.clickStream = clickStream;
+        this.clickPipeline = clickPipeline;
+        this.consumers = consumers;
+        // Pending entries of a name that never comes back are claimed by the others after claim-idle-ms
+        this.consumerName = consumerName.isBlank() ? UUID.randomUUID().toString() : consumerName;
+        this.readCount = readCount;
+        this.pollMillis = pollMillis;
+        this.retryMillis = retryMillis;
+        this.claimIdle = Duration.ofMillis(claimIdleMillis);
+        this.claimIntervalMillis = claimIntervalMillis;
+        this.maxDeliveries = maxDeliveries;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!clickStream.isEnabled()) return;
+        running = true;
+        for (int i = 0; i < consumers; i++) {
+            String name = consumerName + "-" + i;
+            threads.add(Thread.ofPlatform().name("click-stream-" + i).daemon().start(() -> runWorker(name)));
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread t : threads) t.interrupt();
+        // Unacknowledged entries of an interrupted batch are reclaimed later
+        for (Thread t : threads) t.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void runWorker(String name) {
+        boolean groupReady = false;
+        long nextClaim = 0;
+        while (running) {
+            try {
+                if (!groupReady) {
+                    groupReady = clickStream.createGroup();
+                    if (!groupReady) Thread.sleep(retryMillis);
+                    continue;
+                }
+                List<ClickStream.Entry> entries;
+                if (System.currentTimeMillis() >= nextClaim) {
+                    nextClaim = System.currentTimeMillis() + claimIntervalMillis;
+                    List<RecordId> dropped = new ArrayList<>();
+                    entries = clickStream.reclaim(name, claimIdle, readCount, maxDeliveries, dropped);
+                    if (!dropped.isEmpty()) log.warn("Dropped {} click stream entries after {} failed deliveries", dropped.size(), maxDeliveries);
+                } else {
+                    entries = clickStream.readNew(name, readCount);
+                }
+                if (entries == null) {
+                    Thread.sleep(retryMillis);
+                } else if (entries.isEmpty()) {
+                    Thread.sleep(pollMillis);
+                } else {
+                    persist(entries);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts the sleep
+            } catch (Exception e) {
+                // Left unacknowledged: the entries are claimed again after claim-idle-ms
+                log.warn("Failed to persist clicks from the stream", e);
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException ignored) {
+                    // Shutting down
+                }
+            }
+        }
+    }
+
+    void persist(List<ClickStream.Entry> entries) {
+        List<ClickEvent> clicks = new ArrayList<>(entries.size());
+        for (ClickStream.Entry entry : entries) {
+            if (entry.payload() == null) continue;
+            try {
+                clicks.add(ClickJournal.decode(entry.payload()));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable click stream entry {}", entry.id());
+            }
+        }
+        if (!clicks.isEmpty()) clickPipeline.process(clicks);
+        clickStream.ack(entries.stream().map(ClickStream.Entry::id).toList());
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.util.CountryCodes;
+import com.project.ait.util.IpRangeIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fills the client's country on each click from a local IP-range file ({@code app.geo.path},
+ * CSV, optionally gzipped), loaded into an {@link IpRangeIndex}.
+ *
+ * The file is checked for changes every {@code reload-check-ms}; a changed file is loaded on the
+ * scheduler thread and swapped in with one volatile write, so ingestion never waits for a reload.
+ * If the file is missing or invalid, the previous index stays in use. Runs after {@link ClickCodec}
+ * so it reuses the binary IP instead of parsing the address again.
+ */
+@Component
+@Order(110)
+public class GeoLocator implements ClickEnricher {
+    private static final Logger log = LoggerFactory.getLogger(GeoLocator.class);
+
+    private final boolean enabled;
+    private final Path path;
+    private volatile IpRangeIndex index = IpRangeIndex.EMPTY;
+    private String loadedVersion;
+
+    public GeoLocator(@Value("${app.geo.enabled:false}") boolean enabled,
+                      @Value("${app.geo.path:data/ip-country.csv.gz}") String path) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.geo.reload-check-ms:60000}")
+    public synchronized void reload() {
+        if (!enabled) return;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            String version = attributes.lastModifiedTime() + "/" + attributes.size();
+            if (version.equals(loadedVersion)) return;
+            long start = System.nanoTime();
+            IpRangeIndex loaded = read(path);
+            index = loaded;
+            loadedVersion = version;
+            log.info("Loaded {} IP ranges from {} in {} ms", loaded.size(), path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to load IP ranges from {}, keeping {} ranges", path, index.size(), e);
+        }
+    }
+
+    static IpRangeIndex read(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             InputStream in = path.toString().endsWith(".gz") ? new GZIPInputStream(file, 1 << 16) : file) {
+            return IpRangeIndex.readCsv(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        }
+    }
+
+    /** Country code of a 4 or 16 byte address, or null if it is unknown. */
+    public String country(byte[] address) {
+        return CountryCodes.decode(index.lookup(address));
+    }
+
+    @Override
+    public void enrich(ClickEvent event) {
+        if (!enabled) return;
+        event.setCountry(country(event.getIpAddress()));
+    }
+}
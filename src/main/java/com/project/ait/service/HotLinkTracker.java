@@ -0,0 +1,219 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.repository.UrlMappingRepository;
+import com.project.ait.util.HeavyHitters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tracks the hottest aliases in near real time.
+ *
+ * Each node counts clicks in in-process {@link HeavyHitters} (count-min sketch + top-K) and
+ * periodically flushes its candidates into a per-minute Redis sorted set shared by the cluster.
+ * Redirects record into one of {@code stripes} trackers picked at random, each with its own lock,
+ * so concurrent redirects rarely wait on each other; a flush sums the stripes' candidates.
+ * A window query unions the sorted sets of the buckets it covers. The same ranking keeps the
+ * hottest aliases refreshed in the "alias" cache so they never expire while hot.
+ */
+@Service
+public class HotLinkTracker {
+    static final String KEY_PREFIX = "hot:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
+    private final UrlMappingRepository urlMappingRepository;
+    private final ShardRouter shardRouter;
+    private final int capacity;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final Duration bucket;
+    private final Duration maxWindow;
+    private final Duration warmWindow;
+    private final int warmCount;
+
+    // stripes[i] is only read or replaced while holding locks[i]
+    private final HeavyHitters[] stripes;
+    private final Object[] locks;
+
+    public HotLinkTracker(StringRedisTemplate redisTemplate,
+                          CacheManager cacheManager,
+                          UrlMappingRepository urlMappingRepository,
+                          ShardRouter shardRouter,
+                          @Value("${app.analytics.hot.capacity:200}") int capacity,
+                          @Value("${app.analytics.hot.sketch-width:4096}") int sketchWidth,
+                          @Value("${app.analytics.hot.sketch-depth:4}") int sketchDepth,
+                          @Value("${app.analytics.hot.stripes:16}") int stripes,
+                          @Value("${app.analytics.hot.bucket-seconds:60}") int bucketSeconds,
+                          @Value("${app.analytics.hot.max-window-minutes:60}") int maxWindowMinutes,
+                          @Value("${app.analytics.hot.warm-window-minutes:5}") int warmWindowMinutes,
+                          @Value("${app.analytics.hot.warm-count:50}") int warmCount) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.urlMappingRepository = urlMappingRepository;
+        this.shardRouter = shardRouter;
+        this.capacity = capacity;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.bucket = Duration.ofSeconds(bucketSeconds);
+        this.maxWindow = Duration.ofMinutes(maxWindowMinutes);
+        this.warmWindow = Duration.ofMinutes(warmWindowMinutes);
+        this.warmCount = warmCount;
+        this.stripes = new HeavyHitters[Math.max(1, stripes)];
+        this.locks = new Object[this.stripes.length];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = newHeavyHitters();
+            this.locks[i] = new Object();
+        }
+    }
+
+    public void record(String alias) {
+        if (alias == null) return;
+        int stripe = ThreadLocalRandom.current().nextInt(stripes.length);
+        synchronized (locks[stripe]) {
+            stripes[stripe].add(alias);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.hot.flush-interval-ms:5000}")
+    public void flush() {
+        List<List<Map.Entry<String, Long>>> drained = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) drained.add(drainStripe(i));
+        List<Map.Entry<String, Long>> merged = merge(drained);
+        if (merged.isEmpty()) return;
+        String key = bucketKey(Instant.now());
+        long ttl = maxWindow.plus(bucket).toSeconds();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                for (Map.Entry<String, Long> entry : merged) {
+                    conn.zIncrBy(key, entry.getValue(), entry.getKey());
+                }
+                conn.expire(key, ttl);
+                return null;
+            });
+        } catch (Exception e) {
+            // Best effort: a lost flush only under-counts one interval on one node
+        }
+    }
+
+    /** Cluster-wide hottest aliases over the last {@code window}, highest click count first. */
+    public Map<String, Long> top(Duration window, int limit) {
+        if (window.isNegative() || window.isZero() || window.compareTo(maxWindow) > 0) {
+            throw new IllegalArgumentException("Window must be between 1s and " + maxWindow.toMinutes() + "m");
+        }
+        List<String> keys = bucketKeys(Instant.now(), window);
+        Map<String, Long> result = new LinkedHashMap<>();
+        try {
+            Set<ZSetOperations.TypedTuple<String>> merged = keys.size() == 1
+                    ? redisTemplate.opsForZSet().reverseRangeWithScores(keys.get(0), 0, limit - 1)
+                    : redisTemplate.opsForZSet().unionWithScores(keys.get(0), keys.subList(1, keys.size()));
+            if (merged == null) return result;
+            merged.stream()
+                    .filter(t -> t.getValue() != null && t.getScore() != null)
+                    .sorted(Comparator.comparing(ZSetOperations.TypedTuple<String>::getScore).reversed())
+                    .limit(limit)
+                    .forEach(t -> result.put(t.getValue(), t.getScore().longValue()));
+        } catch (Exception e) {
+            // Redis unavailable: fall back to what this node has seen since its last flush
+            peek().stream().limit(limit).forEach(en -> result.put(en.getKey(), en.getValue()));
+        }
+        return result;
+    }
+
+    /** Re-puts the hottest aliases into the alias cache so their TTL never runs out while hot. */
+    @Scheduled(fixedDelayString = "${app.analytics.hot.warm-interval-ms:60000}")
+    public void warmHotAliases() {
+        Cache cache = cacheManager.getCache("alias");
+        if (cache == null) return;
+        Map<String, UrlMapping> loaded = new HashMap<>();
+        List<String> pending = List.copyOf(top(warmWindow, warmCount).keySet());
+        // One IN query per shard; while a rebalance moves aliases, misses are looked for on their target shard
+        for (int round = 0; round < 2 && !pending.isEmpty(); round++) {
+            int candidate = round;
+            List<String> lookups = pending.stream().filter(alias -> shardRouter.candidateShards(alias).size() > candidate).toList();
+            shardRouter.partition(lookups, alias -> shardRouter.candidateShards(alias).get(candidate)).forEach((shard, shardAliases) ->
+                    shardRouter.inShard(shard, () -> urlMappingRepository.findByAliasIn(shardAliases)).forEach(m -> loaded.put(m.getAlias(), m)));
+            pending = pending.stream().filter(alias -> !loaded.containsKey(alias)).toList();
+        }
+        loaded.values().stream()
+                .filter(UrlMapping::isActive)
+                .forEach(mapping -> cache.put(mapping.getAlias(), mapping));
+    }
+
+    List<String> bucketKeys(Instant now, Duration window) {
+        long bucketSeconds = bucket.toSeconds();
+        long last = now.getEpochSecond() / bucketSeconds;
+        long first = now.minus(window).getEpochSecond() / bucketSeconds;
+        List<String> keys = new ArrayList<>();
+        for (long b = last; b >= first; b--) {
+            keys.add(KEY_PREFIX + b);
+        }
+        return keys;
+    }
+
+    private String bucketKey(Instant at) {
+        return KEY_PREFIX + (at.getEpochSecond() / bucket.toSeconds());
+    }
+
+    /** Replaces a stripe with an empty one and returns what it counted. */
+    private List<Map.Entry<String, Long>> drainStripe(int stripe) {
+        HeavyHitters counted;
+        synchronized (locks[stripe]) {
+            counted = stripes[stripe];
+            if (counted.total() == 0) return List.of();
+            stripes[stripe] = newHeavyHitters();
+        }
+        // No recorder can reach the replaced stripe any more
+        return counted.top();
+    }
+
+    /** This node's candidates since its last flush, without resetting them. */
+    private List<Map.Entry<String, Long>> peek() {
+        List<List<Map.Entry<String, Long>>> current = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            synchronized (locks[i]) {
+                current.add(stripes[i].top());
+            }
+        }
+        return merge(current);
+    }
+
+    /**
+     * Sums the stripes' candidate counts per alias and keeps the {@code capacity} largest, highest
+     * first. Every stripe sees a random share of each alias's clicks, so a hot alias is a candidate
+     * in most of them.
+     */
+    private List<Map.Entry<String, Long>> merge(List<List<Map.Entry<String, Long>>> counted) {
+        Map<String, Long> sums = new HashMap<>();
+        for (List<Map.Entry<String, Long>> top : counted) {
+            for (Map.Entry<String, Long> entry : top) sums.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+        return sums.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(capacity)
+                .toList();
+    }
+
+    private HeavyHitters newHeavyHitters() {
+        return new HeavyHitters(capacity, sketchWidth, sketchDepth);
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.repository.ClickEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves rows from the legacy wide click_event table into the compact click_log format.
+ *
+ * Rows are copied in id order and deleted from click_event in the same transaction as the insert,
+ * so the migration can be stopped and restarted at any point without duplicating or losing clicks.
+ * Once it reports completion the empty click_event table can be dropped. It must finish before
+ * additional shards are configured, since the copy and delete can only share a transaction on a
+ * single database.
+ *
+ * Legacy rows are ordinary clicks that were all counted when they were recorded, so the migration
+ * is lossless: only the classifying and storage enrichers run, never bot filtering, deduplication
+ * or sampling, and every row whose alias still exists is copied.
+ */
+@Component
+public class LegacyClickMigration {
+    private static final Logger log = LoggerFactory.getLogger(LegacyClickMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ClickEnricher> enrichers;
+    private final ClickEventRepository clickEventRepository;
+    private final ClickRollupService clickRollupService;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public LegacyClickMigration(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                UserAgentClassifier userAgentClassifier,
+                                ClickCodec clickCodec,
+                                GeoLocator geoLocator,
+                                ClickEventRepository clickEventRepository,
+                                ClickRollupService clickRollupService,
+                                ShardRouter shardRouter,
+                                @Value("${app.clicks.legacy-migration.enabled:false}") boolean enabled,
+                                @Value("${app.clicks.legacy-migration.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        // In the pipeline's order: GeoLocator reuses the binary IP set by ClickCodec
+        this.enrichers = List.of(userAgentClassifier, clickCodec, geoLocator);
+        this.clickEventRepository = clickEventRepository;
+        this.clickRollupService = clickRollupService;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    // Checked at runtime rather than with @ConditionalOnProperty so AOT-built images can still toggle it
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        if (!enabled) return;
+        Thread.ofPlatform().name("legacy-click-migration").daemon().start(this::migrate);
+    }
+
+    public long migrate() {
+        if (shardRouter.isSharded()) {
+            log.warn("Legacy click migration skipped: it must complete before additional shards are configured");
+            return 0;
+        }
+        long migrated = 0;
+        try {
+            while (true) {
+                List<LegacyRow> batch = jdbcTemplate.query(
+                        "select id, alias, clicked_at, ip, user_agent from click_event order by id limit ?",
+                        (rs, i) -> new LegacyRow(rs.getLong("id"), ClickEvent.builder()
+                                .alias(rs.getString("alias"))
+                                .clickedAt(rs.getTimestamp("clicked_at").toInstant())
+                                .ip(rs.getString("ip"))
+                                .userAgent(rs.getString("user_agent"))
+                                .build()),
+                        batchSize);
+                if (batch.isEmpty()) break;
+                List<ClickEvent> events = batch.stream().map(LegacyRow::event).toList();
+                // Enrich outside the transaction: dictionary entries are committed independently
+                for (ClickEvent event : events) {
+                    for (ClickEnricher enricher : enrichers) {
+                        enricher.enrich(event);
+                    }
+                }
+                List<ClickEvent> rows = events.stream().filter(e -> e.getLinkId() != null).toList();
+                long maxId = batch.get(batch.size() - 1).id();
+                transactionTemplate.executeWithoutResult(status -> {
+                    clickEventRepository.saveAll(rows);
+                    clickRollupService.apply(rows);
+                    jdbcTemplate.update("delete from click_event where id <= ?", maxId);
+                });
+                migrated += batch.size();
+                log.info("Migrated {} legacy clicks (up to id {})", migrated, maxId);
+            }
+            log.info("Legacy click migration complete: {} rows moved, click_event can be dropped", migrated);
+        } catch (BadSqlGrammarException e) {
+            log.info("No legacy click_event table found, nothing to migrate");
+        }
+        return migrated;
+    }
+
+    private record LegacyRow(long id, ClickEvent event) { }
+}
@@ -0,0 +1,107 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.util.BoundedCache;
+import com.project.ait.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Version stamps for the per-link info and click-count responses ({@code app.analytics.versions.*}),
+ * so polling clients can be answered with 304 Not Modified.
+ *
+ * A link's version is a hash of its mapping plus its click epoch. The epoch is a Redis counter the
+ * click pipeline bumps, in one pipelined round trip per batch, for every link it counted clicks for;
+ * a new counter starts at the current time in milliseconds, so a counter that expired after
+ * {@code epoch-ttl-hours} without clicks never repeats an earlier value. Computed responses are
+ * kept per node for {@code response-cache-ms} under the version they were computed for.
+ *
+ * While Redis is unavailable there is no epoch: responses are computed every time and carry no
+ * ETag. A bump lost to a Redis failure leaves cached responses stale for at most
+ * {@code response-cache-ms}, and 304s stale until the link's next click.
+ */
+@Service
+public class LinkVersions {
+    static final String EPOCH_KEY_PREFIX = "click-epoch:";
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private record Cached(String version, Map<String, Object> body, long expiresAt) { }
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final boolean enabled;
+    private final long epochTtlSeconds;
+    private final long responseCacheMillis;
+    private final BoundedCache<String, Cached> responses;
+
+    public LinkVersions(StringRedisTemplate redisTemplate,
+                        CircuitBreaker redisCircuitBreaker,
+                        @Value("${app.analytics.versions.enabled:true}") boolean enabled,
+                        @Value("${app.analytics.versions.epoch-ttl-hours:168}") long epochTtlHours,
+                        @Value("${app.analytics.versions.response-cache-ms:2000}") long responseCacheMillis,
+                        @Value("${app.analytics.versions.response-cache-size:10000}") int responseCacheSize) {
+        this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.enabled = enabled;
+        this.epochTtlSeconds = epochTtlHours * 3600;
+        this.responseCacheMillis = responseCacheMillis;
+        this.responses = new BoundedCache<>(responseCacheSize);
+    }
+
+    /** Marks the click counts of {@code aliases} as changed. */
+    public void clicksChanged(Collection<String> aliases) {
+        if (!enabled || aliases.isEmpty()) return;
+        String seed = Long.toString(System.currentTimeMillis());
+        redisCircuitBreaker.run(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (String alias : aliases) {
+                String key = EPOCH_KEY_PREFIX + alias;
+                conn.setNX(key, seed);
+                conn.incr(key);
+                conn.expire(key, epochTtlSeconds);
+            }
+            return null;
+        }));
+    }
+
+    /** Strong ETag of the link's current info and click count, or null if it cannot be determined. */
+    public String etag(UrlMapping mapping) {
+        if (!enabled) return null;
+        String epoch = redisCircuitBreaker.call(() -> {
+            String value = redisTemplate.opsForValue().get(EPOCH_KEY_PREFIX + mapping.getAlias());
+            return value == null ? "0" : value;
+        }, () -> null);
+        if (epoch == null) return null;
+        return "\"" + Long.toHexString(mappingHash(mapping)) + "-" + epoch + "\"";
+    }
+
+    /** The {@code view} response for {@code alias} at {@code version}, computed by {@code body} unless cached. */
+    public Map<String, Object> response(String view, String alias, String version, Supplier<Map<String, Object>> body) {
+        String key = view + ":" + alias;
+        long now = System.currentTimeMillis();
+        Cached cached = responses.get(key);
+        if (cached != null && cached.version().equals(version) && cached.expiresAt() > now) return cached.body();
+        Map<String, Object> computed = body.get();
+        responses.put(key, new Cached(version, computed, now + responseCacheMillis));
+        return computed;
+    }
+
+    static long mappingHash(UrlMapping mapping) {
+        String fields = mapping.getId() + "|" + mapping.getLongUrl() + "|" + mapping.getCreatedAt() + "|" + mapping.getExpiresAt()
+                + "|" + mapping.isActive() + "|" + mapping.isCustomAlias();
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < fields.length(); i++) {
+            hash = (hash ^ fields.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
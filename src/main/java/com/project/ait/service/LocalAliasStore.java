@@ -0,0 +1,232 @@
+package com.project.ait.service;
+
+import com.project.ait.dto.AliasChange;
+import com.project.ait.dto.AliasTarget;
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.repository.UrlMappingRepository;
+import com.project.ait.util.MappedAliasIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional node-local alias store: redirects are answered from a memory-mapped
+ * {@link MappedAliasIndex} without touching Redis or MySQL.
+ *
+ * The index is kept current by polling the {@link AliasChangeFeed}; its feed position is stored in
+ * the file, so a restart resumes where it stopped. It is rebuilt from MySQL with a keyset bulk
+ * load (across all shards) when it is missing, was not closed cleanly, or has fallen further
+ * behind the feed than the feed's retention. Until it is ready, and for aliases it does not know
+ * yet, lookups return empty and the caller uses the regular cached path.
+ */
+@Service
+public class LocalAliasStore {
+    private static final Logger log = LoggerFactory.getLogger(LocalAliasStore.class);
+
+    private final AliasChangeFeed aliasChangeFeed;
+    private final ShardRouter shardRouter;
+    private final UrlMappingRepository urlMappingRepository;
+    private final boolean enabled;
+    private final Path path;
+    private final int pollBatchSize;
+    private final int loadBatchSize;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile MappedAliasIndex index;
+    private volatile boolean ready;
+
+    public LocalAliasStore(AliasChangeFeed aliasChangeFeed,
+                           ShardRouter shardRouter,
+                           UrlMappingRepository urlMappingRepository,
+                           @Value("${app.local-store.enabled:false}") boolean enabled,
+                           @Value("${app.local-store.path:data/aliases.idx}") String path,
+                           @Value("${app.local-store.poll-batch-size:1000}") int pollBatchSize,
+                           @Value("${app.local-store.load-batch-size:10000}") int loadBatchSize) {
+        this.aliasChangeFeed = aliasChangeFeed;
+        this.shardRouter = shardRouter;
+        this.urlMappingRepository = urlMappingRepository;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.pollBatchSize = pollBatchSize;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    // Checked at runtime rather than with @ConditionalOnProperty so AOT-built images can still toggle it
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        Thread.ofPlatform().name("local-alias-store").daemon().start(this::openOrRebuild);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<UrlMapping> find(String alias) {
+        MappedAliasIndex current = index;
+        if (!ready || current == null) return Optional.empty();
+        MappedAliasIndex.Entry entry = current.get(alias);
+        if (entry == null) return Optional.empty();
+        return Optional.of(UrlMapping.builder()
+                .alias(alias)
+                .longUrl(entry.longUrl())
+                .expiresAt(entry.expiresAtMillis() == MappedAliasIndex.Entry.NO_EXPIRY ? null : Instant.ofEpochMilli(entry.expiresAtMillis()))
+                .active(entry.active())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${app.local-store.poll-ms:1000}")
+    public synchronized void poll() {
+        MappedAliasIndex current = index;
+        if (!ready || current == null) return;
+        Long now = aliasChangeFeed.now();
+        if (now == null) return;
+        long[] mark = current.getWatermark();
+        AliasChangeFeed.Position after = new AliasChangeFeed.Position(mark[0], mark[1]);
+        if (aliasChangeFeed.isBehindRetention(after, now)) {
+            log.warn("Local alias store is further behind the change feed than its retention, rebuilding");
+            ready = false;
+            Thread.ofPlatform().name("local-alias-store").daemon().start(this::rebuild);
+            return;
+        }
+        List<AliasChangeFeed.Item> items = aliasChangeFeed.readAfter(after, pollBatchSize);
+        if (items == null) return;
+        for (AliasChangeFeed.Item item : items) {
+            apply(item.change());
+        }
+        AliasChangeFeed.Position next = items.isEmpty()
+                ? aliasChangeFeed.idleAt(now)
+                : items.get(items.size() - 1).position();
+        if (next.compareTo(after) > 0) index.setWatermark(next.millis(), next.sequence());
+    }
+
+    /** Applies mappings from a snapshot, as if they had arrived on the change feed. */
+    public synchronized void loadAll(List<UrlMapping> mappings) {
+        if (!ready || index == null) throw new IllegalStateException("Local alias store is not enabled or not ready");
+        for (UrlMapping mapping : mappings) {
+            apply(AliasChange.of(mapping));
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        ready = false;
+        if (index != null) index.close();
+    }
+
+    private void openOrRebuild() {
+        if (Files.exists(path)) {
+            try {
+                MappedAliasIndex existing = MappedAliasIndex.open(path);
+                if (existing.openedClean()) {
+                    index = existing;
+                    ready = true;
+                    log.info("Local alias store opened with {} aliases", existing.size());
+                    return;
+                }
+                log.warn("Local alias store was not closed cleanly, rebuilding");
+                existing.close();
+            } catch (IOException e) {
+                log.warn("Failed to open local alias store {}, rebuilding", path, e);
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Bulk loads every mapping into a new file next to the current one and swaps it in. The feed
+     * position is taken before loading, so changes made during the load are replayed afterwards.
+     */
+    void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) return;
+        Path next = path.resolveSibling(path.getFileName() + ".rebuild");
+        try {
+            AliasChangeFeed.Position start = aliasChangeFeed.head();
+            if (start == null) start = AliasChangeFeed.Position.START;
+            long expected = shardRouter.scatter(shard -> urlMappingRepository.count()).stream().mapToLong(Long::longValue).sum();
+            // Headroom so steady growth does not immediately force a resize
+            MappedAliasIndex fresh = MappedAliasIndex.create(next, MappedAliasIndex.slotsFor(expected + expected / 2));
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                shardRouter.inShard(shard, () -> {
+                    load(fresh);
+                    return null;
+                });
+            }
+            fresh.setWatermark(start.millis(), start.sequence());
+            fresh.force();
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.move(next, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            swap(fresh);
+            log.info("Local alias store rebuilt with {} aliases", fresh.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to rebuild local alias store, redirects keep using the cache", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void load(MappedAliasIndex target) {
+        long afterId = 0;
+        while (true) {
+            List<AliasTarget> page = urlMappingRepository.findTargetsAfter(afterId, PageRequest.of(0, loadBatchSize));
+            if (page.isEmpty()) return;
+            for (AliasTarget t : page) {
+                if (target.isFull()) throw new IllegalStateException("More mappings than expected while rebuilding");
+                target.put(t.alias(), t.longUrl(), expiresAtMillis(t.expiresAt()), t.active());
+            }
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    private synchronized void swap(MappedAliasIndex fresh) throws IOException {
+        MappedAliasIndex old = index;
+        index = fresh;
+        ready = true;
+        // Readers still holding the old index keep working: the mapping stays valid after close
+        if (old != null) old.close();
+    }
+
+    private void apply(AliasChange change) {
+        if (index.isFull()) grow();
+        if (change.deleted()) {
+            index.delete(change.alias());
+        } else {
+            index.put(change.alias(), change.longUrl(), expiresAtMillis(change.expiresAt()), change.active());
+        }
+    }
+
+    /** Copies the live entries into a file with twice the slots, which also drops superseded records. */
+    private void grow() {
+        MappedAliasIndex current = index;
+        Path next = path.resolveSibling(path.getFileName() + ".grow");
+        try {
+            MappedAliasIndex larger = MappedAliasIndex.create(next, MappedAliasIndex.slotsFor(current.size() * 2));
+            current.forEach((alias, entry) -> larger.put(alias, entry.longUrl(), entry.expiresAtMillis(), entry.active()));
+            long[] mark = current.getWatermark();
+            larger.setWatermark(mark[0], mark[1]);
+            larger.force();
+            Files.move(next, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            swap(larger);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to grow local alias store", e);
+        }
+    }
+
+    private static long expiresAtMillis(Instant expiresAt) {
+        return expiresAt == null ? MappedAliasIndex.Entry.NO_EXPIRY : expiresAt.toEpochMilli();
+    }
+}
@@ -0,0 +1,210 @@
+package com.project.ait.service;
+
+import com.project.ait.dto.AliasChange;
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.repository.UrlMappingBulkWriter;
+import com.project.ait.repository.UrlMappingRepository;
+import com.project.ait.util.MappingSnapshot;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Exports url_mapping into {@link MappingSnapshot} files and loads them back, for bootstrapping
+ * new nodes and recovery sites without row-by-row JPA reads.
+ *
+ * Exports stream each shard's live mappings (active, not expired) from a server-side cursor, so
+ * memory use does not grow with the table. A delta export only contains rows above the per-shard
+ * ids a previous import reported, optionally also limited to rows created since a given time; it
+ * carries new links, not later changes to old ones. Imports into MySQL skip aliases that already
+ * exist on any of their candidate shards and insert the rest with batched {@code INSERT IGNORE} on
+ * each alias's current shard, so loading the same snapshot or overlapping deltas twice is harmless;
+ * ids are assigned by the target database. Imports never pin placements: during a rebalance the
+ * imported rows are moved like any other row on their shard.
+ *
+ * Once a batch is committed, its inserted rows are published on the {@link AliasChangeFeed} like
+ * newly created links, so every node forgets them as {@link MissingAliases missing} and local alias
+ * stores pick them up.
+ */
+@Service
+public class MappingSnapshotService {
+    public enum Target {
+        DATABASE, LOCAL;
+
+        public static Target parse(String value) {
+            for (Target t : values()) {
+                if (t.name().equalsIgnoreCase(value)) return t;
+            }
+            throw new IllegalArgumentException("Unknown snapshot target: " + value + " (expected database or local)");
+        }
+    }
+
+    public record ImportResult(long records, long inserted, long[] lastIds) {
+        public Map<String, Object> toMap() {
+            return Map.of("records", records, "inserted", inserted, "afterIds", formatIds(lastIds));
+        }
+    }
+
+    private final UrlMappingRepository urlMappingRepository;
+    private final EntityManager entityManager;
+    private final UrlMappingBulkWriter urlMappingBulkWriter;
+    private final ShardRouter shardRouter;
+    private final LocalAliasStore localAliasStore;
+    private final AliasChangeFeed aliasChangeFeed;
+    private final MissingAliases missingAliases;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int batchSize;
+
+    public MappingSnapshotService(UrlMappingRepository urlMappingRepository,
+                                  EntityManager entityManager,
+                                  UrlMappingBulkWriter urlMappingBulkWriter,
+                                  ShardRouter shardRouter,
+                                  LocalAliasStore localAliasStore,
+                                  AliasChangeFeed aliasChangeFeed,
+                                  MissingAliases missingAliases,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.snapshots.batch-size:2000}") int batchSize) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.entityManager = entityManager;
+        this.urlMappingBulkWriter = urlMappingBulkWriter;
+        this.shardRouter = shardRouter;
+        this.localAliasStore = localAliasStore;
+        this.aliasChangeFeed = aliasChangeFeed;
+        this.missingAliases = missingAliases;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchSize = batchSize;
+    }
+
+    /** Parses the comma-separated per-shard ids of a delta request; null or blank means a full snapshot. */
+    public long[] parseAfterIds(String afterIds) {
+        long[] ids = new long[shardRouter.shardCount()];
+        if (afterIds == null || afterIds.isBlank()) return ids;
+        String[] parts = afterIds.split(",");
+        if (parts.length != ids.length) {
+            throw new IllegalArgumentException("Expected " + ids.length + " afterIds, one per shard");
+        }
+        for (int i = 0; i < parts.length; i++) ids[i] = Long.parseLong(parts[i].trim());
+        return ids;
+    }
+
+    /** Writes all live mappings matching the delta bounds to {@code out} and closes it; returns the row count. */
+    public long export(OutputStream out, long[] afterIds, Instant createdSince) throws IOException {
+        Instant now = Instant.now();
+        MappingSnapshot.Writer writer = new MappingSnapshot.Writer(out, new MappingSnapshot.Header(now, afterIds, createdSince));
+        try (writer) {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                int s = shard;
+                shardRouter.inShard(s, () -> readOnlyTransaction.execute(status -> {
+                    streamShard(writer, s, afterIds[s], createdSince, now);
+                    return null;
+                }));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return writer.count();
+    }
+
+    private void streamShard(MappingSnapshot.Writer writer, int shard, long afterId, Instant createdSince, Instant now) {
+        try (Stream<UrlMapping> rows = urlMappingRepository.streamLiveAfter(afterId, createdSince, now)) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                UrlMapping m = it.next();
+                writer.write(shard, m);
+                entityManager.detach(m);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads a snapshot into MySQL or the local alias store. Rows are applied batch by batch while
+     * the file is read, so a corrupted file is only detected at its end; rows before that point stay
+     * loaded and a retry with an intact file skips them.
+     */
+    public ImportResult importSnapshot(InputStream in, Target target) throws IOException {
+        long inserted = 0;
+        try (MappingSnapshot.Reader reader = new MappingSnapshot.Reader(in)) {
+            List<UrlMapping> batch = new ArrayList<>(batchSize);
+            MappingSnapshot.Row row;
+            while ((row = reader.next()) != null) {
+                batch.add(row.mapping());
+                if (batch.size() == batchSize) {
+                    inserted += apply(batch, target);
+                    batch.clear();
+                }
+            }
+            inserted += apply(batch, target);
+            return new ImportResult(reader.count(), inserted, reader.lastIds());
+        }
+    }
+
+    private long apply(List<UrlMapping> batch, Target target) {
+        if (batch.isEmpty()) return 0;
+        if (target == Target.LOCAL) {
+            localAliasStore.loadAll(batch);
+            return batch.size();
+        }
+        Set<String> existing = existingAliases(batch.stream().map(UrlMapping::getAlias).toList());
+        List<UrlMapping> missing = batch.stream().filter(m -> !existing.contains(m.getAlias())).toList();
+        List<UrlMapping> inserted = new ArrayList<>();
+        for (Map.Entry<Integer, List<UrlMapping>> perShard : shardRouter.partition(missing, m -> shardRouter.shardFor(m.getAlias())).entrySet()) {
+            inserted.addAll(shardRouter.inShard(perShard.getKey(), () -> transaction.execute(status -> insert(perShard.getValue()))));
+        }
+        // Committed: announce the rows like newly created links
+        inserted.forEach(m -> missingAliases.forget(m.getAlias()));
+        aliasChangeFeed.publishAll(inserted.stream().map(AliasChange::of).toList());
+        return inserted.size();
+    }
+
+    /** Aliases that exist on one of their candidate shards: while a rebalance moves them, that may be another shard than the one inserted into. */
+    private Set<String> existingAliases(List<String> aliases) {
+        Set<String> existing = new HashSet<>();
+        List<String> pending = aliases;
+        for (int round = 0; round < 2 && !pending.isEmpty(); round++) {
+            int candidate = round;
+            List<String> lookups = pending.stream().filter(alias -> shardRouter.candidateShards(alias).size() > candidate).toList();
+            shardRouter.partition(lookups, alias -> shardRouter.candidateShards(alias).get(candidate)).forEach((shard, shardAliases) ->
+                    existing.addAll(shardRouter.inShard(shard, () -> urlMappingRepository.findExistingAliases(shardAliases))));
+            pending = pending.stream().filter(alias -> !existing.contains(alias)).toList();
+        }
+        return existing;
+    }
+
+    /** Rows actually inserted. Ignored duplicates report 0; rewritten batches report SUCCESS_NO_INFO (-2) and are counted as inserted. */
+    private List<UrlMapping> insert(List<UrlMapping> rows) {
+        int[] counts = urlMappingBulkWriter.insertIgnoringExisting(rows);
+        List<UrlMapping> inserted = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (counts[i] != 0) inserted.add(rows.get(i));
+        }
+        return inserted;
+    }
+
+    public static String formatIds(long[] ids) {
+        StringBuilder sb = new StringBuilder();
+        for (long id : ids) {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(id);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.ait.service;
+
+import com.project.ait.util.Base62;
+import com.project.ait.util.OffHeapLongCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Node-local negative cache of aliases that do not exist ({@code app.cache.negative.*}), so
+ * repeated requests for unknown aliases, such as scanners guessing short links, stop reaching
+ * MySQL. Aliases are keyed by their {@link Base62#pack packed} form in an off-heap
+ * {@link OffHeapLongCache} holding the time each entry expires; aliases that do not pack (custom
+ * aliases with other characters) are never cached as missing.
+ *
+ * Creating an alias forgets it at once on the creating node, and on other nodes when they see the
+ * change on the alias feed; a miss recorded concurrently with a create is stale for at most
+ * {@code ttl-ms}.
+ */
+@Service
+public class MissingAliases {
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final OffHeapLongCache missing;
+
+    public MissingAliases(@Value("${app.cache.negative.enabled:true}") boolean enabled,
+                          @Value("${app.cache.negative.capacity:1000000}") int capacity,
+                          @Value("${app.cache.negative.ttl-ms:30000}") long ttlMillis) {
+        this.enabled = enabled;
+        this.ttlMillis = ttlMillis;
+        this.missing = enabled ? new OffHeapLongCache(capacity) : null;
+    }
+
+    public boolean isKnownMissing(String alias) {
+        if (!enabled) return false;
+        long key = Base62.pack(alias);
+        if (key < 0) return false;
+        long expiresAt = missing.get(key);
+        return expiresAt != 0 && expiresAt > System.currentTimeMillis();
+    }
+
+    public void recordMissing(String alias) {
+        if (!enabled) return;
+        long key = Base62.pack(alias);
+        if (key >= 0) missing.put(key, System.currentTimeMillis() + ttlMillis);
+    }
+
+    public void forget(String alias) {
+        if (!enabled) return;
+        long key = Base62.pack(alias);
+        if (key >= 0) missing.remove(key);
+    }
+}
@@ -0,0 +1,297 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.ClickRollup;
+import com.project.ait.entity.ShardPlacement;
+import com.project.ait.entity.ShardRing;
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.repository.ClickEventRepository;
+import com.project.ait.repository.ClickRollupRepository;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import com.project.ait.repository.UrlMappingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Moves aliases onto the shards added to {@code app.shards.urls}, online.
+ *
+ * Every existing shard is scanned in parallel. Each alias whose post-rebalance owner is another
+ * shard goes through three steps:
+ * <ol>
+ *   <li>copy: the mapping and its clicks are copied to the target while the source keeps serving;</li>
+ *   <li>cutover: a shard_placement row pins the alias to the target, which every node picks up on
+ *       its next placement refresh;</li>
+ *   <li>finish: after two refresh intervals plus a drain grace, clicks that still reached the source
+ *       are copied, the source rollups are merged into the target and the source rows are deleted.</li>
+ * </ol>
+ * Pages of {@code alias-batch-size} aliases are copied and cut over one after another for up to
+ * one cutover wait (or {@code max-pending-aliases}); the rebalancer then waits once, for the last
+ * cutover of the window, and finishes every alias of the window.
+ * A restart resumes cut-over aliases from shard_placement. If it stops in the middle of a finish,
+ * at most one batch of clicks or one rollup row of that alias may be counted twice.
+ *
+ * Once every shard is drained, the full shard count is written to shard_ring, which every node
+ * adopts as its ring on its next refresh. The ring then agrees with every placement, so after one
+ * more cutover wait shard_placement is emptied.
+ */
+@Component
+public class ShardRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final ShardRouter shardRouter;
+    private final UrlMappingRepository urlMappingRepository;
+    private final ClickEventRepository clickEventRepository;
+    private final ClickRollupRepository clickRollupRepository;
+    private final ClickRollupService clickRollupService;
+    private final ShardPlacementRepository shardPlacementRepository;
+    private final ShardRingRepository shardRingRepository;
+    private final boolean enabled;
+    private final int aliasBatchSize;
+    private final int copyBatchSize;
+    private final int maxPendingAliases;
+    private final long cutoverWaitMillis;
+
+    private record Move(String alias, int source, int target, long sourceLinkId, long targetLinkId, long copiedUpTo) { }
+
+    public ShardRebalancer(ShardRouter shardRouter,
+                           UrlMappingRepository urlMappingRepository,
+                           ClickEventRepository clickEventRepository,
+                           ClickRollupRepository clickRollupRepository,
+                           ClickRollupService clickRollupService,
+                           ShardPlacementRepository shardPlacementRepository,
+                           ShardRingRepository shardRingRepository,
+                           @Value("${app.shards.rebalance.enabled:false}") boolean enabled,
+                           @Value("${app.shards.rebalance.alias-batch-size:100}") int aliasBatchSize,
+                           @Value("${app.shards.rebalance.copy-batch-size:1000}") int copyBatchSize,
+                           @Value("${app.shards.rebalance.max-pending-aliases:10000}") int maxPendingAliases,
+                           @Value("${app.shards.placement-refresh-ms:10000}") long placementRefreshMillis,
+                           @Value("${app.shards.rebalance.drain-grace-ms:5000}") long drainGraceMillis) {
+        this.shardRouter = shardRouter;
+        this.urlMappingRepository = urlMappingRepository;
+        this.clickEventRepository = clickEventRepository;
+        this.clickRollupRepository = clickRollupRepository;
+        this.clickRollupService = clickRollupService;
+        this.shardPlacementRepository = shardPlacementRepository;
+        this.shardRingRepository = shardRingRepository;
+        this.enabled = enabled;
+        this.aliasBatchSize = aliasBatchSize;
+        this.copyBatchSize = copyBatchSize;
+        this.maxPendingAliases = maxPendingAliases;
+        // Every node must have refreshed its placements, and flushed clicks enriched before that
+        this.cutoverWaitMillis = 2 * placementRefreshMillis + drainGraceMillis;
+    }
+
+    // Checked at runtime rather than with @ConditionalOnProperty so AOT-built images can still toggle it
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        if (!enabled || !shardRouter.isSharded()) return;
+        Thread.ofPlatform().name("shard-rebalancer").daemon().start(this::rebalance);
+    }
+
+    public long rebalance() {
+        // With the ring already complete, only placements left by an interrupted run remain to delete
+        long moved = shardRouter.isRingComplete() ? 0
+                : shardRouter.scatter(this::drainShard).stream().mapToLong(Long::longValue).sum();
+        try {
+            completeRing();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Shard rebalance interrupted before its placements were deleted; the next run deletes them");
+            return moved;
+        }
+        log.info("Shard rebalance complete: {} aliases moved, hash ring widened to {} shards", moved, shardRouter.shardCount());
+        return moved;
+    }
+
+    /** Widens every node's ring to all shards, then deletes the placements it made redundant. */
+    private void completeRing() throws InterruptedException {
+        shardRouter.inShard(ShardRouter.HOME_SHARD, () -> shardRingRepository.save(ShardRing.builder()
+                .id(ShardRing.ID)
+                .activeShards(shardRouter.shardCount())
+                .updatedAt(Instant.now())
+                .build()));
+        shardRouter.refreshPlacements();
+        // Nodes that have not refreshed yet may still pin new aliases; those pins go with the rest
+        Thread.sleep(cutoverWaitMillis);
+        shardRouter.inShard(ShardRouter.HOME_SHARD, () -> {
+            shardPlacementRepository.deleteAllInBatch();
+            return null;
+        });
+    }
+
+    /** Moves every misplaced alias off {@code source}. Runs routed to {@code source}. */
+    private long drainShard(int source) {
+        long moved = 0;
+        long afterId = 0;
+        // Aliases cut over in the current window, waiting to be finished together
+        List<Move> pending = new ArrayList<>();
+        long windowStart = 0;
+        long lastCutover = 0;
+        try {
+            while (true) {
+                List<UrlMapping> page = urlMappingRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, aliasBatchSize));
+                if (page.isEmpty()) break;
+                afterId = page.get(page.size() - 1).getId();
+
+                List<Move> moves = new ArrayList<>();
+                List<Move> copied = new ArrayList<>();
+                for (UrlMapping mapping : page) {
+                    Integer placed = shardRouter.placementOf(mapping.getAlias());
+                    if (placed != null && placed != source) {
+                        // Cut over by an earlier run that stopped before finishing
+                        Move resumed = resume(mapping, source, placed);
+                        if (resumed != null) moves.add(resumed);
+                    } else if (placed == null && shardRouter.targetShardFor(mapping.getAlias()) != source) {
+                        copied.add(copy(mapping, source, shardRouter.targetShardFor(mapping.getAlias())));
+                    }
+                }
+                if (!copied.isEmpty() || !moves.isEmpty()) {
+                    cutover(copied);
+                    lastCutover = System.currentTimeMillis();
+                    if (pending.isEmpty()) windowStart = lastCutover;
+                    pending.addAll(moves);
+                    pending.addAll(copied);
+                }
+                if (!pending.isEmpty() && (System.currentTimeMillis() - windowStart >= cutoverWaitMillis || pending.size() >= maxPendingAliases)) {
+                    moved += finishAll(pending, lastCutover);
+                    log.info("Moved {} aliases off shard {}", moved, source);
+                }
+            }
+            if (!pending.isEmpty()) {
+                moved += finishAll(pending, lastCutover);
+                log.info("Moved {} aliases off shard {}", moved, source);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Fails the whole rebalance, so the ring is not widened over aliases still to move
+            throw new IllegalStateException("Shard rebalance of shard " + source + " interrupted after " + moved + " aliases", e);
+        }
+        return moved;
+    }
+
+    /** Waits one cutover wait after the window's last cutover, then finishes and clears {@code pending}. */
+    private int finishAll(List<Move> pending, long lastCutover) throws InterruptedException {
+        long wait = lastCutover + cutoverWaitMillis - System.currentTimeMillis();
+        if (wait > 0) Thread.sleep(wait);
+        for (Move move : pending) finish(move);
+        int finished = pending.size();
+        pending.clear();
+        return finished;
+    }
+
+    private Move copy(UrlMapping mapping, int source, int target) {
+        String alias = mapping.getAlias();
+        UrlMapping copy = shardRouter.inShard(target, () -> {
+            // A previous run may have stopped half-way through copying this alias
+            urlMappingRepository.findByAlias(alias).ifPresent(partial -> {
+                clickEventRepository.deleteByLinkId(partial.getId());
+                urlMappingRepository.delete(partial);
+            });
+            return urlMappingRepository.save(UrlMapping.builder()
+                    .alias(alias)
+                    .longUrl(mapping.getLongUrl())
+                    .createdByIp(mapping.getCreatedByIp())
+                    .createdByKeyId(mapping.getCreatedByKeyId())
+                    .createdAt(mapping.getCreatedAt())
+                    .expiresAt(mapping.getExpiresAt())
+                    .active(mapping.isActive())
+                    .customAlias(mapping.isCustomAlias())
+                    .build());
+        });
+        long copiedUpTo = copyClicks(source, mapping.getId(), target, copy.getId(), 0, upTo -> { });
+        return new Move(alias, source, target, mapping.getId(), copy.getId(), copiedUpTo);
+    }
+
+    private Move resume(UrlMapping mapping, int source, int target) {
+        String alias = mapping.getAlias();
+        Long targetLinkId = shardRouter.inShard(target, () -> urlMappingRepository.findIdByAlias(alias).orElse(null));
+        ShardPlacement placement = shardRouter.inShard(ShardRouter.HOME_SHARD, () -> shardPlacementRepository.findById(alias).orElse(null));
+        if (targetLinkId == null || placement == null || placement.getCopiedUpTo() == null) {
+            log.warn("Alias {} is pinned to shard {} but was never copied there; leaving it on shard {}", alias, target, source);
+            return null;
+        }
+        return new Move(alias, source, target, mapping.getId(), targetLinkId, placement.getCopiedUpTo());
+    }
+
+    private void cutover(List<Move> moves) {
+        if (moves.isEmpty()) return;
+        Instant now = Instant.now();
+        List<ShardPlacement> placements = moves.stream()
+                .map(m -> ShardPlacement.builder()
+                        .alias(m.alias())
+                        .shard(m.target())
+                        .sourceShard(m.source())
+                        .copiedUpTo(m.copiedUpTo())
+                        .movedAt(now)
+                        .build())
+                .toList();
+        shardRouter.inShard(ShardRouter.HOME_SHARD, () -> shardPlacementRepository.saveAll(placements));
+        for (Move move : moves) shardRouter.place(move.alias(), move.target());
+    }
+
+    private void finish(Move move) {
+        String alias = move.alias();
+        copyClicks(move.source(), move.sourceLinkId(), move.target(), move.targetLinkId(), move.copiedUpTo(),
+                upTo -> recordProgress(alias, upTo));
+        List<ClickRollup> rollups = shardRouter.inShard(move.source(), () -> clickRollupRepository.findByAlias(alias));
+        if (!rollups.isEmpty()) {
+            shardRouter.inShard(move.target(), () -> {
+                clickRollupService.merge(rollups);
+                return null;
+            });
+            shardRouter.inShard(move.source(), () -> clickRollupRepository.deleteByAlias(alias));
+        }
+        shardRouter.inShard(move.source(), () -> {
+            clickEventRepository.deleteByLinkId(move.sourceLinkId());
+            urlMappingRepository.deleteById(move.sourceLinkId());
+            return null;
+        });
+    }
+
+    /** Copies clicks with an id above {@code afterId} in id order; returns the last id copied. */
+    private long copyClicks(int source, long sourceLinkId, int target, long targetLinkId, long afterId, LongConsumer onBatch) {
+        long last = afterId;
+        while (true) {
+            long from = last;
+            List<ClickEvent> rows = shardRouter.inShard(source, () ->
+                    clickEventRepository.findByLinkIdAndIdGreaterThanOrderByIdAsc(sourceLinkId, from, PageRequest.of(0, copyBatchSize)));
+            if (rows.isEmpty()) return last;
+            List<ClickEvent> copies = rows.stream()
+                    .map(c -> ClickEvent.builder()
+                            .linkId(targetLinkId)
+                            .clickedAt(c.getClickedAt())
+                            .ipAddress(c.getIpAddress())
+                            .userAgentId(c.getUserAgentId())
+                            .referrerId(c.getReferrerId())
+                            .browser(c.getBrowser())
+                            .os(c.getOs())
+                            .device(c.getDevice())
+                            .country(c.getCountry())
+                            .weight(c.getWeight())
+                            .build())
+                    .toList();
+            shardRouter.inShard(target, () -> clickEventRepository.saveAll(copies));
+            last = rows.get(rows.size() - 1).getId();
+            onBatch.accept(last);
+        }
+    }
+
+    private void recordProgress(String alias, long copiedUpTo) {
+        shardRouter.inShard(ShardRouter.HOME_SHARD, () -> shardPlacementRepository.findById(alias)
+                .map(placement -> {
+                    placement.setCopiedUpTo(copiedUpTo);
+                    return shardPlacementRepository.save(placement);
+                }));
+    }
+}
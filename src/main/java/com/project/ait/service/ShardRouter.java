@@ -0,0 +1,246 @@
+package com.project.ait.service;
+
+import com.project.ait.config.ShardContext;
+import com.project.ait.config.ShardRoutingDataSource;
+import com.project.ait.entity.ShardPlacement;
+import com.project.ait.entity.ShardRing;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import com.project.ait.util.ConsistentHashRing;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard owns an alias and runs database work there.
+ *
+ * An alias lives on the shard its hash picks on a consistent hash ring over the first
+ * {@code app.shards.active} shards, unless the rebalancer has pinned it elsewhere in
+ * shard_placement. A mapping, its clicks and its rollups always live on the same shard, so every
+ * per-alias query stays single-shard; only cluster-wide work needs {@link #scatter}.
+ *
+ * Placements only matter while the ring is narrower than the shard count. Each refresh loads the
+ * rows moved since the last one; once the rebalancer has widened the ring in shard_ring, every
+ * placement agrees with the ring, so none are kept and the rebalancer deletes them.
+ *
+ * Work routed with {@link #inShard} never reuses the caller's connection or persistence context:
+ * an enclosing transaction is suspended for the call, so the shard's connection is acquired fresh
+ * and entities of different shards, whose auto-increment ids overlap, are never mixed in one
+ * EntityManager. Work that must be atomic on a shard opens its own transaction inside the call.
+ */
+@Service
+public class ShardRouter {
+    public static final int HOME_SHARD = 0;
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRouter.class);
+    // Re-read window for placements committed late or stamped by a node whose clock lags
+    private static final Duration PLACEMENT_OVERLAP = Duration.ofMinutes(1);
+
+    private final ShardPlacementRepository shardPlacementRepository;
+    private final ShardRingRepository shardRingRepository;
+    private final TransactionTemplate shardScope;
+    private final int shardCount;
+    private final int virtualNodes;
+    private final ConsistentHashRing targetRing;
+    private volatile int activeShards;
+    private volatile ConsistentHashRing ring;
+    private volatile Map<String, Integer> placements = Map.of();
+    // Latest movedAt loaded; null until the first full load
+    private Instant placementsLoadedUpTo;
+
+    public ShardRouter(ShardPlacementRepository shardPlacementRepository,
+                       ShardRingRepository shardRingRepository,
+                       DataSource dataSource,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.shards.active:0}") int activeShards,
+                       @Value("${app.shards.virtual-nodes:128}") int virtualNodes) {
+        this.shardPlacementRepository = shardPlacementRepository;
+        this.shardRingRepository = shardRingRepository;
+        this.shardScope = new TransactionTemplate(transactionManager);
+        this.shardScope.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.shardCount = dataSource instanceof ShardRoutingDataSource routing ? routing.shardCount() : 1;
+        this.virtualNodes = virtualNodes;
+        this.activeShards = activeShards <= 0 ? shardCount : Math.min(activeShards, shardCount);
+        this.ring = new ConsistentHashRing(this.activeShards, virtualNodes);
+        this.targetRing = new ConsistentHashRing(shardCount, virtualNodes);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /** Whether every shard is in the ring, i.e. no rebalance is pending and placements are unused. */
+    public boolean isRingComplete() {
+        return activeShards == shardCount;
+    }
+
+    public int shardFor(String alias) {
+        if (!isSharded()) return HOME_SHARD;
+        Integer placed = placements.get(alias);
+        return placed != null ? placed : ring.nodeFor(alias);
+    }
+
+    /** Owner of {@code alias} once every configured shard is in the ring, i.e. after a rebalance. */
+    public int targetShardFor(String alias) {
+        return isSharded() ? targetRing.nodeFor(alias) : HOME_SHARD;
+    }
+
+    public Integer placementOf(String alias) {
+        return placements.get(alias);
+    }
+
+    /**
+     * Shards that may hold {@code alias}: its current shard, then its post-rebalance shard. The
+     * second differs only while new shards are being brought into the ring, for aliases created
+     * on another node whose placement this node has not loaded yet.
+     */
+    public List<Integer> candidateShards(String alias) {
+        int current = shardFor(alias);
+        int target = targetShardFor(alias);
+        return current == target ? List.of(current) : List.of(current, target);
+    }
+
+    /**
+     * Shard a new alias is created on: its post-rebalance shard, so a running rebalance never has
+     * to chase it. Nothing is written; once the row exists, {@link #pinNew} pins it there.
+     */
+    public int shardForNew(String alias) {
+        Integer placed = placements.get(alias);
+        return placed != null ? placed : targetShardFor(alias);
+    }
+
+    /**
+     * Pins a newly inserted alias to {@code shard} if the ring would route it elsewhere. The pin is
+     * dropped with all others once the ring is widened; with a complete ring nothing is pinned. A
+     * failed pin is only logged: the row is in place, and {@link #candidateShards} still finds it.
+     */
+    public void pinNew(String alias, int shard) {
+        if (shardFor(alias) == shard) return;
+        try {
+            inShard(HOME_SHARD, () -> shardPlacementRepository.save(ShardPlacement.builder()
+                    .alias(alias)
+                    .shard(shard)
+                    .sourceShard(shard)
+                    .movedAt(Instant.now())
+                    .build()));
+            place(alias, shard);
+        } catch (RuntimeException e) {
+            log.warn("Failed to pin new alias {} to shard {}", alias, shard, e);
+        }
+    }
+
+    public <T> T inShard(String alias, Supplier<T> action) {
+        return inShard(shardFor(alias), action);
+    }
+
+    /** Runs {@code action} on {@code shard}, outside any enclosing transaction and its EntityManager. */
+    public <T> T inShard(int shard, Supplier<T> action) {
+        return ShardContext.call(shard, () -> shardScope.execute(status -> action.get()));
+    }
+
+    /** Groups {@code items} by shard, in shard order. */
+    public <T> Map<Integer, List<T>> partition(Collection<T> items, Function<T, Integer> shardOf) {
+        Map<Integer, List<T>> byShard = new TreeMap<>();
+        for (T item : items) byShard.computeIfAbsent(shardOf.apply(item), s -> new ArrayList<>()).add(item);
+        return byShard;
+    }
+
+    /**
+     * Runs {@code perShard} on every shard in parallel, each call routed to its shard, and returns
+     * the results in shard order. The first failure is rethrown after all calls have finished.
+     */
+    public <T> List<T> scatter(IntFunction<T> perShard) {
+        if (!isSharded()) return List.of(inShard(HOME_SHARD, () -> perShard.apply(HOME_SHARD)));
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                int s = shard;
+                futures.add(executor.submit(() -> inShard(s, () -> perShard.apply(s))));
+            }
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                throw new IllegalStateException("Shard call failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shards", e);
+            }
+        }
+        return results;
+    }
+
+    /** Applies a cutover on this node right away; other nodes see it on their next refresh. */
+    public void place(String alias, int shard) {
+        Map<String, Integer> updated = new HashMap<>(placements);
+        updated.put(alias, shard);
+        placements = Map.copyOf(updated);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.shards.placement-refresh-ms:10000}")
+    public synchronized void refreshPlacements() {
+        if (!isSharded()) return;
+        try {
+            inShard(HOME_SHARD, () -> shardRingRepository.findById(ShardRing.ID)).ifPresent(state -> widenRing(state.getActiveShards()));
+            if (isRingComplete()) {
+                placements = Map.of();
+                return;
+            }
+            Instant since = placementsLoadedUpTo;
+            List<ShardPlacement> rows = since == null
+                    ? inShard(HOME_SHARD, shardPlacementRepository::findAll)
+                    : inShard(HOME_SHARD, () -> shardPlacementRepository.findByMovedAtGreaterThanEqual(since.minus(PLACEMENT_OVERLAP)));
+            Map<String, Integer> loaded = new HashMap<>(placements);
+            Instant latest = since == null ? Instant.EPOCH : since;
+            for (ShardPlacement row : rows) {
+                loaded.put(row.getAlias(), row.getShard());
+                if (row.getMovedAt() != null && row.getMovedAt().isAfter(latest)) latest = row.getMovedAt();
+            }
+            placements = Map.copyOf(loaded);
+            placementsLoadedUpTo = latest;
+        } catch (Exception e) {
+            // Keep routing with the last known placements until the home shard is reachable again
+            log.warn("Failed to refresh shard placements", e);
+        }
+    }
+
+    /** Widens the ring to {@code active} shards; a narrower value than the current one is ignored. */
+    public synchronized void widenRing(int active) {
+        int widened = Math.min(active, shardCount);
+        if (widened <= activeShards) return;
+        ring = new ConsistentHashRing(widened, virtualNodes);
+        activeShards = widened;
+        log.info("Hash ring widened to {} shards", widened);
+    }
+}
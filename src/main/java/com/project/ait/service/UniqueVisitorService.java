@@ -0,0 +1,130 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Approximate unique visitors per alias, backed by Redis HyperLogLog sketches.
+ *
+ * Every click is added to three sketches: a lifetime one, an hourly bucket and a daily bucket.
+ * Sketches are mergeable, so a time range is answered with a single PFCOUNT over the day buckets
+ * fully covered by the range plus the hour buckets at its edges. Each sketch is at most 12 KB
+ * and has a standard error of 0.81%.
+ */
+@Service
+public class UniqueVisitorService {
+    public static final double STANDARD_ERROR = 0.0081;
+
+    private static final String KEY_PREFIX = "hll:";
+    private static final DateTimeFormatter HOUR_BUCKET = DateTimeFormatter.ofPattern("yyyyMMddHH").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DAY_BUCKET = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration hourlyRetention;
+    private final Duration dailyRetention;
+
+    public UniqueVisitorService(StringRedisTemplate redisTemplate,
+                                @Value("${app.analytics.uniques.hourly-retention-hours:192}") int hourlyRetentionHours,
+                                @Value("${app.analytics.uniques.daily-retention-days:400}") int dailyRetentionDays) {
+        this.redisTemplate = redisTemplate;
+        this.hourlyRetention = Duration.ofHours(hourlyRetentionHours);
+        this.dailyRetention = Duration.ofDays(dailyRetentionDays);
+    }
+
+    /** Adds a batch of clicks (visitor = client IP) to their sketches in one pipelined round trip. */
+    public void recordAll(Collection<ClickEvent> clicks) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                for (ClickEvent click : clicks) {
+                    String alias = click.getAlias();
+                    String visitor = click.getIp();
+                    if (alias == null || visitor == null || visitor.isEmpty()) continue;
+                    String hour = hourKey(alias, click.getClickedAt());
+                    String day = dayKey(alias, click.getClickedAt());
+                    conn.pfAdd(totalKey(alias), visitor);
+                    conn.pfAdd(hour, visitor);
+                    conn.expire(hour, hourlyRetention.toSeconds());
+                    conn.pfAdd(day, visitor);
+                    conn.expire(day, dailyRetention.toSeconds());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // Analytics are best effort, never fail click ingestion because Redis is unavailable
+        }
+    }
+
+    public long countAllTime(String alias) {
+        return pfCount(List.of(totalKey(alias)));
+    }
+
+    /**
+     * Unique visitors in [from, to). Whole UTC days inside the range are read from the daily
+     * sketches, partial days from the hourly ones; hour buckets older than the hourly retention
+     * fall back to their day bucket, which may slightly over-count at the edges.
+     */
+    public long count(String alias, Instant from, Instant to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Invalid range: 'from' must be before 'to'");
+        }
+        if (Duration.between(from, to).compareTo(dailyRetention) > 0) {
+            throw new IllegalArgumentException("Range exceeds retention of " + dailyRetention.toDays() + " days");
+        }
+        return pfCount(bucketKeys(alias, from, to, Instant.now()));
+    }
+
+    List<String> bucketKeys(String alias, Instant from, Instant to, Instant now) {
+        Instant oldestHour = now.minus(hourlyRetention).truncatedTo(ChronoUnit.HOURS);
+        List<String> keys = new ArrayList<>();
+        Instant cursor = from.truncatedTo(ChronoUnit.HOURS);
+        while (cursor.isBefore(to)) {
+            Instant dayStart = cursor.truncatedTo(ChronoUnit.DAYS);
+            Instant nextDay = dayStart.plus(1, ChronoUnit.DAYS);
+            boolean wholeDay = cursor.equals(dayStart) && !nextDay.isAfter(to);
+            if (wholeDay || cursor.isBefore(oldestHour)) {
+                keys.add(dayKey(alias, cursor));
+                cursor = nextDay;
+            } else {
+                keys.add(hourKey(alias, cursor));
+                cursor = cursor.plus(1, ChronoUnit.HOURS);
+            }
+        }
+        return keys;
+    }
+
+    private long pfCount(List<String> keys) {
+        if (keys.isEmpty()) return 0;
+        try {
+            Long count = redisTemplate.opsForHyperLogLog().size(keys.toArray(new String[0]));
+            return count == null ? 0 : count;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static String totalKey(String alias) {
+        return KEY_PREFIX + alias;
+    }
+
+    private static String hourKey(String alias, Instant at) {
+        return KEY_PREFIX + alias + ":h:" + HOUR_BUCKET.format(at);
+    }
+
+    private static String dayKey(String alias, Instant at) {
+        return KEY_PREFIX + alias + ":d:" + DAY_BUCKET.format(at);
+    }
+}
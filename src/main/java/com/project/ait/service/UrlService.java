@@ -1,71 +1,305 @@
 package com.project.ait.service;
 
+import com.project.ait.dto.AliasChange;
+import com.project.ait.config.TieredCache;
 import com.project.ait.entity.ClickEvent;
 import com.project.ait.entity.UrlMapping;
-import com.project.ait.repository.ClickEventRepository;
 import com.project.ait.repository.UrlMappingRepository;
 import com.project.ait.util.Base62;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import jakarta.transaction.Transactional;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UrlService {
+    private static final int MAX_GENERATE_ATTEMPTS = 5;
+    // Length of the long_url column
+    private static final int MAX_LONG_URL_LENGTH = 2048;
+
     private final UrlMappingRepository urlMappingRepository;
-    private final ClickEventRepository clickEventRepository;
+    private final ClickRollupService clickRollupService;
+    private final ClickPipeline clickPipeline;
+    private final HotLinkTracker hotLinkTracker;
+    private final ShardRouter shardRouter;
+    private final AliasChangeFeed aliasChangeFeed;
+    private final WriteBehindLinkWriter writeBehindLinkWriter;
+    private final AliasReservations aliasReservations;
+    private final AliasCacheInvalidator aliasCacheInvalidator;
+    private final MissingAliases missingAliases;
+    private final CacheManager cacheManager;
     private final String baseUrl;
     private final int defaultExpirationDays;
+    private final int maxBatchSize;
 
     public UrlService(UrlMappingRepository urlMappingRepository,
-                      ClickEventRepository clickEventRepository,
+                      ClickRollupService clickRollupService,
+                      ClickPipeline clickPipeline,
+                      HotLinkTracker hotLinkTracker,
+                      ShardRouter shardRouter,
+                      AliasChangeFeed aliasChangeFeed,
+                      WriteBehindLinkWriter writeBehindLinkWriter,
+                      AliasReservations aliasReservations,
+                      AliasCacheInvalidator aliasCacheInvalidator,
+                      MissingAliases missingAliases,
+                      CacheManager cacheManager,
                       @Value("${app.base-url}") String baseUrl,
-                      @Value("${app.default-expiration-days}") int defaultExpirationDays) {
+                      @Value("${app.default-expiration-days}") int defaultExpirationDays,
+                      @Value("${app.info.max-batch-size:500}") int maxBatchSize) {
         this.urlMappingRepository = urlMappingRepository;
-        this.clickEventRepository = clickEventRepository;
+        this.clickRollupService = clickRollupService;
+        this.clickPipeline = clickPipeline;
+        this.hotLinkTracker = hotLinkTracker;
+        this.shardRouter = shardRouter;
+        this.aliasChangeFeed = aliasChangeFeed;
+        this.writeBehindLinkWriter = writeBehindLinkWriter;
+        this.aliasReservations = aliasReservations;
+        this.aliasCacheInvalidator = aliasCacheInvalidator;
+        this.missingAliases = missingAliases;
+        this.cacheManager = cacheManager;
         this.baseUrl = baseUrl;
         this.defaultExpirationDays = defaultExpirationDays;
+        this.maxBatchSize = maxBatchSize;
     }
 
-    @Transactional
-    @CacheEvict(value = "alias", key = "#result.alias", condition = "#result != null")
-    public UrlMapping createShortUrl(String longUrl, String customAlias, String creatorIp, Instant expiresAtRequested) {
-        if (customAlias != null && !customAlias.isBlank()) {
-            if (urlMappingRepository.existsByAlias(customAlias)) {
-                throw new IllegalArgumentException("Custom alias already used");
-            }
-            UrlMapping mapping = UrlMapping.builder()
-                    .alias(customAlias)
-                    .longUrl(longUrl)
-                    .createdAt(Instant.now())
-                    .createdByIp(creatorIp)
-                    .customAlias(true)
-                    .active(true)
-                    .expiresAt(expiresAtRequested == null ? Instant.now().plus(defaultExpirationDays, ChronoUnit.DAYS) : expiresAtRequested)
-                    .build();
-            return urlMappingRepository.save(mapping);
-        }
-
-        // Save url mapping
-        UrlMapping saved = UrlMapping.builder()
+    // Not @Transactional: the alias decides the shard, and a transaction would bind a connection first.
+    // The new mapping is cached right away, which write-behind relies on for immediate redirects.
+    @CachePut(value = "alias", key = "#result.alias", condition = "#result != null")
+    public UrlMapping createShortUrl(String longUrl, String customAlias, String creatorIp, Instant expiresAtRequested, Long creatorKeyId) {
+        validateLongUrl(longUrl);
+        boolean custom = customAlias != null && !customAlias.isBlank();
+        UrlMapping mapping = UrlMapping.builder()
+                .alias(custom ? customAlias : Base62.encode(5))
                 .longUrl(longUrl)
                 .createdAt(Instant.now())
                 .createdByIp(creatorIp)
+                .createdByKeyId(creatorKeyId)
+                .customAlias(custom)
                 .active(true)
-                .alias(Base62.encode(5))
                 .expiresAt(expiresAtRequested == null ? Instant.now().plus(defaultExpirationDays, ChronoUnit.DAYS) : expiresAtRequested)
                 .build();
-        return urlMappingRepository.save(saved);
+
+        if (writeBehindLinkWriter.isEnabled()) {
+            UrlMapping accepted = createWriteBehind(mapping, custom);
+            if (accepted != null) return accepted;
+        }
+
+        if (custom) {
+            // Turns away concurrent claims of a hot alias before they reach MySQL; skipped while Redis is down
+            if (Boolean.FALSE.equals(aliasReservations.reserve(customAlias))) {
+                throw new IllegalArgumentException("Custom alias already used");
+            }
+            try {
+                return persist(mapping, shardForCustomAlias(customAlias));
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalArgumentException("Custom alias already used");
+            } catch (RuntimeException e) {
+                aliasReservations.release(customAlias);
+                throw e;
+            }
+        }
+        // The unique index decides collisions of generated aliases; retry a few times with a fresh one
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return persist(mapping, shardRouter.shardForNew(mapping.getAlias()));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_GENERATE_ATTEMPTS) throw new IllegalStateException("Could not generate a unique alias", e);
+                mapping.setAlias(Base62.encode(5));
+            }
+        }
+    }
+
+    /** Targets must be absolute http(s) URLs that fit the long_url column, since redirects send them as the Location. */
+    static void validateLongUrl(String longUrl) {
+        if (longUrl == null || longUrl.isBlank()) throw new IllegalArgumentException("longUrl must not be blank");
+        if (longUrl.length() > MAX_LONG_URL_LENGTH) {
+            throw new IllegalArgumentException("longUrl must be at most " + MAX_LONG_URL_LENGTH + " characters");
+        }
+        URI uri;
+        try {
+            uri = new URI(longUrl);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("longUrl is not a valid URL");
+        }
+        boolean web = "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+        if (!web || uri.getHost() == null) throw new IllegalArgumentException("longUrl must be an absolute http or https URL");
+    }
+
+    /**
+     * Picks the shard a custom alias is inserted on. While a rebalance moves aliases, the alias may
+     * still live on its current shard rather than the target; the unique index covers the target.
+     */
+    private int shardForCustomAlias(String alias) {
+        int target = shardRouter.shardForNew(alias);
+        for (int shard : shardRouter.candidateShards(alias)) {
+            if (shard != target && shardRouter.inShard(shard, () -> urlMappingRepository.existsByAlias(alias))) {
+                throw new IllegalArgumentException("Custom alias already used");
+            }
+        }
+        return target;
+    }
+
+    /** Claims the alias in Redis and queues the insert; null if the link must be created synchronously. */
+    private UrlMapping createWriteBehind(UrlMapping mapping, boolean custom) {
+        for (int attempt = 0; attempt < MAX_GENERATE_ATTEMPTS; attempt++) {
+            switch (writeBehindLinkWriter.claim(mapping.getAlias())) {
+                case CLAIMED -> {
+                    if (!writeBehindLinkWriter.enqueue(mapping)) return null;
+                    missingAliases.forget(mapping.getAlias());
+                    return mapping;
+                }
+                case TAKEN -> {
+                    if (custom) throw new IllegalArgumentException("Custom alias already used");
+                    mapping.setAlias(Base62.encode(5));
+                }
+                case UNAVAILABLE -> {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private UrlMapping persist(UrlMapping mapping, int shard) {
+        UrlMapping saved = shardRouter.inShard(shard, () -> urlMappingRepository.save(mapping));
+        // Only after the insert, so a failed one leaves the alias routed as before
+        shardRouter.pinNew(saved.getAlias(), shard);
+        missingAliases.forget(saved.getAlias());
+        // Lets node-local alias stores pick up the new mapping without a database read
+        aliasChangeFeed.publish(AliasChange.of(saved));
+        return saved;
     }
 
-    @Cacheable(value = "alias", key = "#alias")
+    // sync = true hands loading to the cache, which serves stale entries if the database fails
+    @Cacheable(value = "alias", key = "#alias", sync = true)
     public Optional<UrlMapping> findByAlias(String alias) {
-        return urlMappingRepository.findByAlias(alias);
+        // Misses are not cached in the alias cache; known-missing aliases are answered here without MySQL
+        if (missingAliases.isKnownMissing(alias)) return Optional.empty();
+        for (int shard : shardRouter.candidateShards(alias)) {
+            Optional<UrlMapping> mapping = shardRouter.inShard(shard, () -> urlMappingRepository.findByAlias(alias));
+            if (mapping.isPresent()) return mapping;
+        }
+        missingAliases.recordMissing(alias);
+        return Optional.empty();
+    }
+
+    /**
+     * Looks up many aliases at once: one multi-get against the alias cache, one IN query per shard
+     * for the misses, and one pipelined write to cache what was loaded. Aliases that do not exist
+     * are left out of the result.
+     */
+    public Map<String, UrlMapping> findAllByAlias(Collection<String> aliases) {
+        if (aliases.size() > maxBatchSize) throw new IllegalArgumentException("At most " + maxBatchSize + " aliases per request");
+        List<String> wanted = aliases.stream().distinct().filter(alias -> !missingAliases.isKnownMissing(alias)).toList();
+        Map<String, UrlMapping> found = new LinkedHashMap<>();
+        Cache cache = cacheManager.getCache("alias");
+        if (cache instanceof TieredCache tiered) {
+            tiered.getAll(wanted).forEach((alias, mapping) -> found.put((String) alias, (UrlMapping) mapping));
+        } else if (cache != null) {
+            for (String alias : wanted) {
+                UrlMapping cached = cache.get(alias, UrlMapping.class);
+                if (cached != null) found.put(alias, cached);
+            }
+        }
+
+        Map<String, UrlMapping> loaded = new HashMap<>();
+        List<String> pending = wanted.stream().filter(alias -> !found.containsKey(alias)).toList();
+        // While a rebalance moves aliases, those not on their current shard are looked for on their target shard
+        for (int round = 0; round < 2 && !pending.isEmpty(); round++) {
+            int candidate = round;
+            List<String> lookups = pending.stream().filter(alias -> shardRouter.candidateShards(alias).size() > candidate).toList();
+            shardRouter.partition(lookups, alias -> shardRouter.candidateShards(alias).get(candidate)).forEach((shard, shardAliases) ->
+                    shardRouter.inShard(shard, () -> urlMappingRepository.findByAliasIn(shardAliases)).forEach(m -> loaded.put(m.getAlias(), m)));
+            pending = pending.stream().filter(alias -> !loaded.containsKey(alias)).toList();
+        }
+        pending.forEach(missingAliases::recordMissing);
+        if (cache instanceof TieredCache tiered) tiered.putAll(loaded);
+        else if (cache != null) loaded.forEach(cache::put);
+
+        Map<String, UrlMapping> result = new LinkedHashMap<>();
+        for (String alias : wanted) {
+            UrlMapping mapping = found.containsKey(alias) ? found.get(alias) : loaded.get(alias);
+            if (mapping != null) result.put(alias, mapping);
+        }
+        return result;
+    }
+
+    /**
+     * Changes the target, expiry and/or active flag of a link (null leaves a field as is) and
+     * invalidates it in the alias cache on every node. Empty if the alias does not exist; throws
+     * IllegalStateException while the link is still queued for write-behind insertion.
+     */
+    public Optional<UrlMapping> updateLink(String alias, String longUrl, Instant expiresAt, Boolean active) {
+        if (longUrl != null) validateLongUrl(longUrl);
+        rejectIfQueued(alias);
+        // While a rebalance moves the alias it may exist on two shards; both copies are updated
+        List<UrlMapping> updated = new ArrayList<>();
+        for (int shard : shardRouter.candidateShards(alias)) {
+            shardRouter.inShard(shard, () -> urlMappingRepository.findByAlias(alias).map(m -> {
+                if (longUrl != null) m.setLongUrl(longUrl);
+                if (expiresAt != null) m.setExpiresAt(expiresAt);
+                if (active != null) m.setActive(active);
+                return urlMappingRepository.save(m);
+            })).ifPresent(updated::add);
+        }
+        if (updated.isEmpty()) {
+            rejectIfQueuedElsewhere(alias);
+            return Optional.empty();
+        }
+        aliasCacheInvalidator.changed(AliasChange.of(updated.get(0)));
+        return Optional.of(updated.get(0));
+    }
+
+    /** Stops redirects for a link without deleting it; redirects then answer 410. */
+    public Optional<UrlMapping> deactivate(String alias) {
+        return updateLink(alias, null, null, false);
+    }
+
+    /**
+     * Deletes a link; its clicks are kept. False if the alias does not exist; throws
+     * IllegalStateException while the link is still queued for write-behind insertion.
+     */
+    public boolean deleteLink(String alias) {
+        rejectIfQueued(alias);
+        boolean deleted = false;
+        for (int shard : shardRouter.candidateShards(alias)) {
+            deleted |= shardRouter.inShard(shard, () -> urlMappingRepository.deleteByAlias(alias)) > 0;
+        }
+        if (!deleted) {
+            rejectIfQueuedElsewhere(alias);
+            return false;
+        }
+        aliasCacheInvalidator.changed(AliasChange.deleted(alias));
+        // A write-behind claim outlives the insert; without it the alias can be created again right away
+        if (writeBehindLinkWriter.isEnabled()) aliasReservations.release(alias);
+        return true;
+    }
+
+    /** A link queued on this node has no row yet: changing it now would miss it or be undone by the insert. */
+    private void rejectIfQueued(String alias) {
+        if (writeBehindLinkWriter.isQueued(alias)) throw new IllegalStateException("Link is still being created, retry shortly");
+    }
+
+    /** No row, but the alias's claim says its row is still queued, on another node. */
+    private void rejectIfQueuedElsewhere(String alias) {
+        if (writeBehindLinkWriter.isEnabled() && aliasReservations.queued(List.of(alias)).contains(alias)) {
+            throw new IllegalStateException("Link is still being created, retry shortly");
+        }
     }
 
     public void recordClick(String alias, String ip, String ua, String referrer) {
@@ -74,11 +308,20 @@ public class UrlService {
                 .clickedAt(Instant.now())
                 .ip(ip)
                 .userAgent(ua)
+                .referrer(referrer)
                 .build();
-        clickEventRepository.save(e);
+        // Persisted and enriched asynchronously by the pipeline workers, once the link's own row exists
+        if (!writeBehindLinkWriter.deferUntilPersisted(alias, e)) clickPipeline.submit(e);
+        hotLinkTracker.record(alias);
     }
 
+    /** Exact all-time click count from the rollups, including clicks that have no click_log row. */
     public long getClickCount(String alias) {
-        return clickEventRepository.countByAlias(alias);
+        return clickRollupService.totalClicks(alias);
+    }
+
+    /** Click counts of many aliases, with one grouped query per shard; aliases without clicks count 0. */
+    public Map<String, Long> getClickCounts(Collection<String> aliases) {
+        return clickRollupService.totalClicks(aliases);
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.util.BoundedCache;
+import com.project.ait.util.UserAgentParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills browser, OS and device class on each click. A few thousand distinct User-Agent strings
+ * cover almost all traffic, so parse results are kept in a bounded LRU cache keyed by the string.
+ */
+@Component
+@Order(10)
+public class UserAgentClassifier implements ClickEnricher {
+    private final BoundedCache<String, UserAgentParser.Result> cache;
+
+    public UserAgentClassifier(@Value("${app.clicks.user-agent-cache-size:10000}") int cacheSize) {
+        this.cache = new BoundedCache<>(cacheSize);
+    }
+
+    public UserAgentParser.Result classify(String userAgent) {
+        if (userAgent == null) return UserAgentParser.Result.UNKNOWN;
+        return cache.get(userAgent, UserAgentParser::parse);
+    }
+
+    @Override
+    public void enrich(ClickEvent event) {
+        UserAgentParser.Result result = classify(event.getUserAgent());
+        event.setBrowser(result.browser());
+        event.setOs(result.os());
+        event.setDevice(result.device());
+    }
+}
@@ -0,0 +1,300 @@
+package com.project.ait.service;
+
+import com.project.ait.dto.AliasChange;
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.repository.UrlMappingBulkWriter;
+import com.project.ait.repository.UrlMappingRepository;
+import com.project.ait.util.RecordJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in write-behind creation of short links ({@code app.write-behind.enabled}).
+ *
+ * The alias is claimed with a Redis {@code SET NX} and the mapping is appended to a local journal
+ * (group-committed fsync) before the request returns; the caller then caches it, so redirects work
+ * at once. A worker inserts queued mappings into MySQL in batches and checkpoints the journal;
+ * failed batches are retried until they succeed. On start-up, journaled mappings that were never
+ * checkpointed are re-cached and re-inserted; inserts skip aliases that already exist, so replaying
+ * rows that did reach MySQL is harmless. Clicks this node takes on a link it still has queued are
+ * held back and handed to the click pipeline once its row exists. The Redis claim stays marked as
+ * queued until then, so the pipeline on any other node holds the link's clicks as well.
+ *
+ * The shard a link is inserted on is decided once, on the request thread right after the claim,
+ * and journaled with the mapping; the worker and replays insert on that shard. A queued link has
+ * no row yet, so callers reject changes to it until it is persisted (see {@link #isQueued}).
+ *
+ * When Redis is unavailable, the journal fails, or the queue is full, callers fall back to the
+ * synchronous insert.
+ */
+@Service
+public class WriteBehindLinkWriter {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindLinkWriter.class);
+
+    public enum Claim { CLAIMED, TAKEN, UNAVAILABLE }
+
+    private static final int MAX_DEFERRED_CLICKS = 1000;
+
+    private record Pending(UrlMapping mapping, int shard, long journalEnd) { }
+
+    // A decoded journal entry and the shard it is inserted on
+    record Journaled(UrlMapping mapping, int shard) { }
+
+    private final UrlMappingRepository urlMappingRepository;
+    private final UrlMappingBulkWriter urlMappingBulkWriter;
+    private final ShardRouter shardRouter;
+    private final AliasReservations aliasReservations;
+    private final CacheManager cacheManager;
+    private final AliasChangeFeed aliasChangeFeed;
+    private final ClickPipeline clickPipeline;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final Path journalPath;
+    private final int batchSize;
+    private final int maxPending;
+    private final long retryMillis;
+    private final Duration claimTtl;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Map<String, List<ClickEvent>> deferredClicks = new ConcurrentHashMap<>();
+    private final Object appendLock = new Object();
+    private RecordJournal journal;
+    private Thread worker;
+    private volatile boolean running;
+
+    public WriteBehindLinkWriter(UrlMappingRepository urlMappingRepository,
+                                 UrlMappingBulkWriter urlMappingBulkWriter,
+                                 ShardRouter shardRouter,
+                                 AliasReservations aliasReservations,
+                                 CacheManager cacheManager,
+                                 AliasChangeFeed aliasChangeFeed,
+                                 ClickPipeline clickPipeline,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${app.write-behind.journal-path:data/write-behind.journal}") String journalPath,
+                                 @Value("${app.write-behind.batch-size:500}") int batchSize,
+                                 @Value("${app.write-behind.max-pending:100000}") int maxPending,
+                                 @Value("${app.write-behind.retry-ms:1000}") long retryMillis,
+                                 @Value("${app.write-behind.claim-ttl-hours:24}") int claimTtlHours) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.urlMappingBulkWriter = urlMappingBulkWriter;
+        this.shardRouter = shardRouter;
+        this.aliasReservations = aliasReservations;
+        this.cacheManager = cacheManager;
+        this.aliasChangeFeed = aliasChangeFeed;
+        this.clickPipeline = clickPipeline;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.journalPath = Path.of(journalPath);
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.retryMillis = retryMillis;
+        this.claimTtl = Duration.ofHours(claimTtlHours);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getBacklog() {
+        return queue.size();
+    }
+
+    // Runs before the web server accepts requests, so replayed links are cached before they are asked for
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+        journal = RecordJournal.open(journalPath);
+        List<RecordJournal.Record> replay = journal.pending();
+        if (!replay.isEmpty()) {
+            log.info("Replaying {} journaled links that were not yet persisted", replay.size());
+            Cache cache = cacheManager.getCache("alias");
+            for (RecordJournal.Record record : replay) {
+                Journaled entry = decode(record.payload());
+                UrlMapping mapping = entry.mapping();
+                deferredClicks.put(mapping.getAlias(), new ArrayList<>());
+                if (cache != null) cache.put(mapping.getAlias(), mapping);
+                queue.add(new Pending(mapping, entry.shard(), record.end()));
+            }
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("write-behind-links").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (!enabled) return;
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        // Anything still queued stays in the journal and is replayed on the next start
+        journal.close();
+    }
+
+    /**
+     * Claims {@code alias} cluster-wide, marked as queued: TAKEN if another request claimed it or it
+     * already exists in MySQL, UNAVAILABLE if Redis cannot be reached.
+     */
+    public Claim claim(String alias) {
+        Boolean reserved = aliasReservations.reserveQueued(alias, claimTtl);
+        if (reserved == null) return Claim.UNAVAILABLE;
+        if (!reserved) return Claim.TAKEN;
+        // Links created before write-behind was enabled have no claim; this is a read, not a write
+        for (int shard : shardRouter.candidateShards(alias)) {
+            if (shardRouter.inShard(shard, () -> urlMappingRepository.existsByAlias(alias))) return Claim.TAKEN;
+        }
+        return Claim.CLAIMED;
+    }
+
+    /**
+     * Journals a claimed mapping with the shard it goes to and queues it for insertion; returns once
+     * the journal entry is on disk. False if the mapping could not be accepted and must be inserted
+     * synchronously; the claim is released in that case.
+     */
+    public boolean enqueue(UrlMapping mapping) {
+        if (queue.size() >= maxPending) {
+            aliasReservations.release(mapping.getAlias());
+            return false;
+        }
+        long end;
+        try {
+            // Decided here, next to the claim, so a placement loaded or a ring widened later cannot move it
+            int shard = shardRouter.shardForNew(mapping.getAlias());
+            // Queue order must match journal order: checkpoints assume everything before them is persisted
+            synchronized (appendLock) {
+                end = journal.append(encode(mapping, shard));
+                deferredClicks.put(mapping.getAlias(), new ArrayList<>());
+                queue.add(new Pending(mapping, shard, end));
+            }
+            journal.sync(end);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to queue link {}, creating it synchronously", mapping.getAlias(), e);
+            aliasReservations.release(mapping.getAlias());
+            return false;
+        }
+        aliasChangeFeed.publish(AliasChange.of(mapping));
+        return true;
+    }
+
+    /** Whether {@code alias} was created on this node and its row is still queued. */
+    public boolean isQueued(String alias) {
+        return enabled && deferredClicks.containsKey(alias);
+    }
+
+    /** Holds a click on a link whose row is still queued; false if the link is already persisted. */
+    public boolean deferUntilPersisted(String alias, ClickEvent click) {
+        if (!enabled) return false;
+        return deferredClicks.computeIfPresent(alias, (key, clicks) -> {
+            if (clicks.size() < MAX_DEFERRED_CLICKS) clicks.add(click);
+            return clicks;
+        }) != null;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                persist(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // stop() interrupts a blocked poll; the loop drains what is left before exiting
+            } catch (Exception e) {
+                log.warn("Failed to persist {} write-behind links, retrying", batch.size(), e);
+                if (!running) return;
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException ignored) {
+                    // Shutting down: one more attempt, then the journal keeps the rest
+                }
+            }
+        }
+    }
+
+    private void persist(List<Pending> batch) throws IOException {
+        List<UrlMapping> rows = batch.stream().map(Pending::mapping).toList();
+        // Existing aliases are skipped: after a crash, replayed rows may already be in MySQL
+        shardRouter.partition(batch, Pending::shard).forEach((shard, shardBatch) -> {
+            List<UrlMapping> shardRows = shardBatch.stream().map(Pending::mapping).toList();
+            shardRouter.inShard(shard, () -> transaction.execute(status -> urlMappingBulkWriter.insertIgnoringExisting(shardRows)));
+        });
+        for (Pending pending : batch) shardRouter.pinNew(pending.mapping().getAlias(), pending.shard());
+        // Before the checkpoint: if this is lost in a crash, the replay inserts the batch again and retries it
+        aliasReservations.persisted(rows.stream().map(UrlMapping::getAlias).toList());
+        journal.checkpoint(batch.get(batch.size() - 1).journalEnd());
+        for (UrlMapping mapping : rows) {
+            List<ClickEvent> clicks = deferredClicks.remove(mapping.getAlias());
+            if (clicks != null) clicks.forEach(clickPipeline::submit);
+        }
+    }
+
+    static byte[] encode(UrlMapping mapping, int shard) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(mapping.getAlias());
+            out.writeUTF(mapping.getLongUrl());
+            out.writeUTF(mapping.getCreatedByIp() == null ? "" : mapping.getCreatedByIp());
+            out.writeLong(mapping.getCreatedAt() == null ? Long.MIN_VALUE : mapping.getCreatedAt().toEpochMilli());
+            out.writeLong(mapping.getExpiresAt() == null ? Long.MIN_VALUE : mapping.getExpiresAt().toEpochMilli());
+            out.writeBoolean(mapping.isActive());
+            out.writeBoolean(mapping.isCustomAlias());
+            out.writeLong(mapping.getCreatedByKeyId() == null ? 0 : mapping.getCreatedByKeyId());
+            out.writeInt(shard);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Journaled decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String alias = in.readUTF();
+            String longUrl = in.readUTF();
+            String ip = in.readUTF();
+            long createdAt = in.readLong();
+            long expiresAt = in.readLong();
+            UrlMapping mapping = UrlMapping.builder()
+                    .alias(alias)
+                    .longUrl(longUrl)
+                    .createdByIp(ip.isEmpty() ? null : ip)
+                    .createdAt(createdAt == Long.MIN_VALUE ? null : Instant.ofEpochMilli(createdAt))
+                    .expiresAt(expiresAt == Long.MIN_VALUE ? null : Instant.ofEpochMilli(expiresAt))
+                    .active(in.readBoolean())
+                    .customAlias(in.readBoolean())
+                    .build();
+            long keyId = in.readLong();
+            mapping.setCreatedByKeyId(keyId == 0 ? null : keyId);
+            return new Journaled(mapping, in.readInt());
+        }
+    }
+}
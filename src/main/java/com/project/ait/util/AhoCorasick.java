@@ -0,0 +1,112 @@
+package com.project.ait.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case-insensitive multi-pattern substring matcher: an Aho-Corasick automaton compiled into a
+ * dense ASCII transition table, so a scan is one array read per input character regardless of
+ * how many patterns there are. Patterns must be ASCII; non-ASCII input characters match nothing.
+ * Immutable and thread-safe once built.
+ */
+public final class AhoCorasick {
+    private static final int ALPHABET = 128;
+
+    // next[state * ALPHABET + c] is the state after reading c; state 0 is the root
+    private final int[] next;
+    // Index of a pattern ending at each state (directly or via its suffix links), or -1
+    private final int[] match;
+    private final String[] patterns;
+
+    private AhoCorasick(int[] next, int[] match, String[] patterns) {
+        this.next = next;
+        this.match = match;
+        this.patterns = patterns;
+    }
+
+    public static AhoCorasick compile(List<String> patterns) {
+        String[] lower = patterns.stream()
+                .map(p -> p.strip().toLowerCase(Locale.ROOT))
+                .filter(p -> !p.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+        int maxStates = 1;
+        for (String pattern : lower) {
+            for (int i = 0; i < pattern.length(); i++) {
+                if (pattern.charAt(i) >= ALPHABET) throw new IllegalArgumentException("Pattern is not ASCII: " + pattern);
+            }
+            maxStates += pattern.length();
+        }
+        int[] next = new int[maxStates * ALPHABET];
+        int[] match = new int[maxStates];
+        Arrays.fill(next, -1);
+        Arrays.fill(match, -1);
+
+        // Trie
+        int states = 1;
+        for (int p = 0; p < lower.length; p++) {
+            int state = 0;
+            for (int i = 0; i < lower[p].length(); i++) {
+                int slot = state * ALPHABET + lower[p].charAt(i);
+                if (next[slot] < 0) next[slot] = states++;
+                state = next[slot];
+            }
+            if (match[state] < 0) match[state] = p;
+        }
+
+        // Breadth-first: missing transitions follow the failure link, turning the trie into a DFA
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int child = next[c];
+            if (child < 0) {
+                next[c] = 0;
+            } else {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            if (match[state] < 0) match[state] = match[fail[state]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int slot = state * ALPHABET + c;
+                int child = next[slot];
+                if (child < 0) {
+                    next[slot] = next[fail[state] * ALPHABET + c];
+                } else {
+                    fail[child] = next[fail[state] * ALPHABET + c];
+                    queue.add(child);
+                }
+            }
+        }
+        return new AhoCorasick(Arrays.copyOf(next, states * ALPHABET), Arrays.copyOf(match, states), lower);
+    }
+
+    /** The first pattern found in {@code text} (lower-cased), or null if none occurs. */
+    public String find(CharSequence text) {
+        if (text == null || patterns.length == 0) return null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= ALPHABET) {
+                state = 0;
+                continue;
+            }
+            if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            state = next[state * ALPHABET + c];
+            if (match[state] >= 0) return patterns[match[state]];
+        }
+        return null;
+    }
+
+    public boolean matches(CharSequence text) {
+        return find(text) != null;
+    }
+
+    public int size() {
+        return patterns.length;
+    }
+}
@@ -1,12 +1,23 @@
 package com.project.ait.util;
 
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 public class Base62 {
     private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
     private static final SecureRandom random = new SecureRandom();
     private static final int BASE = ALPHABET.length();
 
+    /** Longest alias {@link #pack} accepts: 63^10 still fits in a positive long. */
+    public static final int MAX_PACKED_LENGTH = 10;
+
+    private static final int[] DIGITS = new int[128];
+
+    static {
+        Arrays.fill(DIGITS, -1);
+        for (int i = 0; i < BASE; i++) DIGITS[ALPHABET.charAt(i)] = i;
+    }
+
     public static String encode(int length) {
         StringBuilder sb = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
@@ -16,6 +27,38 @@ public class Base62 {
         return sb.toString();
     }
 
+    /**
+     * Packs a Base62 string of 1 to {@link #MAX_PACKED_LENGTH} characters into a positive long,
+     * without allocating. Digits are stored as 1..62 in base 63, so strings that differ only in
+     * leading zeros ("0" and "00") stay distinct. Returns -1 for anything else, e.g. custom
+     * aliases containing '-'.
+     */
+    public static long pack(CharSequence alias) {
+        if (alias == null || alias.isEmpty() || alias.length() > MAX_PACKED_LENGTH) return -1;
+        long packed = 0;
+        for (int i = 0; i < alias.length(); i++) {
+            char c = alias.charAt(i);
+            int digit = c < 128 ? DIGITS[c] : -1;
+            if (digit < 0) return -1;
+            packed = packed * (BASE + 1) + digit + 1;
+        }
+        return packed;
+    }
+
+    /** Inverse of {@link #pack}. */
+    public static String unpack(long packed) {
+        if (packed <= 0) throw new IllegalArgumentException("Not a packed alias: " + packed);
+        char[] chars = new char[MAX_PACKED_LENGTH];
+        int start = MAX_PACKED_LENGTH;
+        while (packed > 0) {
+            int digit = (int) (packed % (BASE + 1));
+            if (digit == 0 || start == 0) throw new IllegalArgumentException("Not a packed alias: " + packed);
+            chars[--start] = ALPHABET.charAt(digit - 1);
+            packed /= BASE + 1;
+        }
+        return new String(chars, start, MAX_PACKED_LENGTH - start);
+    }
+
     /*public static String encode(long num) {
         if (num == 0) return "0";
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,56 @@
+package com.project.ait.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small thread-safe LRU cache with a fixed maximum number of entries.
+ */
+public class BoundedCache<K, V> {
+    private final Map<K, V> map;
+
+    public BoundedCache(int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive");
+        this.map = new LinkedHashMap<>(Math.min(maxSize, 1024) * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, value);
+    }
+
+    /** Returns the cached value, computing and caching it on a miss. {@code loader} must not return null. */
+    public V get(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) return value;
+        value = loader.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    public synchronized void remove(K key) {
+        map.remove(key);
+    }
+
+    /** Removes the entry only if it is still mapped to {@code value}. */
+    public synchronized boolean remove(K key, V value) {
+        return map.remove(key, value);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.ait.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Minimal circuit breaker. After {@code failureThreshold} consecutive failures (errors or calls
+ * slower than {@code slowCallMillis}) the circuit opens and calls are short-circuited to their
+ * fallback for {@code openMillis}. Then a single trial call is let through: success closes the
+ * circuit, failure opens it again.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long slowCallMillis;
+    private final LongSupplier clock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis, long slowCallMillis) {
+        this(failureThreshold, openMillis, slowCallMillis, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis, long slowCallMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.slowCallMillis = slowCallMillis;
+        this.clock = clock;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) return true;
+        if (current == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = clock.getAsLong();
+            state.set(State.OPEN);
+        }
+    }
+
+    /** Runs {@code action} if the circuit allows it, otherwise (or if it fails) returns {@code fallback}. */
+    public <T> T call(Supplier<T> action, Supplier<T> fallback) {
+        if (!allowRequest()) return fallback.get();
+        long start = clock.getAsLong();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            onFailure();
+            return fallback.get();
+        }
+        if (clock.getAsLong() - start > slowCallMillis) onFailure();
+        else onSuccess();
+        return result;
+    }
+
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        }, () -> null);
+    }
+}
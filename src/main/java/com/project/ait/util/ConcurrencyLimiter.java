@@ -0,0 +1,87 @@
+package com.project.ait.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit on concurrent requests with priority classes, in the style of a gradient limiter.
+ *
+ * Each latency sample is compared with a slowly moving baseline (an exponential average over
+ * roughly {@code window} samples). While samples stay within {@code tolerance} times the baseline
+ * the limit grows by about its square root per sample; once latency rises beyond it, the limit
+ * shrinks in proportion (at most halving per sample), so requests start queueing here instead of
+ * in the thread pool and the database. The limit only grows while at least half of it is in use.
+ *
+ * Class 0 may fill the whole limit; class {@code i} is admitted only while fewer than
+ * {@code shares[i] * limit} requests are in flight, so lower classes are shed first.
+ */
+public class ConcurrencyLimiter {
+    private static final double SMOOTHING = 0.2;
+
+    private final double[] shares;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double baselineWeight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double baselineNanos;
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, int window, double... shares) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("need 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (tolerance < 1 || window < 1 || shares.length == 0) throw new IllegalArgumentException("invalid tolerance, window or shares");
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.baselineWeight = 2.0 / (window + 1);
+        this.shares = shares.clone();
+    }
+
+    /** Admits a request of class {@code priority} (0 = highest); each admitted request must be released once. */
+    public boolean tryAcquire(int priority) {
+        int allowed = Math.max(1, (int) (limit * shares[Math.min(priority, shares.length - 1)]));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /** Releases a request without a latency sample, e.g. one that failed fast. */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /** Releases a request and adapts the limit to its latency. */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos > 0) sample(latencyNanos, current);
+    }
+
+    private synchronized void sample(long latencyNanos, int inFlightAtEnd) {
+        if (baselineNanos == 0) {
+            baselineNanos = latencyNanos;
+            return;
+        }
+        baselineNanos += (latencyNanos - baselineNanos) * baselineWeight;
+        // After a long overload the baseline has drifted up; let it recover quickly once latency drops
+        if (baselineNanos > 2 * latencyNanos) baselineNanos *= 0.95;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / latencyNanos));
+        double current = limit;
+        double next = current * gradient + Math.sqrt(current);
+        // An idle limit proves nothing about capacity: do not let it grow while mostly unused
+        if (next > current && inFlightAtEnd < current / 2) return;
+        next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.ait.util;
+
+import java.util.Arrays;
+
+/**
+ * Consistent hash ring over nodes {@code 0..nodes-1}, each placed at {@code virtualNodes} points.
+ *
+ * A node's points depend only on its own number, so growing the ring from N to N+1 nodes only
+ * moves the keys that land on the new node's points (about 1/(N+1) of them).
+ */
+public class ConsistentHashRing {
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(int nodes, int virtualNodes) {
+        if (nodes < 1 || virtualNodes < 1) throw new IllegalArgumentException("Ring needs at least one node and one virtual node");
+        long[][] entries = new long[nodes * virtualNodes][];
+        int i = 0;
+        for (int node = 0; node < nodes; node++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                entries[i++] = new long[] {hash("node-" + node + "#" + replica), node};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        points = new long[entries.length];
+        owners = new int[entries.length];
+        for (int j = 0; j < entries.length; j++) {
+            points[j] = entries[j][0];
+            owners[j] = (int) entries[j][1];
+        }
+    }
+
+    /** Node owning {@code key}: the first point at or after the key's hash, wrapping around. */
+    public int nodeFor(String key) {
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) i = -i - 1;
+        return owners[i == points.length ? 0 : i];
+    }
+
+    private static long hash(String value) {
+        // FNV-1a alone clusters similar short strings; the finalizer spreads them over the ring
+        return Hashing.mix64(Hashing.fnv1a64(value));
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.ait.util;
+
+/**
+ * Count-min sketch over string keys. Estimates never under-count; with width w and depth d the
+ * over-count is at most 2N/w with probability 1 - (1/2)^d, where N is the total count added.
+ * Not thread-safe.
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final long[][] table;
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) throw new IllegalArgumentException("width and depth must be positive");
+        this.width = width;
+        this.depth = depth;
+        this.table = new long[depth][width];
+    }
+
+    /** Adds {@code count} occurrences of {@code key} and returns the new estimate for it. */
+    public long add(String key, long count) {
+        int h1 = hash1(key);
+        int h2 = hash2(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int idx = index(h1, h2, i);
+            table[i][idx] += count;
+            estimate = Math.min(estimate, table[i][idx]);
+        }
+        total += count;
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        int h1 = hash1(key);
+        int h2 = hash2(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, table[i][index(h1, h2, i)]);
+        }
+        return estimate;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    private int index(int h1, int h2, int row) {
+        return Math.floorMod(h1 + row * h2, width);
+    }
+
+    private static int hash1(String key) {
+        int h = key.hashCode();
+        // murmur3 fmix32 to spread String.hashCode's weak low bits
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int hash2(int h1) {
+        int h = h1 * 0x9e3779b9;
+        return (h ^ (h >>> 15)) | 1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.project.ait.util;
+
+/**
+ * Two-letter ISO 3166 country codes packed into a short: {@code (first - 'A') * 26 + (second - 'A') + 1},
+ * with 0 for unknown. Names are precomputed, so converting back never allocates.
+ */
+public final class CountryCodes {
+    public static final short UNKNOWN = 0;
+
+    private static final String[] NAMES = new String[26 * 26 + 1];
+
+    static {
+        for (int i = 0; i < 26 * 26; i++) {
+            NAMES[i + 1] = new String(new char[] {(char) ('A' + i / 26), (char) ('A' + i % 26)});
+        }
+    }
+
+    private CountryCodes() { }
+
+    /** Code of a two-letter country code (any case), or {@link #UNKNOWN} if it is not two letters. */
+    public static short encode(String country) {
+        if (country == null || country.length() != 2) return UNKNOWN;
+        int first = Character.toUpperCase(country.charAt(0)) - 'A';
+        int second = Character.toUpperCase(country.charAt(1)) - 'A';
+        if (first < 0 || first >= 26 || second < 0 || second >= 26) return UNKNOWN;
+        return (short) (first * 26 + second + 1);
+    }
+
+    /** Upper-case two-letter country code, or null for {@link #UNKNOWN} and invalid codes. */
+    public static String decode(int code) {
+        return code > 0 && code < NAMES.length ? NAMES[code] : null;
+    }
+}
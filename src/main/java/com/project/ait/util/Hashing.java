@@ -0,0 +1,34 @@
+package com.project.ait.util;
+
+/**
+ * Non-cryptographic hash helpers.
+ */
+public final class Hashing {
+    private static final long FNV64_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV64_PRIME = 0x100000001b3L;
+
+    private Hashing() { }
+
+    /** 64-bit FNV-1a over the UTF-16 code units of {@code value}. */
+    public static long fnv1a64(CharSequence value) {
+        long h = FNV64_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            h ^= c & 0xff;
+            h *= FNV64_PRIME;
+            h ^= c >>> 8;
+            h *= FNV64_PRIME;
+        }
+        return h;
+    }
+
+    /** Murmur3 64-bit finalizer: spreads the bits of an already computed hash, e.g. one from {@link #fnv1a64}. */
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.ait.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Streaming top-K tracker: a {@link CountMinSketch} estimates every key's frequency and only the
+ * K keys with the highest estimates are kept as candidates. Memory is bounded by the sketch size
+ * plus K entries regardless of how many distinct keys are seen. Candidates are also kept ordered
+ * by estimate, so finding the one to evict is O(log K). Not thread-safe.
+ */
+public class HeavyHitters {
+    private record Candidate(String key, long estimate) { }
+
+    private static final Comparator<Candidate> BY_ESTIMATE =
+            Comparator.comparingLong(Candidate::estimate).thenComparing(Candidate::key);
+
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final Map<String, Candidate> candidates;
+    private final TreeSet<Candidate> ordered = new TreeSet<>(BY_ESTIMATE);
+
+    public HeavyHitters(int capacity, int sketchWidth, int sketchDepth) {
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        this.candidates = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key) {
+        long estimate = sketch.add(key, 1);
+        Candidate previous = candidates.get(key);
+        if (previous == null && candidates.size() >= capacity) {
+            Candidate min = ordered.first();
+            if (estimate <= min.estimate()) return;
+            ordered.pollFirst();
+            candidates.remove(min.key());
+        } else if (previous != null) {
+            ordered.remove(previous);
+        }
+        Candidate candidate = new Candidate(key, estimate);
+        candidates.put(key, candidate);
+        ordered.add(candidate);
+    }
+
+    /** Candidates ordered by estimated count, highest first. */
+    public List<Map.Entry<String, Long>> top() {
+        List<Map.Entry<String, Long>> result = new ArrayList<>(candidates.size());
+        for (Candidate candidate : ordered.descendingSet()) result.add(Map.entry(candidate.key(), candidate.estimate()));
+        return result;
+    }
+
+    public long total() {
+        return sketch.total();
+    }
+}
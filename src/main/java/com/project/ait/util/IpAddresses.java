@@ -0,0 +1,60 @@
+package com.project.ait.util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Conversion between textual IP literals and their 4 / 16 byte binary form. Never performs DNS
+ * lookups: IPv4 is parsed by hand and IPv6 literals (containing ':') are parsed by the JDK
+ * without resolution.
+ */
+public final class IpAddresses {
+
+    private IpAddresses() { }
+
+    /** Binary form of an IP literal, or null if {@code ip} is null or not a valid literal. */
+    public static byte[] toBytes(String ip) {
+        if (ip == null || ip.isEmpty()) return null;
+        if (ip.indexOf(':') >= 0) {
+            try {
+                return InetAddress.getByName(ip).getAddress();
+            } catch (UnknownHostException | SecurityException e) {
+                return null;
+            }
+        }
+        return parseIpv4(ip);
+    }
+
+    public static String toText(byte[] address) {
+        if (address == null) return null;
+        try {
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    static byte[] parseIpv4(String ip) {
+        byte[] out = new byte[4];
+        int part = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c == '.') {
+                if (digits == 0 || part == 3) return null;
+                out[part++] = (byte) value;
+                value = 0;
+                digits = 0;
+            } else if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 3 || value > 255) return null;
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0 || part != 3) return null;
+        out[3] = (byte) value;
+        return out;
+    }
+}
@@ -0,0 +1,208 @@
+package com.project.ait.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable IP-range to country index held in sorted primitive arrays: IPv4 ranges as unsigned
+ * ints, IPv6 ranges as pairs of longs. A lookup is one binary search over the range starts and
+ * does not allocate. Ranges must not overlap; gaps look up as {@link CountryCodes#UNKNOWN}.
+ * IPv4-mapped IPv6 addresses ({@code ::ffff:a.b.c.d}) are looked up as IPv4.
+ */
+public final class IpRangeIndex {
+    public static final IpRangeIndex EMPTY = new Builder().build();
+
+    // Starts and ends have their sign bit flipped, so signed comparison orders them as unsigned
+    private final int[] v4Starts;
+    private final int[] v4Ends;
+    private final short[] v4Countries;
+    private final long[] v6StartsHigh;
+    private final long[] v6StartsLow;
+    private final long[] v6EndsHigh;
+    private final long[] v6EndsLow;
+    private final short[] v6Countries;
+
+    private IpRangeIndex(int[] v4Starts, int[] v4Ends, short[] v4Countries,
+                         long[] v6StartsHigh, long[] v6StartsLow, long[] v6EndsHigh, long[] v6EndsLow, short[] v6Countries) {
+        this.v4Starts = v4Starts;
+        this.v4Ends = v4Ends;
+        this.v4Countries = v4Countries;
+        this.v6StartsHigh = v6StartsHigh;
+        this.v6StartsLow = v6StartsLow;
+        this.v6EndsHigh = v6EndsHigh;
+        this.v6EndsLow = v6EndsLow;
+        this.v6Countries = v6Countries;
+    }
+
+    /** Number of ranges. */
+    public int size() {
+        return v4Starts.length + v6StartsHigh.length;
+    }
+
+    /** Country code of a 4 or 16 byte address, or {@link CountryCodes#UNKNOWN}. */
+    public short lookup(byte[] address) {
+        if (address == null) return CountryCodes.UNKNOWN;
+        if (address.length == 4) return lookupV4(int32(address, 0));
+        if (address.length != 16) return CountryCodes.UNKNOWN;
+        long high = int64(address, 0);
+        long low = int64(address, 8);
+        if (high == 0 && (low >>> 32) == 0xFFFFL) return lookupV4((int) low);
+        return lookupV6(high, low);
+    }
+
+    private short lookupV4(int address) {
+        int key = address ^ Integer.MIN_VALUE;
+        // Last range starting at or before the address
+        int lo = 0;
+        int hi = v4Starts.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (v4Starts[mid] <= key) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found >= 0 && key <= v4Ends[found] ? v4Countries[found] : CountryCodes.UNKNOWN;
+    }
+
+    private short lookupV6(long high, long low) {
+        long keyHigh = high ^ Long.MIN_VALUE;
+        long keyLow = low ^ Long.MIN_VALUE;
+        int lo = 0;
+        int hi = v6StartsHigh.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(v6StartsHigh[mid], v6StartsLow[mid], keyHigh, keyLow) <= 0) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found >= 0 && compare(keyHigh, keyLow, v6EndsHigh[found], v6EndsLow[found]) <= 0
+                ? v6Countries[found] : CountryCodes.UNKNOWN;
+    }
+
+    private static int compare(long aHigh, long aLow, long bHigh, long bLow) {
+        int byHigh = Long.compare(aHigh, bHigh);
+        return byHigh != 0 ? byHigh : Long.compare(aLow, bLow);
+    }
+
+    private static int int32(byte[] b, int offset) {
+        return (b[offset] & 0xFF) << 24 | (b[offset + 1] & 0xFF) << 16 | (b[offset + 2] & 0xFF) << 8 | (b[offset + 3] & 0xFF);
+    }
+
+    private static long int64(byte[] b, int offset) {
+        return (long) int32(b, offset) << 32 | (int32(b, offset + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads CSV lines of {@code first-ip,last-ip,country} (the DB-IP "IP to Country Lite" layout).
+     * Blank lines, {@code #} comments and a header line are skipped; fields may be quoted.
+     * Rows with a country code that is not two letters are skipped.
+     */
+    public static IpRangeIndex readCsv(Reader reader) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader lines = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split(",", -1);
+            if (fields.length < 3) throw new IllegalArgumentException("Line " + number + ": expected first-ip,last-ip,country");
+            byte[] first = IpAddresses.toBytes(unquote(fields[0]));
+            byte[] last = IpAddresses.toBytes(unquote(fields[1]));
+            if (first == null || last == null) {
+                if (number == 1) continue;
+                throw new IllegalArgumentException("Line " + number + ": invalid IP address");
+            }
+            short country = CountryCodes.encode(unquote(fields[2]));
+            if (country != CountryCodes.UNKNOWN) builder.add(first, last, country);
+        }
+        return builder.build();
+    }
+
+    private static String unquote(String field) {
+        String value = field.strip();
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"") ? value.substring(1, value.length() - 1) : value;
+    }
+
+    /** Collects ranges in any order; {@link #build} sorts them. */
+    public static final class Builder {
+        private int v4Count;
+        private int[] v4Starts = new int[1024];
+        private int[] v4Ends = new int[1024];
+        private short[] v4Countries = new short[1024];
+        private int v6Count;
+        private long[] v6Starts = new long[2048];
+        private long[] v6Ends = new long[2048];
+        private short[] v6Countries = new short[1024];
+
+        public Builder add(byte[] first, byte[] last, short country) {
+            if (first.length != last.length) throw new IllegalArgumentException("Range mixes IPv4 and IPv6");
+            if (first.length == 4) {
+                if (v4Count == v4Starts.length) {
+                    v4Starts = Arrays.copyOf(v4Starts, v4Count * 2);
+                    v4Ends = Arrays.copyOf(v4Ends, v4Count * 2);
+                    v4Countries = Arrays.copyOf(v4Countries, v4Count * 2);
+                }
+                v4Starts[v4Count] = int32(first, 0) ^ Integer.MIN_VALUE;
+                v4Ends[v4Count] = int32(last, 0) ^ Integer.MIN_VALUE;
+                v4Countries[v4Count++] = country;
+            } else {
+                if (v6Count == v6Countries.length) {
+                    v6Starts = Arrays.copyOf(v6Starts, v6Count * 4);
+                    v6Ends = Arrays.copyOf(v6Ends, v6Count * 4);
+                    v6Countries = Arrays.copyOf(v6Countries, v6Count * 2);
+                }
+                v6Starts[2 * v6Count] = int64(first, 0) ^ Long.MIN_VALUE;
+                v6Starts[2 * v6Count + 1] = int64(first, 8) ^ Long.MIN_VALUE;
+                v6Ends[2 * v6Count] = int64(last, 0) ^ Long.MIN_VALUE;
+                v6Ends[2 * v6Count + 1] = int64(last, 8) ^ Long.MIN_VALUE;
+                v6Countries[v6Count++] = country;
+            }
+            return this;
+        }
+
+        public IpRangeIndex build() {
+            Integer[] v4Order = IntStream.range(0, v4Count).boxed().toArray(Integer[]::new);
+            Arrays.sort(v4Order, Comparator.comparingInt(i -> v4Starts[i]));
+            Integer[] v6Order = IntStream.range(0, v6Count).boxed().toArray(Integer[]::new);
+            Arrays.sort(v6Order, (a, b) -> compare(v6Starts[2 * a], v6Starts[2 * a + 1], v6Starts[2 * b], v6Starts[2 * b + 1]));
+
+            int[] starts4 = new int[v4Count];
+            int[] ends4 = new int[v4Count];
+            short[] countries4 = new short[v4Count];
+            for (int i = 0; i < v4Count; i++) {
+                int from = v4Order[i];
+                starts4[i] = v4Starts[from];
+                ends4[i] = v4Ends[from];
+                countries4[i] = v4Countries[from];
+            }
+            long[] startsHigh6 = new long[v6Count];
+            long[] startsLow6 = new long[v6Count];
+            long[] endsHigh6 = new long[v6Count];
+            long[] endsLow6 = new long[v6Count];
+            short[] countries6 = new short[v6Count];
+            for (int i = 0; i < v6Count; i++) {
+                int from = v6Order[i];
+                startsHigh6[i] = v6Starts[2 * from];
+                startsLow6[i] = v6Starts[2 * from + 1];
+                endsHigh6[i] = v6Ends[2 * from];
+                endsLow6[i] = v6Ends[2 * from + 1];
+                countries6[i] = v6Countries[from];
+            }
+            return new IpRangeIndex(starts4, ends4, countries4, startsHigh6, startsLow6, endsHigh6, endsLow6, countries6);
+        }
+    }
+}
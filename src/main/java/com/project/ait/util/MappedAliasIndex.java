@@ -0,0 +1,308 @@
+package com.project.ait.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Memory-mapped, open-addressing hash index from alias to redirect target. Everything lives in the
+ * mapped file, so the index adds no heap objects and survives restarts.
+ *
+ * File layout: a 64-byte header, a slot table of {@code slotCount} x 16 bytes ({@code [alias hash]
+ * [record offset]}, linear probing), then an append-only record area. A record is
+ * {@code [int length][byte flags][long expiresAt][short aliasLen][short urlLen][alias][url]}, UTF-8.
+ * An update appends a new record and repoints the slot; superseded records are reclaimed when the
+ * index is copied into a new file. The file is mapped in fixed-size chunks so it can exceed 2 GB;
+ * records never straddle a chunk.
+ *
+ * One writer at a time (writes are synchronized), any number of lock-free readers: a slot's offset
+ * is published with release semantics after its record has been written.
+ */
+public class MappedAliasIndex implements Closeable {
+    public record Entry(String longUrl, long expiresAtMillis, boolean active) {
+        public static final long NO_EXPIRY = Long.MAX_VALUE;
+    }
+
+    public static final int DEFAULT_CHUNK_BITS = 30;
+
+    private static final int MAGIC = 0x41495831; // "AIX1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 16;
+    private static final int RECORD_HEADER = 17;
+    private static final double MAX_LOAD = 0.7;
+
+    private static final byte ACTIVE = 1;
+    private static final byte DELETED = 2;
+
+    // Header fields
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SLOTS = 8;
+    private static final int H_DATA_END = 16;
+    private static final int H_ENTRIES = 24;
+    private static final int H_WATERMARK = 32;
+    private static final int H_WATERMARK_SEQ = 40;
+    private static final int H_CLEAN = 48;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int chunkBits;
+    private final long chunkSize;
+    private final long slotCount;
+    private final boolean openedClean;
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private long dataEnd;
+    private long entries;
+
+    private MappedAliasIndex(Path path, long slotCount, int chunkBits, boolean create) throws IOException {
+        this.path = path;
+        this.chunkBits = chunkBits;
+        this.chunkSize = 1L << chunkBits;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (create) {
+            if (Long.bitCount(slotCount) != 1) throw new IllegalArgumentException("Slot count must be a power of two");
+            this.slotCount = slotCount;
+            this.dataEnd = HEADER_SIZE + slotCount * SLOT_SIZE;
+            ensureMapped(dataEnd);
+            ByteBuffer header = chunks[0];
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_VERSION, VERSION);
+            header.putLong(H_SLOTS, slotCount);
+            this.openedClean = true;
+        } else {
+            ensureMapped(HEADER_SIZE);
+            ByteBuffer header = chunks[0];
+            if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+                channel.close();
+                throw new IOException("Not an alias index: " + path);
+            }
+            this.slotCount = header.getLong(H_SLOTS);
+            this.dataEnd = header.getLong(H_DATA_END);
+            this.entries = header.getLong(H_ENTRIES);
+            this.openedClean = header.getInt(H_CLEAN) == 1;
+            ensureMapped(dataEnd);
+        }
+        // Marked clean again only by an orderly close, after everything was forced to disk
+        chunks[0].putInt(H_CLEAN, 0);
+        writeHeader();
+    }
+
+    public static MappedAliasIndex create(Path path, long slotCount) throws IOException {
+        return create(path, slotCount, DEFAULT_CHUNK_BITS);
+    }
+
+    static MappedAliasIndex create(Path path, long slotCount, int chunkBits) throws IOException {
+        Files.deleteIfExists(path);
+        return new MappedAliasIndex(path, slotCount, chunkBits, true);
+    }
+
+    public static MappedAliasIndex open(Path path) throws IOException {
+        return new MappedAliasIndex(path, 0, DEFAULT_CHUNK_BITS, false);
+    }
+
+    static MappedAliasIndex open(Path path, int chunkBits) throws IOException {
+        return new MappedAliasIndex(path, 0, chunkBits, false);
+    }
+
+    /** Smallest power-of-two slot count that holds {@code expectedEntries} below the load limit. */
+    public static long slotsFor(long expectedEntries) {
+        long needed = Math.max(1024, (long) Math.ceil(expectedEntries / MAX_LOAD) + 1);
+        return Long.highestOneBit(needed - 1) << 1;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** False if the previous process did not close the file cleanly, e.g. after a machine crash. */
+    public boolean openedClean() {
+        return openedClean;
+    }
+
+    public synchronized long size() {
+        return entries;
+    }
+
+    public synchronized boolean isFull() {
+        return entries + 1 > slotCount * MAX_LOAD;
+    }
+
+    public Entry get(String alias) {
+        byte[] key = alias.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(alias);
+        long mask = slotCount - 1;
+        long i = hash & mask;
+        for (long probes = 0; probes < slotCount; probes++, i = (i + 1) & mask) {
+            long slot = HEADER_SIZE + i * SLOT_SIZE;
+            long offset = (long) LONG.getAcquire(chunk(slot), local(slot + 8));
+            if (offset == 0) return null;
+            if (chunk(slot).getLong(local(slot)) == hash && aliasEquals(offset, key)) {
+                return readEntry(offset);
+            }
+        }
+        return null;
+    }
+
+    public synchronized void put(String alias, String longUrl, long expiresAtMillis, boolean active) {
+        write(alias, longUrl, expiresAtMillis, active ? ACTIVE : 0);
+    }
+
+    /** Removes {@code alias}; the slot keeps a tombstone so probe chains stay intact. */
+    public synchronized void delete(String alias) {
+        write(alias, "", Entry.NO_EXPIRY, DELETED);
+    }
+
+    /** Position of the last applied change, as two longs (e.g. a Redis stream id). */
+    public synchronized long[] getWatermark() {
+        ByteBuffer header = chunks[0];
+        return new long[] {header.getLong(H_WATERMARK), header.getLong(H_WATERMARK_SEQ)};
+    }
+
+    public synchronized void setWatermark(long millis, long sequence) {
+        ByteBuffer header = chunks[0];
+        header.putLong(H_WATERMARK, millis);
+        header.putLong(H_WATERMARK_SEQ, sequence);
+    }
+
+    /** Visits the current version of every live alias, in slot order. */
+    public void forEach(BiConsumer<String, Entry> visitor) {
+        for (long i = 0; i < slotCount; i++) {
+            long slot = HEADER_SIZE + i * SLOT_SIZE;
+            long offset = (long) LONG.getAcquire(chunk(slot), local(slot + 8));
+            if (offset == 0) continue;
+            ByteBuffer b = chunk(offset);
+            int p = local(offset);
+            if ((b.get(p + 4) & DELETED) != 0) continue;
+            byte[] alias = new byte[Short.toUnsignedInt(b.getShort(p + 13))];
+            b.get(p + RECORD_HEADER, alias);
+            visitor.accept(new String(alias, StandardCharsets.UTF_8), readEntry(offset));
+        }
+    }
+
+    public synchronized void force() {
+        writeHeader();
+        for (MappedByteBuffer chunk : chunks) chunk.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        chunks[0].putInt(H_CLEAN, 1);
+        chunks[0].force();
+        channel.close();
+    }
+
+    private void write(String alias, String longUrl, long expiresAtMillis, byte flags) {
+        byte[] key = alias.getBytes(StandardCharsets.UTF_8);
+        byte[] url = longUrl.getBytes(StandardCharsets.UTF_8);
+        if (key.length > 0xffff || url.length > 0xffff) throw new IllegalArgumentException("Alias or URL too long");
+        long hash = hash(alias);
+        long mask = slotCount - 1;
+        long i = hash & mask;
+        for (long probes = 0; probes < slotCount; probes++, i = (i + 1) & mask) {
+            long slot = HEADER_SIZE + i * SLOT_SIZE;
+            ByteBuffer slots = chunk(slot);
+            long current = slots.getLong(local(slot + 8));
+            boolean empty = current == 0;
+            if (empty || (slots.getLong(local(slot)) == hash && aliasEquals(current, key))) {
+                if (empty && isFull()) throw new IllegalStateException("Alias index is full");
+                long offset = append(key, url, expiresAtMillis, flags);
+                if (empty) {
+                    slots.putLong(local(slot), hash);
+                    entries++;
+                }
+                LONG.setRelease(slots, local(slot + 8), offset);
+                writeHeader();
+                return;
+            }
+        }
+        throw new IllegalStateException("Alias index is full");
+    }
+
+    private long append(byte[] key, byte[] url, long expiresAtMillis, byte flags) {
+        int length = RECORD_HEADER + key.length + url.length;
+        long offset = dataEnd;
+        if (local(offset) + (long) length > chunkSize) offset = ((offset >>> chunkBits) + 1) << chunkBits;
+        ensureMapped(offset + length);
+        ByteBuffer b = chunk(offset);
+        int p = local(offset);
+        b.putInt(p, length);
+        b.put(p + 4, flags);
+        b.putLong(p + 5, expiresAtMillis);
+        b.putShort(p + 13, (short) key.length);
+        b.putShort(p + 15, (short) url.length);
+        b.put(p + RECORD_HEADER, key);
+        b.put(p + RECORD_HEADER + key.length, url);
+        dataEnd = offset + length;
+        return offset;
+    }
+
+    private Entry readEntry(long offset) {
+        ByteBuffer b = chunk(offset);
+        int p = local(offset);
+        byte flags = b.get(p + 4);
+        if ((flags & DELETED) != 0) return null;
+        int aliasLength = Short.toUnsignedInt(b.getShort(p + 13));
+        byte[] url = new byte[Short.toUnsignedInt(b.getShort(p + 15))];
+        b.get(p + RECORD_HEADER + aliasLength, url);
+        return new Entry(new String(url, StandardCharsets.UTF_8), b.getLong(p + 5), (flags & ACTIVE) != 0);
+    }
+
+    private boolean aliasEquals(long offset, byte[] key) {
+        ByteBuffer b = chunk(offset);
+        int p = local(offset);
+        if (Short.toUnsignedInt(b.getShort(p + 13)) != key.length) return false;
+        for (int j = 0; j < key.length; j++) {
+            if (b.get(p + RECORD_HEADER + j) != key[j]) return false;
+        }
+        return true;
+    }
+
+    private void writeHeader() {
+        ByteBuffer header = chunks[0];
+        header.putLong(H_DATA_END, dataEnd);
+        header.putLong(H_ENTRIES, entries);
+    }
+
+    private void ensureMapped(long end) {
+        MappedByteBuffer[] current = chunks;
+        long needed = (end + chunkSize - 1) >>> chunkBits;
+        if (current.length >= needed) return;
+        MappedByteBuffer[] grown = Arrays.copyOf(current, (int) needed);
+        try {
+            for (int c = current.length; c < needed; c++) {
+                grown[c] = channel.map(FileChannel.MapMode.READ_WRITE, (long) c << chunkBits, chunkSize);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to map alias index " + path, e);
+        }
+        // Published before any slot can point into the new chunks
+        chunks = grown;
+    }
+
+    private ByteBuffer chunk(long position) {
+        return chunks[(int) (position >>> chunkBits)];
+    }
+
+    private int local(long position) {
+        return (int) (position & (chunkSize - 1));
+    }
+
+    private static long hash(String alias) {
+        return Hashing.mix64(Hashing.fnv1a64(alias));
+    }
+}
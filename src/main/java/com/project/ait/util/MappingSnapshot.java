@@ -0,0 +1,238 @@
+package com.project.ait.util;
+
+import com.project.ait.entity.UrlMapping;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact binary snapshot of url_mapping rows, used to bootstrap nodes and recovery sites.
+ *
+ * Layout (gzip-compressed): {@code "AMS1"}, version, creation time, the delta bounds it was taken
+ * with (per-shard ids and an optional creation time), then one record per mapping and an end
+ * marker followed by the record count, the highest id seen per shard and a CRC32 of everything
+ * before it. Numbers are variable-length and ids are delta-encoded per shard, so a row costs
+ * little more than its alias and URL before compression. Readers verify the count and checksum
+ * when they reach the end and reject truncated or corrupted files.
+ */
+public final class MappingSnapshot {
+    public static final String FILE_EXTENSION = ".snap";
+
+    private static final int MAGIC = 0x414d5331; // "AMS1"
+    // Version 2 added the creator key id; version 1 files are still read
+    private static final int VERSION = 2;
+    private static final int RECORD = 1;
+    private static final int END = 0;
+
+    private static final int ACTIVE = 1;
+    private static final int CUSTOM = 1 << 1;
+    private static final int HAS_IP = 1 << 2;
+    private static final int HAS_CREATED = 1 << 3;
+    private static final int HAS_EXPIRES = 1 << 4;
+    private static final int HAS_KEY = 1 << 5;
+
+    private MappingSnapshot() { }
+
+    /**
+     * What a snapshot contains: rows with an id above {@code afterIds[shard]} and, if
+     * {@code createdSince} is set, created at or after it. A full snapshot has all ids at 0.
+     */
+    public record Header(Instant takenAt, long[] afterIds, Instant createdSince) {
+        public boolean isDelta() {
+            return createdSince != null || Arrays.stream(afterIds).anyMatch(id -> id > 0);
+        }
+    }
+
+    public record Row(int shard, UrlMapping mapping) { }
+
+    public static class Writer implements Closeable {
+        private final CheckedOutputStream checked;
+        private final DataOutputStream out;
+        private final long[] lastIds;
+        private long count;
+
+        public Writer(OutputStream target, Header header) throws IOException {
+            this.checked = new CheckedOutputStream(new GZIPOutputStream(new BufferedOutputStream(target, 64 * 1024), 64 * 1024), new CRC32());
+            this.out = new DataOutputStream(checked);
+            this.lastIds = header.afterIds().clone();
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(header.takenAt().toEpochMilli());
+            writeVarLong(out, header.afterIds().length);
+            for (long id : header.afterIds()) writeVarLong(out, id);
+            writeVarLong(out, header.createdSince() == null ? -1 : header.createdSince().toEpochMilli());
+        }
+
+        /** Rows of one shard must be written in ascending id order. */
+        public void write(int shard, UrlMapping m) throws IOException {
+            if (m.getId() <= lastIds[shard]) throw new IllegalArgumentException("Ids must ascend within a shard");
+            int flags = (m.isActive() ? ACTIVE : 0) | (m.isCustomAlias() ? CUSTOM : 0)
+                    | (m.getCreatedByIp() != null ? HAS_IP : 0)
+                    | (m.getCreatedAt() != null ? HAS_CREATED : 0)
+                    | (m.getExpiresAt() != null ? HAS_EXPIRES : 0)
+                    | (m.getCreatedByKeyId() != null ? HAS_KEY : 0);
+            out.writeByte(RECORD);
+            writeVarLong(out, shard);
+            writeVarLong(out, m.getId() - lastIds[shard]);
+            out.writeByte(flags);
+            writeString(out, m.getAlias());
+            writeString(out, m.getLongUrl());
+            if (m.getCreatedByIp() != null) writeString(out, m.getCreatedByIp());
+            if (m.getCreatedAt() != null) writeVarLong(out, m.getCreatedAt().toEpochMilli());
+            if (m.getExpiresAt() != null) writeVarLong(out, m.getExpiresAt().toEpochMilli());
+            if (m.getCreatedByKeyId() != null) writeVarLong(out, m.getCreatedByKeyId());
+            lastIds[shard] = m.getId();
+            count++;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /** Writes the trailer and finishes the compressed stream; the target is closed too. */
+        @Override
+        public void close() throws IOException {
+            out.writeByte(END);
+            writeVarLong(out, count);
+            for (long id : lastIds) writeVarLong(out, id);
+            out.flush();
+            // Covers everything above; the checksum itself is written after reading it
+            out.writeLong(checked.getChecksum().getValue());
+            out.close();
+        }
+    }
+
+    public static class Reader implements Closeable {
+        private final CheckedInputStream checked;
+        private final DataInputStream in;
+        private final Header header;
+        private final long[] lastIds;
+        private long count;
+        private boolean finished;
+
+        public Reader(InputStream source) throws IOException {
+            this.checked = new CheckedInputStream(new GZIPInputStream(new BufferedInputStream(source, 64 * 1024), 64 * 1024), new CRC32());
+            this.in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) throw new IOException("Not a mapping snapshot");
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) throw new IOException("Unsupported snapshot version " + version);
+            Instant takenAt = Instant.ofEpochMilli(in.readLong());
+            long[] afterIds = new long[(int) readVarLong(in)];
+            for (int i = 0; i < afterIds.length; i++) afterIds[i] = readVarLong(in);
+            long since = readVarLong(in);
+            this.header = new Header(takenAt, afterIds, since < 0 ? null : Instant.ofEpochMilli(since));
+            this.lastIds = afterIds.clone();
+        }
+
+        public Header header() {
+            return header;
+        }
+
+        /** The next row, or null after the last one once the trailer has been verified. */
+        public Row next() throws IOException {
+            if (finished) return null;
+            int marker = in.readUnsignedByte();
+            if (marker == END) {
+                verifyTrailer();
+                return null;
+            }
+            if (marker != RECORD) throw new IOException("Corrupted snapshot: unexpected marker " + marker);
+            int shard = (int) readVarLong(in);
+            if (shard < 0 || shard >= lastIds.length) throw new IOException("Corrupted snapshot: shard " + shard);
+            long id = lastIds[shard] + readVarLong(in);
+            int flags = in.readUnsignedByte();
+            UrlMapping mapping = UrlMapping.builder()
+                    .id(id)
+                    .alias(readString(in))
+                    .longUrl(readString(in))
+                    .createdByIp((flags & HAS_IP) != 0 ? readString(in) : null)
+                    .createdAt((flags & HAS_CREATED) != 0 ? Instant.ofEpochMilli(readVarLong(in)) : null)
+                    .expiresAt((flags & HAS_EXPIRES) != 0 ? Instant.ofEpochMilli(readVarLong(in)) : null)
+                    .createdByKeyId((flags & HAS_KEY) != 0 ? readVarLong(in) : null)
+                    .active((flags & ACTIVE) != 0)
+                    .customAlias((flags & CUSTOM) != 0)
+                    .build();
+            lastIds[shard] = id;
+            count++;
+            return new Row(shard, mapping);
+        }
+
+        /**
+         * Highest id read per shard. Once the end is reached this is the snapshot's watermark:
+         * pass it as the {@code afterIds} of the next delta.
+         */
+        public long[] lastIds() {
+            return lastIds.clone();
+        }
+
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private void verifyTrailer() throws IOException {
+            long expectedCount = readVarLong(in);
+            long[] expectedIds = new long[lastIds.length];
+            for (int i = 0; i < expectedIds.length; i++) expectedIds[i] = readVarLong(in);
+            long actual = checked.getChecksum().getValue();
+            long expected = in.readLong();
+            if (actual != expected) throw new IOException("Snapshot checksum mismatch");
+            if (expectedCount != count || !Arrays.equals(expectedIds, lastIds)) {
+                throw new IOException("Corrupted snapshot: trailer does not match its records");
+            }
+            finished = true;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > 1 << 20) throw new IOException("Corrupted snapshot: string length " + length);
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Zig-zag LEB128, so the -1 "absent" marker stays one byte
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return (v >>> 1) ^ -(v & 1);
+        }
+        throw new IOException("Corrupted snapshot: malformed number");
+    }
+}
@@ -0,0 +1,141 @@
+package com.project.ait.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Bounded long-to-long cache held outside the Java heap, for keys such as {@link Base62#pack packed
+ * aliases}. Entries take no heap objects, so millions of them add nothing for the garbage
+ * collector to trace; the two generations take 64 bytes of direct memory per entry of capacity.
+ *
+ * Each generation is an open-addressing table ({@code [key][value]} slots, linear probing, at most
+ * half full) in a direct buffer. When the current generation holds {@code capacity} keys it
+ * becomes the old one and a fresh generation starts; the previous old generation is dropped
+ * whole. Hits in the old generation are copied forward, so recently used keys survive and memory
+ * stays bounded without per-entry bookkeeping.
+ *
+ * Keys and values must be non-zero: 0 marks an empty slot and an absent or removed value.
+ * Writes are synchronized; reads are lock-free (a slot's key is published after its value).
+ */
+public class OffHeapLongCache {
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int SLOT_SIZE = 16;
+
+    private static final class Table {
+        final ByteBuffer slots;
+        final int mask;
+        int keys;
+
+        Table(int slotCount) {
+            this.slots = ByteBuffer.allocateDirect(slotCount * SLOT_SIZE);
+            this.mask = slotCount - 1;
+        }
+
+        /** Byte offset of the slot holding {@code key}, or of the empty slot where it would go. */
+        int find(long key) {
+            int slot = (int) mix(key) & mask;
+            while (true) {
+                int offset = slot * SLOT_SIZE;
+                long present = (long) LONG.getAcquire(slots, offset);
+                if (present == key || present == 0) return offset;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        long get(long key) {
+            int offset = find(key);
+            return (long) LONG.getAcquire(slots, offset) == key ? (long) LONG.getAcquire(slots, offset + 8) : 0;
+        }
+    }
+
+    private final int capacity;
+    private final int slotCount;
+    private volatile Table current;
+    private volatile Table old;
+
+    public OffHeapLongCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 25) throw new IllegalArgumentException("capacity must be between 1 and 2^25");
+        this.capacity = capacity;
+        this.slotCount = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.current = new Table(slotCount);
+        this.old = new Table(slotCount);
+    }
+
+    /** Value stored for {@code key}, or 0 if there is none. */
+    public long get(long key) {
+        checkKey(key);
+        long value = current.get(key);
+        if (value != 0) return value;
+        value = old.get(key);
+        if (value != 0) promote(key, value);
+        return value;
+    }
+
+    public synchronized void put(long key, long value) {
+        checkKey(key);
+        if (value == 0) throw new IllegalArgumentException("value must be non-zero");
+        write(key, value);
+    }
+
+    public synchronized void remove(long key) {
+        checkKey(key);
+        clear(current, key);
+        clear(old, key);
+    }
+
+    private static void clear(Table table, long key) {
+        // The key keeps its slot, so probe chains through it stay intact
+        int offset = table.find(key);
+        if ((long) LONG.getAcquire(table.slots, offset) == key) LONG.setRelease(table.slots, offset + 8, 0L);
+    }
+
+    /** Number of keys in both generations, including removed ones; at most twice the capacity. */
+    public synchronized int size() {
+        return current.keys + old.keys;
+    }
+
+    /** Direct memory held by both generations, in bytes. */
+    public long memoryBytes() {
+        return 2L * slotCount * SLOT_SIZE;
+    }
+
+    private synchronized void promote(long key, long value) {
+        // Removed or overwritten since it was read from the old generation
+        if (old.get(key) != value) return;
+        write(key, value);
+    }
+
+    private void write(long key, long value) {
+        Table table = current;
+        int offset = table.find(key);
+        if ((long) LONG.getAcquire(table.slots, offset) == key) {
+            LONG.setRelease(table.slots, offset + 8, value);
+            return;
+        }
+        if (table.keys == capacity) {
+            // Readers may still be probing the dropped generation; it is freed once they are done with it
+            old = table;
+            table = new Table(slotCount);
+            current = table;
+            offset = table.find(key);
+        }
+        LONG.setRelease(table.slots, offset + 8, value);
+        LONG.setRelease(table.slots, offset, key);
+        table.keys++;
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) throw new IllegalArgumentException("key must be non-zero");
+    }
+
+    private static long mix(long key) {
+        // Finalizer of MurmurHash3: spreads sequential keys over the whole table
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
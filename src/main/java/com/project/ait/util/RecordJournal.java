@@ -0,0 +1,158 @@
+package com.project.ait.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only file of opaque records for work that must survive a crash until it has been applied
+ * elsewhere.
+ *
+ * Records are {@code [int length][int crc32c][payload]} after a 16-byte header holding the
+ * checkpoint: the position up to which records have been applied. {@link #sync} uses group commit:
+ * callers that wait for durability at the same time share one fsync. When every record has been
+ * applied the file is truncated back to its header. On open, a torn or corrupted tail left by a
+ * crash is cut off, and {@link #pending()} returns the records after the checkpoint for replay.
+ */
+public class RecordJournal implements Closeable {
+    public record Record(long end, byte[] payload) { }
+
+    private static final int MAGIC = 0x524a4e31; // "RJN1"
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER = 8;
+    private static final int MAX_RECORD = 1 << 20;
+
+    private final FileChannel channel;
+    private final Object syncLock = new Object();
+    private final List<Record> pending;
+    private volatile long written;
+    private volatile long durable;
+    private long checkpoint;
+
+    private RecordJournal(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() < HEADER_SIZE) {
+            checkpoint = HEADER_SIZE;
+            writeHeader();
+            channel.truncate(HEADER_SIZE);
+            channel.force(true);
+        } else {
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC) throw new IOException("Not a record journal");
+            checkpoint = header.getLong(8);
+        }
+        this.pending = readFrom(checkpoint);
+        long end = pending.isEmpty() ? checkpoint : pending.get(pending.size() - 1).end();
+        if (channel.size() > end) {
+            // Torn write from a crash: nothing after it was ever acknowledged
+            channel.truncate(end);
+            channel.force(true);
+        }
+        this.written = end;
+        this.durable = end;
+    }
+
+    public static RecordJournal open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        return new RecordJournal(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /** Records found after the checkpoint when the journal was opened, oldest first. */
+    public List<Record> pending() {
+        return pending;
+    }
+
+    /** Appends a record and returns its end position; call {@link #sync} with it before acknowledging. */
+    public synchronized long append(byte[] payload) throws IOException {
+        if (payload.length > MAX_RECORD) throw new IllegalArgumentException("Record too large");
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        long position = written;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        written = position;
+        return position;
+    }
+
+    /** Returns once everything up to {@code position} is on disk. */
+    public void sync(long position) throws IOException {
+        if (durable >= position) return;
+        synchronized (syncLock) {
+            if (durable >= position) return;
+            // Everything appended so far rides along with this fsync
+            long upTo = written;
+            channel.force(false);
+            durable = upTo;
+        }
+    }
+
+    /**
+     * Marks records up to {@code position} as applied. Records must be applied in order; once all of
+     * them are, the file is truncated and positions start over.
+     */
+    public synchronized void checkpoint(long position) throws IOException {
+        if (position <= checkpoint) return;
+        if (position == written) {
+            synchronized (syncLock) {
+                checkpoint = HEADER_SIZE;
+                writeHeader();
+                channel.truncate(HEADER_SIZE);
+                written = HEADER_SIZE;
+                durable = HEADER_SIZE;
+            }
+        } else {
+            // Not forced: a lost checkpoint only means replaying records that are applied idempotently
+            checkpoint = position;
+            writeHeader();
+        }
+    }
+
+    public synchronized long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(true);
+        channel.close();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(0).putLong(checkpoint).flip();
+        channel.write(header, 0);
+    }
+
+    private List<Record> readFrom(long start) throws IOException {
+        List<Record> records = new ArrayList<>();
+        long position = start;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while (position + RECORD_HEADER <= size) {
+            header.clear();
+            channel.read(header, position);
+            int length = header.getInt(0);
+            if (length < 0 || length > MAX_RECORD || position + RECORD_HEADER + length > size) break;
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + RECORD_HEADER);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(4)) break;
+            position += RECORD_HEADER + length;
+            records.add(new Record(position, payload.array()));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,169 @@
+package com.project.ait.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal split into fixed-capacity, memory-mapped segment files
+ * ({@code 00000000000000000001.seg}, ...).
+ *
+ * Records are {@code [int length][int crc32c][payload]}; the unwritten, zero-filled rest of a
+ * segment reads as length 0 and marks its end. An append is a copy into the mapped active segment
+ * under a lock, with no system call, and survives a crash of the process once it returns.
+ * {@link #force} writes everything appended so far to disk with one msync (group commit), so the
+ * caller decides how much can be lost to a crash of the machine.
+ *
+ * When a record does not fit, or on {@link #seal}, the active segment is forced and sealed and the
+ * next one is started. Sealed segments are read whole with {@link #read} and deleted once consumed.
+ * On open, every segment found is sealed; a torn record at the end of the one that was active is
+ * ignored by {@link #read}. Segment numbers only grow, so (segment, offset) orders every record
+ * ever appended to the directory.
+ */
+public class SegmentedJournal implements Closeable {
+    /** A record and the offset just after it in its segment. */
+    public record Record(long end, byte[] payload) { }
+
+    private static final String SUFFIX = ".seg";
+    private static final int RECORD_HEADER = 8;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final TreeSet<Long> sealed = new TreeSet<>();
+    private final Object forceLock = new Object();
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private long activeSegment;
+    private int activeEnd;
+    private long activeSince;
+
+    private SegmentedJournal(Path dir, int segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        long last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long segment = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                sealed.add(segment);
+                last = Math.max(last, segment);
+            }
+        }
+        startSegment(last + 1);
+    }
+
+    public static SegmentedJournal open(Path dir, int segmentBytes) throws IOException {
+        if (segmentBytes < 4096) throw new IllegalArgumentException("segmentBytes must be at least 4096");
+        Files.createDirectories(dir);
+        return new SegmentedJournal(dir, segmentBytes);
+    }
+
+    /** Appends a record to the active segment, sealing it first if the record does not fit. */
+    public synchronized void append(byte[] payload) throws IOException {
+        if (payload.length == 0) throw new IllegalArgumentException("Record must not be empty");
+        if (RECORD_HEADER + payload.length > segmentBytes) throw new IllegalArgumentException("Record too large");
+        if (activeEnd + RECORD_HEADER + payload.length > segmentBytes) seal();
+        if (activeEnd == 0) activeSince = System.currentTimeMillis();
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        // Payload first, length last: a record only becomes visible once it is complete
+        active.put(activeEnd + RECORD_HEADER, payload);
+        active.putInt(activeEnd + 4, (int) crc.getValue());
+        active.putInt(activeEnd, payload.length);
+        activeEnd += RECORD_HEADER + payload.length;
+    }
+
+    /**
+     * Writes everything appended so far to disk; concurrent callers queue behind one msync, which
+     * runs outside the append lock. Lock order is always {@code forceLock} then {@code this}:
+     * {@link #seal} and {@link #close} force under {@code this} alone, never taking {@code forceLock}.
+     */
+    public void force() {
+        synchronized (forceLock) {
+            MappedByteBuffer buffer;
+            int end;
+            synchronized (this) {
+                buffer = active;
+                end = activeEnd;
+            }
+            // If the segment was sealed meanwhile, seal already forced it and the mapping stays valid
+            if (end > 0) buffer.force(0, end);
+        }
+    }
+
+    /** Seals the active segment if it holds any record; false if it was empty. */
+    public synchronized boolean seal() throws IOException {
+        if (activeEnd == 0) return false;
+        active.force(0, activeEnd);
+        activeChannel.close();
+        sealed.add(activeSegment);
+        startSegment(activeSegment + 1);
+        return true;
+    }
+
+    /** Milliseconds since the active segment received its first record, or 0 if it is empty. */
+    public synchronized long activeAgeMillis() {
+        return activeEnd == 0 ? 0 : System.currentTimeMillis() - activeSince;
+    }
+
+    /** Sealed segments, oldest first. */
+    public synchronized List<Long> sealedSegments() {
+        return new ArrayList<>(sealed);
+    }
+
+    /** All intact records of a sealed segment, in append order. */
+    public List<Record> read(long segment) throws IOException {
+        synchronized (this) {
+            if (!sealed.contains(segment)) throw new IllegalArgumentException("Segment " + segment + " is not sealed");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file(segment)));
+        List<Record> records = new ArrayList<>();
+        int position = 0;
+        while (position + RECORD_HEADER <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER + length > buffer.limit()) break;
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_HEADER, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            // A torn record can only be the last one written before a crash
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) break;
+            position += RECORD_HEADER + length;
+            records.add(new Record(position, payload));
+        }
+        return records;
+    }
+
+    public synchronized void delete(long segment) throws IOException {
+        if (sealed.remove(segment)) Files.deleteIfExists(file(segment));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (activeEnd > 0) active.force(0, activeEnd);
+        // Kept even when empty: the next open numbers its segment after it, so numbers are never reused
+        activeChannel.close();
+    }
+
+    private void startSegment(long segment) throws IOException {
+        activeChannel = FileChannel.open(file(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // The file is sparse: pages only take disk space once written
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        activeSegment = segment;
+        activeEnd = 0;
+    }
+
+    private Path file(long segment) {
+        return dir.resolve(String.format("%020d", segment) + SUFFIX);
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.ait.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel: keys are scheduled to fire once their deadline has passed, with a
+ * resolution of one tick. Scheduling is O(1) and each advance only visits the buckets of the
+ * ticks that elapsed since the previous one; deadlines more than one revolution away wait in their
+ * bucket for a later pass. Timers cannot be cancelled, so the callback should check that the key
+ * is still due.
+ */
+public class TimingWheel<K> {
+    private record Timer<K>(K key, long deadline) { }
+
+    private final long tickMillis;
+    private final List<Timer<K>>[] buckets;
+    private final int mask;
+    private final Consumer<K> onExpire;
+    private long lastTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long nowMillis, Consumer<K> onExpire) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("wheelSize must be a power of two");
+        this.tickMillis = tickMillis;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) buckets[i] = new ArrayList<>();
+        this.mask = wheelSize - 1;
+        this.onExpire = onExpire;
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    public synchronized void schedule(K key, long deadlineMillis) {
+        // Never into a tick that was already processed; rounding up keeps a timer from firing early
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), lastTick + 1);
+        buckets[(int) (tick & mask)].add(new Timer<>(key, deadlineMillis));
+        size++;
+    }
+
+    /** Fires every timer whose deadline is at or before {@code nowMillis}. */
+    public void advance(long nowMillis) {
+        List<K> due = new ArrayList<>();
+        synchronized (this) {
+            long target = nowMillis / tickMillis;
+            if (target <= lastTick) return;
+            // After a long pause, one revolution still visits every bucket once
+            for (long tick = Math.max(lastTick + 1, target - mask); tick <= target; tick++) {
+                Iterator<Timer<K>> it = buckets[(int) (tick & mask)].iterator();
+                while (it.hasNext()) {
+                    Timer<K> timer = it.next();
+                    if (timer.deadline() <= nowMillis) {
+                        due.add(timer.key());
+                        it.remove();
+                        size--;
+                    }
+                }
+            }
+            lastTick = target;
+        }
+        // Outside the lock, so callbacks may schedule again
+        due.forEach(onExpire);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Advances the wheel once per tick on a daemon thread until the thread is interrupted. */
+    public Thread start(String threadName, LongSupplier clock) {
+        return Thread.ofPlatform().name(threadName).daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    advance(clock.getAsLong());
+                } catch (RuntimeException e) {
+                    // A failing callback must not stop the wheel; its timer is already gone
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.ait.util;
+
+/**
+ * Token bucket refilled continuously at a fixed rate, holding at most {@code burst} tokens.
+ * Callers pass {@link System#nanoTime()} so tests can drive the clock.
+ */
+public class TokenBucket {
+    private double perSecond;
+    private double burst;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double perSecond, double burst, long nowNanos) {
+        if (perSecond <= 0 || burst < 1) throw new IllegalArgumentException("rate must be positive and burst at least 1");
+        this.perSecond = perSecond;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledAt = nowNanos;
+    }
+
+    public synchronized boolean tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /** Changes the rate without resetting the tokens already earned (beyond the new burst). */
+    public synchronized void setRate(double perSecond, double burst, long nowNanos) {
+        if (perSecond == this.perSecond && burst == this.burst) return;
+        if (perSecond <= 0 || burst < 1) throw new IllegalArgumentException("rate must be positive and burst at least 1");
+        refill(nowNanos);
+        this.perSecond = perSecond;
+        this.burst = burst;
+        this.tokens = Math.min(tokens, burst);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - refilledAt;
+        if (elapsed <= 0) return;
+        tokens = Math.min(burst, tokens + elapsed * perSecond / 1_000_000_000d);
+        refilledAt = nowNanos;
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.ait.util;
+
+import com.project.ait.entity.Browser;
+import com.project.ait.entity.DeviceClass;
+import com.project.ait.entity.OperatingSystem;
+
+/**
+ * Lightweight User-Agent classifier based on well-known product tokens. Order of the checks
+ * matters: most browsers also advertise the tokens of the engines they are derived from.
+ */
+public final class UserAgentParser {
+
+    public record Result(Browser browser, OperatingSystem os, DeviceClass device) {
+        public static final Result UNKNOWN = new Result(Browser.UNKNOWN, OperatingSystem.UNKNOWN, DeviceClass.UNKNOWN);
+    }
+
+    private UserAgentParser() { }
+
+    public static Result parse(String ua) {
+        if (ua == null || ua.isBlank()) return Result.UNKNOWN;
+        OperatingSystem os = os(ua);
+        return new Result(browser(ua), os, device(ua, os));
+    }
+
+    static Browser browser(String ua) {
+        if (ua.contains("Edg/") || ua.contains("Edge/") || ua.contains("EdgiOS/") || ua.contains("EdgA/")) return Browser.EDGE;
+        if (ua.contains("OPR/") || ua.contains("Opera")) return Browser.OPERA;
+        if (ua.contains("SamsungBrowser/")) return Browser.SAMSUNG_INTERNET;
+        if (ua.contains("Firefox/") || ua.contains("FxiOS/")) return Browser.FIREFOX;
+        if (ua.contains("Chrome/") || ua.contains("CriOS/") || ua.contains("Chromium/")) return Browser.CHROME;
+        if (ua.contains("Safari/") && ua.contains("Version/")) return Browser.SAFARI;
+        if (ua.contains("MSIE ") || ua.contains("Trident/")) return Browser.INTERNET_EXPLORER;
+        return Browser.OTHER;
+    }
+
+    static OperatingSystem os(String ua) {
+        if (ua.contains("Windows")) return OperatingSystem.WINDOWS;
+        if (ua.contains("Android")) return OperatingSystem.ANDROID;
+        if (ua.contains("iPhone") || ua.contains("iPad") || ua.contains("iPod")) return OperatingSystem.IOS;
+        if (ua.contains("Mac OS X") || ua.contains("Macintosh")) return OperatingSystem.MACOS;
+        if (ua.contains("CrOS")) return OperatingSystem.CHROME_OS;
+        if (ua.contains("Linux")) return OperatingSystem.LINUX;
+        return OperatingSystem.OTHER;
+    }
+
+    static DeviceClass device(String ua, OperatingSystem os) {
+        String lower = ua.toLowerCase();
+        if (lower.contains("bot") || lower.contains("crawl") || lower.contains("spider")) return DeviceClass.BOT;
+        if (ua.contains("iPad") || ua.contains("Tablet") || (os == OperatingSystem.ANDROID && !ua.contains("Mobile"))) {
+            return DeviceClass.TABLET;
+        }
+        if (ua.contains("Mobi") || ua.contains("iPhone") || ua.contains("iPod")) return DeviceClass.MOBILE;
+        return switch (os) {
+            case WINDOWS, MACOS, LINUX, CHROME_OS -> DeviceClass.DESKTOP;
+            default -> DeviceClass.OTHER;
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.ait;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Training profile Tests")
+class TrainingProfileTest {
+
+    @Test
+    @DisplayName("Should switch off every app.*.enabled toggle of application.yml")
+    void trainingProfile_ShouldDisableEveryToggle() {
+        // Given
+        Properties defaults = load("application.yml");
+        Properties training = load("application-training.yml");
+
+        // When
+        // YAML booleans are loaded as Boolean values, which stringPropertyNames would skip
+        List<String> toggles = defaults.keySet().stream()
+                .map(String::valueOf)
+                .filter(key -> key.startsWith("app.") && key.endsWith(".enabled"))
+                .sorted()
+                .toList();
+
+        // Then
+        assertThat(toggles).isNotEmpty();
+        assertThat(toggles).allSatisfy(key -> assertThat(training.get(key)).as(key).isEqualTo(false));
+        assertThat(training.getProperty("app.shards.urls")).isEmpty();
+        assertThat(training.getProperty("spring.jpa.hibernate.ddl-auto")).isEqualTo("none");
+    }
+
+    private static Properties load(String name) {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource(name));
+        return yaml.getObject();
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.ait.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AdminInterceptor Tests")
+class AdminInterceptorTest {
+
+    @Test
+    @DisplayName("Should let a request with the admin key through")
+    void preHandle_WithAdminKey_ShouldAllow() throws Exception {
+        // Given
+        AdminInterceptor interceptor = new AdminInterceptor(new AdminCredentials("s3cret"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/snapshots");
+        request.addHeader(AdminCredentials.HEADER, "s3cret");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When & Then
+        assertThat(interceptor.preHandle(request, response, new Object())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a missing or wrong admin key")
+    void preHandle_WithWrongKey_ShouldReject() throws Exception {
+        // Given
+        AdminInterceptor interceptor = new AdminInterceptor(new AdminCredentials("s3cret"));
+        MockHttpServletRequest wrong = new MockHttpServletRequest("POST", "/api/admin/snapshots");
+        wrong.addHeader(AdminCredentials.HEADER, "guess");
+        MockHttpServletResponse wrongResponse = new MockHttpServletResponse();
+        MockHttpServletResponse missingResponse = new MockHttpServletResponse();
+
+        // When
+        boolean wrongAllowed = interceptor.preHandle(wrong, wrongResponse, new Object());
+        boolean missingAllowed = interceptor.preHandle(new MockHttpServletRequest("GET", "/api/admin/snapshots"), missingResponse, new Object());
+
+        // Then
+        assertThat(wrongAllowed).isFalse();
+        assertThat(wrongResponse.getStatus()).isEqualTo(401);
+        assertThat(missingAllowed).isFalse();
+        assertThat(missingResponse.getStatus()).isEqualTo(401);
+    }
+
+    @Test
+    @DisplayName("Should reject every admin request while no admin key is configured")
+    void preHandle_WithoutConfiguredKey_ShouldReject() throws Exception {
+        // Given
+        AdminInterceptor interceptor = new AdminInterceptor(new AdminCredentials(""));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/snapshots");
+        request.addHeader(AdminCredentials.HEADER, "");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When & Then
+        assertThat(interceptor.preHandle(request, response, new Object())).isFalse();
+        assertThat(response.getStatus()).isEqualTo(401);
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.ait.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LoadSheddingInterceptor Tests")
+class LoadSheddingInterceptorTest {
+
+    private final LoadSheddingInterceptor interceptor = new LoadSheddingInterceptor(true, 2, 2, 10, 1.5, 100, 0.75, 0.5, 3);
+
+    @Test
+    @DisplayName("Should classify redirects, API calls and analytics")
+    void priorityOf_ShouldMapPaths() {
+        // When & Then
+        assertThat(LoadSheddingInterceptor.priorityOf("/abc12")).isEqualTo(LoadSheddingInterceptor.Priority.REDIRECT);
+        assertThat(LoadSheddingInterceptor.priorityOf("/api/shorten")).isEqualTo(LoadSheddingInterceptor.Priority.API);
+        assertThat(LoadSheddingInterceptor.priorityOf("/api/analytics/abc12/clicks")).isEqualTo(LoadSheddingInterceptor.Priority.ANALYTICS);
+        assertThat(LoadSheddingInterceptor.priorityOf("/api/admin/snapshots")).isEqualTo(LoadSheddingInterceptor.Priority.ANALYTICS);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After once the class has no capacity, and admit again after release")
+    void preHandle_WhenOverLimit_ShouldShed() throws Exception {
+        // Given - a limit of 2 leaves analytics a single permit
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/analytics/abc12/clicks");
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/api/analytics/abc12/clicks");
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(first, new MockHttpServletResponse(), null)).isTrue();
+
+        // When
+        boolean admitted = interceptor.preHandle(second, shed, null);
+
+        // Then
+        assertThat(admitted).isFalse();
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("3");
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/abc12"), new MockHttpServletResponse(), null)).isTrue();
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/analytics/abc12/clicks"), new MockHttpServletResponse(), null)).isFalse();
+        assertThat(interceptor.getLimiter().getInFlight()).isEqualTo(1);
+    }
+}
@@ -52,6 +52,8 @@ class RateLimitInterceptorTest {
         // Set strict rate limiting for testing
         registry.add("app.rate-limit.window-seconds", () -> "60");
         registry.add("app.rate-limit.max-requests", () -> "3");
+        // The tests tell clients apart by X-Forwarded-For, as behind a proxy
+        registry.add("app.rate-limit.trust-forwarded-headers", () -> "true");
         
         // Use H2 for database
         registry.add("spring.datasource.url", () -> "jdbc:h2:mem:testdb");
@@ -0,0 +1,204 @@
+package com.project.ait.config;
+
+import com.project.ait.util.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TieredCache Tests")
+class TieredCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private ConcurrentMapCache remote;
+    private CircuitBreaker breaker;
+    private TieredCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("alias", false);
+        breaker = new CircuitBreaker(1, 10_000, 1_000, now::get);
+        cache = new TieredCache(remote, breaker, Runnable::run, LoadLease.NONE,
+                new TieredCache.Settings(100, 1_000, 60_000, 0, 0), now::get);
+    }
+
+    @Test
+    @DisplayName("Should load once and populate both levels")
+    void get_OnMiss_ShouldLoadAndPopulateBothLevels() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        String first = cache.get("abc", () -> "v" + loads.incrementAndGet());
+        String second = cache.get("abc", () -> "v" + loads.incrementAndGet());
+
+        // Then
+        assertThat(first).isEqualTo("v1");
+        assertThat(second).isEqualTo("v1");
+        assertThat(remote.get("abc").get()).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("Should serve a stale entry when the loader fails")
+    void get_WhenLoaderFailsAfterExpiry_ShouldServeStale() {
+        // Given
+        cache.get("abc", () -> "v1");
+        remote.clear();
+        now.addAndGet(5_000);
+
+        // When
+        String value = cache.get("abc", () -> { throw new IllegalStateException("database down"); });
+
+        // Then
+        assertThat(value).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("Should revalidate stale entries in the background")
+    void get_WhenStale_ShouldRevalidate() {
+        // Given
+        cache.get("abc", () -> "v1");
+        now.addAndGet(5_000);
+
+        // When - the direct executor revalidates synchronously
+        String stale = cache.get("abc", () -> "v2");
+        String refreshed = cache.get("abc", () -> "v3");
+
+        // Then
+        assertThat(stale).isEqualTo("v1");
+        assertThat(refreshed).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("Should bypass the remote cache while the breaker is open")
+    void get_WhenBreakerOpen_ShouldSkipRemote() {
+        // Given
+        remote.put("abc", "remote");
+        breaker.onFailure();
+
+        // When
+        String value = cache.get("abc", () -> "db");
+
+        // Then
+        assertThat(value).isEqualTo("db");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should serve a batch from L1 and the remote cache, leaving out keys cached nowhere")
+    void getAll_ShouldCombineLocalAndRemoteHits() {
+        // Given
+        cache.get("local", () -> "l1");
+        remote.put("remote", "r1");
+
+        // When
+        Map<Object, Object> found = cache.getAll(List.of("local", "remote", "missing"));
+
+        // Then
+        assertThat(found).containsExactly(entry("local", "l1"), entry("remote", "r1"));
+        remote.clear();
+        assertThat(cache.get("remote")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should cache a loaded batch in both levels")
+    void putAll_ShouldPopulateBothLevels() {
+        // When
+        cache.putAll(Map.of("a", "1", "b", "2"));
+
+        // Then
+        assertThat(remote.get("a").get()).isEqualTo("1");
+        assertThat(remote.get("b").get()).isEqualTo("2");
+        remote.clear();
+        assertThat(cache.getAll(List.of("a", "b"))).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should not cache misses")
+    void get_WhenLoaderReturnsNull_ShouldNotCache() {
+        // When
+        Object value = cache.get("missing", () -> null);
+
+        // Then
+        assertThat(value).isNull();
+        assertThat(remote.get("missing")).isNull();
+        assertThat(cache.get("missing")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should propagate loader failures when nothing is cached")
+    void get_WhenLoaderFailsWithoutEntry_ShouldThrow() {
+        assertThatThrownBy(() -> cache.get("abc", () -> { throw new IllegalStateException("database down"); }))
+                .isInstanceOf(Cache.ValueRetrievalException.class);
+    }
+
+    @Test
+    @DisplayName("Should take the value published by the lease holder instead of loading")
+    void get_WhenLeaseHeldElsewhere_ShouldWaitForRemoteValue() {
+        // Given - another node holds the lease and has already published its value
+        LoadLease held = new LoadLease() {
+            @Override
+            public boolean tryAcquire(Object key) {
+                remote.put(key, "published");
+                return false;
+            }
+
+            @Override
+            public void release(Object key) { }
+        };
+        TieredCache leased = new TieredCache(remote, breaker, Runnable::run, held,
+                new TieredCache.Settings(100, 1_000, 60_000, 0, 5_000), System::currentTimeMillis);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        String value = leased.get("abc", () -> "db" + loads.incrementAndGet());
+
+        // Then
+        assertThat(value).isEqualTo("published");
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should drop an entry at its expiry even while it is still fresh")
+    void expireDue_AfterValueExpiry_ShouldReload() {
+        // Given - the value expires at t=500, before the 1s freshness window ends
+        TieredCache expiring = new TieredCache(remote, breaker, Runnable::run, LoadLease.NONE,
+                new TieredCache.Settings(100, 1_000, 60_000, 0, 0), now::get, value -> "v1".equals(value) ? 500 : Long.MAX_VALUE);
+        expiring.get("abc", () -> "v1");
+        remote.clear();
+
+        // When
+        now.set(500);
+        expiring.expireDue();
+        String value = expiring.get("abc", () -> "v2");
+
+        // Then
+        assertThat(value).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("Should not cache a value that has already expired")
+    void get_WithExpiredValue_ShouldNotCache() {
+        // Given
+        now.set(1_000);
+        TieredCache expiring = new TieredCache(remote, breaker, Runnable::run, LoadLease.NONE,
+                new TieredCache.Settings(100, 1_000, 60_000, 0, 0), now::get, value -> 500);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        expiring.get("abc", () -> "v" + loads.incrementAndGet());
+        expiring.get("abc", () -> "v" + loads.incrementAndGet());
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(remote.get("abc")).isNull();
+    }
+}
@@ -1,24 +1,41 @@
 package com.project.ait.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.ait.config.AdminCredentials;
+import com.project.ait.config.ApiKeyInterceptor;
 import com.project.ait.dto.ShortenRequest;
+import com.project.ait.entity.ApiKey;
 import com.project.ait.entity.UrlMapping;
+import com.project.ait.service.ApiKeyQuotas;
+import com.project.ait.service.ApiKeyStore;
+import com.project.ait.service.ApiKeyUsageMeter;
+import com.project.ait.service.LinkVersions;
+import com.project.ait.service.LocalAliasStore;
 import com.project.ait.service.UrlService;
+import com.project.ait.util.CircuitBreaker;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +53,32 @@ class UrlControllerTest {
     @MockBean
     private UrlService urlService;
 
+    @MockBean
+    private LocalAliasStore localAliasStore;
+
+    @MockBean
+    private LinkVersions linkVersions;
+
+    @MockBean
+    private AdminCredentials adminCredentials;
+
+    // Dependencies of the interceptors: a disabled key store and a breaker that never allows a
+    // Redis call let every request through to the controller
+    @MockBean
+    private ApiKeyStore apiKeyStore;
+
+    @MockBean
+    private ApiKeyQuotas apiKeyQuotas;
+
+    @MockBean
+    private ApiKeyUsageMeter apiKeyUsageMeter;
+
+    @MockBean
+    private StringRedisTemplate redisTemplate;
+
+    @MockBean
+    private CircuitBreaker redisCircuitBreaker;
+
     @Test
     @DisplayName("Should create short URL successfully with custom alias")
     void shortenUrl_WithCustomAlias_ShouldReturnShortenResponse() throws Exception {
@@ -52,7 +95,7 @@ class UrlControllerTest {
                 .customAlias(true)
                 .build();
 
-        when(urlService.createShortUrl(anyString(), anyString(), anyString(), any()))
+        when(urlService.createShortUrl(anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(mockMapping);
 
         // When & Then
@@ -81,7 +124,7 @@ class UrlControllerTest {
                 .customAlias(false)
                 .build();
 
-        when(urlService.createShortUrl(anyString(), any(), anyString(), any()))
+        when(urlService.createShortUrl(anyString(), any(), anyString(), any(), any()))
                 .thenReturn(mockMapping);
 
         // When & Then
@@ -115,7 +158,7 @@ class UrlControllerTest {
                 .customAlias(true)
                 .build();
 
-        when(urlService.createShortUrl(anyString(), anyString(), anyString(), any(Instant.class)))
+        when(urlService.createShortUrl(anyString(), anyString(), anyString(), any(Instant.class), any()))
                 .thenReturn(mockMapping);
 
         // When & Then
@@ -134,14 +177,15 @@ class UrlControllerTest {
         request.setLongUrl("https://www.example.com");
         request.setCustomAlias("existing-alias");
 
-        when(urlService.createShortUrl(anyString(), anyString(), anyString(), any()))
+        when(urlService.createShortUrl(anyString(), anyString(), anyString(), any(), any()))
                 .thenThrow(new IllegalArgumentException("Custom alias already used"));
 
         // When & Then
         mockMvc.perform(post("/api/shorten")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Custom alias already used")));
     }
 
     @Test
@@ -165,6 +209,27 @@ class UrlControllerTest {
                 .andExpect(header().string("Location", "https://www.example.com"));
     }
 
+    @Test
+    @DisplayName("Should redirect from the local alias store without the cached lookup")
+    void redirect_WithLocallyStoredAlias_ShouldSkipUrlService() throws Exception {
+        // Given
+        String alias = "local-alias";
+        UrlMapping localMapping = UrlMapping.builder()
+                .alias(alias)
+                .longUrl("https://www.example.com/local")
+                .expiresAt(Instant.now().plus(365, ChronoUnit.DAYS))
+                .active(true)
+                .build();
+
+        when(localAliasStore.find(alias)).thenReturn(Optional.of(localMapping));
+
+        // When & Then
+        mockMvc.perform(get("/{alias}", alias))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://www.example.com/local"));
+        verify(urlService, never()).findByAlias(alias);
+    }
+
     @Test
     @DisplayName("Should return 404 for non-existing alias")
     void redirect_WithNonExistingAlias_ShouldReturn404() throws Exception {
@@ -251,6 +316,26 @@ class UrlControllerTest {
                 .andExpect(jsonPath("$.expiresAt").exists());
     }
 
+    @Test
+    @DisplayName("Should get URL info for a link that never expires")
+    void getUrlInfo_WithoutExpiresAt_ShouldReturnNullExpiry() throws Exception {
+        // Given
+        UrlMapping mockMapping = UrlMapping.builder()
+                .alias("forever")
+                .longUrl("https://www.example.com")
+                .createdAt(Instant.now())
+                .active(true)
+                .build();
+
+        when(urlService.findByAlias("forever")).thenReturn(Optional.of(mockMapping));
+
+        // When & Then
+        mockMvc.perform(get("/api/info/{alias}", "forever"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alias", is("forever")))
+                .andExpect(jsonPath("$.expiresAt").value(nullValue()));
+    }
+
     @Test
     @DisplayName("Should return 404 for URL info with non-existing alias")
     void getUrlInfo_WithNonExistingAlias_ShouldReturn404() throws Exception {
@@ -264,6 +349,86 @@ class UrlControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 without counting clicks")
+    void getUrlInfo_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        // Given
+        String alias = "test-alias";
+        UrlMapping mockMapping = UrlMapping.builder()
+                .alias(alias)
+                .longUrl("https://www.example.com")
+                .active(true)
+                .build();
+
+        when(urlService.findByAlias(alias)).thenReturn(Optional.of(mockMapping));
+        when(linkVersions.etag(mockMapping)).thenReturn("\"1f-42\"");
+
+        // When & Then
+        mockMvc.perform(get("/api/info/{alias}", alias).header("If-None-Match", "\"1f-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1f-42\""));
+        verify(urlService, never()).getClickCount(anyString());
+    }
+
+    @Test
+    @DisplayName("Should return the ETag of the current version with the click analytics")
+    void getClickAnalytics_WithVersion_ShouldReturnETag() throws Exception {
+        // Given
+        String alias = "test-alias";
+        UrlMapping mockMapping = UrlMapping.builder()
+                .alias(alias)
+                .longUrl("https://www.example.com")
+                .active(true)
+                .build();
+
+        when(urlService.findByAlias(alias)).thenReturn(Optional.of(mockMapping));
+        when(urlService.getClickCount(alias)).thenReturn(100L);
+        when(linkVersions.etag(mockMapping)).thenReturn("\"1f-43\"");
+        when(linkVersions.response(eq("clicks"), eq(alias), eq("\"1f-43\""), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+
+        // When & Then
+        mockMvc.perform(get("/api/analytics/{alias}/clicks", alias).header("If-None-Match", "\"1f-42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1f-43\""))
+                .andExpect(jsonPath("$.totalClicks", is(100)));
+    }
+
+    @Test
+    @DisplayName("Should return many links with their click counts and list unknown aliases")
+    void infoBatch_WithKnownAndUnknownAliases_ShouldReturnLinksAndMissing() throws Exception {
+        // Given
+        UrlMapping mockMapping = UrlMapping.builder()
+                .alias("known")
+                .longUrl("https://www.example.com")
+                .active(true)
+                .build();
+
+        when(urlService.findAllByAlias(List.of("known", "unknown"))).thenReturn(Map.of("known", mockMapping));
+        when(urlService.getClickCounts(Set.of("known"))).thenReturn(Map.of("known", 7L));
+
+        // When & Then
+        mockMvc.perform(post("/api/info/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"aliases\": [\"known\", \"unknown\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.links[0].alias", is("known")))
+                .andExpect(jsonPath("$.links[0].clicks", is(7)))
+                .andExpect(jsonPath("$.links[0].expiresAt", nullValue()))
+                .andExpect(jsonPath("$.missing", contains("unknown")));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch")
+    void infoBatch_WithNoAliases_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/info/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"aliases\": []}"))
+                .andExpect(status().isBadRequest());
+        verify(urlService, never()).findAllByAlias(any());
+    }
+
     @Test
     @DisplayName("Should get click analytics successfully")
     void getClickAnalytics_WithExistingAlias_ShouldReturnAnalytics() throws Exception {
@@ -321,7 +486,7 @@ class UrlControllerTest {
                 .longUrl(null) // Service should handle this
                 .build();
 
-        when(urlService.createShortUrl(any(), any(), anyString(), any()))
+        when(urlService.createShortUrl(any(), any(), anyString(), any(), any()))
                 .thenReturn(mockMapping);
 
         // When & Then
@@ -356,4 +521,74 @@ class UrlControllerTest {
         // Note: We can't easily verify the recordClick call in this setup
         // This would be better tested in integration tests
     }
+
+    @Test
+    @DisplayName("Should deactivate an existing link")
+    void deactivate_WithExistingAlias_ShouldReturnInactiveLink() throws Exception {
+        // Given
+        UrlMapping deactivated = UrlMapping.builder()
+                .alias("abuse")
+                .longUrl("https://www.example.com")
+                .active(false)
+                .build();
+        when(adminCredentials.isAdmin(any())).thenReturn(true);
+        when(urlService.deactivate("abuse")).thenReturn(Optional.of(deactivated));
+
+        // When & Then
+        mockMvc.perform(post("/api/links/{alias}/deactivate", "abuse"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alias", is("abuse")))
+                .andExpect(jsonPath("$.active", is(false)));
+    }
+
+    @Test
+    @DisplayName("Should return 404 when deleting an unknown link")
+    void delete_WithNonExistentAlias_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(adminCredentials.isAdmin(any())).thenReturn(true);
+        when(urlService.deleteLink("missing")).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(delete("/api/links/{alias}", "missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should reject link changes without the admin key or an API key")
+    void update_WithoutCredentials_ShouldReturnUnauthorized() throws Exception {
+        // When & Then
+        mockMvc.perform(patch("/api/links/{alias}", "abc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"active\": false}"))
+                .andExpect(status().isUnauthorized());
+        verify(urlService, never()).updateLink(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject deleting a link created by another API key")
+    void delete_WithOtherCreatorsKey_ShouldReturnForbidden() throws Exception {
+        // Given
+        ApiKey key = ApiKey.builder().id(1L).name("tenant-a").active(true).build();
+        UrlMapping mapping = UrlMapping.builder().alias("theirs").longUrl("https://www.example.com").createdByKeyId(2L).build();
+        when(urlService.findByAlias("theirs")).thenReturn(Optional.of(mapping));
+
+        // When & Then
+        mockMvc.perform(delete("/api/links/{alias}", "theirs").requestAttr(ApiKeyInterceptor.API_KEY_ATTRIBUTE, key))
+                .andExpect(status().isForbidden());
+        verify(urlService, never()).deleteLink(anyString());
+    }
+
+    @Test
+    @DisplayName("Should let the API key that created a link deactivate it")
+    void deactivate_WithCreatorsKey_ShouldSucceed() throws Exception {
+        // Given
+        ApiKey key = ApiKey.builder().id(1L).name("tenant-a").active(true).build();
+        UrlMapping mapping = UrlMapping.builder().alias("mine").longUrl("https://www.example.com").createdByKeyId(1L).build();
+        when(urlService.findByAlias("mine")).thenReturn(Optional.of(mapping));
+        when(urlService.deactivate("mine")).thenReturn(Optional.of(mapping));
+
+        // When & Then
+        mockMvc.perform(post("/api/links/{alias}/deactivate", "mine").requestAttr(ApiKeyInterceptor.API_KEY_ATTRIBUTE, key))
+                .andExpect(status().isOk());
+    }
 }
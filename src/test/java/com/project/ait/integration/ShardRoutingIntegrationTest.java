@@ -0,0 +1,146 @@
+package com.project.ait.integration;
+
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.repository.UrlMappingRepository;
+import com.project.ait.service.ShardRouter;
+import com.project.ait.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Two real H2 databases behind the routing datasource: every read and write must land on the
+ * shard the alias belongs to, also when a transaction on another shard is already open.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@DisplayName("Shard Routing Integration Tests")
+class ShardRoutingIntegrationTest {
+    private static final String SHARD_0_URL = "jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    private static final String SHARD_1_URL = "jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> SHARD_0_URL);
+        registry.add("app.shards.urls", () -> SHARD_1_URL);
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.H2Dialect");
+        // application.yml pins the MySQL dialect here, which would take precedence over database-platform
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.cache.type", () -> "none");
+        registry.add("app.base-url", () -> "http://localhost");
+    }
+
+    @AfterEach
+    void cleanup() {
+        shardRouter.scatter(shard -> {
+            urlMappingRepository.deleteAll();
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("Should write each new link to its own shard and read it back from there")
+    void createAndFind_ShouldUseTheAliasShard() throws Exception {
+        // Given
+        String onShard0 = aliasOn(0);
+        String onShard1 = aliasOn(1);
+
+        // When
+        urlService.createShortUrl("https://example.com/zero", onShard0, "203.0.113.1", null, null);
+        urlService.createShortUrl("https://example.com/one", onShard1, "203.0.113.1", null, null);
+
+        // Then
+        assertThat(aliasesIn(SHARD_0_URL)).containsExactly(onShard0);
+        assertThat(aliasesIn(SHARD_1_URL)).containsExactly(onShard1);
+        assertThat(urlService.findByAlias(onShard0)).map(UrlMapping::getLongUrl).contains("https://example.com/zero");
+        assertThat(urlService.findByAlias(onShard1)).map(UrlMapping::getLongUrl).contains("https://example.com/one");
+    }
+
+    @Test
+    @DisplayName("Should not reuse an open transaction's connection or EntityManager for another shard")
+    void inShard_InsideTransactionOnOtherShard_ShouldReachTheRequestedShard() throws Exception {
+        // Given - one row per shard, with ids from independent auto-increments
+        String onShard0 = aliasOn(0);
+        String onShard1 = aliasOn(1);
+        shardRouter.inShard(0, () -> urlMappingRepository.save(mapping(onShard0)));
+        shardRouter.inShard(1, () -> urlMappingRepository.save(mapping(onShard1)));
+        String added = aliasOn(1, onShard1);
+
+        // When - a home-shard transaction that already holds its connection calls into shard 1
+        List<Optional<UrlMapping>> seen = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            seen.add(urlMappingRepository.findByAlias(onShard0));
+            seen.add(shardRouter.inShard(1, () -> urlMappingRepository.findByAlias(onShard1)));
+            seen.add(shardRouter.inShard(1, () -> urlMappingRepository.findByAlias(onShard0)));
+            shardRouter.inShard(1, () -> urlMappingRepository.save(mapping(added)));
+        });
+
+        // Then
+        assertThat(seen.get(0)).map(UrlMapping::getAlias).contains(onShard0);
+        assertThat(seen.get(1)).map(UrlMapping::getAlias).contains(onShard1);
+        assertThat(seen.get(2)).isEmpty();
+        assertThat(aliasesIn(SHARD_0_URL)).containsExactly(onShard0);
+        assertThat(aliasesIn(SHARD_1_URL)).containsExactlyInAnyOrder(onShard1, added);
+    }
+
+    private String aliasOn(int shard, String... excluded) {
+        for (int i = 0; ; i++) {
+            String alias = "routed" + i;
+            if (shardRouter.shardFor(alias) == shard && !List.of(excluded).contains(alias)) return alias;
+        }
+    }
+
+    private static UrlMapping mapping(String alias) {
+        return UrlMapping.builder()
+                .alias(alias)
+                .longUrl("https://example.com/" + alias)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    /** Reads a shard directly, bypassing the application's datasource. */
+    private static List<String> aliasesIn(String url) throws SQLException {
+        List<String> aliases = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select alias from url_mapping order by id")) {
+            while (rs.next()) aliases.add(rs.getString(1));
+        }
+        return aliases;
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ApiKey;
+import com.project.ait.util.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApiKeyQuotas Unit Tests")
+class ApiKeyQuotasTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ApiKeyQuotas apiKeyQuotas;
+
+    private final ApiKey key = ApiKey.builder().id(1L).name("reporting").linksPerDay(3).requestsPerSecond(2).active(true).build();
+
+    @BeforeEach
+    void setUp() {
+        apiKeyQuotas = new ApiKeyQuotas(redisTemplate, new CircuitBreaker(5, 10_000, 1_000), 10_000);
+    }
+
+    @Test
+    @DisplayName("Should stop admitting links once the daily quota is used and take back refunds")
+    void tryLink_AtLimit_ShouldRejectUntilRefunded() {
+        // When & Then
+        assertThat(apiKeyQuotas.tryLink(key)).isTrue();
+        assertThat(apiKeyQuotas.tryLink(key)).isTrue();
+        assertThat(apiKeyQuotas.tryLink(key)).isTrue();
+        assertThat(apiKeyQuotas.tryLink(key)).isFalse();
+
+        apiKeyQuotas.refundLink(key);
+        assertThat(apiKeyQuotas.linksRemaining(key)).isEqualTo(1);
+        assertThat(apiKeyQuotas.tryLink(key)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should count links created on other nodes after a reconcile")
+    @SuppressWarnings("unchecked")
+    void reconcile_WithClusterTotal_ShouldApplyIt() {
+        // Given - one local link; the cluster counter already holds two from other nodes
+        apiKeyQuotas.tryLink(key);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(3L, true, true, 0L, 2L));
+
+        // When
+        apiKeyQuotas.reconcile();
+
+        // Then
+        assertThat(apiKeyQuotas.linksRemaining(key)).isZero();
+        assertThat(apiKeyQuotas.tryLink(key)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep local counts when Redis is unavailable")
+    @SuppressWarnings("unchecked")
+    void reconcile_RedisDown_ShouldKeepPendingLinks() {
+        // Given
+        apiKeyQuotas.tryLink(key);
+        apiKeyQuotas.tryLink(key);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new RuntimeException("down"));
+
+        // When
+        apiKeyQuotas.reconcile();
+
+        // Then
+        assertThat(apiKeyQuotas.linksRemaining(key)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should split the request rate across live nodes")
+    @SuppressWarnings("unchecked")
+    void tryRequest_TwoLiveNodes_ShouldUseHalfTheRate() {
+        // Given
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(true, 0L, 2L));
+        apiKeyQuotas.reconcile();
+
+        // When & Then
+        assertThat(apiKeyQuotas.tryRequest(key)).isTrue();
+        assertThat(apiKeyQuotas.tryRequest(key)).isFalse();
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.DictionaryEntry;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import com.project.ait.repository.UrlMappingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickCodec Unit Tests")
+class ClickCodecTest {
+
+    @Mock
+    private UrlMappingRepository urlMappingRepository;
+
+    @Mock
+    private ClickDictionary clickDictionary;
+
+    private ClickCodec clickCodec;
+
+    @BeforeEach
+    void setUp() {
+        clickCodec = new ClickCodec(urlMappingRepository, clickDictionary,
+                new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128), 100);
+        lenient().when(urlMappingRepository.findIdByAlias("abc")).thenReturn(Optional.of(7L));
+    }
+
+    @Test
+    @DisplayName("Should intern the strings of a click that is stored as a row")
+    void enrich_WithStoredClick_ShouldIntern() {
+        // Given
+        ClickEvent click = click();
+        when(clickDictionary.intern(DictionaryEntry.Kind.USER_AGENT, "Mozilla/5.0")).thenReturn(3);
+
+        // When
+        clickCodec.enrich(click);
+
+        // Then
+        assertThat(click.getLinkId()).isEqualTo(7L);
+        assertThat(click.getUserAgentId()).isEqualTo(3);
+        verify(clickDictionary).intern(DictionaryEntry.Kind.REFERRER, "https://example.com");
+    }
+
+    @Test
+    @DisplayName("Should not intern the strings of bot hits, duplicates or sampled-out clicks")
+    void enrich_WithClicksWithoutRows_ShouldNotIntern() {
+        // Given
+        ClickEvent bot = click();
+        bot.setBot(true);
+        ClickEvent duplicate = click();
+        duplicate.setDuplicate(true);
+        ClickEvent sampledOut = click();
+        sampledOut.setSampledOut(true);
+
+        // When
+        clickCodec.enrich(bot);
+        clickCodec.enrich(duplicate);
+        clickCodec.enrich(sampledOut);
+
+        // Then
+        assertThat(sampledOut.getLinkId()).isEqualTo(7L);
+        verify(clickDictionary, never()).intern(any(), any());
+    }
+
+    private static ClickEvent click() {
+        return ClickEvent.builder()
+                .alias("abc")
+                .clickedAt(Instant.now())
+                .ip("203.0.113.7")
+                .userAgent("Mozilla/5.0")
+                .referrer("https://example.com")
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.ait.service;
+
+import com.project.ait.dto.ClickEventView;
+import com.project.ait.dto.ClickPage;
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.repository.ClickEventRepository;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import com.project.ait.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickExportService Unit Tests")
+class ClickExportServiceTest {
+
+    @Mock
+    private ClickEventRepository clickEventRepository;
+
+    @Mock
+    private ClickCodec clickCodec;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ClickExportService clickExportService;
+
+    @BeforeEach
+    void setUp() {
+        clickExportService = new ClickExportService(clickEventRepository, clickCodec, entityManager,
+                new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128),
+                mock(PlatformTransactionManager.class));
+        lenient().when(clickCodec.linkId("abc")).thenReturn(Optional.of(7L));
+        lenient().when(clickCodec.decode(any(ClickEvent.class), eq("abc"))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should return a next cursor pointing at the last row when more rows exist")
+    void listClicks_WithMoreRows_ShouldReturnNextCursor() {
+        // Given
+        Instant t = Instant.parse("2024-01-15T10:30:00.123456Z");
+        List<ClickEvent> rows = List.of(click(3L, t), click(2L, t), click(1L, t.minusSeconds(1)));
+        when(clickEventRepository.findFirstPage(eq(7L), any(Pageable.class))).thenReturn(rows);
+
+        // When
+        ClickPage page = clickExportService.listClicks("abc", null, 2);
+
+        // Then
+        assertThat(page.getItems()).extracting(ClickEventView::getId).containsExactly(3L, 2L);
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertThat(next.clickedAt()).isEqualTo(t);
+        assertThat(next.id()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor position and end with a null cursor")
+    void listClicks_WithCursor_ShouldQueryAfterCursor() {
+        // Given
+        Instant t = Instant.parse("2024-01-15T10:30:00Z");
+        String cursor = new KeysetCursor(t, 2L).encode();
+        when(clickEventRepository.findPageBefore(eq(7L), eq(t), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(click(1L, t)));
+
+        // When
+        ClickPage page = clickExportService.listClicks("abc", cursor, 2);
+
+        // Then
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors and out-of-range limits")
+    void listClicks_WithInvalidInput_ShouldThrow() {
+        assertThatThrownBy(() -> clickExportService.listClicks("abc", "not-a-cursor!", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> clickExportService.listClicks("abc", null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should return an empty page for an unknown alias")
+    void listClicks_WithUnknownAlias_ShouldReturnEmptyPage() {
+        // When
+        ClickPage page = clickExportService.listClicks("missing", null, 10);
+
+        // Then
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+        verifyNoInteractions(clickEventRepository);
+    }
+
+    @Test
+    @DisplayName("Should write and detach every streamed row")
+    void exportClicks_ShouldWriteEachRowAndDetach() {
+        // Given
+        Instant t = Instant.now();
+        when(clickEventRepository.streamByLinkId(7L)).thenReturn(Stream.of(click(2L, t), click(1L, t)));
+        List<Long> written = new ArrayList<>();
+
+        // When
+        long count = clickExportService.exportClicks("abc", row -> written.add(row.getId()));
+
+        // Then
+        assertThat(count).isEqualTo(2);
+        assertThat(written).containsExactly(2L, 1L);
+        verify(entityManager, times(2)).detach(any(ClickEvent.class));
+    }
+
+    private static ClickEvent click(Long id, Instant at) {
+        return ClickEvent.builder().id(id).linkId(7L).clickedAt(at).ip("203.0.113.7").userAgent("Mozilla/5.0").build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.project.ait.service;
+
+import com.project.ait.config.ShardContext;
+import com.project.ait.config.ShardRoutingDataSource;
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.ClickJournalCheckpoint;
+import com.project.ait.repository.ClickJournalCheckpointRepository;
+import com.project.ait.repository.ClickLogBulkWriter;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import com.project.ait.util.SegmentedJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickJournalLoader Unit Tests")
+class ClickJournalLoaderTest {
+    private static final String JOURNAL_ID = "journal-1";
+
+    @Mock
+    private ClickJournal clickJournal;
+
+    @Mock
+    private ClickPipeline clickPipeline;
+
+    @Mock
+    private ClickLogBulkWriter clickLogBulkWriter;
+
+    @Mock
+    private ClickRollupService clickRollupService;
+
+    @Mock
+    private UniqueVisitorService uniqueVisitorService;
+
+    @Mock
+    private LinkVersions linkVersions;
+
+    @Mock
+    private ClickJournalCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ClickJournalLoader loader;
+    // Aliases inserted per shard, by committed transactions only
+    private final Map<Integer, List<String>> inserted = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource(List.of(mock(DataSource.class), mock(DataSource.class)));
+        ShardRouter shardRouter = new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), dataSource, mock(PlatformTransactionManager.class), 0, 128);
+        loader = new ClickJournalLoader(clickJournal, clickPipeline, clickLogBulkWriter, clickRollupService,
+                uniqueVisitorService, linkVersions, checkpointRepository, shardRouter, transactionManager, 100, 500, 1000);
+
+        lenient().when(clickJournal.getJournalId()).thenReturn(JOURNAL_ID);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        // The codec step: aliases "s0-..." live on shard 0, "s1-..." on shard 1
+        lenient().doAnswer(invocation -> {
+            List<ClickEvent> batch = invocation.getArgument(0);
+            for (ClickEvent click : batch) {
+                click.setLinkId(1L);
+                click.setShard(click.getAlias().charAt(1) - '0');
+            }
+            return null;
+        }).when(clickPipeline).enrich(anyList());
+        lenient().when(checkpointRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should replay only the failed shard's clicks after a partial multi-shard failure")
+    void load_AfterPartialFailure_ShouldLoadEveryClickExactlyOnce() throws Exception {
+        // Given - one chunk spanning both shards; shard 1 fails the first time
+        when(clickJournal.read(1L)).thenReturn(List.of(record("s0-a", 10), record("s1-b", 20), record("s0-c", 30)));
+        when(checkpointRepository.findById(JOURNAL_ID)).thenReturn(Optional.empty());
+        int[] shard1Attempts = {0};
+        doAnswer(invocation -> {
+            int shard = ShardContext.current();
+            if (shard == 1 && shard1Attempts[0]++ == 0) throw new QueryTimeoutException("shard 1 down");
+            List<ClickEvent> rows = invocation.getArgument(0);
+            inserted.computeIfAbsent(shard, s -> new ArrayList<>()).addAll(rows.stream().map(ClickEvent::getAlias).toList());
+            return null;
+        }).when(clickLogBulkWriter).insert(anyList());
+
+        // When
+        assertThatThrownBy(() -> loader.load(1L)).isInstanceOf(QueryTimeoutException.class);
+        loader.load(1L);
+
+        // Then
+        assertThat(inserted.get(0)).containsExactly("s0-a", "s0-c");
+        assertThat(inserted.get(1)).containsExactly("s1-b");
+        verify(transactionManager, times(1)).rollback(any());
+        verify(checkpointRepository, times(2)).save(argThat(c -> c.getSegment() == 1 && c.getPosition() == 30));
+    }
+
+    @Test
+    @DisplayName("Should skip clicks at or before the shard's checkpoint")
+    void load_WithCheckpoint_ShouldSkipLoadedClicks() throws Exception {
+        // Given - a single shard's checkpoint covering the first two records
+        when(clickJournal.read(2L)).thenReturn(List.of(record("s0-a", 10), record("s0-b", 20), record("s0-c", 30)));
+        when(checkpointRepository.findById(JOURNAL_ID)).thenReturn(Optional.of(ClickJournalCheckpoint.builder()
+                .journalId(JOURNAL_ID).segment(2).position(20).build()));
+        doAnswer(invocation -> {
+            List<ClickEvent> rows = invocation.getArgument(0);
+            inserted.computeIfAbsent(ShardContext.current(), s -> new ArrayList<>()).addAll(rows.stream().map(ClickEvent::getAlias).toList());
+            return null;
+        }).when(clickLogBulkWriter).insert(anyList());
+
+        // When
+        loader.load(2L);
+
+        // Then
+        assertThat(inserted).containsOnlyKeys(0);
+        assertThat(inserted.get(0)).containsExactly("s0-c");
+        verify(clickRollupService).apply(argThat(rows -> rows.size() == 1 && rows.get(0).getAlias().equals("s0-c")));
+    }
+
+    @Test
+    @DisplayName("Should not write a chunk that is entirely at or before an older segment's checkpoint")
+    void load_WhenSegmentAlreadyLoaded_ShouldWriteNothing() throws Exception {
+        // Given
+        when(clickJournal.read(1L)).thenReturn(List.of(record("s0-a", 10), record("s0-b", 20)));
+        when(checkpointRepository.findById(JOURNAL_ID)).thenReturn(Optional.of(ClickJournalCheckpoint.builder()
+                .journalId(JOURNAL_ID).segment(3).position(0).build()));
+
+        // When
+        loader.load(1L);
+
+        // Then
+        verifyNoInteractions(clickLogBulkWriter, clickRollupService);
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    private static SegmentedJournal.Record record(String alias, long end) {
+        ClickEvent click = ClickEvent.builder()
+                .alias(alias)
+                .clickedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .ip("203.0.113.7")
+                .userAgent("Mozilla/5.0")
+                .build();
+        return new SegmentedJournal.Record(end, ClickJournal.encode(click));
+    }
+}
@@ -0,0 +1,297 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.Browser;
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.DeviceClass;
+import com.project.ait.repository.ClickEventRepository;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickPipeline Unit Tests")
+class ClickPipelineTest {
+
+    @Mock
+    private ClickEventRepository clickEventRepository;
+
+    @Mock
+    private ClickRollupService clickRollupService;
+
+    @Mock
+    private UniqueVisitorService uniqueVisitorService;
+
+    @Mock
+    private ClickStream clickStream;
+
+    @Mock
+    private LinkVersions linkVersions;
+
+    @Mock
+    private AliasReservations aliasReservations;
+
+    @Mock
+    private ClickCodec clickCodec;
+
+    private ClickPipeline clickPipeline;
+
+    @BeforeEach
+    void setUp() {
+        clickPipeline = new ClickPipeline(List.of(new UserAgentClassifier(100), new BotFilter(true, "bot/,facebookexternalhit", 100)), clickEventRepository,
+                clickRollupService, uniqueVisitorService,
+                new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128), mock(ClickJournal.class), clickStream, linkVersions,
+                aliasReservations, clickCodec, 2, 500, 1, false);
+    }
+
+    @Test
+    @DisplayName("Should enrich, persist and roll up a batch")
+    void process_ShouldEnrichPersistAndRollUp() {
+        // Given
+        ClickEvent click = click("Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) Version/17.0 Mobile/15E148 Safari/604.1");
+        List<ClickEvent> batch = List.of(click);
+
+        // When
+        clickPipeline.process(batch);
+
+        // Then
+        assertThat(click.getBrowser()).isEqualTo(Browser.SAFARI);
+        assertThat(click.getDevice()).isEqualTo(DeviceClass.MOBILE);
+        verify(clickEventRepository).saveAll(batch);
+        verify(clickRollupService).apply(batch);
+        verify(uniqueVisitorService).recordAll(batch);
+        verify(linkVersions).clicksChanged(Set.of("abc"));
+    }
+
+    @Test
+    @DisplayName("Should retry rollups once when another node inserted the row first")
+    void process_WhenRollupInsertRaces_ShouldRetry() {
+        // Given
+        List<ClickEvent> batch = List.of(click("Mozilla/5.0"));
+        doThrow(new DataIntegrityViolationException("duplicate")).doNothing().when(clickRollupService).apply(batch);
+
+        // When
+        clickPipeline.process(batch);
+
+        // Then
+        verify(clickRollupService, times(2)).apply(batch);
+    }
+
+    @Test
+    @DisplayName("Should roll up bot hits without storing them as rows or visitors")
+    void process_WithBot_ShouldOnlyRollUp() {
+        // Given
+        ClickEvent bot = click("facebookexternalhit/1.1 (+http://www.facebook.com/externalhit_uatext.php)");
+        ClickEvent human = click("Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/120.0 Safari/537.36");
+        List<ClickEvent> batch = List.of(bot, human);
+
+        // When
+        clickPipeline.process(batch);
+
+        // Then
+        assertThat(bot.isBot()).isTrue();
+        assertThat(bot.getDevice()).isEqualTo(DeviceClass.BOT);
+        verify(clickEventRepository).saveAll(List.of(human));
+        verify(clickRollupService).apply(batch);
+        verify(uniqueVisitorService).recordAll(List.of(human));
+    }
+
+    @Test
+    @DisplayName("Should roll up repeats within the dedup window without storing them as rows")
+    void process_WithRepeatedClicks_ShouldStoreFirstOnly() {
+        // Given
+        ClickPipeline deduplicating = new ClickPipeline(List.of(new UserAgentClassifier(100), new ClickDeduplicator(true, 5000, 100)),
+                clickEventRepository, clickRollupService, uniqueVisitorService,
+                new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128), mock(ClickJournal.class), clickStream, linkVersions,
+                aliasReservations, clickCodec, 2, 500, 1, false);
+        Instant now = Instant.now();
+        ClickEvent first = click("Mozilla/5.0");
+        first.setClickedAt(now);
+        ClickEvent repeat = click("Mozilla/5.0");
+        repeat.setClickedAt(now.plusMillis(800));
+        ClickEvent later = click("Mozilla/5.0");
+        later.setClickedAt(now.plusSeconds(6));
+        List<ClickEvent> batch = List.of(first, repeat, later);
+
+        // When
+        deduplicating.process(batch);
+
+        // Then
+        assertThat(repeat.isDuplicate()).isTrue();
+        verify(clickEventRepository).saveAll(List.of(first, later));
+        verify(clickRollupService).apply(batch);
+    }
+
+    @Test
+    @DisplayName("Should mark the click count changed for a batch of repeats that stores no rows")
+    void process_WithOnlyRepeats_ShouldBumpVersion() {
+        // Given
+        ClickPipeline deduplicating = new ClickPipeline(List.of(new UserAgentClassifier(100), new ClickDeduplicator(true, 5000, 100)),
+                clickEventRepository, clickRollupService, uniqueVisitorService,
+                new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128), mock(ClickJournal.class), clickStream, linkVersions,
+                aliasReservations, clickCodec, 2, 500, 1, false);
+        Instant now = Instant.now();
+        ClickEvent first = click("Mozilla/5.0");
+        first.setClickedAt(now);
+        ClickEvent repeat = click("Mozilla/5.0");
+        repeat.setClickedAt(now.plusMillis(800));
+        deduplicating.process(List.of(first));
+
+        // When
+        deduplicating.process(List.of(repeat));
+
+        // Then
+        assertThat(repeat.isDuplicate()).isTrue();
+        verify(clickEventRepository).saveAll(List.of());
+        verify(linkVersions, times(2)).clicksChanged(Set.of("abc"));
+    }
+
+    @Test
+    @DisplayName("Should store a retried click again rather than treat it as its own repeat")
+    void process_RetriedBatch_ShouldNotDeduplicateAgainstItself() {
+        // Given
+        ClickDeduplicator deduplicator = new ClickDeduplicator(true, 5000, 100);
+        ClickEvent click = click("Mozilla/5.0");
+        deduplicator.enrich(click);
+        ClickEvent retried = click("Mozilla/5.0");
+        retried.setClickedAt(click.getClickedAt());
+
+        // When
+        deduplicator.enrich(retried);
+
+        // Then
+        assertThat(retried.isDuplicate()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should store weighted samples of a hot link whose weights add up to its clicks")
+    void process_HotLink_ShouldStoreWeightedSample() {
+        // Given
+        ClickPipeline sampling = new ClickPipeline(List.of(new UserAgentClassifier(100), new ClickSampler(true, 2)),
+                clickEventRepository, clickRollupService, uniqueVisitorService,
+                new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128), mock(ClickJournal.class), clickStream, linkVersions,
+                aliasReservations, clickCodec, 2, 500, 1, false);
+        Instant now = Instant.now();
+        List<ClickEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ClickEvent click = click("Mozilla/5.0");
+            click.setClickedAt(now);
+            batch.add(click);
+        }
+
+        // When
+        sampling.process(batch);
+
+        // Then
+        List<ClickEvent> stored = ClickPipeline.stored(batch);
+        assertThat(stored).hasSizeLessThan(batch.size());
+        assertThat(stored.stream().mapToInt(e -> e.getWeight() == null ? 1 : e.getWeight()).sum()).isEqualTo(batch.size());
+        verify(clickEventRepository).saveAll(stored);
+        verify(clickRollupService).apply(batch);
+        verify(uniqueVisitorService).recordAll(batch);
+    }
+
+    @Test
+    @DisplayName("Should skip clicks whose alias no longer exists")
+    void process_WithUnknownLink_ShouldNotPersistRow() {
+        // Given
+        ClickEvent orphan = click("Mozilla/5.0");
+        orphan.setLinkId(null);
+
+        // When
+        clickPipeline.process(List.of(orphan));
+
+        // Then
+        verifyNoInteractions(clickEventRepository, clickRollupService);
+    }
+
+    @Test
+    @DisplayName("Should park clicks on a link queued on another node and persist them once its row exists")
+    void process_WithLinkQueuedElsewhere_ShouldParkUntilInserted() {
+        // Given - write-behind is on and the link's row is not inserted yet
+        ClickPipeline writeBehind = new ClickPipeline(List.of(new UserAgentClassifier(100)),
+                clickEventRepository, clickRollupService, uniqueVisitorService,
+                new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128), mock(ClickJournal.class), clickStream, linkVersions,
+                aliasReservations, clickCodec, 2, 500, 1, true);
+        ClickEvent early = click("Mozilla/5.0");
+        early.setLinkId(null);
+        when(aliasReservations.queued(Set.of("abc"))).thenReturn(Set.of("abc")).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            invocation.<ClickEvent>getArgument(0).setLinkId(1L);
+            return null;
+        }).when(clickCodec).enrich(early);
+
+        // When
+        writeBehind.process(List.of(early));
+        writeBehind.retryParked();
+        writeBehind.retryParked();
+
+        // Then
+        verify(clickEventRepository, times(1)).saveAll(List.of(early));
+        verify(clickRollupService, times(1)).apply(List.of(early));
+    }
+
+    @Test
+    @DisplayName("Should drop and count clicks when the queue is full")
+    void submit_WhenQueueFull_ShouldDrop() {
+        // Given - queue capacity is 2 and no worker is started
+        clickPipeline.submit(click("a"));
+        clickPipeline.submit(click("b"));
+
+        // When
+        boolean accepted = clickPipeline.submit(click("c"));
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(clickPipeline.getDropped()).isEqualTo(1);
+        assertThat(clickPipeline.getBacklog()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should leave a batch published to the click stream to its consumers")
+    void dispatch_WhenPublished_ShouldNotPersist() {
+        // Given
+        List<ClickEvent> batch = List.of(click("curl/8.0"));
+        when(clickStream.publish(batch)).thenReturn(true);
+
+        // When
+        clickPipeline.dispatch(batch);
+
+        // Then
+        verifyNoInteractions(clickEventRepository, clickRollupService);
+    }
+
+    @Test
+    @DisplayName("Should persist a batch directly when the click stream is unavailable")
+    void dispatch_WhenStreamUnavailable_ShouldPersist() {
+        // Given
+        List<ClickEvent> batch = List.of(click("curl/8.0"));
+        when(clickStream.publish(batch)).thenReturn(false);
+
+        // When
+        clickPipeline.dispatch(batch);
+
+        // Then
+        verify(clickEventRepository).saveAll(batch);
+    }
+
+    private static ClickEvent click(String ua) {
+        return ClickEvent.builder().alias("abc").linkId(1L).clickedAt(Instant.now()).ip("203.0.113.7").userAgent(ua).build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import com.project.ait.entity.ClickRollup;
+import com.project.ait.entity.DeviceClass;
+import com.project.ait.repository.ClickRollupRepository;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickRollupService Unit Tests")
+class ClickRollupServiceTest {
+    private static final short BOT = (short) DeviceClass.BOT.ordinal();
+
+    @Mock
+    private ClickRollupRepository clickRollupRepository;
+
+    private ClickRollupService clickRollupService;
+
+    @BeforeEach
+    void setUp() {
+        clickRollupService = new ClickRollupService(clickRollupRepository,
+                new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128));
+    }
+
+    @Test
+    @DisplayName("Should add one device click per click, including repeats and sampled-out clicks")
+    void aggregate_ShouldCountClicksWithoutRows() {
+        // Given
+        Instant at = Instant.parse("2024-01-15T10:30:00Z");
+        ClickEvent stored = click(at);
+        ClickEvent repeat = click(at.plusSeconds(1));
+        repeat.setDuplicate(true);
+        ClickEvent sampledOut = click(at.plusSeconds(2));
+        sampledOut.setSampledOut(true);
+
+        // When
+        Map<ClickRollupService.RollupKey, Long> deltas = ClickRollupService.aggregate(List.of(stored, repeat, sampledOut));
+
+        // Then
+        assertThat(deltas).containsEntry(new ClickRollupService.RollupKey("abc", LocalDate.of(2024, 1, 15),
+                ClickRollup.Dimension.DEVICE, (short) DeviceClass.MOBILE.ordinal()), 3L);
+    }
+
+    @Test
+    @DisplayName("Should read a link's total from the device counters without bot hits")
+    void totalClicks_ShouldExcludeBots() {
+        // Given
+        when(clickRollupRepository.total("abc", ClickRollup.Dimension.DEVICE, BOT)).thenReturn(12L);
+
+        // When
+        long total = clickRollupService.totalClicks("abc");
+
+        // Then
+        assertThat(total).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("Should total many aliases with one grouped query, defaulting to zero")
+    void totalClicks_WithManyAliases_ShouldFillMissingWithZero() {
+        // Given
+        when(clickRollupRepository.totals(anyCollection(), eq(ClickRollup.Dimension.DEVICE), eq(BOT)))
+                .thenReturn(List.<Object[]>of(new Object[]{"abc12", 7L}));
+
+        // When
+        Map<String, Long> totals = clickRollupService.totalClicks(List.of("abc12", "xyz34"));
+
+        // Then
+        assertThat(totals).containsEntry("abc12", 7L).containsEntry("xyz34", 0L);
+        verify(clickRollupRepository, times(1)).totals(anyCollection(), any(), anyShort());
+    }
+
+    private static ClickEvent click(Instant at) {
+        return ClickEvent.builder()
+                .alias("abc")
+                .clickedAt(at)
+                .device(DeviceClass.MOBILE)
+                .build();
+    }
+}
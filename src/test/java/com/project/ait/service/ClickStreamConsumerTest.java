@@ -0,0 +1,77 @@
+package com.project.ait.service;
+
+import com.project.ait.entity.ClickEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickStreamConsumer Unit Tests")
+class ClickStreamConsumerTest {
+
+    @Mock
+    private ClickStream clickStream;
+
+    @Mock
+    private ClickPipeline clickPipeline;
+
+    private ClickStreamConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ClickStreamConsumer(clickStream, clickPipeline, 1, "node", 100, 50, 1000, 60000, 10000, 5);
+    }
+
+    @Test
+    @DisplayName("Should persist decoded clicks and acknowledge every entry, including unreadable ones")
+    @SuppressWarnings("unchecked")
+    void persist_ShouldProcessDecodedClicksAndAckAll() {
+        // Given
+        ClickEvent click = ClickEvent.builder().alias("abc").clickedAt(Instant.ofEpochMilli(1_700_000_000_000L))
+                .ip("203.0.113.7").userAgent("curl/8.0").build();
+        List<ClickStream.Entry> entries = List.of(
+                new ClickStream.Entry(RecordId.of(1, 0), ClickJournal.encode(click)),
+                new ClickStream.Entry(RecordId.of(1, 1), new byte[] {1}),
+                new ClickStream.Entry(RecordId.of(1, 2), null));
+
+        // When
+        consumer.persist(entries);
+
+        // Then
+        ArgumentCaptor<List<ClickEvent>> processed = ArgumentCaptor.forClass(List.class);
+        verify(clickPipeline).process(processed.capture());
+        assertThat(processed.getValue()).singleElement().satisfies(e -> {
+            assertThat(e.getAlias()).isEqualTo("abc");
+            assertThat(e.getClickedAt()).isEqualTo(click.getClickedAt());
+            assertThat(e.getIp()).isEqualTo("203.0.113.7");
+            assertThat(e.getUserAgent()).isEqualTo("curl/8.0");
+            assertThat(e.getReferrer()).isNull();
+        });
+        verify(clickStream).ack(List.of(RecordId.of(1, 0), RecordId.of(1, 1), RecordId.of(1, 2)));
+    }
+
+    @Test
+    @DisplayName("Should not acknowledge entries whose clicks failed to persist")
+    void persist_WhenProcessingFails_ShouldNotAck() {
+        // Given
+        ClickEvent click = ClickEvent.builder().alias("abc").clickedAt(Instant.now()).build();
+        doThrow(new IllegalStateException("db down")).when(clickPipeline).process(anyList());
+
+        // When & Then
+        assertThatThrownBy(() -> consumer.persist(List.of(new ClickStream.Entry(RecordId.of(1, 0), ClickJournal.encode(click)))))
+                .isInstanceOf(IllegalStateException.class);
+        verify(clickStream, never()).ack(anyList());
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.ait.service;
+
+import com.project.ait.config.ShardContext;
+import com.project.ait.config.ShardRoutingDataSource;
+import com.project.ait.dto.AliasChange;
+import com.project.ait.entity.UrlMapping;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import com.project.ait.repository.UrlMappingBulkWriter;
+import com.project.ait.repository.UrlMappingRepository;
+import com.project.ait.util.MappingSnapshot;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MappingSnapshotService Unit Tests")
+class MappingSnapshotServiceTest {
+
+    @Mock
+    private UrlMappingRepository urlMappingRepository;
+
+    @Mock
+    private UrlMappingBulkWriter urlMappingBulkWriter;
+
+    @Mock
+    private ShardPlacementRepository shardPlacementRepository;
+
+    @Mock
+    private AliasChangeFeed aliasChangeFeed;
+
+    @Mock
+    private MissingAliases missingAliases;
+
+    private ShardRouter shardRouter;
+    private MappingSnapshotService mappingSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        // Two shards configured, only the first one in the ring yet: a rebalance is pending
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource(List.of(mock(DataSource.class), mock(DataSource.class)));
+        shardRouter = new ShardRouter(shardPlacementRepository, mock(ShardRingRepository.class), dataSource, mock(PlatformTransactionManager.class), 1, 128);
+        mappingSnapshotService = new MappingSnapshotService(urlMappingRepository, mock(EntityManager.class), urlMappingBulkWriter,
+                shardRouter, mock(LocalAliasStore.class), aliasChangeFeed, missingAliases, mock(PlatformTransactionManager.class), 100);
+    }
+
+    @Test
+    @DisplayName("Should skip aliases that already exist on their post-rebalance shard and insert the rest without pinning")
+    void importSnapshot_DuringRebalance_ShouldSkipExistingAndNotPin() throws Exception {
+        // Given - one alias already moved to shard 1, one new alias
+        String moved = aliasMovingTo(1);
+        String fresh = aliasMovingTo(1, moved);
+        when(urlMappingRepository.findExistingAliases(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> aliases = invocation.getArgument(0);
+            return ShardContext.current() == 1 && aliases.contains(moved) ? List.of(moved) : List.of();
+        });
+        Map<Integer, List<String>> inserted = new HashMap<>();
+        when(urlMappingBulkWriter.insertIgnoringExisting(anyList())).thenAnswer(invocation -> {
+            List<UrlMapping> rows = invocation.getArgument(0);
+            inserted.computeIfAbsent(ShardContext.current(), s -> new ArrayList<>()).addAll(rows.stream().map(UrlMapping::getAlias).toList());
+            int[] counts = new int[rows.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+
+        // When
+        mappingSnapshotService.importSnapshot(new ByteArrayInputStream(snapshot(moved, fresh)), MappingSnapshotService.Target.DATABASE);
+
+        // Then
+        assertThat(inserted).containsOnlyKeys(0);
+        assertThat(inserted.get(0)).containsExactly(fresh);
+        assertThat(shardRouter.placementOf(fresh)).isNull();
+        verifyNoInteractions(shardPlacementRepository);
+    }
+
+    @Test
+    @DisplayName("Should announce only the rows actually inserted, once their batch is committed")
+    void importSnapshot_ShouldPublishInsertedAliases() throws Exception {
+        // Given - the second alias was created concurrently and is ignored by INSERT IGNORE
+        String first = aliasMovingTo(0);
+        String second = aliasMovingTo(0, first);
+        when(urlMappingRepository.findExistingAliases(anyCollection())).thenReturn(List.of());
+        when(urlMappingBulkWriter.insertIgnoringExisting(anyList())).thenReturn(new int[] {1, 0});
+
+        // When
+        MappingSnapshotService.ImportResult result = mappingSnapshotService.importSnapshot(
+                new ByteArrayInputStream(snapshot(first, second)), MappingSnapshotService.Target.DATABASE);
+
+        // Then
+        assertThat(result.inserted()).isEqualTo(1);
+        verify(missingAliases).forget(first);
+        verify(missingAliases, never()).forget(second);
+        verify(aliasChangeFeed).publishAll(argThat(changes -> changes.size() == 1
+                && changes.iterator().next().equals(new AliasChange(first, "https://www.example.com/" + first, null, true, false))));
+    }
+
+    private String aliasMovingTo(int shard, String... excluded) {
+        for (int i = 0; ; i++) {
+            String alias = "alias" + i;
+            if (shardRouter.targetShardFor(alias) == shard && !List.of(excluded).contains(alias)) return alias;
+        }
+    }
+
+    private static byte[] snapshot(String... aliases) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MappingSnapshot.Writer writer = new MappingSnapshot.Writer(out, new MappingSnapshot.Header(Instant.now(), new long[2], null))) {
+            for (int i = 0; i < aliases.length; i++) {
+                writer.write(0, UrlMapping.builder()
+                        .id(i + 1L)
+                        .alias(aliases[i])
+                        .longUrl("https://www.example.com/" + aliases[i])
+                        .active(true)
+                        .build());
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,158 @@
+package com.project.ait.service;
+
+import com.project.ait.config.ShardContext;
+import com.project.ait.config.ShardRoutingDataSource;
+import com.project.ait.entity.ShardPlacement;
+import com.project.ait.entity.ShardRing;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ShardRouter Unit Tests")
+class ShardRouterTest {
+
+    @Mock
+    private ShardPlacementRepository shardPlacementRepository;
+
+    @Mock
+    private ShardRingRepository shardRingRepository;
+
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        // Two shards configured, only the first one in the ring yet
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource(List.of(mock(DataSource.class), mock(DataSource.class)));
+        shardRouter = new ShardRouter(shardPlacementRepository, shardRingRepository, dataSource, mock(PlatformTransactionManager.class), 1, 128);
+    }
+
+    @Test
+    @DisplayName("Should route by the active ring and let placements override it")
+    void shardFor_WithPlacement_ShouldUsePlacement() {
+        // Given
+        when(shardPlacementRepository.findAll()).thenReturn(List.of(
+                ShardPlacement.builder().alias("moved").shard(1).build()));
+
+        // When
+        shardRouter.refreshPlacements();
+
+        // Then
+        assertThat(shardRouter.shardFor("moved")).isEqualTo(1);
+        assertThat(shardRouter.shardFor("other")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should load only placements moved since the last refresh after the first full load")
+    void refreshPlacements_AfterFirstLoad_ShouldLoadIncrementally() {
+        // Given
+        Instant movedAt = Instant.parse("2024-01-01T00:10:00Z");
+        when(shardPlacementRepository.findAll()).thenReturn(List.of(
+                ShardPlacement.builder().alias("first").shard(1).movedAt(movedAt).build()));
+        when(shardPlacementRepository.findByMovedAtGreaterThanEqual(any())).thenReturn(List.of(
+                ShardPlacement.builder().alias("second").shard(1).movedAt(movedAt.plusSeconds(5)).build()));
+
+        // When
+        shardRouter.refreshPlacements();
+        shardRouter.refreshPlacements();
+
+        // Then
+        verify(shardPlacementRepository, times(1)).findAll();
+        verify(shardPlacementRepository).findByMovedAtGreaterThanEqual(argThat(since -> since.isBefore(movedAt)));
+        assertThat(shardRouter.placementOf("first")).isEqualTo(1);
+        assertThat(shardRouter.placementOf("second")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should widen the ring from shard_ring and stop pinning or loading placements")
+    void refreshPlacements_WhenRingWidened_ShouldDropPlacements() {
+        // Given - an alias pinned during the rebalance, then the rebalance completes
+        String alias = findAliasMovingTo(1);
+        shardRouter.pinNew(alias, shardRouter.shardForNew(alias));
+        when(shardRingRepository.findById(ShardRing.ID)).thenReturn(Optional.of(
+                ShardRing.builder().id(ShardRing.ID).activeShards(2).build()));
+
+        // When
+        shardRouter.refreshPlacements();
+
+        // Then
+        assertThat(shardRouter.isRingComplete()).isTrue();
+        assertThat(shardRouter.placementOf(alias)).isNull();
+        assertThat(shardRouter.shardFor(alias)).isEqualTo(1);
+        assertThat(shardRouter.shardForNew(findAliasMovingTo(1, alias))).isEqualTo(1);
+        verify(shardPlacementRepository, never()).findAll();
+        verify(shardPlacementRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Should choose the post-rebalance shard for a new alias without pinning it")
+    void shardForNew_WhenTargetDiffers_ShouldNotPin() {
+        // Given - an alias that moves once shard 1 joins the ring
+        String alias = findAliasMovingTo(1);
+
+        // When
+        int shard = shardRouter.shardForNew(alias);
+
+        // Then - until the row exists, the alias is still looked up on both shards
+        assertThat(shard).isEqualTo(1);
+        assertThat(shardRouter.candidateShards(alias)).containsExactly(0, 1);
+        verify(shardPlacementRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should pin a new alias to its post-rebalance shard once inserted")
+    void pinNew_WhenTargetDiffers_ShouldPinToTarget() {
+        // Given
+        String alias = findAliasMovingTo(1);
+
+        // When
+        shardRouter.pinNew(alias, 1);
+
+        // Then
+        assertThat(shardRouter.shardFor(alias)).isEqualTo(1);
+        assertThat(shardRouter.candidateShards(alias)).containsExactly(1);
+        verify(shardPlacementRepository).save(argThat(p -> p.getAlias().equals(alias) && p.getShard() == 1));
+    }
+
+    @Test
+    @DisplayName("Should run a call on every shard and gather results in shard order")
+    void scatter_ShouldRouteEachCallToItsShard() {
+        // When
+        List<Integer> seen = shardRouter.scatter(shard -> ShardContext.current());
+
+        // Then
+        assertThat(seen).containsExactly(0, 1);
+        assertThat(ShardContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should group items by shard")
+    void partition_ShouldGroupByShard() {
+        Map<Integer, List<String>> byShard = shardRouter.partition(List.of("a1", "b0", "c1"), s -> s.charAt(1) - '0');
+
+        assertThat(byShard).containsExactly(Map.entry(0, List.of("b0")), Map.entry(1, List.of("a1", "c1")));
+    }
+
+    private String findAliasMovingTo(int shard, String... excluded) {
+        for (int i = 0; ; i++) {
+            String alias = "alias" + i;
+            if (shardRouter.targetShardFor(alias) == shard && !List.of(excluded).contains(alias)) return alias;
+        }
+    }
+}
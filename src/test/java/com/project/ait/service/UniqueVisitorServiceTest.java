@@ -0,0 +1,107 @@
+package com.project.ait.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HyperLogLogOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UniqueVisitorService Unit Tests")
+class UniqueVisitorServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HyperLogLogOperations<String, String> hyperLogLogOperations;
+
+    private UniqueVisitorService uniqueVisitorService;
+
+    @BeforeEach
+    void setUp() {
+        uniqueVisitorService = new UniqueVisitorService(redisTemplate, 192, 400);
+    }
+
+    @Test
+    @DisplayName("Should use day buckets for whole days and hour buckets at the edges")
+    void bucketKeys_SpanningDays_ShouldMixGranularities() {
+        // Given
+        Instant now = Instant.parse("2026-10-19T12:00:00Z");
+        Instant from = Instant.parse("2026-10-16T22:00:00Z");
+        Instant to = Instant.parse("2026-10-18T02:00:00Z");
+
+        // When
+        List<String> keys = uniqueVisitorService.bucketKeys("abc", from, to, now);
+
+        // Then
+        assertThat(keys).containsExactly(
+                "hll:abc:h:2026101622",
+                "hll:abc:h:2026101623",
+                "hll:abc:d:20261017",
+                "hll:abc:h:2026101800",
+                "hll:abc:h:2026101801");
+    }
+
+    @Test
+    @DisplayName("Should fall back to day buckets beyond hourly retention")
+    void bucketKeys_OlderThanHourlyRetention_ShouldUseDayBuckets() {
+        // Given
+        Instant now = Instant.parse("2026-10-19T12:00:00Z");
+        Instant from = Instant.parse("2026-09-01T10:00:00Z");
+        Instant to = Instant.parse("2026-09-01T12:00:00Z");
+
+        // When
+        List<String> keys = uniqueVisitorService.bucketKeys("abc", from, to, now);
+
+        // Then
+        assertThat(keys).containsExactly("hll:abc:d:20260901");
+    }
+
+    @Test
+    @DisplayName("Should merge bucket sketches with a single PFCOUNT")
+    void count_WithValidRange_ShouldCountUnionOfBuckets() {
+        // Given
+        Instant to = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        Instant from = to.minus(2, ChronoUnit.HOURS);
+        when(redisTemplate.opsForHyperLogLog()).thenReturn(hyperLogLogOperations);
+        when(hyperLogLogOperations.size(any(String[].class))).thenReturn(42L);
+
+        // When
+        long result = uniqueVisitorService.count("abc", from, to);
+
+        // Then
+        assertThat(result).isEqualTo(42L);
+        verify(hyperLogLogOperations, times(1)).size(any(String[].class));
+    }
+
+    @Test
+    @DisplayName("Should reject inverted ranges")
+    void count_WithInvertedRange_ShouldThrowException() {
+        Instant now = Instant.now();
+
+        assertThatThrownBy(() -> uniqueVisitorService.count("abc", now, now.minusSeconds(60)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should return zero when Redis is unavailable")
+    void countAllTime_WhenRedisFails_ShouldReturnZero() {
+        // Given
+        when(redisTemplate.opsForHyperLogLog()).thenThrow(new RuntimeException("connection refused"));
+
+        // When & Then
+        assertThat(uniqueVisitorService.countAllTime("abc")).isZero();
+    }
+}
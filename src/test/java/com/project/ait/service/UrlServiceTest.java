@@ -1,8 +1,10 @@
 package com.project.ait.service;
 
+import com.project.ait.dto.AliasChange;
 import com.project.ait.entity.ClickEvent;
 import com.project.ait.entity.UrlMapping;
-import com.project.ait.repository.ClickEventRepository;
+import com.project.ait.repository.ShardPlacementRepository;
+import com.project.ait.repository.ShardRingRepository;
 import com.project.ait.repository.UrlMappingRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,10 +12,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,7 +37,30 @@ class UrlServiceTest {
     private UrlMappingRepository urlMappingRepository;
 
     @Mock
-    private ClickEventRepository clickEventRepository;
+    private ClickRollupService clickRollupService;
+
+    @Mock
+    private ClickPipeline clickPipeline;
+
+    @Mock
+    private HotLinkTracker hotLinkTracker;
+
+    @Mock
+    private AliasChangeFeed aliasChangeFeed;
+
+    @Mock
+    private WriteBehindLinkWriter writeBehindLinkWriter;
+
+    @Mock
+    private AliasReservations aliasReservations;
+
+    @Mock
+    private AliasCacheInvalidator aliasCacheInvalidator;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private MissingAliases missingAliases;
 
     private UrlService urlService;
 
@@ -37,7 +70,9 @@ class UrlServiceTest {
     @BeforeEach
     void setUp() {
         // Manually inject the values since @Value annotations don't work in unit tests
-        urlService = new UrlService(urlMappingRepository, clickEventRepository, baseUrl, defaultExpirationDays);
+        ShardRouter singleShard = new ShardRouter(mock(ShardPlacementRepository.class), mock(ShardRingRepository.class), mock(DataSource.class), mock(PlatformTransactionManager.class), 0, 128);
+        missingAliases = new MissingAliases(true, 100, 30000);
+        urlService = new UrlService(urlMappingRepository, clickRollupService, clickPipeline, hotLinkTracker, singleShard, aliasChangeFeed, writeBehindLinkWriter, aliasReservations, aliasCacheInvalidator, missingAliases, cacheManager, baseUrl, defaultExpirationDays, 500);
     }
 
     @Test
@@ -59,11 +94,11 @@ class UrlServiceTest {
                 .expiresAt(expiresAt)
                 .build();
 
-        when(urlMappingRepository.existsByAlias(customAlias)).thenReturn(false);
+        when(aliasReservations.reserve(anyString())).thenReturn(true);
         when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(expectedMapping);
 
         // When
-        UrlMapping result = urlService.createShortUrl(longUrl, customAlias, creatorIp, expiresAt);
+        UrlMapping result = urlService.createShortUrl(longUrl, customAlias, creatorIp, expiresAt, null);
 
         // Then
         assertThat(result).isNotNull();
@@ -73,7 +108,8 @@ class UrlServiceTest {
         assertThat(result.isCustomAlias()).isTrue();
         assertThat(result.isActive()).isTrue();
         
-        verify(urlMappingRepository).existsByAlias(customAlias);
+        // The unique index is the only check: one statement per create
+        verify(urlMappingRepository, never()).existsByAlias(anyString());
         verify(urlMappingRepository).save(any(UrlMapping.class));
     }
 
@@ -85,17 +121,132 @@ class UrlServiceTest {
         String customAlias = "existing-alias";
         String creatorIp = "192.168.1.1";
 
-        when(urlMappingRepository.existsByAlias(customAlias)).thenReturn(true);
+        when(aliasReservations.reserve(anyString())).thenReturn(true);
+        when(urlMappingRepository.save(any(UrlMapping.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'existing-alias'"));
 
         // When & Then
-        assertThatThrownBy(() -> urlService.createShortUrl(longUrl, customAlias, creatorIp, null))
+        assertThatThrownBy(() -> urlService.createShortUrl(longUrl, customAlias, creatorIp, null, null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Custom alias already used");
 
-        verify(urlMappingRepository).existsByAlias(customAlias);
+        verify(urlMappingRepository, times(1)).save(any(UrlMapping.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a custom alias reserved by a concurrent request without touching MySQL")
+    void createShortUrl_WithReservedCustomAlias_ShouldThrowException() {
+        // Given
+        when(aliasReservations.reserve("hot-alias")).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> urlService.createShortUrl("https://www.example.com", "hot-alias", "192.168.1.1", null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Custom alias already used");
+        verifyNoInteractions(urlMappingRepository);
+    }
+
+    @Test
+    @DisplayName("Should leave a reservation lost to a concurrent request in place")
+    void createShortUrl_WithLostReservation_ShouldNotReleaseIt() {
+        // Given
+        when(aliasReservations.reserve("taken1")).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> urlService.createShortUrl("https://www.example.com", "taken1", "192.168.1.1", null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Custom alias already used");
+        verify(aliasReservations, never()).release(anyString());
+    }
+
+    @Test
+    @DisplayName("Should release the reservation when the insert fails")
+    void createShortUrl_WhenInsertFails_ShouldReleaseReservation() {
+        // Given
+        when(aliasReservations.reserve("fail1")).thenReturn(true);
+        when(urlMappingRepository.save(any(UrlMapping.class))).thenThrow(new IllegalStateException("Connection refused"));
+
+        // When & Then
+        assertThatThrownBy(() -> urlService.createShortUrl("https://www.example.com", "fail1", "192.168.1.1", null, null))
+                .isInstanceOf(IllegalStateException.class);
+        verify(aliasReservations).release("fail1");
+    }
+
+    @Test
+    @DisplayName("Should retry a generated alias that collides")
+    void createShortUrl_WithGeneratedAliasCollision_ShouldRetryWithNewAlias() {
+        // Given
+        when(urlMappingRepository.save(any(UrlMapping.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        UrlMapping result = urlService.createShortUrl("https://www.example.com", null, "192.168.1.1", null, null);
+
+        // Then
+        assertThat(result.getAlias()).hasSize(5);
+        verify(urlMappingRepository, times(2)).save(any(UrlMapping.class));
+    }
+
+    @Test
+    @DisplayName("Should give up after a bounded number of generated alias collisions")
+    void createShortUrl_WithPersistentCollisions_ShouldThrowException() {
+        // Given
+        when(urlMappingRepository.save(any(UrlMapping.class))).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        // When & Then
+        assertThatThrownBy(() -> urlService.createShortUrl("https://www.example.com", null, "192.168.1.1", null, null))
+                .isInstanceOf(IllegalStateException.class);
+        verify(urlMappingRepository, times(5)).save(any(UrlMapping.class));
+    }
+
+    @Test
+    @DisplayName("Should queue the insert instead of saving when write-behind accepts the link")
+    void createShortUrl_WithWriteBehind_ShouldNotSaveSynchronously() {
+        // Given
+        when(writeBehindLinkWriter.isEnabled()).thenReturn(true);
+        when(writeBehindLinkWriter.claim("queued-alias")).thenReturn(WriteBehindLinkWriter.Claim.CLAIMED);
+        when(writeBehindLinkWriter.enqueue(any(UrlMapping.class))).thenReturn(true);
+
+        // When
+        UrlMapping result = urlService.createShortUrl("https://www.example.com", "queued-alias", "192.168.1.1", null, null);
+
+        // Then
+        assertThat(result.getAlias()).isEqualTo("queued-alias");
+        assertThat(result.isCustomAlias()).isTrue();
         verify(urlMappingRepository, never()).save(any(UrlMapping.class));
     }
 
+    @Test
+    @DisplayName("Should reject a custom alias already claimed by a write-behind link")
+    void createShortUrl_WithClaimedCustomAlias_ShouldThrowException() {
+        // Given
+        when(writeBehindLinkWriter.isEnabled()).thenReturn(true);
+        when(writeBehindLinkWriter.claim("claimed-alias")).thenReturn(WriteBehindLinkWriter.Claim.TAKEN);
+
+        // When & Then
+        assertThatThrownBy(() -> urlService.createShortUrl("https://www.example.com", "claimed-alias", "192.168.1.1", null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Custom alias already used");
+        verify(writeBehindLinkWriter, never()).enqueue(any(UrlMapping.class));
+    }
+
+    @Test
+    @DisplayName("Should fall back to a synchronous insert when Redis is unavailable")
+    void createShortUrl_WithWriteBehindUnavailable_ShouldSaveSynchronously() {
+        // Given
+        when(writeBehindLinkWriter.isEnabled()).thenReturn(true);
+        when(writeBehindLinkWriter.claim(anyString())).thenReturn(WriteBehindLinkWriter.Claim.UNAVAILABLE);
+        when(urlMappingRepository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        UrlMapping result = urlService.createShortUrl("https://www.example.com", null, "192.168.1.1", null, null);
+
+        // Then
+        assertThat(result.getAlias()).hasSize(5);
+        verify(urlMappingRepository).save(any(UrlMapping.class));
+    }
+
     @Test
     @DisplayName("Should create short URL with generated alias when no custom alias provided")
     void createShortUrl_WithoutCustomAlias_ShouldReturnUrlMappingWithGeneratedAlias() {
@@ -115,7 +266,7 @@ class UrlServiceTest {
         when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(expectedMapping);
 
         // When
-        UrlMapping result = urlService.createShortUrl(longUrl, null, creatorIp, null);
+        UrlMapping result = urlService.createShortUrl(longUrl, null, creatorIp, null, null);
 
         // Then
         assertThat(result).isNotNull();
@@ -149,7 +300,7 @@ class UrlServiceTest {
         when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(expectedMapping);
 
         // When
-        UrlMapping result = urlService.createShortUrl(longUrl, blankAlias, creatorIp, null);
+        UrlMapping result = urlService.createShortUrl(longUrl, blankAlias, creatorIp, null, null);
 
         // Then
         assertThat(result).isNotNull();
@@ -169,7 +320,7 @@ class UrlServiceTest {
         String customAlias = "test-alias";
         String creatorIp = "192.168.1.1";
 
-        when(urlMappingRepository.existsByAlias(customAlias)).thenReturn(false);
+        when(aliasReservations.reserve(anyString())).thenReturn(true);
         when(urlMappingRepository.save(any(UrlMapping.class))).thenAnswer(invocation -> {
             UrlMapping mapping = invocation.getArgument(0);
             // Verify that expiration is set to default days from now
@@ -179,7 +330,7 @@ class UrlServiceTest {
         });
 
         // When
-        UrlMapping result = urlService.createShortUrl(longUrl, customAlias, creatorIp, null);
+        UrlMapping result = urlService.createShortUrl(longUrl, customAlias, creatorIp, null, null);
 
         // Then
         verify(urlMappingRepository).save(any(UrlMapping.class));
@@ -227,52 +378,125 @@ class UrlServiceTest {
     }
 
     @Test
-    @DisplayName("Should record click event successfully")
-    void recordClick_WithValidData_ShouldSaveClickEvent() {
+    @DisplayName("Should answer a repeated miss from the negative cache without querying MySQL")
+    void findByAlias_RepeatedMiss_ShouldQueryOnce() {
+        // Given
+        when(urlMappingRepository.findByAlias("nope1")).thenReturn(Optional.empty());
+        urlService.findByAlias("nope1");
+
+        // When
+        Optional<UrlMapping> result = urlService.findByAlias("nope1");
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(urlMappingRepository, times(1)).findByAlias("nope1");
+    }
+
+    @Test
+    @DisplayName("Should forget a cached miss once the alias is created")
+    void createShortUrl_AfterMiss_ShouldForgetMissingAlias() {
+        // Given
+        missingAliases.recordMissing("late1");
+        when(aliasReservations.reserve("late1")).thenReturn(true);
+        when(urlMappingRepository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        urlService.createShortUrl("https://example.com", "late1", "127.0.0.1", null, null);
+
+        // Then
+        assertThat(missingAliases.isKnownMissing("late1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should load a batch of aliases with one IN query and remember the missing ones")
+    void findAllByAlias_ShouldLoadMissesInOneQuery() {
+        // Given
+        UrlMapping first = UrlMapping.builder().alias("abc12").longUrl("https://example.com/1").build();
+        when(urlMappingRepository.findByAliasIn(List.of("abc12", "gone1"))).thenReturn(List.of(first));
+
+        // When
+        Map<String, UrlMapping> result = urlService.findAllByAlias(List.of("abc12", "gone1", "abc12"));
+
+        // Then
+        assertThat(result).containsOnlyKeys("abc12");
+        assertThat(missingAliases.isKnownMissing("gone1")).isTrue();
+        verify(urlMappingRepository, times(1)).findByAliasIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject batches above the configured size")
+    void findAllByAlias_WithTooManyAliases_ShouldThrow() {
+        // Given
+        List<String> aliases = IntStream.range(0, 501).mapToObj(i -> "a" + i).toList();
+
+        // When & Then
+        assertThatThrownBy(() -> urlService.findAllByAlias(aliases))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(urlMappingRepository);
+    }
+
+    @Test
+    @DisplayName("Should take the click counts of many aliases from the rollups")
+    void getClickCounts_ShouldUseRollupTotals() {
+        // Given
+        when(clickRollupService.totalClicks(List.of("abc12", "xyz34"))).thenReturn(Map.of("abc12", 7L, "xyz34", 0L));
+
+        // When
+        Map<String, Long> counts = urlService.getClickCounts(List.of("abc12", "xyz34"));
+
+        // Then
+        assertThat(counts).containsEntry("abc12", 7L).containsEntry("xyz34", 0L);
+    }
+
+    @Test
+    @DisplayName("Should submit click event to the pipeline")
+    void recordClick_WithValidData_ShouldSubmitClickEvent() {
         // Given
         String alias = "test-alias";
         String ip = "192.168.1.1";
         String userAgent = "Mozilla/5.0";
         String referrer = "https://google.com";
 
-        when(clickEventRepository.save(any(ClickEvent.class))).thenAnswer(invocation -> {
+        when(clickPipeline.submit(any(ClickEvent.class))).thenAnswer(invocation -> {
             ClickEvent clickEvent = invocation.getArgument(0);
             assertThat(clickEvent.getAlias()).isEqualTo(alias);
             assertThat(clickEvent.getIp()).isEqualTo(ip);
             assertThat(clickEvent.getUserAgent()).isEqualTo(userAgent);
+            assertThat(clickEvent.getReferrer()).isEqualTo(referrer);
             assertThat(clickEvent.getClickedAt()).isCloseTo(Instant.now(), within(1, ChronoUnit.SECONDS));
-            return clickEvent;
+            return true;
         });
 
         // When
         urlService.recordClick(alias, ip, userAgent, referrer);
 
         // Then
-        verify(clickEventRepository).save(any(ClickEvent.class));
+        verify(clickPipeline).submit(any(ClickEvent.class));
+        verify(hotLinkTracker).record(alias);
     }
 
     @Test
-    @DisplayName("Should record click event with null values")
-    void recordClick_WithNullValues_ShouldSaveClickEvent() {
+    @DisplayName("Should submit click event with null values")
+    void recordClick_WithNullValues_ShouldSubmitClickEvent() {
         // Given
         String alias = "test-alias";
         String ip = null;
         String userAgent = null;
         String referrer = null;
 
-        when(clickEventRepository.save(any(ClickEvent.class))).thenAnswer(invocation -> {
+        when(clickPipeline.submit(any(ClickEvent.class))).thenAnswer(invocation -> {
             ClickEvent clickEvent = invocation.getArgument(0);
             assertThat(clickEvent.getAlias()).isEqualTo(alias);
             assertThat(clickEvent.getIp()).isNull();
             assertThat(clickEvent.getUserAgent()).isNull();
-            return clickEvent;
+            return true;
         });
 
         // When
         urlService.recordClick(alias, ip, userAgent, referrer);
 
         // Then
-        verify(clickEventRepository).save(any(ClickEvent.class));
+        verify(clickPipeline).submit(any(ClickEvent.class));
     }
 
     @Test
@@ -282,7 +506,7 @@ class UrlServiceTest {
         String alias = "test-alias";
         long expectedCount = 42L;
 
-        when(clickEventRepository.countByAlias(alias)).thenReturn(expectedCount);
+        when(clickRollupService.totalClicks(alias)).thenReturn(expectedCount);
 
         // When
         long result = urlService.getClickCount(alias);
@@ -290,7 +514,7 @@ class UrlServiceTest {
         // Then
         assertThat(result).isEqualTo(expectedCount);
         
-        verify(clickEventRepository).countByAlias(alias);
+        verify(clickRollupService).totalClicks(alias);
     }
 
     @Test
@@ -300,7 +524,7 @@ class UrlServiceTest {
         String alias = "no-clicks-alias";
         long expectedCount = 0L;
 
-        when(clickEventRepository.countByAlias(alias)).thenReturn(expectedCount);
+        when(clickRollupService.totalClicks(alias)).thenReturn(expectedCount);
 
         // When
         long result = urlService.getClickCount(alias);
@@ -308,6 +532,109 @@ class UrlServiceTest {
         // Then
         assertThat(result).isEqualTo(0L);
         
-        verify(clickEventRepository).countByAlias(alias);
+        verify(clickRollupService).totalClicks(alias);
+    }
+
+    @Test
+    @DisplayName("Should deactivate a link and invalidate it on every node")
+    void deactivate_WithExistingAlias_ShouldSaveAndInvalidate() {
+        // Given
+        UrlMapping mapping = UrlMapping.builder()
+                .alias("abuse")
+                .longUrl("https://www.example.com")
+                .active(true)
+                .build();
+        when(urlMappingRepository.findByAlias("abuse")).thenReturn(Optional.of(mapping));
+        when(urlMappingRepository.save(mapping)).thenReturn(mapping);
+
+        // When
+        Optional<UrlMapping> result = urlService.deactivate("abuse");
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().isActive()).isFalse();
+        verify(aliasCacheInvalidator).changed(new AliasChange("abuse", "https://www.example.com", null, false, false));
+    }
+
+    @Test
+    @DisplayName("Should not invalidate anything when updating an unknown alias")
+    void updateLink_WithNonExistentAlias_ShouldReturnEmpty() {
+        // Given
+        when(urlMappingRepository.findByAlias("missing")).thenReturn(Optional.empty());
+
+        // When
+        Optional<UrlMapping> result = urlService.updateLink("missing", "https://www.example.com/new", null, null);
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(urlMappingRepository, never()).save(any());
+        verifyNoInteractions(aliasCacheInvalidator);
+    }
+
+    @Test
+    @DisplayName("Should reject a blank target URL on update")
+    void updateLink_WithBlankLongUrl_ShouldThrow() {
+        // When & Then
+        assertThatThrownBy(() -> urlService.updateLink("abc", " ", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a target that is not an absolute http or https URL on update")
+    void updateLink_WithNonWebUrl_ShouldThrow() {
+        // When & Then
+        assertThatThrownBy(() -> urlService.updateLink("abc", "javascript:alert(1)", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(urlMappingRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a target that is not an absolute http or https URL on create")
+    void createShortUrl_WithNonWebUrl_ShouldThrow() {
+        // When & Then
+        assertThatThrownBy(() -> urlService.createShortUrl("/relative/path", null, "192.168.1.1", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(urlMappingRepository, never()).save(any(UrlMapping.class));
+    }
+
+    @Test
+    @DisplayName("Should delete a link and publish the deletion")
+    void deleteLink_WithExistingAlias_ShouldInvalidate() {
+        // Given
+        when(urlMappingRepository.deleteByAlias("gone")).thenReturn(1);
+
+        // When
+        boolean deleted = urlService.deleteLink("gone");
+
+        // Then
+        assertThat(deleted).isTrue();
+        verify(aliasCacheInvalidator).changed(AliasChange.deleted("gone"));
+    }
+
+    @Test
+    @DisplayName("Should refuse to change or delete a link still queued for write-behind insertion")
+    void updateAndDelete_WithQueuedLink_ShouldThrow() {
+        // Given
+        when(writeBehindLinkWriter.isQueued("queued")).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> urlService.updateLink("queued", null, null, false))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> urlService.deleteLink("queued"))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(urlMappingRepository, aliasCacheInvalidator);
+    }
+
+    @Test
+    @DisplayName("Should refuse to delete a missing link that another node still has queued for write-behind insertion")
+    void deleteLink_WithAliasClaimedElsewhere_ShouldThrow() {
+        // Given
+        when(writeBehindLinkWriter.isEnabled()).thenReturn(true);
+        when(aliasReservations.queued(List.of("elsewhere"))).thenReturn(Set.of("elsewhere"));
+
+        // When & Then
+        assertThatThrownBy(() -> urlService.deleteLink("elsewhere"))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(aliasCacheInvalidator);
     }
 }
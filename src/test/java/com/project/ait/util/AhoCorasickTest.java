@@ -0,0 +1,47 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AhoCorasick Tests")
+class AhoCorasickTest {
+
+    @Test
+    @DisplayName("Should find patterns that overlap or end inside other patterns")
+    void find_WithOverlappingPatterns_ShouldFollowFailureLinks() {
+        // Given
+        AhoCorasick matcher = AhoCorasick.compile(List.of("he", "she", "his", "hers"));
+
+        // When & Then
+        assertThat(matcher.find("ushers")).isEqualTo("she");
+        assertThat(matcher.find("ahishers")).isEqualTo("his");
+        assertThat(matcher.find("xyz")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should match case-insensitively and skip non-ASCII characters")
+    void find_ShouldIgnoreCase() {
+        // Given
+        AhoCorasick matcher = AhoCorasick.compile(List.of(" Bot ", "curl/"));
+
+        // When & Then
+        assertThat(matcher.size()).isEqualTo(2);
+        assertThat(matcher.find("Mozilla/5.0 (compatible; Googlebot/2.1)")).isEqualTo("bot");
+        assertThat(matcher.find("CURL/8.4.0")).isEqualTo("curl/");
+        assertThat(matcher.matches("böt")).isFalse();
+        assertThat(matcher.matches("cur")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match nothing without patterns and reject non-ASCII patterns")
+    void compile_EdgeCases() {
+        // When & Then
+        assertThat(AhoCorasick.compile(List.of("", " ")).matches("anything")).isFalse();
+        assertThatThrownBy(() -> AhoCorasick.compile(List.of("böt")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
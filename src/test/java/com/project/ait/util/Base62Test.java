@@ -202,4 +202,31 @@ class Base62Test {
             }
         }
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "00", "aB3xZ", "ZZZZZZZZZZ", "0000000000"})
+    @DisplayName("Should unpack a packed alias to the same string")
+    void pack_ThenUnpack_ShouldRoundTrip(String alias) {
+        // When
+        long packed = Base62.pack(alias);
+
+        // Then
+        assertThat(packed).isPositive();
+        assertThat(Base62.unpack(packed)).isEqualTo(alias);
+    }
+
+    @Test
+    @DisplayName("Should keep aliases that differ only in leading zeros distinct")
+    void pack_LeadingZeros_ShouldBeDistinct() {
+        // When & Then
+        assertThat(Base62.pack("0")).isNotEqualTo(Base62.pack("00"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "my-link", "abcdefghijk", "caf\u00e9"})
+    @DisplayName("Should refuse aliases that do not pack into a long")
+    void pack_WithUnpackableAlias_ShouldReturnMinusOne(String alias) {
+        // When & Then
+        assertThat(Base62.pack(alias)).isEqualTo(-1);
+    }
 }
@@ -0,0 +1,70 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 1000, 100, now::get);
+
+    @Test
+    @DisplayName("Should open after consecutive failures and short-circuit to the fallback")
+    void call_AfterThresholdFailures_ShouldOpen() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            breaker.call(() -> { throw new IllegalStateException("down"); }, () -> "fallback");
+        }
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.call(() -> "remote", () -> "fallback")).isEqualTo("fallback");
+    }
+
+    @Test
+    @DisplayName("Should let one trial through after the open period and close on success")
+    void call_AfterOpenPeriod_ShouldCloseOnSuccessfulTrial() {
+        // Given
+        for (int i = 0; i < 3; i++) breaker.onFailure();
+
+        // When
+        now.addAndGet(1000);
+        String result = breaker.call(() -> "remote", () -> "fallback");
+
+        // Then
+        assertThat(result).isEqualTo("remote");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should re-open when the trial call fails")
+    void call_WhenTrialFails_ShouldReopen() {
+        // Given
+        for (int i = 0; i < 3; i++) breaker.onFailure();
+        now.addAndGet(1000);
+
+        // When
+        breaker.call(() -> { throw new IllegalStateException("still down"); }, () -> null);
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should count slow calls as failures")
+    void call_WhenSlow_ShouldCountAsFailure() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            breaker.call(() -> now.addAndGet(150), () -> 0L);
+        }
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
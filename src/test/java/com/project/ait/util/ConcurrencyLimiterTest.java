@@ -0,0 +1,72 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ConcurrencyLimiter Tests")
+class ConcurrencyLimiterTest {
+
+    /** Fills the limit, then releases one request with a latency sample while the rest are still in flight. */
+    private static void saturatedRound(ConcurrencyLimiter limiter, long latencyNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire(0)) admitted++;
+        limiter.release(latencyNanos);
+        for (int i = 1; i < admitted; i++) limiter.release();
+    }
+
+    @Test
+    @DisplayName("Should grow while saturated at steady latency and shrink when latency rises")
+    void release_ShouldAdaptLimitToLatency() {
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 4, 200, 1.5, 100, 1.0);
+
+        // When
+        for (int i = 0; i < 100; i++) saturatedRound(limiter, 1_000_000);
+        int grown = limiter.getLimit();
+        for (int i = 0; i < 30; i++) saturatedRound(limiter, 20_000_000);
+
+        // Then
+        assertThat(grown).isEqualTo(200);
+        assertThat(limiter.getLimit()).isLessThan(50);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit while it is mostly unused")
+    void release_WhenIdle_ShouldKeepLimit() {
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 4, 200, 1.5, 100, 1.0);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(0);
+            limiter.release(1_000_000);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should shed lower priority classes before higher ones")
+    void tryAcquire_ShouldReserveCapacityForHigherClasses() {
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 10, 1.5, 100, 1.0, 0.75, 0.5);
+
+        // When
+        int low = 0;
+        while (limiter.tryAcquire(2)) low++;
+        int middle = 0;
+        while (limiter.tryAcquire(1)) middle++;
+        int high = 0;
+        while (limiter.tryAcquire(0)) high++;
+
+        // Then
+        assertThat(low).isEqualTo(5);
+        assertThat(middle).isEqualTo(2);
+        assertThat(high).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+    }
+}
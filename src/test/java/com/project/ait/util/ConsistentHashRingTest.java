@@ -0,0 +1,56 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ConsistentHashRing Tests")
+class ConsistentHashRingTest {
+
+    @Test
+    @DisplayName("Should spread keys roughly evenly across nodes")
+    void nodeFor_ManyKeys_ShouldBalance() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(4, 128);
+        int[] counts = new int[4];
+
+        // When
+        for (int i = 0; i < 40_000; i++) counts[ring.nodeFor("alias" + i)]++;
+
+        // Then
+        for (int count : counts) assertThat(count).isBetween(7_000, 13_000);
+    }
+
+    @Test
+    @DisplayName("Should only move keys to the new node when a node is added")
+    void nodeFor_AfterAddingNode_ShouldMoveOnlyToNewNode() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(3, 128);
+        ConsistentHashRing after = new ConsistentHashRing(4, 128);
+        int moved = 0;
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            String key = "alias" + i;
+            int from = before.nodeFor(key);
+            int to = after.nodeFor(key);
+            if (from != to) {
+                assertThat(to).isEqualTo(3);
+                moved++;
+            }
+        }
+
+        // Then - about a quarter of the keys
+        assertThat(moved).isBetween(1_500, 3_500);
+    }
+
+    @Test
+    @DisplayName("Should send every key to the only node")
+    void nodeFor_SingleNode_ShouldAlwaysReturnZero() {
+        ConsistentHashRing ring = new ConsistentHashRing(1, 16);
+
+        assertThat(ring.nodeFor("abc")).isZero();
+        assertThat(ring.nodeFor("")).isZero();
+    }
+}
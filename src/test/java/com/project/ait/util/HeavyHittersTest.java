@@ -0,0 +1,75 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HeavyHitters / CountMinSketch Tests")
+class HeavyHittersTest {
+
+    @Test
+    @DisplayName("Count-min sketch should never under-count")
+    void countMinSketch_ShouldNeverUnderCount() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("key" + (i % 100), 1);
+        }
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(sketch.estimate("key" + i)).isGreaterThanOrEqualTo(10);
+        }
+        assertThat(sketch.total()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Should keep the most frequent keys among many distinct keys")
+    void top_WithSkewedStream_ShouldReturnHeavyHitters() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(3, 1024, 4);
+
+        // When - three hot keys interleaved with a long tail of one-off keys
+        for (int i = 0; i < 5000; i++) {
+            heavyHitters.add("tail" + i);
+            if (i % 2 == 0) heavyHitters.add("hot-a");
+            if (i % 3 == 0) heavyHitters.add("hot-b");
+            if (i % 5 == 0) heavyHitters.add("hot-c");
+        }
+
+        // Then
+        List<Map.Entry<String, Long>> top = heavyHitters.top();
+        assertThat(top).extracting(Map.Entry::getKey).containsExactly("hot-a", "hot-b", "hot-c");
+        assertThat(top.get(0).getValue()).isGreaterThanOrEqualTo(2500);
+    }
+
+    @Test
+    @DisplayName("Should evict the lowest candidate once a new key overtakes it")
+    void add_WhenFull_ShouldReplaceLowestCandidate() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(2, 1024, 4);
+        for (int i = 0; i < 3; i++) heavyHitters.add("a");
+        heavyHitters.add("b");
+
+        // When - "c" ties "b" first, which is not enough, then overtakes it
+        heavyHitters.add("c");
+        List<Map.Entry<String, Long>> tied = heavyHitters.top();
+        heavyHitters.add("c");
+
+        // Then
+        assertThat(tied).extracting(Map.Entry::getKey).containsExactly("a", "b");
+        assertThat(heavyHitters.top()).containsExactly(Map.entry("a", 3L), Map.entry("c", 2L));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sketch dimensions")
+    void countMinSketch_WithInvalidDimensions_ShouldThrow() {
+        assertThatThrownBy(() -> new CountMinSketch(0, 4)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
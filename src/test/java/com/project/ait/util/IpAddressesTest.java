@@ -0,0 +1,44 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("IpAddresses Tests")
+class IpAddressesTest {
+
+    @Test
+    @DisplayName("Should round-trip IPv4 literals through 4 bytes")
+    void toBytes_WithIpv4_ShouldUseFourBytes() {
+        byte[] bytes = IpAddresses.toBytes("203.0.113.7");
+
+        assertThat(bytes).containsExactly(203 - 256, 0, 113, 7);
+        assertThat(IpAddresses.toText(bytes)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("Should round-trip IPv6 literals through 16 bytes")
+    void toBytes_WithIpv6_ShouldUseSixteenBytes() {
+        byte[] bytes = IpAddresses.toBytes("2001:db8::1");
+
+        assertThat(bytes).hasSize(16);
+        assertThat(IpAddresses.toText(bytes)).isEqualTo("2001:db8:0:0:0:0:0:1");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"256.1.1.1", "1.2.3", "1.2.3.4.5", "example.com", "1..2.3", "1.2.3.", "2001:db8::zz"})
+    @DisplayName("Should reject non-literals without resolving them")
+    void toBytes_WithInvalidInput_ShouldReturnNull(String ip) {
+        assertThat(IpAddresses.toBytes(ip)).isNull();
+    }
+
+    @Test
+    @DisplayName("FNV-1a hash should be stable and discriminating")
+    void fnv1a64_ShouldBeStable() {
+        assertThat(Hashing.fnv1a64("Mozilla/5.0")).isEqualTo(Hashing.fnv1a64("Mozilla/5.0"));
+        assertThat(Hashing.fnv1a64("Mozilla/5.0")).isNotEqualTo(Hashing.fnv1a64("Mozilla/5.1"));
+    }
+}
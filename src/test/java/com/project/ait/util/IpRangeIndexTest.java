@@ -0,0 +1,82 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("IpRangeIndex Tests")
+class IpRangeIndexTest {
+
+    private static final String CSV = """
+            ip_start,ip_end,country
+            "1.0.1.0","1.0.3.255","CN"
+            1.0.0.0,1.0.0.255,AU
+            200.0.0.0,255.255.255.255,BR
+            2001:200::,2001:200:ffff:ffff:ffff:ffff:ffff:ffff,JP
+            8000::,ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff,ZZ
+            """;
+
+    private static String country(IpRangeIndex index, String ip) {
+        return CountryCodes.decode(index.lookup(IpAddresses.toBytes(ip)));
+    }
+
+    @Test
+    @DisplayName("Should find the range containing an address, including unsigned and edge addresses")
+    void lookup_ShouldFindContainingRange() throws Exception {
+        // Given
+        IpRangeIndex index = IpRangeIndex.readCsv(new StringReader(CSV));
+
+        // When & Then
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(country(index, "1.0.0.0")).isEqualTo("AU");
+        assertThat(country(index, "1.0.2.17")).isEqualTo("CN");
+        assertThat(country(index, "1.0.3.255")).isEqualTo("CN");
+        assertThat(country(index, "255.255.255.255")).isEqualTo("BR");
+        assertThat(country(index, "2001:200::1")).isEqualTo("JP");
+        assertThat(country(index, "fe80::1")).isEqualTo("ZZ");
+    }
+
+    @Test
+    @DisplayName("Should return unknown for addresses in gaps or outside every range")
+    void lookup_OutsideRanges_ShouldReturnUnknown() throws Exception {
+        // Given
+        IpRangeIndex index = IpRangeIndex.readCsv(new StringReader(CSV));
+
+        // When & Then
+        assertThat(index.lookup(IpAddresses.toBytes("0.0.0.1"))).isEqualTo(CountryCodes.UNKNOWN);
+        assertThat(index.lookup(IpAddresses.toBytes("1.0.4.0"))).isEqualTo(CountryCodes.UNKNOWN);
+        assertThat(index.lookup(IpAddresses.toBytes("2001:201::1"))).isEqualTo(CountryCodes.UNKNOWN);
+        assertThat(index.lookup(null)).isEqualTo(CountryCodes.UNKNOWN);
+        assertThat(IpRangeIndex.EMPTY.lookup(IpAddresses.toBytes("1.0.0.1"))).isEqualTo(CountryCodes.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Should look up IPv4-mapped IPv6 addresses as IPv4")
+    void lookup_Ipv4Mapped_ShouldUseIpv4Ranges() throws Exception {
+        // Given
+        IpRangeIndex index = IpRangeIndex.readCsv(new StringReader(CSV));
+        byte[] mapped = new byte[16];
+        mapped[10] = (byte) 0xFF;
+        mapped[11] = (byte) 0xFF;
+        mapped[12] = 1;
+        mapped[15] = 9;
+
+        // When
+        short country = index.lookup(mapped);
+
+        // Then
+        assertThat(CountryCodes.decode(country)).isEqualTo("AU");
+    }
+
+    @Test
+    @DisplayName("Should reject a file with an invalid address after the header")
+    void readCsv_InvalidAddress_ShouldThrow() {
+        // When & Then
+        assertThatThrownBy(() -> IpRangeIndex.readCsv(new StringReader("1.0.0.0,1.0.0.255,AU\nnot-an-ip,1.0.1.0,CN\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Line 2");
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MappedAliasIndex Tests")
+class MappedAliasIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should return the latest version of an alias and forget deleted ones")
+    void putGetDelete_ShouldReflectLatestWrite() throws Exception {
+        // Given
+        try (MappedAliasIndex index = MappedAliasIndex.create(dir.resolve("a.idx"), 1024)) {
+            // When
+            index.put("abc", "https://example.com/1", 1_000L, true);
+            index.put("abc", "https://example.com/2", MappedAliasIndex.Entry.NO_EXPIRY, false);
+            index.put("xyz", "https://example.com/3", 2_000L, true);
+            index.delete("xyz");
+
+            // Then
+            assertThat(index.get("abc")).isEqualTo(new MappedAliasIndex.Entry("https://example.com/2", MappedAliasIndex.Entry.NO_EXPIRY, false));
+            assertThat(index.get("xyz")).isNull();
+            assertThat(index.get("missing")).isNull();
+            assertThat(index.size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep entries and watermark across a clean reopen")
+    void reopen_AfterClose_ShouldPersistEntries() throws Exception {
+        // Given
+        Path path = dir.resolve("b.idx");
+        try (MappedAliasIndex index = MappedAliasIndex.create(path, 1024)) {
+            index.put("abc", "https://example.com", 1_000L, true);
+            index.setWatermark(42L, 7L);
+        }
+
+        // When
+        try (MappedAliasIndex reopened = MappedAliasIndex.open(path)) {
+            // Then
+            assertThat(reopened.openedClean()).isTrue();
+            assertThat(reopened.get("abc").longUrl()).isEqualTo("https://example.com");
+            assertThat(reopened.getWatermark()).containsExactly(42L, 7L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report an unclean open when the previous process did not close the file")
+    void open_WithoutClose_ShouldNotBeClean() throws Exception {
+        // Given
+        Path path = dir.resolve("c.idx");
+        MappedAliasIndex crashed = MappedAliasIndex.create(path, 1024);
+        crashed.put("abc", "https://example.com", 1_000L, true);
+        crashed.force();
+
+        // When
+        try (MappedAliasIndex reopened = MappedAliasIndex.open(path)) {
+            // Then
+            assertThat(reopened.openedClean()).isFalse();
+        }
+        crashed.close();
+    }
+
+    @Test
+    @DisplayName("Should store records across chunk boundaries")
+    void put_ManyEntriesWithSmallChunks_ShouldSpanChunks() throws Exception {
+        // Given
+        Path path = dir.resolve("d.idx");
+        Map<String, String> expected = new HashMap<>();
+        try (MappedAliasIndex index = MappedAliasIndex.create(path, MappedAliasIndex.slotsFor(2_000), 16)) {
+            // When
+            for (int i = 0; i < 2_000; i++) {
+                String url = "https://example.com/" + "x".repeat(i % 50) + i;
+                index.put("a" + i, url, i, true);
+                expected.put("a" + i, url);
+            }
+        }
+
+        // Then
+        try (MappedAliasIndex reopened = MappedAliasIndex.open(path, 16)) {
+            Map<String, String> visited = new HashMap<>();
+            reopened.forEach((alias, entry) -> visited.put(alias, entry.longUrl()));
+            assertThat(visited).isEqualTo(expected);
+            assertThat(reopened.get("a1999").expiresAtMillis()).isEqualTo(1_999L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should size the slot table below the load limit")
+    void slotsFor_ShouldReturnPowerOfTwoWithHeadroom() {
+        long slots = MappedAliasIndex.slotsFor(10_000);
+
+        assertThat(Long.bitCount(slots)).isEqualTo(1);
+        assertThat(slots * 0.7).isGreaterThanOrEqualTo(10_000);
+    }
+}
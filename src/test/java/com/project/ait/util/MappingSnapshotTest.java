@@ -0,0 +1,122 @@
+package com.project.ait.util;
+
+import com.project.ait.entity.UrlMapping;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MappingSnapshot Tests")
+class MappingSnapshotTest {
+
+    private static UrlMapping mapping(long id, String alias) {
+        return UrlMapping.builder()
+                .id(id)
+                .alias(alias)
+                .longUrl("https://www.example.com/" + alias)
+                .createdAt(Instant.parse("2026-10-01T00:00:00Z"))
+                .active(true)
+                .build();
+    }
+
+    private static byte[] write(MappingSnapshot.Header header, int[] shards, UrlMapping... mappings) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MappingSnapshot.Writer writer = new MappingSnapshot.Writer(out, header)) {
+            for (int i = 0; i < mappings.length; i++) writer.write(shards[i], mappings[i]);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should read back every row and report per-shard watermarks")
+    void roundTrip_ShouldPreserveRowsAndWatermarks() throws Exception {
+        // Given
+        UrlMapping withOptionals = mapping(7, "custom");
+        withOptionals.setCustomAlias(true);
+        withOptionals.setActive(false);
+        withOptionals.setCreatedByIp("203.0.113.7");
+        withOptionals.setCreatedByKeyId(42L);
+        withOptionals.setExpiresAt(Instant.parse("2027-01-01T00:00:00Z"));
+        UrlMapping withoutOptionals = mapping(12, "plain");
+        withoutOptionals.setCreatedAt(null);
+        MappingSnapshot.Header header = new MappingSnapshot.Header(Instant.now(), new long[] {5, 0}, null);
+        byte[] bytes = write(header, new int[] {0, 0, 1}, withOptionals, withoutOptionals, mapping(3, "other"));
+
+        // When
+        List<MappingSnapshot.Row> rows = new ArrayList<>();
+        long[] lastIds;
+        try (MappingSnapshot.Reader reader = new MappingSnapshot.Reader(new ByteArrayInputStream(bytes))) {
+            MappingSnapshot.Row row;
+            while ((row = reader.next()) != null) rows.add(row);
+            lastIds = reader.lastIds();
+            assertThat(reader.header().isDelta()).isTrue();
+        }
+
+        // Then
+        assertThat(rows).extracting(MappingSnapshot.Row::shard).containsExactly(0, 0, 1);
+        assertThat(rows.get(0).mapping()).isEqualTo(withOptionals);
+        assertThat(rows.get(1).mapping()).isEqualTo(withoutOptionals);
+        assertThat(lastIds).containsExactly(12, 3);
+    }
+
+    @Test
+    @DisplayName("Should reject a snapshot whose content was altered")
+    void read_WithCorruptedContent_ShouldFail() throws Exception {
+        // Given
+        MappingSnapshot.Header header = new MappingSnapshot.Header(Instant.now(), new long[] {0}, null);
+        byte[] bytes = write(header, new int[] {0, 0}, mapping(1, "aaa"), mapping(2, "bbb"));
+        // Decompress, flip a byte of an alias and recompress, so only the snapshot's own checksum can catch it
+        byte[] raw = new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+        int at = new String(raw, StandardCharsets.ISO_8859_1).indexOf("bbb");
+        raw[at] = 'c';
+        ByteArrayOutputStream tampered = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(tampered)) {
+            gzip.write(raw);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> {
+            try (MappingSnapshot.Reader reader = new MappingSnapshot.Reader(new ByteArrayInputStream(tampered.toByteArray()))) {
+                while (reader.next() != null) { }
+            }
+        }).isInstanceOf(IOException.class).hasMessageContaining("checksum");
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated snapshot")
+    void read_Truncated_ShouldFail() throws Exception {
+        // Given
+        MappingSnapshot.Header header = new MappingSnapshot.Header(Instant.now(), new long[] {0}, null);
+        byte[] bytes = write(header, new int[] {0}, mapping(1, "aaa"));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 12);
+
+        // When & Then
+        assertThatThrownBy(() -> {
+            try (MappingSnapshot.Reader reader = new MappingSnapshot.Reader(new ByteArrayInputStream(truncated))) {
+                while (reader.next() != null) { }
+            }
+        }).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Should require ascending ids within a shard")
+    void write_WithDescendingIds_ShouldThrowException() throws Exception {
+        MappingSnapshot.Header header = new MappingSnapshot.Header(Instant.now(), new long[] {0}, null);
+        MappingSnapshot.Writer writer = new MappingSnapshot.Writer(new ByteArrayOutputStream(), header);
+        writer.write(0, mapping(5, "aaa"));
+
+        assertThatThrownBy(() -> writer.write(0, mapping(4, "bbb")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("OffHeapLongCache Tests")
+class OffHeapLongCacheTest {
+
+    @Test
+    @DisplayName("Should return stored values and 0 for absent keys")
+    void put_ThenGet_ShouldReturnValue() {
+        // Given
+        OffHeapLongCache cache = new OffHeapLongCache(16);
+
+        // When
+        cache.put(42, 7);
+        cache.put(42, 8);
+
+        // Then
+        assertThat(cache.get(42)).isEqualTo(8);
+        assertThat(cache.get(43)).isZero();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should forget a removed key")
+    void remove_ShouldMakeKeyAbsent() {
+        // Given
+        OffHeapLongCache cache = new OffHeapLongCache(16);
+        cache.put(42, 7);
+
+        // When
+        cache.remove(42);
+
+        // Then
+        assertThat(cache.get(42)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest generation but keep keys read since")
+    void put_BeyondTwoGenerations_ShouldEvictUnusedKeys() {
+        // Given
+        OffHeapLongCache cache = new OffHeapLongCache(4);
+        for (long key = 1; key <= 4; key++) cache.put(key, key * 10);
+        for (long key = 5; key <= 8; key++) cache.put(key, key * 10);
+
+        // When
+        cache.get(1);
+        for (long key = 9; key <= 11; key++) cache.put(key, key * 10);
+
+        // Then
+        assertThat(cache.get(1)).isEqualTo(10);
+        assertThat(cache.get(2)).isZero();
+        assertThat(cache.get(8)).isEqualTo(80);
+        assertThat(cache.size()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should reject the reserved zero key and value")
+    void put_WithZero_ShouldThrow() {
+        // Given
+        OffHeapLongCache cache = new OffHeapLongCache(4);
+
+        // When & Then
+        assertThatThrownBy(() -> cache.put(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cache.put(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RecordJournal Tests")
+class RecordJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should replay records after the checkpoint on reopen")
+    void open_AfterPartialCheckpoint_ShouldReturnUnappliedRecords() throws Exception {
+        // Given
+        Path path = dir.resolve("j.log");
+        try (RecordJournal journal = RecordJournal.open(path)) {
+            long first = journal.append(bytes("one"));
+            long second = journal.append(bytes("two"));
+            journal.sync(second);
+            journal.checkpoint(first);
+        }
+
+        // When
+        try (RecordJournal reopened = RecordJournal.open(path)) {
+            // Then
+            assertThat(reopened.pending()).extracting(r -> new String(r.payload(), StandardCharsets.UTF_8))
+                    .containsExactly("two");
+        }
+    }
+
+    @Test
+    @DisplayName("Should truncate the file once every record is applied")
+    void checkpoint_AllApplied_ShouldTruncate() throws Exception {
+        // Given
+        Path path = dir.resolve("j.log");
+        try (RecordJournal journal = RecordJournal.open(path)) {
+            long end = journal.append(bytes("one"));
+            journal.sync(end);
+
+            // When
+            journal.checkpoint(end);
+
+            // Then
+            assertThat(journal.size()).isEqualTo(16);
+            long next = journal.append(bytes("two"));
+            assertThat(next).isEqualTo(16 + 8 + 3);
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the tail")
+    void open_WithTornTail_ShouldKeepIntactRecords() throws Exception {
+        // Given
+        Path path = dir.resolve("j.log");
+        long intactEnd;
+        try (RecordJournal journal = RecordJournal.open(path)) {
+            intactEnd = journal.append(bytes("one"));
+            journal.append(bytes("two"));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), intactEnd + 9);
+        }
+
+        // When
+        try (RecordJournal reopened = RecordJournal.open(path)) {
+            // Then
+            assertThat(reopened.pending()).hasSize(1);
+            assertThat(reopened.size()).isEqualTo(intactEnd);
+        }
+    }
+}
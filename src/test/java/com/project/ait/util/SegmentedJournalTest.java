@@ -0,0 +1,137 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@DisplayName("SegmentedJournal Tests")
+class SegmentedJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> payloads(List<SegmentedJournal.Record> records) {
+        return records.stream().map(r -> new String(r.payload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    @Test
+    @DisplayName("Should read back sealed records in append order")
+    void seal_ShouldMakeRecordsReadable() throws Exception {
+        // Given
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, 4096)) {
+            journal.append(bytes("one"));
+            journal.append(bytes("two"));
+
+            // When
+            boolean sealed = journal.seal();
+
+            // Then
+            assertThat(sealed).isTrue();
+            assertThat(journal.sealedSegments()).containsExactly(1L);
+            List<SegmentedJournal.Record> records = journal.read(1);
+            assertThat(payloads(records)).containsExactly("one", "two");
+            assertThat(records.get(1).end()).isEqualTo(2 * (8 + 3));
+            assertThat(journal.seal()).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Should start a new segment when a record does not fit")
+    void append_WhenSegmentFull_ShouldRollOver() throws Exception {
+        // Given
+        byte[] record = new byte[1500];
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, 4096)) {
+            // When
+            for (int i = 0; i < 3; i++) journal.append(record);
+
+            // Then
+            assertThat(journal.sealedSegments()).containsExactly(1L);
+            assertThat(journal.read(1)).hasSize(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should seal the previously active segment on reopen, drop a torn tail and never reuse numbers")
+    void open_AfterCrash_ShouldSealActiveSegmentAndKeepIntactRecords() throws Exception {
+        // Given
+        SegmentedJournal journal = SegmentedJournal.open(dir, 4096);
+        journal.append(bytes("one"));
+        journal.append(bytes("two"));
+        journal.force();
+        try (FileChannel channel = FileChannel.open(dir.resolve("00000000000000000001.seg"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), 11 + 8);
+        }
+
+        // When
+        try (SegmentedJournal reopened = SegmentedJournal.open(dir, 4096)) {
+            // Then
+            assertThat(reopened.sealedSegments()).containsExactly(1L);
+            assertThat(payloads(reopened.read(1))).containsExactly("one");
+            reopened.delete(1);
+            assertThat(reopened.sealedSegments()).isEmpty();
+        } finally {
+            journal.close();
+        }
+        try (SegmentedJournal next = SegmentedJournal.open(dir, 4096)) {
+            assertThat(next.sealedSegments()).containsExactly(2L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not deadlock when appends seal full segments while another thread forces")
+    void appendAndForce_Concurrently_ShouldNotDeadlock() throws Exception {
+        // Given - small segments, so appends keep sealing while the sync thread forces
+        byte[] record = new byte[1000];
+        int writers = 4;
+        int perWriter = 500;
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, 4096)) {
+            AtomicBoolean running = new AtomicBoolean(true);
+
+            // When
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                Thread syncer = Thread.ofPlatform().start(() -> {
+                    while (running.get()) journal.force();
+                });
+                List<Thread> threads = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    threads.add(Thread.ofPlatform().start(() -> {
+                        try {
+                            for (int i = 0; i < perWriter; i++) {
+                                journal.append(record);
+                                if (i % 50 == 0) journal.seal();
+                            }
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }));
+                }
+                for (Thread thread : threads) thread.join();
+                running.set(false);
+                syncer.join();
+            });
+            journal.seal();
+
+            // Then - every record landed in exactly one sealed segment
+            int records = 0;
+            for (long segment : journal.sealedSegments()) records += journal.read(segment).size();
+            assertThat(records).isEqualTo(writers * perWriter);
+        }
+    }
+}
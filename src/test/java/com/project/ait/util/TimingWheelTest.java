@@ -0,0 +1,60 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TimingWheel Tests")
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Should fire a timer once its deadline has passed, not before")
+    void advance_PastDeadline_ShouldFire() {
+        // Given
+        List<String> fired = new ArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0, fired::add);
+        wheel.schedule("a", 25);
+
+        // When & Then
+        wheel.advance(20);
+        assertThat(fired).isEmpty();
+        wheel.advance(30);
+        assertThat(fired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep timers more than one revolution away until their deadline")
+    void advance_OneRevolution_ShouldNotFireLaterRounds() {
+        // Given - one revolution is 8 ticks of 10 ms
+        List<String> fired = new ArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0, fired::add);
+        wheel.schedule("late", 250);
+        wheel.schedule("early", 50);
+
+        // When & Then
+        wheel.advance(100);
+        assertThat(fired).containsExactly("early");
+        wheel.advance(1_000);
+        assertThat(fired).containsExactly("early", "late");
+    }
+
+    @Test
+    @DisplayName("Should fire past deadlines on the next tick")
+    void schedule_PastDeadline_ShouldFireOnNextAdvance() {
+        // Given
+        List<String> fired = new ArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 100, fired::add);
+
+        // When
+        wheel.schedule("overdue", 50);
+        wheel.advance(110);
+
+        // Then
+        assertThat(fired).containsExactly("overdue");
+    }
+}
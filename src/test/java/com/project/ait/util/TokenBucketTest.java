@@ -0,0 +1,40 @@
+package com.project.ait.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TokenBucket Tests")
+class TokenBucketTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Should allow a burst and then refill at the configured rate")
+    void tryAcquire_AfterBurst_ShouldRefillOverTime() {
+        // Given
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+
+        // When & Then
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isFalse();
+        assertThat(bucket.tryAcquire(SECOND / 2)).isTrue();
+        assertThat(bucket.tryAcquire(SECOND / 2)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should cap the tokens at the new burst when the rate is lowered")
+    void setRate_Lowered_ShouldCapTokens() {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        // When
+        bucket.setRate(1, 1, 0);
+
+        // Then
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isFalse();
+        assertThat(bucket.tryAcquire(SECOND)).isTrue();
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.ait.util;
+
+import com.project.ait.entity.Browser;
+import com.project.ait.entity.DeviceClass;
+import com.project.ait.entity.OperatingSystem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("UserAgentParser Tests")
+class UserAgentParserTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36|CHROME|WINDOWS|DESKTOP",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36 Edg/120.0.0.0|EDGE|WINDOWS|DESKTOP",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.0 Mobile/15E148 Safari/604.1|SAFARI|IOS|MOBILE",
+            "Mozilla/5.0 (iPad; CPU OS 17_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.0 Mobile/15E148 Safari/604.1|SAFARI|IOS|TABLET",
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Mobile Safari/537.36|CHROME|ANDROID|MOBILE",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 14.1; rv:121.0) Gecko/20100101 Firefox/121.0|FIREFOX|MACOS|DESKTOP",
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)|OTHER|OTHER|BOT"
+    })
+    @DisplayName("Should classify common user agents")
+    void parse_WithCommonUserAgents_ShouldClassify(String ua, Browser browser, OperatingSystem os, DeviceClass device) {
+        // When
+        UserAgentParser.Result result = UserAgentParser.parse(ua);
+
+        // Then
+        assertThat(result.browser()).isEqualTo(browser);
+        assertThat(result.os()).isEqualTo(os);
+        assertThat(result.device()).isEqualTo(device);
+    }
+
+    @Test
+    @DisplayName("Should return UNKNOWN for missing user agent")
+    void parse_WithNull_ShouldReturnUnknown() {
+        assertThat(UserAgentParser.parse(null)).isEqualTo(UserAgentParser.Result.UNKNOWN);
+        assertThat(UserAgentParser.parse("  ")).isEqualTo(UserAgentParser.Result.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Bounded cache should evict least recently used entries")
+    void boundedCache_WhenFull_ShouldEvictEldest() {
+        // Given
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+
+        // When
+        cache.put("c", 3);
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("b")).isNull();
+    }
+}